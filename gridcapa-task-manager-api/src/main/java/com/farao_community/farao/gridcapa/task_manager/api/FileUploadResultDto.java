@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.api;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * Result of the manual upload of one file of a bulk upload.
+ */
+public class FileUploadResultDto {
+    private final String fileName;
+    private final String fileType;
+    private final boolean success;
+    private final String errorMessage;
+
+    @JsonCreator
+    public FileUploadResultDto(@JsonProperty("fileName") String fileName,
+                               @JsonProperty("fileType") String fileType,
+                               @JsonProperty("success") boolean success,
+                               @JsonProperty("errorMessage") String errorMessage) {
+        this.fileName = fileName;
+        this.fileType = fileType;
+        this.success = success;
+        this.errorMessage = errorMessage;
+    }
+
+    public static FileUploadResultDto success(String fileName, String fileType) {
+        return new FileUploadResultDto(fileName, fileType, true, null);
+    }
+
+    public static FileUploadResultDto failure(String fileName, String fileType, String errorMessage) {
+        return new FileUploadResultDto(fileName, fileType, false, errorMessage);
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public String getFileType() {
+        return fileType;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this, ToStringStyle.SHORT_PREFIX_STYLE);
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.api;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileUploadResultDtoTest {
+
+    @Test
+    void testSuccess() {
+        FileUploadResultDto result = FileUploadResultDto.success("cgm.uct", "CGM");
+
+        assertEquals("cgm.uct", result.getFileName());
+        assertEquals("CGM", result.getFileType());
+        assertTrue(result.isSuccess());
+        assertNull(result.getErrorMessage());
+    }
+
+    @Test
+    void testFailure() {
+        FileUploadResultDto result = FileUploadResultDto.failure("crac.json", "CRAC", "MinIO unavailable");
+
+        assertEquals("crac.json", result.getFileName());
+        assertEquals("CRAC", result.getFileType());
+        assertFalse(result.isSuccess());
+        assertEquals("MinIO unavailable", result.getErrorMessage());
+    }
+}
@@ -6,6 +6,7 @@
  */
 package com.farao_community.farao.gridcapa.task_manager.app;
 
+import com.farao_community.farao.gridcapa.task_manager.api.FileUploadResultDto;
 import com.farao_community.farao.gridcapa.task_manager.api.TaskManagerException;
 import com.farao_community.farao.gridcapa.task_manager.api.TaskNotFoundException;
 import com.farao_community.farao.gridcapa.task_manager.app.configuration.TaskManagerConfigurationProperties;
@@ -15,9 +16,24 @@ import com.farao_community.farao.gridcapa.task_manager.app.entities.Task;
 import com.farao_community.farao.gridcapa.task_manager.app.repository.TaskRepository;
 import com.farao_community.farao.minio_adapter.starter.MinioAdapter;
 import com.farao_community.farao.minio_adapter.starter.MinioAdapterConstants;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
 import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.tomcat.util.http.fileupload.FileItemIterator;
+import org.apache.tomcat.util.http.fileupload.FileItemStream;
+import org.apache.tomcat.util.http.fileupload.FileUpload;
+import org.apache.tomcat.util.http.fileupload.servlet.ServletRequestContext;
 import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.ByteArrayInputStream;
@@ -34,11 +50,15 @@ import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
@@ -54,17 +74,38 @@ public class FileManager {
     private static final String ZIP_EXTENSION = ".zip";
     private static final String TXT_EXTENSION = ".txt";
     private static final String RAO_LOGS_FILENAME = "rao_logs.txt";
+    private static final String ZIP_SIZE_METRIC = "task.manager.zip.size";
+    private static final String CONTENT_TAG = "content";
+    private static final String FILE_NAMES_FIELD = "fileNames";
+    private static final String FILE_TYPES_FIELD = "fileTypes";
 
     private final TaskRepository taskRepository;
     private final TaskManagerConfigurationProperties taskManagerConfigurationProperties;
     private final Logger businessLogger;
     private final MinioAdapter minioAdapter;
+    private final ThreadPoolTaskExecutor fileUploadExecutor;
+    private final MeterRegistry meterRegistry;
+    private final DataSize maxFileSize;
 
-    public FileManager(TaskRepository taskRepository, TaskManagerConfigurationProperties taskManagerConfigurationProperties, Logger businessLogger, MinioAdapter minioAdapter) {
+    public FileManager(TaskRepository taskRepository, TaskManagerConfigurationProperties taskManagerConfigurationProperties, Logger businessLogger, MinioAdapter minioAdapter, MeterRegistry meterRegistry, MultipartProperties multipartProperties, @Value("${manual-upload.max-concurrent-uploads}") int maxConcurrentUploads) {
         this.taskRepository = taskRepository;
         this.taskManagerConfigurationProperties = taskManagerConfigurationProperties;
         this.businessLogger = businessLogger;
         this.minioAdapter = minioAdapter;
+        this.meterRegistry = meterRegistry;
+        this.maxFileSize = multipartProperties.getMaxFileSize();
+        // Manual uploads run on their own pool bounding the concurrent uploads to MinIO. It is not a bean,
+        // for Spring Boot to keep its default executor for asynchronous methods and requests.
+        this.fileUploadExecutor = new ThreadPoolTaskExecutor();
+        this.fileUploadExecutor.setCorePoolSize(maxConcurrentUploads);
+        this.fileUploadExecutor.setMaxPoolSize(maxConcurrentUploads);
+        this.fileUploadExecutor.setThreadNamePrefix("file-upload-thread-");
+        this.fileUploadExecutor.initialize();
+    }
+
+    @PreDestroy
+    void shutdownFileUploadExecutor() {
+        fileUploadExecutor.shutdown();
     }
 
     public ByteArrayOutputStream getZippedGroup(OffsetDateTime timestamp, String fileGroup) throws IOException {
@@ -91,11 +132,11 @@ public class FileManager {
         Optional<Task> optTask = taskRepository.findByTimestampAndFetchProcessEvents(timestamp);
         if (optTask.isPresent()) {
             Task task = optTask.get();
-            try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                 ZipOutputStream zos = new ZipOutputStream(baos)) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            try (ZipOutputStream zos = new ZipOutputStream(baos)) {
                 addLogsFileToArchive(task, zos);
-                return baos;
             }
+            return recordZipSize("logs", baos);
         } else {
             throw new TaskNotFoundException();
         }
@@ -105,12 +146,12 @@ public class FileManager {
         Optional<Task> optTask = taskRepository.findByTimestampAndFetchProcessEvents(timestamp);
         if (optTask.isPresent()) {
             Task task = optTask.get();
-            try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                 ZipOutputStream zos = new ZipOutputStream(baos)) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            try (ZipOutputStream zos = new ZipOutputStream(baos)) {
                 zos.putNextEntry(new ZipEntry(generateLogFileName(timestamp)));
                 writeToZipOutputStream(zos, getRaoRunnerAppLogsFile(task));
-                return baos;
             }
+            return recordZipSize("rao-runner-logs", baos);
         } else {
             throw new TaskNotFoundException();
         }
@@ -147,8 +188,17 @@ public class FileManager {
             if (isExportLogsEnabledAndFileGroupIsGridcapaOutput(fileGroup)) {
                 addLogsFileToArchive(task, zos);
             }
-            return baos;
         }
+        return recordZipSize(fileGroup, baos);
+    }
+
+    private ByteArrayOutputStream recordZipSize(String content, ByteArrayOutputStream zip) {
+        DistributionSummary.builder(ZIP_SIZE_METRIC)
+            .baseUnit(BaseUnits.BYTES)
+            .tag(CONTENT_TAG, content)
+            .register(meterRegistry)
+            .record(zip.size());
+        return zip;
     }
 
     boolean isExportLogsEnabledAndFileGroupIsGridcapaOutput(String fileGroup) {
@@ -230,13 +280,97 @@ public class FileManager {
     }
 
     public void uploadFileToMinio(OffsetDateTime timestamp, MultipartFile file, String fileType, String fileName) {
-        String processTag = taskManagerConfigurationProperties.getProcess().getTag();
-        String path = String.format("%s/MANUAL_UPLOAD/%s/%s", taskManagerConfigurationProperties.getProcess().getManualUploadBasePath(), timestamp.format(ZIP_DATE_TIME_FORMATTER), fileName);
         try (InputStream in = file.getInputStream()) {
-            minioAdapter.uploadInputForTimestamp(path, in, processTag, fileType, timestamp);
+            uploadInputToMinio(timestamp, in, fileType, fileName);
         } catch (IOException e) {
             throw new TaskManagerException(String.format("Exception occurred while uploading file to minio : %s", file.getName()), e);
         }
     }
 
+    private void uploadInputToMinio(OffsetDateTime timestamp, InputStream in, String fileType, String fileName) {
+        String processTag = taskManagerConfigurationProperties.getProcess().getTag();
+        String path = String.format("%s/MANUAL_UPLOAD/%s/%s", taskManagerConfigurationProperties.getProcess().getManualUploadBasePath(), timestamp.format(ZIP_DATE_TIME_FORMATTER), fileName);
+        minioAdapter.uploadInputForTimestamp(path, in, processTag, fileType, timestamp);
+    }
+
+    /**
+     * Uploads the files of a multipart request to MinIO while the request body is read, so that parts are
+     * neither buffered in memory nor on disk by the container. The fileNames and fileTypes fields must be
+     * sent before the files parts, the i-th file being uploaded with the i-th name and type, and each file
+     * is limited to spring.servlet.multipart.max-file-size. Files of a request are uploaded one after the
+     * other on the file upload executor, which bounds the uploads running at the same time across requests.
+     * The returned future completes with one result per file, or exceptionally with an
+     * {@link IllegalArgumentException} when files, names and types do not match, files read before the
+     * mismatch was detected being already uploaded.
+     */
+    public CompletableFuture<List<FileUploadResultDto>> uploadFilesToMinio(OffsetDateTime timestamp, HttpServletRequest request) {
+        return CompletableFuture.supplyAsync(() -> streamFilesToMinio(timestamp, request), fileUploadExecutor);
+    }
+
+    private List<FileUploadResultDto> streamFilesToMinio(OffsetDateTime timestamp, HttpServletRequest request) {
+        final FileUpload fileUpload = new FileUpload();
+        fileUpload.setFileSizeMax(maxFileSize.toBytes());
+        final List<String> fileNames = new ArrayList<>();
+        final List<String> fileTypes = new ArrayList<>();
+        final List<FileUploadResultDto> results = new ArrayList<>();
+        try {
+            final FileItemIterator items = fileUpload.getItemIterator(new ServletRequestContext(request));
+            while (items.hasNext()) {
+                final FileItemStream item = items.next();
+                if (item.isFormField()) {
+                    readFormField(item, fileNames, fileTypes);
+                } else {
+                    final int index = results.size();
+                    if (index == 0) {
+                        splitCommaDelimitedValues(fileNames);
+                        splitCommaDelimitedValues(fileTypes);
+                    }
+                    if (index >= fileNames.size() || index >= fileTypes.size()) {
+                        throw new IllegalArgumentException("More files than file names or file types");
+                    }
+                    results.add(streamFileToMinio(timestamp, item, fileTypes.get(index), fileNames.get(index)));
+                }
+            }
+        } catch (IOException e) {
+            throw new TaskManagerException("Exception occurred while reading uploaded files", e);
+        }
+        if (results.size() != fileNames.size() || results.size() != fileTypes.size()) {
+            throw new IllegalArgumentException("Less files than file names or file types");
+        }
+        return results;
+    }
+
+    private static void readFormField(FileItemStream item, List<String> fileNames, List<String> fileTypes) throws IOException {
+        try (InputStream in = item.openStream()) {
+            final String value = IOUtils.toString(in, StandardCharsets.UTF_8);
+            switch (item.getFieldName()) {
+                case FILE_NAMES_FIELD -> fileNames.add(value);
+                case FILE_TYPES_FIELD -> fileTypes.add(value);
+                default -> {
+                    // Other fields are not used by the upload
+                }
+            }
+        }
+    }
+
+    /**
+     * Same as the conversion of a single request parameter to a list: "a,b" is read as two values.
+     */
+    private static void splitCommaDelimitedValues(List<String> values) {
+        if (values.size() == 1) {
+            final String[] splitValues = StringUtils.commaDelimitedListToStringArray(values.remove(0));
+            Arrays.stream(splitValues).map(String::trim).forEach(values::add);
+        }
+    }
+
+    private FileUploadResultDto streamFileToMinio(OffsetDateTime timestamp, FileItemStream item, String fileType, String fileName) {
+        try (InputStream in = item.openStream()) {
+            uploadInputToMinio(timestamp, in, fileType, fileName);
+            return FileUploadResultDto.success(fileName, fileType);
+        } catch (Exception e) {
+            businessLogger.error("Failed manually uploading file {}", fileName, e);
+            return FileUploadResultDto.failure(fileName, fileType, e.getMessage());
+        }
+    }
+
 }
@@ -6,6 +6,7 @@
  */
 package com.farao_community.farao.gridcapa.task_manager.app;
 
+import com.farao_community.farao.gridcapa.task_manager.api.FileUploadResultDto;
 import com.farao_community.farao.gridcapa.task_manager.api.ParameterDto;
 import com.farao_community.farao.gridcapa.task_manager.api.ProcessFileDto;
 import com.farao_community.farao.gridcapa.task_manager.api.ProcessFileNotFoundException;
@@ -15,16 +16,23 @@ import com.farao_community.farao.gridcapa.task_manager.api.TaskNotFoundException
 import com.farao_community.farao.gridcapa.task_manager.api.TaskStatus;
 import com.farao_community.farao.gridcapa.task_manager.app.configuration.TaskManagerConfigurationProperties;
 import com.farao_community.farao.gridcapa.task_manager.app.entities.Task;
+import com.farao_community.farao.gridcapa.task_manager.app.service.BusinessDateCompletionService;
 import com.farao_community.farao.gridcapa.task_manager.app.service.FileSelectorService;
 import com.farao_community.farao.gridcapa.task_manager.app.service.ParameterService;
+import com.farao_community.farao.gridcapa.task_manager.app.service.SingleFlight;
 import com.farao_community.farao.gridcapa.task_manager.app.service.StatusHandler;
+import com.farao_community.farao.gridcapa.task_manager.app.service.TaskChangeTracker;
 import com.farao_community.farao.gridcapa.task_manager.app.service.TaskDtoBuilderService;
 import com.farao_community.farao.gridcapa.task_manager.app.service.TaskService;
+import com.farao_community.farao.gridcapa.task_manager.app.service.TaskUpdateRetrier;
 import com.farao_community.farao.minio_adapter.starter.MinioAdapterConstants;
+import jakarta.servlet.http.HttpServletRequest;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.MDC;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
@@ -34,8 +42,10 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.BufferedInputStream;
@@ -48,8 +58,10 @@ import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 
-import static com.farao_community.farao.gridcapa.task_manager.app.configuration.TaskManagerConfigurationProperties.TASK_MANAGER_LOCK;
 
 /**
  * @author Joris Mancini {@literal <joris.mancini at rte-france.com>}
@@ -70,8 +82,12 @@ public class TaskManagerController {
     private final Logger businessLogger;
     private final ParameterService parameterService;
     private final TaskService taskService;
+    private final BusinessDateCompletionService businessDateCompletionService;
+    private final TaskUpdateRetrier taskUpdateRetrier;
+    private final TaskChangeTracker taskChangeTracker;
+    private final SingleFlight singleFlight;
 
-    public TaskManagerController(StatusHandler statusHandler, TaskDtoBuilderService builder, FileSelectorService fileSelectorService, FileManager fileManager, TaskManagerConfigurationProperties taskManagerConfigurationProperties, Logger businessLogger, ParameterService parameterService, TaskService taskService) {
+    public TaskManagerController(StatusHandler statusHandler, TaskDtoBuilderService builder, FileSelectorService fileSelectorService, FileManager fileManager, TaskManagerConfigurationProperties taskManagerConfigurationProperties, Logger businessLogger, ParameterService parameterService, TaskService taskService, BusinessDateCompletionService businessDateCompletionService, TaskUpdateRetrier taskUpdateRetrier, TaskChangeTracker taskChangeTracker, SingleFlight singleFlight) {
         this.statusHandler = statusHandler;
         this.builder = builder;
         this.fileSelectorService = fileSelectorService;
@@ -80,11 +96,19 @@ public class TaskManagerController {
         this.businessLogger = businessLogger;
         this.parameterService = parameterService;
         this.taskService = taskService;
+        this.businessDateCompletionService = businessDateCompletionService;
+        this.taskUpdateRetrier = taskUpdateRetrier;
+        this.taskChangeTracker = taskChangeTracker;
+        this.singleFlight = singleFlight;
     }
 
     @GetMapping(value = "/tasks/{timestamp}")
-    public ResponseEntity<TaskDto> getTaskFromTimestamp(@PathVariable String timestamp) {
-        return ResponseEntity.ok().body(builder.getTaskDtoWithProcessEvents(OffsetDateTime.parse(timestamp)));
+    public ResponseEntity<TaskDto> getTaskFromTimestamp(@PathVariable String timestamp,
+                                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        OffsetDateTime taskTimestamp = OffsetDateTime.parse(timestamp);
+        String eTag = taskChangeTracker.getTimestampETag(taskTimestamp);
+        return getIfNoneMatch(ifNoneMatch, eTag, () -> singleFlight.execute("timestamp", List.of(taskTimestamp, eTag),
+            () -> builder.getTaskDtoWithProcessEvents(taskTimestamp)));
     }
 
     @PutMapping(value = "/tasks/{timestamp}/status")
@@ -103,10 +127,10 @@ public class TaskManagerController {
     @PutMapping(value = "/tasks/{timestamp}/runHistory")
     public ResponseEntity<TaskDto> addNewRunInTaskHistory(@PathVariable String timestamp, @RequestBody List<ProcessFileDto> inputFiles) {
         try {
-            synchronized (TASK_MANAGER_LOCK) {
+            return taskUpdateRetrier.callWithRetry("run-history", () -> {
                 Task task = taskService.addNewRunAndSaveTask(OffsetDateTime.parse(timestamp), inputFiles);
                 return ResponseEntity.ok(builder.createDtoFromEntityWithoutProcessEvents(task));
-            }
+            });
         } catch (final TaskNotFoundException notFoundException) {
             return ResponseEntity.notFound().build();
         }
@@ -170,8 +194,12 @@ public class TaskManagerController {
     }
 
     @GetMapping(value = "/tasks/businessdate/{businessDate}")
-    public ResponseEntity<List<TaskDto>> getListTasksFromBusinessDate(@PathVariable String businessDate) {
-        return ResponseEntity.ok().body(builder.getListTasksDto(LocalDate.parse(businessDate)));
+    public ResponseEntity<List<TaskDto>> getListTasksFromBusinessDate(@PathVariable String businessDate,
+                                                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        LocalDate date = LocalDate.parse(businessDate);
+        String eTag = taskChangeTracker.getBusinessDateETag(date);
+        return getIfNoneMatch(ifNoneMatch, eTag, () -> singleFlight.execute("business-date", List.of(date, eTag),
+            () -> builder.getListTasksDto(date)));
     }
 
     @GetMapping(value = "/tasks/businessdate/{businessDate}/allOver")
@@ -180,9 +208,27 @@ public class TaskManagerController {
                 builder.areAllTasksOverForBusinessDate(LocalDate.parse(businessDate)));
     }
 
+    @GetMapping(value = "/tasks/businessdate/{businessDate}/allOver/wait")
+    public DeferredResult<ResponseEntity<Boolean>> waitForAllTasksFromBusinessDateOver(@PathVariable final String businessDate) {
+        return businessDateCompletionService.waitForAllTasksOver(LocalDate.parse(businessDate));
+    }
+
     @GetMapping(value = "/tasks/runningtasks")
-    public ResponseEntity<List<TaskDto>> getListRunningTasks() {
-        return ResponseEntity.ok().body(builder.getListRunningTasksDto());
+    public ResponseEntity<List<TaskDto>> getListRunningTasks(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String eTag = taskChangeTracker.getAnyTaskETag();
+        return getIfNoneMatch(ifNoneMatch, eTag, () -> singleFlight.execute("running-tasks", eTag, builder::getListRunningTasksDto));
+    }
+
+    /**
+     * The ETag is read before the tasks: a change made in between is then sent along with the previous ETag,
+     * and the next request of the client gets it again instead of it being confirmed as up to date. For the same
+     * reason, concurrent identical reads are shared only between requests having read the same ETag.
+     */
+    private static <T> ResponseEntity<T> getIfNoneMatch(String ifNoneMatch, String eTag, Supplier<T> body) {
+        if (TaskChangeTracker.matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).body(body.get());
     }
 
     @GetMapping(value = "/tasks/{timestamp}/file/{fileType}", produces = "application/octet-stream")
@@ -238,6 +284,24 @@ public class TaskManagerController {
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping(value = "/tasks/{timestamp}/uploadfiles", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public CompletableFuture<ResponseEntity<List<FileUploadResultDto>>> uploadFiles(@PathVariable String timestamp, HttpServletRequest request) {
+        OffsetDateTime offsetDateTime = OffsetDateTime.parse(timestamp);
+        return fileManager.uploadFilesToMinio(offsetDateTime, request)
+            .handle((results, e) -> {
+                if (e == null) {
+                    return results.stream().allMatch(FileUploadResultDto::isSuccess)
+                        ? ResponseEntity.ok(results)
+                        : ResponseEntity.internalServerError().body(results);
+                }
+                final Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                if (cause instanceof IllegalArgumentException) {
+                    return ResponseEntity.<List<FileUploadResultDto>>badRequest().build();
+                }
+                throw new CompletionException(cause);
+            });
+    }
+
     @GetMapping(value = "/parameters")
     public ResponseEntity<List<ParameterDto>> getParameters() {
         List<ParameterDto> parameters = parameterService.getParameters();
@@ -7,64 +7,197 @@
 package com.farao_community.farao.gridcapa.task_manager.app;
 
 import com.farao_community.farao.gridcapa.task_manager.api.TaskDto;
+import com.farao_community.farao.gridcapa.task_manager.api.TaskStatus;
 import com.farao_community.farao.gridcapa.task_manager.app.configuration.WebsocketConfig;
 import com.farao_community.farao.gridcapa.task_manager.app.entities.Task;
 import com.farao_community.farao.gridcapa.task_manager.app.entities.TaskWithStatusUpdate;
+import com.farao_community.farao.gridcapa.task_manager.app.service.ClusterNotificationRelay;
+import com.farao_community.farao.gridcapa.task_manager.app.service.TaskChangeTracker;
 import com.farao_community.farao.gridcapa.task_manager.app.service.TaskDtoBuilderService;
-import org.springframework.cloud.stream.function.StreamBridge;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import com.farao_community.farao.gridcapa.task_manager.app.service.TaskNotificationOutbox;
+import com.farao_community.farao.gridcapa.task_manager.app.service.TaskSnapshotCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
 
 /**
+ * Notifications to the broker are saved in the outbox within the transaction of the task change, if any.
+ * Websocket clients are notified, and ETags changed, once the transaction is committed, for clients never
+ * to read the task before its change is visible.
+ *
  * @author Joris Mancini {@literal <joris.mancini at rte-france.com>}
  */
 @Service
 public class TaskUpdateNotifier {
     private static final String TASK_STATUS_UPDATED_BINDING = "task-status-updated";
     private static final String TASK_INPUT_UPDATED_BINDING = "task-input-updated";
+    private static final String STOMP_SEND_METRIC = "task.manager.stomp.send";
+    private static final String DESTINATION_TAG = "destination";
+    private static final DateTimeFormatter WEBSOCKET_TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
 
-    private final StreamBridge streamBridge;
+    private final TaskNotificationOutbox taskNotificationOutbox;
     private final TaskDtoBuilderService taskDtoBuilderService;
+    private final TaskSnapshotCache taskSnapshotCache;
+    private final TaskChangeTracker taskChangeTracker;
 
-    private final SimpMessagingTemplate stompBridge;
+    private final ClusterNotificationRelay clusterNotificationRelay;
     private final WebsocketConfig websocketConfig;
+    private final Timer timestampSendTimer;
+    private final Timer businessDateSendTimer;
+    private final Timer eventsSendTimer;
 
-    public TaskUpdateNotifier(StreamBridge streamBridge, TaskDtoBuilderService taskDtoBuilderService, SimpMessagingTemplate broker, WebsocketConfig websocketConfig) {
-        this.streamBridge = streamBridge;
+    public TaskUpdateNotifier(TaskNotificationOutbox taskNotificationOutbox, TaskDtoBuilderService taskDtoBuilderService, TaskSnapshotCache taskSnapshotCache, TaskChangeTracker taskChangeTracker, ClusterNotificationRelay clusterNotificationRelay, WebsocketConfig websocketConfig, MeterRegistry meterRegistry) {
+        this.taskNotificationOutbox = taskNotificationOutbox;
         this.taskDtoBuilderService = taskDtoBuilderService;
-        this.stompBridge = broker;
+        this.taskSnapshotCache = taskSnapshotCache;
+        this.taskChangeTracker = taskChangeTracker;
+        this.clusterNotificationRelay = clusterNotificationRelay;
         this.websocketConfig = websocketConfig;
+        this.timestampSendTimer = meterRegistry.timer(STOMP_SEND_METRIC, DESTINATION_TAG, "timestamp");
+        this.businessDateSendTimer = meterRegistry.timer(STOMP_SEND_METRIC, DESTINATION_TAG, "business-date");
+        this.eventsSendTimer = meterRegistry.timer(STOMP_SEND_METRIC, DESTINATION_TAG, "events");
     }
 
     public void notify(Task task, boolean withStatusUpdate, boolean withEventsUpdate) {
         this.notify(task, withStatusUpdate, withEventsUpdate, false);
     }
 
+    /**
+     * The DTO of the task is only built when it is sent to the broker or to websocket clients: tasks nobody
+     * follows, such as the ones far in the future, are not rendered on each update.
+     */
     public void notify(final Task task, final boolean withStatusUpdate, final boolean withEventsUpdate, final boolean withNewInput) {
-        final TaskDto taskDtoNoLogs = taskDtoBuilderService.createDtoFromEntityWithoutProcessEvents(task);
+        publish(task, buildDtoIfNotified(task, withStatusUpdate, withNewInput), withStatusUpdate, withEventsUpdate, withNewInput);
+    }
+
+    private TaskDto buildDtoIfNotified(final Task task, final boolean withStatusUpdate, final boolean withNewInput) {
+        if (withStatusUpdate || withNewInput || isListened(task.getTimestamp())) {
+            return taskDtoBuilderService.createDtoFromEntityWithoutProcessEvents(task);
+        }
+        return null;
+    }
+
+    private void publish(final Task task, final TaskDto taskDtoNoLogs, final boolean withStatusUpdate, final boolean withEventsUpdate, final boolean withNewInput) {
+        if (taskDtoNoLogs != null) {
+            publish(taskDtoNoLogs, withStatusUpdate, withNewInput);
+        } else {
+            afterCommit(() -> taskChangeTracker.taskChanged(task.getTimestamp()));
+        }
+        if (withEventsUpdate) {
+            notifyEventsUpdate(task.getTimestamp());
+        }
+    }
+
+    /**
+     * Notifies a status change from the snapshot of the task built from the version preceding the change,
+     * the status being the only difference between both versions of the task.
+     *
+     * @param taskVersion version of the task after the status change
+     * @return the notified DTO, or empty if the task has to be read to be notified
+     */
+    public Optional<TaskDto> notifyStatusUpdate(final UUID taskId, final TaskStatus status, final long taskVersion) {
+        return taskSnapshotCache.get(taskId, taskVersion - 1).map(publishedDto -> {
+            final TaskDto taskDtoNoLogs = taskSnapshotCache.put(new TaskDto(publishedDto.getId(),
+                publishedDto.getTimestamp(),
+                status,
+                publishedDto.getInputs(),
+                publishedDto.getAvailableInputs(),
+                publishedDto.getOutputs(),
+                publishedDto.getProcessEvents(),
+                publishedDto.getRunHistory(),
+                publishedDto.getParameters()), taskVersion);
+            publish(taskDtoNoLogs, true, false);
+            return taskDtoNoLogs;
+        });
+    }
+
+    private void publish(final TaskDto taskDtoNoLogs, final boolean withStatusUpdate, final boolean withNewInput) {
         if (withStatusUpdate) {
-            streamBridge.send(TASK_STATUS_UPDATED_BINDING, taskDtoNoLogs);
+            taskNotificationOutbox.enqueue(TASK_STATUS_UPDATED_BINDING, taskDtoNoLogs);
         }
         if (withNewInput) {
-            streamBridge.send(TASK_INPUT_UPDATED_BINDING, taskDtoNoLogs);
+            taskNotificationOutbox.enqueue(TASK_INPUT_UPDATED_BINDING, taskDtoNoLogs);
         }
-        final DateTimeFormatter fmt = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
-        final String websocketNotifyUpdateBaseUrl = websocketConfig.getNotify() + "/update/";
-        stompBridge.convertAndSend(websocketNotifyUpdateBaseUrl + fmt.format(task.getTimestamp()), taskDtoNoLogs); // to actualize status/files in the timestamp view
-        stompBridge.convertAndSend(websocketNotifyUpdateBaseUrl + fmt.format(task.getTimestamp()).substring(0, 10), taskDtoNoLogs); // to actualize status/files in the business date view
-        if (withEventsUpdate) {
-            stompBridge.convertAndSend(websocketNotifyUpdateBaseUrl + fmt.format(task.getTimestamp()) + "/events", true); // to actualize event logs in the timestamp view
+        // The snapshot must not outlive a change that has been rolled back
+        onRollback(() -> taskSnapshotCache.evict(taskDtoNoLogs.getId()));
+        afterCommit(() -> {
+            // ETags are changed before clients are notified, for them to get the new task on their next request
+            taskChangeTracker.taskChanged(taskDtoNoLogs.getTimestamp());
+            timestampSendTimer.record(() -> clusterNotificationRelay.sendToWebsocket(getTimestampDestination(taskDtoNoLogs.getTimestamp()), taskDtoNoLogs)); // to actualize status/files in the timestamp view
+            businessDateSendTimer.record(() -> clusterNotificationRelay.sendToWebsocket(getBusinessDateDestination(taskDtoNoLogs.getTimestamp()), taskDtoNoLogs)); // to actualize status/files in the business date view
+        });
+    }
+
+    /**
+     * Only refreshes the event logs of the timestamp view, task status and files being unchanged.
+     */
+    public void notifyEventsUpdate(final OffsetDateTime timestamp) {
+        afterCommit(() -> {
+            taskChangeTracker.taskChanged(timestamp);
+            eventsSendTimer.record(() -> clusterNotificationRelay.sendToWebsocket(getTimestampDestination(timestamp) + "/events", true)); // to actualize event logs in the timestamp view
+        });
+    }
+
+    private static void afterCommit(final Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static void onRollback(final Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(final int status) {
+                if (status != STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    private boolean isListened(final OffsetDateTime timestamp) {
+        return clusterNotificationRelay.isListened(getTimestampDestination(timestamp))
+            || clusterNotificationRelay.isListened(getBusinessDateDestination(timestamp));
+    }
+
+    private String getTimestampDestination(final OffsetDateTime timestamp) {
+        return websocketConfig.getNotify() + "/update/" + WEBSOCKET_TIMESTAMP_FORMATTER.format(timestamp);
+    }
+
+    private String getBusinessDateDestination(final OffsetDateTime timestamp) {
+        return websocketConfig.getNotify() + "/update/" + WEBSOCKET_TIMESTAMP_FORMATTER.format(timestamp).substring(0, 10);
     }
 
     public void notify(Set<TaskWithStatusUpdate> taskWithStatusUpdateSet) {
-        taskWithStatusUpdateSet.parallelStream().forEach(t -> notify(t.getTask(), t.isStatusUpdated(), true));
+        notify(taskWithStatusUpdateSet, false);
     }
 
     public void notifyNewInput(Set<TaskWithStatusUpdate> taskWithStatusUpdateSet) {
-        taskWithStatusUpdateSet.parallelStream().forEach(t -> notify(t.getTask(), t.isStatusUpdated(), true, true));
+        notify(taskWithStatusUpdateSet, true);
+    }
+
+    /**
+     * DTOs are built from the calling thread, the tasks and their lazy associations being bound to its transaction.
+     */
+    private void notify(final Set<TaskWithStatusUpdate> taskWithStatusUpdateSet, final boolean withNewInput) {
+        taskWithStatusUpdateSet.forEach(t -> notify(t.getTask(), t.isStatusUpdated(), true, withNewInput));
     }
 }
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Scheduler on which the messages received from the broker are handled, so that blocking
+ * database work is kept off the binder threads. Its workers are virtual threads when enabled,
+ * their number still being bounded so that consumers do not exhaust the database connections.
+ */
+@Configuration
+public class ConsumerSchedulerConfig {
+    private static final int WORKER_TTL_SECONDS = 60;
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler consumerScheduler(@Value("${consumer-pipeline.rails}") final int rails,
+                                       @Value("${spring.threads.virtual.enabled:false}") final boolean virtualThreads) {
+        if (!virtualThreads) {
+            return Schedulers.newBoundedElastic(rails * 3, Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "consumer-thread");
+        }
+        final ThreadFactory threadFactory = Thread.ofVirtual().name("consumer-thread-", 0).factory();
+        return Schedulers.newBoundedElastic(rails * 3, Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, threadFactory, WORKER_TTL_SECONDS);
+    }
+}
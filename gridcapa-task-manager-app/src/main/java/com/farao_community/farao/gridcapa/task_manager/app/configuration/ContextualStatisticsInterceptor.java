@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.configuration;
+
+import com.farao_community.farao.gridcapa.task_manager.app.service.SqlStatisticsRecorder;
+import org.hibernate.Interceptor;
+import org.hibernate.type.Type;
+
+/**
+ * Attributes the entities loaded by Hibernate to the HTTP endpoint or message consumer running on the current
+ * thread. Statements are attributed by {@link SqlCaptureDataSource}, global figures are the ones of Hibernate.
+ */
+class ContextualStatisticsInterceptor implements Interceptor {
+    private final SqlStatisticsRecorder sqlStatisticsRecorder;
+
+    ContextualStatisticsInterceptor(final SqlStatisticsRecorder sqlStatisticsRecorder) {
+        this.sqlStatisticsRecorder = sqlStatisticsRecorder;
+    }
+
+    @Override
+    public boolean onLoad(final Object entity, final Object id, final Object[] state, final String[] propertyNames, final Type[] types) {
+        sqlStatisticsRecorder.recordOperation("entity-load");
+        return false;
+    }
+}
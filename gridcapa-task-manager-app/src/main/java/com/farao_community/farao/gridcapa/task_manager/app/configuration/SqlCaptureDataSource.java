@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.configuration;
+
+import com.farao_community.farao.gridcapa.task_manager.app.service.SqlStatisticsRecorder;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Data source timing every statement executed through its connections, so that slow SQL can be
+ * captured along with the types of its bind parameters.
+ */
+class SqlCaptureDataSource extends DelegatingDataSource {
+    private final Supplier<SqlStatisticsRecorder> sqlStatisticsRecorderSupplier;
+    private volatile SqlStatisticsRecorder sqlStatisticsRecorder;
+
+    SqlCaptureDataSource(final DataSource targetDataSource, final Supplier<SqlStatisticsRecorder> sqlStatisticsRecorderSupplier) {
+        super(targetDataSource);
+        this.sqlStatisticsRecorderSupplier = sqlStatisticsRecorderSupplier;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrapConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        return wrapConnection(super.getConnection(username, password));
+    }
+
+    private SqlStatisticsRecorder getSqlStatisticsRecorder() {
+        if (sqlStatisticsRecorder == null) {
+            // Resolved lazily: the recorder is not available yet when the data source is created
+            sqlStatisticsRecorder = sqlStatisticsRecorderSupplier.get();
+        }
+        return sqlStatisticsRecorder;
+    }
+
+    private Connection wrapConnection(final Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+            new Class<?>[]{Connection.class},
+            (proxy, method, args) -> {
+                final Object result = invoke(connection, method, args);
+                if (result instanceof Statement statement
+                    && (method.getName().startsWith("prepare") || method.getName().equals("createStatement"))) {
+                    final String sql = args != null && args.length > 0 && args[0] instanceof String statementSql ? statementSql : null;
+                    return wrapStatement(statement, sql);
+                }
+                return result;
+            });
+    }
+
+    private Statement wrapStatement(final Statement statement, final String sql) {
+        final Class<?> statementInterface = statement instanceof CallableStatement ? CallableStatement.class
+            : statement instanceof PreparedStatement ? PreparedStatement.class
+            : Statement.class;
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(),
+            new Class<?>[]{statementInterface},
+            new StatementHandler(statement, sql));
+    }
+
+    private static Object invoke(final Object target, final Method method, final Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement statement;
+        private final String sql;
+        private final List<String> parameterTypes = new ArrayList<>();
+        private int batchSize;
+
+        private StatementHandler(final Statement statement, final String sql) {
+            this.statement = statement;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            final String methodName = method.getName();
+            if (methodName.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer parameterIndex) {
+                recordParameterType(parameterIndex, methodName.equals("setNull") ? "null" : getParameterType(args[1]));
+            } else if (methodName.equals("addBatch")) {
+                batchSize++;
+            } else if (methodName.equals("clearBatch")) {
+                batchSize = 0;
+            } else if (methodName.equals("clearParameters")) {
+                parameterTypes.clear();
+            } else if (methodName.startsWith("execute")) {
+                final long start = System.nanoTime();
+                try {
+                    return SqlCaptureDataSource.invoke(statement, method, args);
+                } finally {
+                    final String executedSql = args != null && args.length > 0 && args[0] instanceof String statementSql ? statementSql : sql;
+                    getSqlStatisticsRecorder().recordStatement(executedSql, List.copyOf(parameterTypes), batchSize, System.nanoTime() - start);
+                    if (methodName.equals("executeBatch")) {
+                        batchSize = 0;
+                    }
+                }
+            }
+            return SqlCaptureDataSource.invoke(statement, method, args);
+        }
+
+        private void recordParameterType(final int parameterIndex, final String parameterType) {
+            while (parameterTypes.size() < parameterIndex) {
+                parameterTypes.add("unset");
+            }
+            parameterTypes.set(parameterIndex - 1, parameterType);
+        }
+
+        private static String getParameterType(final Object value) {
+            return value == null ? "null" : value.getClass().getSimpleName();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.configuration;
+
+import com.farao_community.farao.gridcapa.task_manager.app.service.SqlStatisticsContext;
+import com.farao_community.farao.gridcapa.task_manager.app.service.SqlStatisticsRecorder;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Wires the collection of SQL statistics: Hibernate statistics and JDBC statements are attributed
+ * to the HTTP endpoint or message consumer on behalf of which they are run.
+ */
+@Configuration
+@ConditionalOnProperty(name = "sql-statistics.enabled", havingValue = "true")
+public class SqlStatisticsConfig implements WebMvcConfigurer {
+
+    @Bean
+    public HibernatePropertiesCustomizer contextualStatisticsCustomizer(final SqlStatisticsRecorder sqlStatisticsRecorder) {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.INTERCEPTOR, new ContextualStatisticsInterceptor(sqlStatisticsRecorder));
+    }
+
+    @Bean
+    public static BeanPostProcessor sqlCaptureDataSourcePostProcessor(final ObjectProvider<SqlStatisticsRecorder> sqlStatisticsRecorderProvider) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof SqlCaptureDataSource)) {
+                    return new SqlCaptureDataSource(dataSource, sqlStatisticsRecorderProvider::getObject);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(final InterceptorRegistry registry) {
+        registry.addInterceptor(new AsyncHandlerInterceptor() {
+            @Override
+            public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response, final Object handler) {
+                final Object pathPattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                SqlStatisticsContext.set(SqlStatisticsContext.ofHttpEndpoint(request.getMethod(),
+                    pathPattern != null ? pathPattern.toString() : request.getRequestURI()));
+                return true;
+            }
+
+            @Override
+            public void afterCompletion(final HttpServletRequest request, final HttpServletResponse response, final Object handler, final Exception ex) {
+                SqlStatisticsContext.clear();
+            }
+
+            @Override
+            public void afterConcurrentHandlingStarted(final HttpServletRequest request, final HttpServletResponse response, final Object handler) {
+                // Long-polling requests release their servlet thread until their result is available
+                SqlStatisticsContext.clear();
+            }
+        });
+    }
+}
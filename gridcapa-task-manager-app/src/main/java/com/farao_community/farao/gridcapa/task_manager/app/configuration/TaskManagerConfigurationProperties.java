@@ -19,7 +19,6 @@ public class TaskManagerConfigurationProperties {
 
     private final ProcessProperties process;
     private final List<String> whitelist;
-    public static final Object TASK_MANAGER_LOCK = new Object();
 
     public TaskManagerConfigurationProperties(final ProcessProperties process, final List<String> whitelist) {
         this.process = process;
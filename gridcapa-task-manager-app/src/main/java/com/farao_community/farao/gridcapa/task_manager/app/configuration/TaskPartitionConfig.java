@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.configuration;
+
+import com.farao_community.farao.gridcapa.task_manager.app.service.MinioEventRouter;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Declares the queues of the partitions of the timestamps when several instances of the task manager run
+ * together. Queues only accept a single active consumer, so that a partition is never consumed by two
+ * instances at once, even while it is being handed over from one to the other.
+ */
+@Configuration
+@ConditionalOnProperty(name = "task-manager-cluster.enabled", havingValue = "true")
+public class TaskPartitionConfig {
+
+    @Bean
+    public Declarables minioPartitionDeclarables(@Value("${task-manager-cluster.minio-partition-exchange}") final String exchange,
+                                                 @Value("${task-manager-cluster.partition-count}") final int partitionCount) {
+        final DirectExchange partitionExchange = new DirectExchange(exchange);
+        final List<Declarable> declarables = new ArrayList<>();
+        declarables.add(partitionExchange);
+        for (int partition = 0; partition < partitionCount; partition++) {
+            final Queue queue = QueueBuilder.durable(MinioEventRouter.getQueueName(exchange, partition))
+                .singleActiveConsumer()
+                .build();
+            final Binding binding = BindingBuilder.bind(queue).to(partitionExchange).with(String.valueOf(partition));
+            declarables.add(queue);
+            declarables.add(binding);
+        }
+        return new Declarables(declarables);
+    }
+}
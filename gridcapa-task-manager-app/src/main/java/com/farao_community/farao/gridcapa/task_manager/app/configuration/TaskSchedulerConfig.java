@@ -6,18 +6,37 @@
  */
 package com.farao_community.farao.gridcapa.task_manager.app.configuration;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
+/**
+ * Websocket heartbeats and maintenance jobs run on distinct schedulers, so that a long maintenance job
+ * (such as the purge of old events) never delays heartbeats and makes clients disconnect.
+ */
 @Configuration
 public class TaskSchedulerConfig {
-    @Bean
-    public ThreadPoolTaskScheduler taskScheduler() {
+    public static final String WEBSOCKET_HEARTBEAT_SCHEDULER = "websocketHeartbeatScheduler";
+
+    @Bean(WEBSOCKET_HEARTBEAT_SCHEDULER)
+    public ThreadPoolTaskScheduler websocketHeartbeatScheduler() {
         final ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
         taskScheduler.setPoolSize(1);
         taskScheduler.setThreadNamePrefix("ws-heartbeat-thread-");
         taskScheduler.initialize();
         return taskScheduler;
     }
+
+    /**
+     * Named "taskScheduler" for the @Scheduled methods to run on it.
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${maintenance-scheduler.pool-size}") final int poolSize) {
+        final ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+        taskScheduler.setPoolSize(poolSize);
+        taskScheduler.setThreadNamePrefix("maintenance-thread-");
+        taskScheduler.initialize();
+        return taskScheduler;
+    }
 }
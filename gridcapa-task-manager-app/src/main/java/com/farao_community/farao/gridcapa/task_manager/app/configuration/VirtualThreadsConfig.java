@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.configuration;
+
+import org.springframework.amqp.rabbit.listener.AbstractMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.stream.config.ListenerContainerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+
+/**
+ * Runs the broker consumers and the websocket notification channels on virtual threads, along with Tomcat
+ * which is configured by Spring Boot itself. Critical sections of the task manager rely on
+ * {@link java.util.concurrent.locks.ReentrantLock} rather than monitors, so that virtual threads blocked
+ * on database I/O do not pin their carrier thread.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadsConfig implements WebSocketMessageBrokerConfigurer {
+
+    @Bean
+    public ListenerContainerCustomizer<MessageListenerContainer> virtualThreadsListenerContainerCustomizer() {
+        return (container, destinationName, group) -> {
+            if (container instanceof AbstractMessageListenerContainer listenerContainer) {
+                listenerContainer.setTaskExecutor(new VirtualThreadTaskExecutor("rabbit-consumer-" + destinationName + "-"));
+            }
+        };
+    }
+
+    @Override
+    public void configureClientInboundChannel(final ChannelRegistration registration) {
+        registration.executor(new VirtualThreadTaskExecutor("ws-inbound-"));
+    }
+
+    @Override
+    public void configureClientOutboundChannel(final ChannelRegistration registration) {
+        registration.executor(new VirtualThreadTaskExecutor("ws-outbound-"));
+    }
+}
@@ -6,6 +6,7 @@
  */
 package com.farao_community.farao.gridcapa.task_manager.app.configuration;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
@@ -38,7 +39,7 @@ public class WebsocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final ThreadPoolTaskScheduler taskScheduler;
 
-    public WebsocketConfig(final ThreadPoolTaskScheduler taskScheduler) {
+    public WebsocketConfig(@Qualifier(TaskSchedulerConfig.WEBSOCKET_HEARTBEAT_SCHEDULER) final ThreadPoolTaskScheduler taskScheduler) {
         this.taskScheduler = taskScheduler;
     }
 
@@ -49,6 +50,8 @@ public class WebsocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setHeartbeatValue(new long[]{heartbeatServer, heartbeatClient})
                 .setTaskScheduler(taskScheduler);
         config.setApplicationDestinationPrefixes(receiver);
+        // Notifications of a session are sent in order, even when the outbound channel runs on virtual threads
+        config.setPreservePublishOrder(true);
     }
 
     @Override
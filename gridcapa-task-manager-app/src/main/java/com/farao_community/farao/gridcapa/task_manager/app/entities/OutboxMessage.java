@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Message to be sent to the broker, saved in the same transaction as the change of task it notifies.
+ * Messages are sent in order of their id and deleted once the broker has confirmed them.
+ * A message claimed by an instance to be sent is not claimed by another one before its claim expires.
+ */
+@Entity
+@Table(name = "outbox_message")
+public class OutboxMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @Column(name = "binding", nullable = false)
+    private String binding;
+
+    @Column(name = "payload", columnDefinition = "TEXT", nullable = false)
+    private String payload;
+
+    @Column(name = "creation_date", nullable = false)
+    private OffsetDateTime creationDate;
+
+    @Column(name = "claimed_until")
+    private OffsetDateTime claimedUntil;
+
+    public OutboxMessage() {
+
+    }
+
+    public OutboxMessage(String binding, String payload) {
+        this.binding = binding;
+        this.payload = payload;
+        this.creationDate = OffsetDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getBinding() {
+        return binding;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public OffsetDateTime getCreationDate() {
+        return creationDate;
+    }
+
+    public OffsetDateTime getClaimedUntil() {
+        return claimedUntil;
+    }
+}
@@ -6,7 +6,9 @@
  */
 package com.farao_community.farao.gridcapa.task_manager.app.entities;
 
+import com.farao_community.farao.gridcapa.task_manager.app.entities.listener.TaskSnapshotListener;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
@@ -19,6 +21,7 @@ import java.io.Serializable;
  */
 
 @Entity
+@EntityListeners(TaskSnapshotListener.class)
 public class Parameter implements Serializable {
     @Id
     private String id;
@@ -12,7 +12,11 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
 
 import java.time.OffsetDateTime;
 import java.util.Comparator;
@@ -23,8 +27,8 @@ import java.util.UUID;
  * @author Mohamed Benrejeb {@literal <mohamed.ben-rejeb at rte-france.com>}
  */
 @Entity
-@Table(indexes = { @Index(columnList = "task_id", name = "process_event_task_idx") })
-public class ProcessEvent implements Comparable<ProcessEvent> {
+@Table(indexes = { @Index(columnList = "task_id", name = "process_event_task_idx"), @Index(columnList = "timestamp", name = "process_event_timestamp_idx") })
+public class ProcessEvent implements Comparable<ProcessEvent>, Persistable<UUID> {
 
     @Id
     @Column(name = "id", nullable = false)
@@ -45,6 +49,10 @@ public class ProcessEvent implements Comparable<ProcessEvent> {
     @ManyToOne(fetch = FetchType.LAZY)
     private Task task;
 
+    // Events are never updated: knowing they are new spares a select before each insert
+    @Transient
+    private boolean isNew;
+
     public ProcessEvent() {
     }
 
@@ -55,6 +63,23 @@ public class ProcessEvent implements Comparable<ProcessEvent> {
         this.message = message;
         this.serviceName = serviceName;
         this.task = task;
+        this.isNew = true;
+    }
+
+    @Override
+    public UUID getId() {
+        return id;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
     }
 
     public OffsetDateTime getTimestamp() {
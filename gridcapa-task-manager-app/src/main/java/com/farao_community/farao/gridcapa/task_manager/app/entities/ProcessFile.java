@@ -10,6 +10,8 @@ import com.farao_community.farao.minio_adapter.starter.MinioAdapterConstants;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import org.apache.commons.io.FilenameUtils;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.NaturalId;
@@ -29,6 +31,7 @@ import java.util.UUID;
         usage = CacheConcurrencyStrategy.READ_WRITE
 )
 @NaturalIdCache
+@Table(indexes = {@Index(columnList = "starting_availability_date, ending_availability_date", name = "process_file_validity_idx")})
 public class ProcessFile implements Comparable<ProcessFile> {
 
     @Id
@@ -8,9 +8,13 @@ package com.farao_community.farao.gridcapa.task_manager.app.entities;
 
 import com.farao_community.farao.gridcapa.task_manager.api.TaskStatus;
 import com.farao_community.farao.gridcapa.task_manager.app.entities.comparators.ReverseEventComparator;
+import com.farao_community.farao.gridcapa.task_manager.app.entities.listener.TaskIndexListener;
+import com.farao_community.farao.gridcapa.task_manager.app.entities.listener.TaskProcessFilesListener;
+import com.farao_community.farao.gridcapa.task_manager.app.entities.listener.TaskSnapshotListener;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Index;
@@ -18,7 +22,11 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.Version;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.NaturalId;
 import org.hibernate.annotations.NaturalIdCache;
@@ -35,12 +43,14 @@ import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
  * @author Joris Mancini {@literal <joris.mancini at rte-france.com>}
  */
 @Entity
+@EntityListeners({TaskIndexListener.class, TaskSnapshotListener.class, TaskProcessFilesListener.class})
 @org.hibernate.annotations.Cache(
         usage = CacheConcurrencyStrategy.READ_WRITE
 )
@@ -59,6 +69,11 @@ public class Task {
     @Column(name = "status")
     private TaskStatus status;
 
+    // Tasks have assigned ids and new ones start with the seed version, so saving a detached task merges it
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     @OneToMany(
             mappedBy = "task",
             cascade = {CascadeType.MERGE, CascadeType.REMOVE}
@@ -89,6 +104,20 @@ public class Task {
             fetch = FetchType.EAGER)
     private final List<ProcessRun> runHistory = new ArrayList<>();
 
+    // When files are associated to tasks by their validity interval, the files of the task are resolved on first
+    // access and kept out of the join tables: changing them never writes any association row
+    @Transient
+    private Consumer<Task> processFilesResolver;
+
+    @Transient
+    private SortedSet<ProcessFile> resolvedProcessFiles;
+
+    @Transient
+    private SortedSet<ProcessFile> resolvedAvailableInputProcessFiles;
+
+    @Transient
+    private boolean persisted;
+
     public Task() {
 
     }
@@ -119,33 +148,71 @@ public class Task {
         this.status = status;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return true once the task has been read from or written to the database, its version being meaningful
+     */
+    public boolean isPersisted() {
+        return persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+
     public SortedSet<ProcessEvent> getProcessEvents() {
         return processEvents;
     }
 
     public SortedSet<ProcessFile> getProcessFiles() {
-        return processFiles;
+        resolveProcessFiles();
+        return resolvedProcessFiles != null ? resolvedProcessFiles : processFiles;
+    }
+
+    private SortedSet<ProcessFile> getAvailableInputProcessFiles() {
+        resolveProcessFiles();
+        return resolvedAvailableInputProcessFiles != null ? resolvedAvailableInputProcessFiles : availableInputProcessFiles;
+    }
+
+    private void resolveProcessFiles() {
+        if (resolvedProcessFiles == null && processFilesResolver != null) {
+            processFilesResolver.accept(this);
+        }
+    }
+
+    public void setProcessFilesResolver(Consumer<Task> processFilesResolver) {
+        this.processFilesResolver = processFilesResolver;
+    }
+
+    public void setResolvedProcessFiles(SortedSet<ProcessFile> selectedProcessFiles, SortedSet<ProcessFile> availableInputs) {
+        this.resolvedProcessFiles = selectedProcessFiles;
+        this.resolvedAvailableInputProcessFiles = availableInputs;
     }
 
     public void addProcessFile(ProcessFile processFile) {
         if (processFile.isInputFile()) {
-            availableInputProcessFiles.removeIf(pf -> pf.getFileObjectKey().equals(processFile.getFileObjectKey()));
-            availableInputProcessFiles.add(processFile);
+            getAvailableInputProcessFiles().removeIf(pf -> pf.getFileObjectKey().equals(processFile.getFileObjectKey()));
+            getAvailableInputProcessFiles().add(processFile);
             selectProcessFile(processFile);
         } else {
-            processFiles.add(processFile);
+            getProcessFiles().add(processFile);
         }
     }
 
     public FileRemovalStatus removeProcessFile(ProcessFile processFile) {
-        final boolean fileWasSelected = processFiles.remove(processFile);
+        final boolean fileWasSelected = getProcessFiles().remove(processFile);
         boolean fileWasRemoved = fileWasSelected;
 
         if (processFile.isInputFile()) {
-            fileWasRemoved = availableInputProcessFiles.remove(processFile);
+            fileWasRemoved = getAvailableInputProcessFiles().remove(processFile);
 
             if (fileWasSelected) {
-                availableInputProcessFiles.stream()
+                getAvailableInputProcessFiles().stream()
                         .filter(pf -> pf.getFileType().equals(processFile.getFileType()))
                         .max(Comparator.comparing(ProcessFile::getLastModificationDate))
                         .ifPresent(this::selectProcessFile);
@@ -155,25 +222,25 @@ public class Task {
     }
 
     public void selectProcessFile(ProcessFile processFile) {
-        processFiles.removeIf(pf -> pf.getFileType().equals(processFile.getFileType()));
-        processFiles.add(processFile);
+        getProcessFiles().removeIf(pf -> pf.getFileType().equals(processFile.getFileType()));
+        getProcessFiles().add(processFile);
     }
 
     public Optional<ProcessFile> getInput(String fileType) {
-        return processFiles.stream()
+        return getProcessFiles().stream()
                 .filter(ProcessFile::isInputFile)
                 .filter(file -> fileType.equals(file.getFileType()))
                 .max(Comparator.comparing(ProcessFile::getStartingAvailabilityDate));
     }
 
     public Set<ProcessFile> getAvailableInputs(String fileType) {
-        return availableInputProcessFiles.stream()
+        return getAvailableInputProcessFiles().stream()
                 .filter(file -> fileType.equals(file.getFileType()))
                 .collect(Collectors.toSet());
     }
 
     public Optional<ProcessFile> getOutput(String fileType) {
-        return processFiles.stream()
+        return getProcessFiles().stream()
                 .filter(ProcessFile::isOutputFile)
                 .filter(file -> fileType.equals(file.getFileType()))
                 .findFirst();
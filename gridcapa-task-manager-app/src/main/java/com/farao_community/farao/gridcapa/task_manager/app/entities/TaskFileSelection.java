@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import java.util.UUID;
+
+/**
+ * Input file manually selected for a task, when files are associated to tasks by their validity interval.
+ * Without a selection, the input of a given type used by a task is the last modified one among the files
+ * valid for its timestamp. Selections are dropped when a new input of the same type arrives for the task.
+ */
+@Entity
+@Table(name = "task_file_selection",
+    uniqueConstraints = {@UniqueConstraint(columnNames = {"fk_task", "file_type"}, name = "uk_task_file_selection_task_file_type")})
+public class TaskFileSelection {
+
+    @Id
+    @Column(name = "id", nullable = false)
+    private UUID id;
+
+    @Column(name = "fk_task", nullable = false)
+    private UUID taskId;
+
+    @Column(name = "file_type", nullable = false)
+    private String fileType;
+
+    @Column(name = "fk_process_file", nullable = false)
+    private UUID processFileId;
+
+    public TaskFileSelection() {
+
+    }
+
+    public TaskFileSelection(UUID taskId, ProcessFile processFile) {
+        this.id = UUID.randomUUID();
+        this.taskId = taskId;
+        this.fileType = processFile.getFileType();
+        this.processFileId = processFile.getId();
+    }
+
+    public UUID getTaskId() {
+        return taskId;
+    }
+
+    public String getFileType() {
+        return fileType;
+    }
+
+    public UUID getProcessFileId() {
+        return processFileId;
+    }
+}
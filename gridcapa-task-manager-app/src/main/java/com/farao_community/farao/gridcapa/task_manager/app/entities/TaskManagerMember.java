@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Running instance of the task manager, known as long as it keeps renewing its membership.
+ */
+@Entity
+@Table(name = "task_manager_member")
+public class TaskManagerMember {
+
+    @Id
+    @Column(name = "instance_id", nullable = false)
+    private String instanceId;
+
+    @Column(name = "expires_at", nullable = false)
+    private OffsetDateTime expiresAt;
+
+    public TaskManagerMember() {
+
+    }
+
+    public TaskManagerMember(String instanceId, OffsetDateTime expiresAt) {
+        this.instanceId = instanceId;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    public OffsetDateTime getExpiresAt() {
+        return expiresAt;
+    }
+}
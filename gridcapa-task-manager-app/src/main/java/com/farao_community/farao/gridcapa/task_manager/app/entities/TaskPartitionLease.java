@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Ownership of a partition of the timestamps by one of the instances of the task manager.
+ * The owner has to renew its lease before it expires, otherwise the partition is free to be taken over.
+ */
+@Entity
+@Table(name = "task_partition_lease")
+public class TaskPartitionLease {
+
+    // Not a primitive, for partition 0 not to be taken for a lease that has never been saved
+    @Id
+    @Column(name = "partition_index", nullable = false)
+    private Integer partitionIndex;
+
+    @Column(name = "owner")
+    private String owner;
+
+    @Column(name = "expires_at")
+    private OffsetDateTime expiresAt;
+
+    public TaskPartitionLease() {
+
+    }
+
+    public TaskPartitionLease(int partitionIndex) {
+        this.partitionIndex = partitionIndex;
+    }
+
+    public int getPartitionIndex() {
+        return partitionIndex;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public OffsetDateTime getExpiresAt() {
+        return expiresAt;
+    }
+}
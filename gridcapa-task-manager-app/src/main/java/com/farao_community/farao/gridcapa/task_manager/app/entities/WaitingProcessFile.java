@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import org.apache.commons.io.FilenameUtils;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Input file received while one of its timestamps was running, to be added to the tasks once they are over.
+ * Waiting files are kept in the database rather than in memory, so that they are shared by all the instances
+ * of the task manager and survive restarts. The file itself is only referenced by the tasks when it leaves
+ * the waiting list, which is why its data is copied here instead of being saved as a process file.
+ */
+@Entity
+@Table(name = "waiting_process_file",
+    indexes = {@Index(columnList = "starting_availability_date, ending_availability_date", name = "waiting_process_file_availability_idx")})
+public class WaitingProcessFile {
+
+    @Id
+    @Column(name = "id", nullable = false)
+    private UUID id;
+
+    @Column(name = "file_object_key", length = 500, nullable = false)
+    private String fileObjectKey;
+
+    @Column(name = "file_group")
+    private String fileGroup;
+
+    @Column(name = "file_type")
+    private String fileType;
+
+    @Column(name = "document_id")
+    private String documentId;
+
+    @Column(name = "starting_availability_date")
+    private OffsetDateTime startingAvailabilityDate;
+
+    @Column(name = "ending_availability_date")
+    private OffsetDateTime endingAvailabilityDate;
+
+    @Column(name = "last_modification_date")
+    private OffsetDateTime lastModificationDate;
+
+    public WaitingProcessFile() {
+
+    }
+
+    public WaitingProcessFile(ProcessFile processFile) {
+        this.id = UUID.randomUUID();
+        this.fileObjectKey = processFile.getFileObjectKey();
+        this.fileGroup = processFile.getFileGroup();
+        this.fileType = processFile.getFileType();
+        this.documentId = processFile.getDocumentId();
+        this.startingAvailabilityDate = processFile.getStartingAvailabilityDate();
+        this.endingAvailabilityDate = processFile.getEndingAvailabilityDate();
+        this.lastModificationDate = processFile.getLastModificationDate();
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String getFileObjectKey() {
+        return fileObjectKey;
+    }
+
+    public String getFilename() {
+        return FilenameUtils.getName(fileObjectKey);
+    }
+
+    public String getFileGroup() {
+        return fileGroup;
+    }
+
+    public String getFileType() {
+        return fileType;
+    }
+
+    public String getDocumentId() {
+        return documentId;
+    }
+
+    public OffsetDateTime getStartingAvailabilityDate() {
+        return startingAvailabilityDate;
+    }
+
+    public OffsetDateTime getEndingAvailabilityDate() {
+        return endingAvailabilityDate;
+    }
+
+    public OffsetDateTime getLastModificationDate() {
+        return lastModificationDate;
+    }
+}
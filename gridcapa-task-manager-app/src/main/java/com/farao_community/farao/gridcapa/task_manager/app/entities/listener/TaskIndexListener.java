@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.entities.listener;
+
+import com.farao_community.farao.gridcapa.task_manager.app.entities.Task;
+import com.farao_community.farao.gridcapa.task_manager.app.service.TaskIndexCache;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Keeps the {@link TaskIndexCache} in line with the tasks loaded, saved and deleted through JPA.
+ * Instantiated by Hibernate through the Spring bean container: the cache is looked up lazily as
+ * listeners are created while the entity manager factory, which the cache depends on, is being built.
+ */
+public class TaskIndexListener {
+    private final ObjectProvider<TaskIndexCache> taskIndexCacheProvider;
+
+    public TaskIndexListener(final ObjectProvider<TaskIndexCache> taskIndexCacheProvider) {
+        this.taskIndexCacheProvider = taskIndexCacheProvider;
+    }
+
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    void onTaskStored(final Task task) {
+        taskIndexCacheProvider.ifAvailable(taskIndexCache -> taskIndexCache.put(task));
+    }
+
+    @PostRemove
+    void onTaskRemoved(final Task task) {
+        taskIndexCacheProvider.ifAvailable(taskIndexCache -> taskIndexCache.evict(task.getId()));
+    }
+}
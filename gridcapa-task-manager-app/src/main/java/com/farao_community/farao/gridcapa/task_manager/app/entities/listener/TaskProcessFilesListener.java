@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.entities.listener;
+
+import com.farao_community.farao.gridcapa.task_manager.app.entities.Task;
+import com.farao_community.farao.gridcapa.task_manager.app.service.ProcessFileIntervalResolver;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Makes the tasks loaded or saved through JPA resolve their files by validity interval on first access, when
+ * files are associated to tasks this way. Tasks read in bulk are rather resolved all at once by the services.
+ */
+public class TaskProcessFilesListener {
+    private final ObjectProvider<ProcessFileIntervalResolver> processFileIntervalResolverProvider;
+
+    public TaskProcessFilesListener(final ObjectProvider<ProcessFileIntervalResolver> processFileIntervalResolverProvider) {
+        this.processFileIntervalResolverProvider = processFileIntervalResolverProvider;
+    }
+
+    @PostLoad
+    @PostPersist
+    void onTaskLoaded(final Task task) {
+        processFileIntervalResolverProvider.ifAvailable(processFileIntervalResolver -> {
+            if (processFileIntervalResolver.isEnabled()) {
+                task.setProcessFilesResolver(processFileIntervalResolver::resolve);
+            }
+        });
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.entities.listener;
+
+import com.farao_community.farao.gridcapa.task_manager.app.entities.Parameter;
+import com.farao_community.farao.gridcapa.task_manager.app.entities.ProcessRun;
+import com.farao_community.farao.gridcapa.task_manager.app.entities.Task;
+import com.farao_community.farao.gridcapa.task_manager.app.service.TaskSnapshotCache;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Drops the snapshots of tasks whose content changes through JPA, so that they are rebuilt from
+ * the database on their next rendering. Parameters being part of every DTO, changing one of them
+ * drops all snapshots.
+ */
+public class TaskSnapshotListener {
+    private final ObjectProvider<TaskSnapshotCache> taskSnapshotCacheProvider;
+
+    public TaskSnapshotListener(final ObjectProvider<TaskSnapshotCache> taskSnapshotCacheProvider) {
+        this.taskSnapshotCacheProvider = taskSnapshotCacheProvider;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void onEntityChanged(final Object entity) {
+        taskSnapshotCacheProvider.ifAvailable(taskSnapshotCache -> {
+            if (entity instanceof Task task) {
+                taskSnapshotCache.evict(task.getId());
+            } else if (entity instanceof ProcessRun processRun && processRun.getTask() != null) {
+                taskSnapshotCache.evict(processRun.getTask().getId());
+            } else if (entity instanceof Parameter) {
+                taskSnapshotCache.clear();
+            }
+        });
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.repository;
+
+import com.farao_community.farao.gridcapa.task_manager.app.entities.OutboxMessage;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.LockOptions;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+
+    /**
+     * Oldest messages not claimed by an instance, locked until the end of the transaction claiming them.
+     * Messages locked by the claim of another instance are skipped instead of being waited for.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "" + LockOptions.SKIP_LOCKED))
+    @Query("SELECT message FROM OutboxMessage message WHERE message.claimedUntil IS NULL OR message.claimedUntil < :now ORDER BY message.id")
+    List<OutboxMessage> findOldestUnclaimedForUpdate(@Param("now") OffsetDateTime now, Limit limit);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxMessage message SET message.claimedUntil = :claimedUntil WHERE message.id IN :ids")
+    int claimByIdIn(@Param("ids") Collection<Long> ids, @Param("claimedUntil") OffsetDateTime claimedUntil);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxMessage message SET message.claimedUntil = NULL WHERE message.id IN :ids")
+    int releaseByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OutboxMessage message WHERE message.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
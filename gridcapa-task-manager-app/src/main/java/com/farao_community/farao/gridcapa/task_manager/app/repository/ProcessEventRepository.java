@@ -8,6 +8,7 @@ package com.farao_community.farao.gridcapa.task_manager.app.repository;
 
 import com.farao_community.farao.gridcapa.task_manager.app.entities.ProcessEvent;
 import com.farao_community.farao.gridcapa.task_manager.app.entities.Task;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -16,6 +17,8 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -29,8 +32,11 @@ public interface ProcessEventRepository extends JpaRepository<ProcessEvent, UUID
     @Query("DELETE FROM ProcessEvent pe WHERE pe.task = :task")
     void deleteByTask(@Param("task") Task task);
 
+    @Query("SELECT pe.id FROM ProcessEvent pe WHERE pe.timestamp < :threshold ORDER BY pe.timestamp")
+    List<UUID> findIdsOlderThan(@Param("threshold") OffsetDateTime threshold, Limit limit);
+
     @Modifying
     @Transactional
-    @Query("DELETE FROM ProcessEvent pe WHERE pe.timestamp < :threshold")
-    void deleteWhenOlderThan(@Param("threshold") OffsetDateTime threshold);
+    @Query("DELETE FROM ProcessEvent pe WHERE pe.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<UUID> ids);
 }
@@ -13,6 +13,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -30,4 +31,12 @@ public interface ProcessFileRepository extends JpaRepository<ProcessFile, UUID>
     Optional<ProcessFile> findByStartingAvailabilityDateAndFileTypeAndGroup(@Param("startingAvailabilityDate") OffsetDateTime startingAvailabilityDate,
                                                                             @Param("fileType") String fileType,
                                                                             @Param("fileGroup") String fileGroup);
+
+    /**
+     * Files valid for at least one timestamp between the given ones, both included.
+     */
+    @Query("SELECT process_file FROM ProcessFile process_file " +
+        "WHERE process_file.startingAvailabilityDate <= :lastTimestamp AND process_file.endingAvailabilityDate > :firstTimestamp")
+    List<ProcessFile> findAllValidBetween(@Param("firstTimestamp") OffsetDateTime firstTimestamp,
+                                          @Param("lastTimestamp") OffsetDateTime lastTimestamp);
 }
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.repository;
+
+import com.farao_community.farao.gridcapa.task_manager.app.entities.TaskFileSelection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TaskFileSelectionRepository extends JpaRepository<TaskFileSelection, UUID> {
+
+    @Query("SELECT selection FROM TaskFileSelection selection WHERE selection.taskId IN :taskIds")
+    List<TaskFileSelection> findAllByTaskIdIn(@Param("taskIds") Collection<UUID> taskIds);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TaskFileSelection selection WHERE selection.taskId = :taskId AND selection.fileType = :fileType")
+    int deleteByTaskIdAndFileType(@Param("taskId") UUID taskId, @Param("fileType") String fileType);
+
+    /**
+     * Drops the selections of the given file type made for the tasks of the period, in a single statement.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TaskFileSelection selection WHERE selection.fileType = :fileType AND selection.taskId IN " +
+        "(SELECT task.id FROM Task task WHERE task.timestamp >= :startingTimestamp AND task.timestamp < :endingTimestamp)")
+    int deleteAllForFileTypeBetween(@Param("fileType") String fileType,
+                                    @Param("startingTimestamp") OffsetDateTime startingTimestamp,
+                                    @Param("endingTimestamp") OffsetDateTime endingTimestamp);
+}
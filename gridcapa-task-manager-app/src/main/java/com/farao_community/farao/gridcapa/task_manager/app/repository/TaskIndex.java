@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.repository;
+
+import com.farao_community.farao.gridcapa.task_manager.api.TaskStatus;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Identity and status of a task, read without loading the task itself and its associations.
+ */
+public interface TaskIndex {
+    UUID getId();
+
+    OffsetDateTime getTimestamp();
+
+    TaskStatus getStatus();
+}
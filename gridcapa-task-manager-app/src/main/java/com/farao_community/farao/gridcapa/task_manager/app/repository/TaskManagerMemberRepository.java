@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.repository;
+
+import com.farao_community.farao.gridcapa.task_manager.app.entities.TaskManagerMember;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+
+@Repository
+public interface TaskManagerMemberRepository extends JpaRepository<TaskManagerMember, String> {
+
+    @Query("SELECT COUNT(member) FROM TaskManagerMember member WHERE member.expiresAt > :now")
+    long countAlive(@Param("now") OffsetDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TaskManagerMember member WHERE member.expiresAt <= :now")
+    int deleteExpired(@Param("now") OffsetDateTime now);
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.repository;
+
+import com.farao_community.farao.gridcapa.task_manager.app.entities.TaskPartitionLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Repository
+public interface TaskPartitionLeaseRepository extends JpaRepository<TaskPartitionLease, Integer> {
+
+    @Query("SELECT lease.partitionIndex FROM TaskPartitionLease lease WHERE lease.owner = :owner AND lease.expiresAt > :now ORDER BY lease.partitionIndex")
+    List<Integer> findPartitionsOwnedBy(@Param("owner") String owner, @Param("now") OffsetDateTime now);
+
+    @Query("SELECT lease.partitionIndex FROM TaskPartitionLease lease WHERE lease.owner IS NULL OR lease.expiresAt <= :now ORDER BY lease.partitionIndex")
+    List<Integer> findFreePartitions(@Param("now") OffsetDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE TaskPartitionLease lease SET lease.expiresAt = :expiresAt WHERE lease.owner = :owner AND lease.expiresAt > :now")
+    int renew(@Param("owner") String owner, @Param("now") OffsetDateTime now, @Param("expiresAt") OffsetDateTime expiresAt);
+
+    /**
+     * Takes the partition if it is free or if the lease of its owner has expired, which only one instance can succeed in.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE TaskPartitionLease lease SET lease.owner = :owner, lease.expiresAt = :expiresAt " +
+        "WHERE lease.partitionIndex = :partitionIndex AND (lease.owner IS NULL OR lease.expiresAt <= :now)")
+    int acquire(@Param("partitionIndex") int partitionIndex, @Param("owner") String owner, @Param("now") OffsetDateTime now, @Param("expiresAt") OffsetDateTime expiresAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE TaskPartitionLease lease SET lease.owner = NULL, lease.expiresAt = NULL WHERE lease.partitionIndex = :partitionIndex AND lease.owner = :owner")
+    int release(@Param("partitionIndex") int partitionIndex, @Param("owner") String owner);
+}
@@ -9,12 +9,15 @@ package com.farao_community.farao.gridcapa.task_manager.app.repository;
 import com.farao_community.farao.gridcapa.task_manager.api.TaskStatus;
 import com.farao_community.farao.gridcapa.task_manager.app.entities.Task;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -28,6 +31,17 @@ public interface TaskRepository extends JpaRepository<Task, UUID> {
     @Query("SELECT task FROM Task task LEFT JOIN FETCH task.processFiles WHERE task.id = :id")
     Optional<Task> findByIdAndFetchProcessFiles(@Param("id") UUID id);
 
+    @Query("SELECT task.id AS id, task.timestamp AS timestamp, task.status AS status FROM Task task WHERE task.id IN :ids")
+    List<TaskIndex> findIndexesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Task task SET task.status = :status, task.version = task.version + 1 WHERE task.id = :id AND task.status = :expectedStatus")
+    int compareAndSetStatus(@Param("id") UUID id, @Param("expectedStatus") TaskStatus expectedStatus, @Param("status") TaskStatus status);
+
+    @Query("SELECT task.version FROM Task task WHERE task.id = :id")
+    Optional<Long> findVersionById(@Param("id") UUID id);
+
     @Query("SELECT task FROM Task task LEFT JOIN FETCH task.processFiles WHERE task.timestamp = :timestamp")
     Optional<Task> findByTimestamp(@Param("timestamp") OffsetDateTime timestamp);
 
@@ -44,19 +58,24 @@ public interface TaskRepository extends JpaRepository<Task, UUID> {
     Set<Task> findAllByTimestampBetween(@Param("startingTimestamp") OffsetDateTime startingTimestamp,
                                         @Param("endingTimestamp") OffsetDateTime endingTimestamp);
 
-    @Query("SELECT task FROM Task task JOIN FETCH task.processFiles "
+    @Query("SELECT task.timestamp FROM Task task " +
+            "WHERE task.timestamp >= :startingTimestamp AND task.timestamp < :endingTimestamp")
+    List<OffsetDateTime> findTimestampsBetween(@Param("startingTimestamp") OffsetDateTime startingTimestamp,
+                                               @Param("endingTimestamp") OffsetDateTime endingTimestamp);
+
+    @Query("SELECT task FROM Task task LEFT JOIN FETCH task.processFiles "
             + "WHERE task.status = com.farao_community.farao.gridcapa.task_manager.api.TaskStatus.RUNNING "
             + "OR task.status = com.farao_community.farao.gridcapa.task_manager.api.TaskStatus.PENDING")
     Set<Task> findAllRunningAndPending();
 
-    @Query("SELECT task FROM Task task JOIN FETCH task.processFiles " +
+    @Query("SELECT task FROM Task task LEFT JOIN FETCH task.processFiles " +
             "WHERE task.timestamp >= :startingTimestamp AND task.timestamp < :endingTimestamp " +
             "AND task.status IN :statuses")
     Set<Task> findAllByTimestampBetweenAndStatusIn(@Param("startingTimestamp") OffsetDateTime startingTimestamp,
                                                    @Param("endingTimestamp") OffsetDateTime endingTimestamp,
                                                    @Param("statuses") Collection<TaskStatus> statuses);
 
-    @Query("SELECT task FROM Task task JOIN FETCH task.processFiles " +
+    @Query("SELECT task FROM Task task LEFT JOIN FETCH task.processFiles " +
             "WHERE task.timestamp >= :startingTimestamp AND task.timestamp <= :endingTimestamp")
     Set<Task> findAllByTimestampBetweenForBusinessDayView(@Param("startingTimestamp") OffsetDateTime startingTimestamp,
                                                           @Param("endingTimestamp") OffsetDateTime endingTimestamp);
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.repository;
+
+import com.farao_community.farao.gridcapa.task_manager.app.entities.WaitingProcessFile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface WaitingProcessFileRepository extends JpaRepository<WaitingProcessFile, UUID> {
+
+    /**
+     * Waiting files valid for the given timestamp, in their order of arrival.
+     */
+    @Query("SELECT waiting_file FROM WaitingProcessFile waiting_file " +
+        "WHERE waiting_file.startingAvailabilityDate <= :timestamp AND waiting_file.endingAvailabilityDate > :timestamp " +
+        "ORDER BY waiting_file.lastModificationDate, waiting_file.id")
+    List<WaitingProcessFile> findAllValidForTimestamp(@Param("timestamp") OffsetDateTime timestamp);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM WaitingProcessFile waiting_file " +
+        "WHERE waiting_file.fileType = :fileType AND waiting_file.startingAvailabilityDate = :startingAvailabilityDate " +
+        "AND waiting_file.endingAvailabilityDate = :endingAvailabilityDate")
+    int deleteAllWithSameTypeAndValidity(@Param("fileType") String fileType,
+                                         @Param("startingAvailabilityDate") OffsetDateTime startingAvailabilityDate,
+                                         @Param("endingAvailabilityDate") OffsetDateTime endingAvailabilityDate);
+
+    /**
+     * Removes the file from the waiting list, returning 0 when another instance has already removed it.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM WaitingProcessFile waiting_file WHERE waiting_file.id = :id")
+    int removeFromWaitingList(@Param("id") UUID id);
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import com.farao_community.farao.gridcapa.task_manager.api.TaskStatus;
+import com.farao_community.farao.gridcapa.task_manager.app.configuration.TaskManagerConfigurationProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the requests of clients waiting for all the tasks of a business date to be over.
+ * Pending requests are completed as soon as a status update makes the whole business date over,
+ * so that clients do not need to poll the database in a loop.
+ */
+@Service
+public class BusinessDateCompletionService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BusinessDateCompletionService.class);
+
+    private final TaskDtoBuilderService taskDtoBuilderService;
+    private final ZoneId processZone;
+    private final Map<LocalDate, Set<DeferredResult<ResponseEntity<Boolean>>>> waitingClients = new ConcurrentHashMap<>();
+
+    @Value("${business-date-completion.wait-timeout-ms}")
+    private long waitTimeoutMs;
+
+    public BusinessDateCompletionService(final TaskDtoBuilderService taskDtoBuilderService,
+                                         final TaskManagerConfigurationProperties taskManagerConfigurationProperties) {
+        this.taskDtoBuilderService = taskDtoBuilderService;
+        this.processZone = taskManagerConfigurationProperties.getProcessTimezone();
+    }
+
+    /**
+     * Registers a client waiting for all the tasks of the given business date to be over.
+     * The returned result is completed with true when the business date is over, or with false
+     * when the wait timeout is reached, in which case the client is expected to wait again.
+     */
+    public DeferredResult<ResponseEntity<Boolean>> waitForAllTasksOver(final LocalDate businessDate) {
+        final DeferredResult<ResponseEntity<Boolean>> result = new DeferredResult<>(waitTimeoutMs, () -> ResponseEntity.ok(false));
+        // Client is registered before checking the current state, so that no status update can be missed in between
+        waitingClients.compute(businessDate, (date, clients) -> {
+            final Set<DeferredResult<ResponseEntity<Boolean>>> waiting = clients != null ? clients : ConcurrentHashMap.newKeySet();
+            waiting.add(result);
+            return waiting;
+        });
+        // Only called when the request is handled asynchronously, results completed here are removed explicitly
+        result.onCompletion(() -> removeWaitingClient(businessDate, result));
+        if (taskDtoBuilderService.areAllTasksOverForBusinessDate(businessDate)) {
+            complete(businessDate, result);
+        }
+        return result;
+    }
+
+    public void onTaskStatusUpdated(final OffsetDateTime timestamp, final TaskStatus taskStatus) {
+        if (!taskStatus.isOver()) {
+            return;
+        }
+        final LocalDate businessDate = timestamp.atZoneSameInstant(processZone).toLocalDate();
+        final Set<DeferredResult<ResponseEntity<Boolean>>> clients = waitingClients.get(businessDate);
+        if (clients != null && taskDtoBuilderService.areAllTasksOverForBusinessDate(businessDate)) {
+            LOGGER.info("All tasks of business date {} are over, notifying {} waiting clients", businessDate, clients.size());
+            Set.copyOf(clients).forEach(client -> complete(businessDate, client));
+        }
+    }
+
+    private void complete(final LocalDate businessDate, final DeferredResult<ResponseEntity<Boolean>> result) {
+        result.setResult(ResponseEntity.ok(true));
+        removeWaitingClient(businessDate, result);
+    }
+
+    int getWaitingClientsCount(final LocalDate businessDate) {
+        return waitingClients.getOrDefault(businessDate, Set.of()).size();
+    }
+
+    private void removeWaitingClient(final LocalDate businessDate, final DeferredResult<ResponseEntity<Boolean>> result) {
+        waitingClients.computeIfPresent(businessDate, (date, clients) -> {
+            clients.remove(result);
+            return clients.isEmpty() ? null : clients;
+        });
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import com.farao_community.farao.gridcapa.task_manager.api.TaskStatus;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.context.annotation.Bean;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Shares the notifications of an instance of the task manager with the other ones. Websocket clients are
+ * connected to one instance only, while the tasks they follow may be updated by any instance: websocket
+ * messages are sent to the local clients and broadcast to the other instances, which relay them to their
+ * own clients. Tasks being over are broadcast as well, for the clients waiting for the end of a business date.
+ * Nothing is broadcast when the task manager runs alone.
+ */
+@Service
+public class ClusterNotificationRelay {
+    static final String NOTIFICATION_FANOUT_BINDING = "task-manager-notification-fanout";
+    static final String ORIGIN_INSTANCE_HEADER = "taskManagerInstance";
+    static final String STOMP_DESTINATION_HEADER = "stompDestination";
+    static final String TASK_TIMESTAMP_HEADER = "taskTimestamp";
+    static final String TASK_STATUS_HEADER = "taskStatus";
+    private static final String UPDATE_DESTINATION_PREFIX = "/update/";
+    private static final int BUSINESS_DATE_LENGTH = 10;
+
+    private final StreamBridge streamBridge;
+    private final SimpMessagingTemplate stompBridge;
+    private final BusinessDateCompletionService businessDateCompletionService;
+    private final TaskPartitionLeaseService taskPartitionLeaseService;
+    private final TaskChangeTracker taskChangeTracker;
+    private final StompSubscriptionRegistry stompSubscriptionRegistry;
+
+    public ClusterNotificationRelay(final StreamBridge streamBridge,
+                                    final SimpMessagingTemplate stompBridge,
+                                    final BusinessDateCompletionService businessDateCompletionService,
+                                    final TaskPartitionLeaseService taskPartitionLeaseService,
+                                    final TaskChangeTracker taskChangeTracker,
+                                    final StompSubscriptionRegistry stompSubscriptionRegistry) {
+        this.streamBridge = streamBridge;
+        this.stompBridge = stompBridge;
+        this.businessDateCompletionService = businessDateCompletionService;
+        this.taskPartitionLeaseService = taskPartitionLeaseService;
+        this.taskChangeTracker = taskChangeTracker;
+        this.stompSubscriptionRegistry = stompSubscriptionRegistry;
+    }
+
+    /**
+     * @return true when a websocket client may be subscribed to the destination, on this instance or, as their
+     * subscriptions are not known here, on another instance of the cluster
+     */
+    public boolean isListened(final String destination) {
+        return taskPartitionLeaseService.isClusterEnabled() || stompSubscriptionRegistry.hasSubscribers(destination);
+    }
+
+    public void sendToWebsocket(final String destination, final Object payload) {
+        if (stompSubscriptionRegistry.hasSubscribers(destination)) {
+            stompBridge.convertAndSend(destination, payload);
+        }
+        if (taskPartitionLeaseService.isClusterEnabled()) {
+            streamBridge.send(NOTIFICATION_FANOUT_BINDING, MessageBuilder.withPayload(payload)
+                .setHeader(ORIGIN_INSTANCE_HEADER, taskPartitionLeaseService.getInstanceId())
+                .setHeader(STOMP_DESTINATION_HEADER, destination)
+                .build());
+        }
+    }
+
+    public void notifyTaskStatusUpdated(final OffsetDateTime timestamp, final TaskStatus taskStatus) {
+        if (taskPartitionLeaseService.isClusterEnabled() && taskStatus.isOver()) {
+            streamBridge.send(NOTIFICATION_FANOUT_BINDING, MessageBuilder.withPayload(taskStatus.name())
+                .setHeader(ORIGIN_INSTANCE_HEADER, taskPartitionLeaseService.getInstanceId())
+                .setHeader(TASK_TIMESTAMP_HEADER, timestamp.toString())
+                .setHeader(TASK_STATUS_HEADER, taskStatus.name())
+                .build());
+        }
+    }
+
+    @Bean
+    public Consumer<Message<byte[]>> consumeClusterNotification() {
+        return this::relayClusterNotification;
+    }
+
+    void relayClusterNotification(final Message<byte[]> message) {
+        final MessageHeaders headers = message.getHeaders();
+        if (taskPartitionLeaseService.getInstanceId().equals(headers.get(ORIGIN_INSTANCE_HEADER, String.class))) {
+            // Local clients have already been notified by this instance
+            return;
+        }
+        final String destination = headers.get(STOMP_DESTINATION_HEADER, String.class);
+        if (destination != null) {
+            trackTaskChange(destination);
+        }
+        if (destination != null && stompSubscriptionRegistry.hasSubscribers(destination)) {
+            stompBridge.convertAndSend(destination, message.getPayload(), Map.of(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON));
+        }
+        final String taskTimestamp = headers.get(TASK_TIMESTAMP_HEADER, String.class);
+        final String taskStatus = headers.get(TASK_STATUS_HEADER, String.class);
+        if (taskTimestamp != null && taskStatus != null) {
+            businessDateCompletionService.onTaskStatusUpdated(OffsetDateTime.parse(taskTimestamp), TaskStatus.valueOf(taskStatus));
+        }
+    }
+
+    /**
+     * Tasks updated by another instance change the ETags of this one as well. Each task update being notified
+     * on the destination of its timestamp, destinations of business dates are not needed to do so.
+     */
+    private void trackTaskChange(final String destination) {
+        final int updatePrefixIndex = destination.indexOf(UPDATE_DESTINATION_PREFIX);
+        if (updatePrefixIndex < 0) {
+            return;
+        }
+        final String updatedView = destination.substring(updatePrefixIndex + UPDATE_DESTINATION_PREFIX.length()).split("/")[0];
+        if (updatedView.length() <= BUSINESS_DATE_LENGTH) {
+            return;
+        }
+        try {
+            taskChangeTracker.taskChanged(OffsetDateTime.parse(updatedView));
+        } catch (final DateTimeParseException e) {
+            taskChangeTracker.allTasksChanged();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Subscribes to the fluxes of messages received from the broker.
+ * Messages are requested from the binder by bounded batches and dispatched on a fixed number of rails
+ * according to their partition key: messages sharing the same key are handled sequentially in order of
+ * arrival, while messages with different keys may be handled in parallel on the consumer scheduler.
+ */
+@Component
+public class ConsumerPipeline {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConsumerPipeline.class);
+    private static final String CONSUMER_TAG = "consumer";
+
+    private final Scheduler consumerScheduler;
+    private final MeterRegistry meterRegistry;
+    private final int prefetch;
+    private final int rails;
+
+    public ConsumerPipeline(final Scheduler consumerScheduler,
+                            final MeterRegistry meterRegistry,
+                            @Value("${consumer-pipeline.prefetch}") final int prefetch,
+                            @Value("${consumer-pipeline.rails}") final int rails) {
+        this.consumerScheduler = consumerScheduler;
+        this.meterRegistry = meterRegistry;
+        this.prefetch = prefetch;
+        this.rails = rails;
+    }
+
+    public <T> Disposable consume(final String consumerName,
+                                  final Flux<T> messages,
+                                  final Function<T, Object> partitionKey,
+                                  final Consumer<T> handler,
+                                  final BiConsumer<T, Exception> errorHandler) {
+        final Counter receivedCounter = meterRegistry.counter("task.manager.consumer.messages.received", CONSUMER_TAG, consumerName);
+        final Counter processedCounter = meterRegistry.counter("task.manager.consumer.messages.processed", CONSUMER_TAG, consumerName);
+        final Counter failedCounter = meterRegistry.counter("task.manager.consumer.messages.failed", CONSUMER_TAG, consumerName);
+        final Timer handlingTimer = meterRegistry.timer("task.manager.consumer.handling", CONSUMER_TAG, consumerName);
+        final AtomicLong pendingMessages = new AtomicLong();
+        final String sqlStatisticsContext = SqlStatisticsContext.ofConsumer(consumerName);
+        Gauge.builder("task.manager.consumer.lag", pendingMessages, AtomicLong::get)
+            .tag(CONSUMER_TAG, consumerName)
+            .description("Number of messages received but not handled yet")
+            .register(meterRegistry);
+
+        return messages
+            .limitRate(prefetch)
+            .doOnNext(message -> {
+                receivedCounter.increment();
+                pendingMessages.incrementAndGet();
+            })
+            .groupBy(message -> getRail(message, partitionKey), prefetch)
+            .flatMap(rail -> rail
+                .publishOn(consumerScheduler, prefetch)
+                .doOnNext(message -> {
+                    SqlStatisticsContext.set(sqlStatisticsContext);
+                    try {
+                        handlingTimer.record(() -> handler.accept(message));
+                        processedCounter.increment();
+                    } catch (Exception e) {
+                        failedCounter.increment();
+                        errorHandler.accept(message, e);
+                    } finally {
+                        pendingMessages.decrementAndGet();
+                        SqlStatisticsContext.clear();
+                    }
+                }), rails)
+            .subscribe(
+                message -> { },
+                error -> LOGGER.error("Consumer {} stopped unexpectedly", consumerName, error));
+    }
+
+    /**
+     * Splits a batch of items into the batches of each rail, items sharing the same key being kept together in
+     * their order of arrival. Each batch is handled on its rail when partitioned by the key of its first item.
+     */
+    public <T> List<List<T>> splitByRail(final List<T> items, final Function<T, Object> partitionKey) {
+        final Map<Integer, List<T>> itemsByRail = new LinkedHashMap<>();
+        items.forEach(item -> itemsByRail.computeIfAbsent(getRail(item, partitionKey), rail -> new ArrayList<>()).add(item));
+        return List.copyOf(itemsByRail.values());
+    }
+
+    private <T> int getRail(final T message, final Function<T, Object> partitionKey) {
+        try {
+            return Math.floorMod(Objects.hashCode(partitionKey.apply(message)), rails);
+        } catch (Exception e) {
+            // Messages which key cannot be determined are handled on the first rail, their handler will report the error
+            return 0;
+        }
+    }
+}
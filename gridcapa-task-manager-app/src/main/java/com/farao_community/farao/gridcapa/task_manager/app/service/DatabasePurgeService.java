@@ -10,37 +10,106 @@ import com.farao_community.farao.gridcapa.task_manager.app.repository.ProcessEve
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
+ * Old task events are purged by chunks, each one deleted in its own transaction: the purge never holds
+ * long locks on the events table, and a purge interrupted by a shutdown or a failure is resumed by the next one.
+ * The size of the chunks is adapted for each of them to be deleted within the given time budget.
+ *
  * @author Jean-Pierre Arnould {@literal <jean-pierre.arnould at rte-france.com>}
  */
 @EnableScheduling
 @Service
 public class DatabasePurgeService {
-
-    @Value("${purge-task-events.nb-days}")
-    private String nbDays;
-
     private static final Logger LOGGER = LoggerFactory.getLogger(DatabasePurgeService.class);
+    private static final int MIN_CHUNK_SIZE = 100;
 
     private final ProcessEventRepository processEventRepository;
+    private final TaskChangeTracker taskChangeTracker;
+    private final long nbDays;
+    private final int maxChunkSize;
+    private final long chunkTimeBudgetMs;
+    private final long pauseBetweenChunksMs;
+    private final ReentrantLock purgeLock = new ReentrantLock();
+    private int chunkSize;
 
-    public DatabasePurgeService(final ProcessEventRepository processEventRepository) {
+    public DatabasePurgeService(final ProcessEventRepository processEventRepository,
+                                final TaskChangeTracker taskChangeTracker,
+                                @Value("${purge-task-events.nb-days}") final long nbDays,
+                                @Value("${purge-task-events.chunk-size}") final int maxChunkSize,
+                                @Value("${purge-task-events.chunk-time-budget-ms}") final long chunkTimeBudgetMs,
+                                @Value("${purge-task-events.pause-between-chunks-ms}") final long pauseBetweenChunksMs) {
         this.processEventRepository = processEventRepository;
+        this.taskChangeTracker = taskChangeTracker;
+        this.nbDays = nbDays;
+        this.maxChunkSize = Math.max(1, maxChunkSize);
+        this.chunkTimeBudgetMs = chunkTimeBudgetMs;
+        this.pauseBetweenChunksMs = pauseBetweenChunksMs;
+        this.chunkSize = this.maxChunkSize;
     }
 
     @Scheduled(cron = "${purge-task-events.cron}")
-    @Transactional
     public void scheduledDatabaseTaskEventsPurge() {
         OffsetDateTime dateTimeNow = OffsetDateTime.now();
-        OffsetDateTime dateTimeReference = dateTimeNow.minusDays(Long.valueOf(nbDays));
-        processEventRepository.deleteWhenOlderThan(dateTimeReference);
-        LOGGER.debug("Task events that are more than {} days old have been deleted from database ", nbDays);
+        OffsetDateTime dateTimeReference = dateTimeNow.minusDays(nbDays);
+        long deletedEvents = purgeEventsOlderThan(dateTimeReference);
+        if (deletedEvents > 0) {
+            taskChangeTracker.allTasksChanged();
+        }
+        LOGGER.debug("{} task events that are more than {} days old have been deleted from database ", deletedEvents, nbDays);
+    }
+
+    long purgeEventsOlderThan(final OffsetDateTime threshold) {
+        purgeLock.lock();
+        try {
+            long deletedEvents = 0;
+            while (!Thread.currentThread().isInterrupted()) {
+                final List<UUID> eventIds = processEventRepository.findIdsOlderThan(threshold, Limit.of(chunkSize));
+                if (eventIds.isEmpty()) {
+                    break;
+                }
+                final long start = System.nanoTime();
+                deletedEvents += processEventRepository.deleteByIdIn(eventIds);
+                adaptChunkSize(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                if (!pauseBetweenChunks()) {
+                    LOGGER.info("Purge of task events interrupted after {} deletions, it will be resumed by the next purge", deletedEvents);
+                    break;
+                }
+            }
+            return deletedEvents;
+        } finally {
+            purgeLock.unlock();
+        }
+    }
+
+    private void adaptChunkSize(final long chunkDurationMs) {
+        if (chunkDurationMs > chunkTimeBudgetMs) {
+            chunkSize = Math.max(Math.min(MIN_CHUNK_SIZE, maxChunkSize), chunkSize / 2);
+        } else if (chunkDurationMs < chunkTimeBudgetMs / 2) {
+            chunkSize = (int) Math.min(maxChunkSize, chunkSize * 2L);
+        }
+    }
+
+    private boolean pauseBetweenChunks() {
+        if (pauseBetweenChunksMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseBetweenChunksMs);
+            return true;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
     }
 }
@@ -7,27 +7,43 @@
 package com.farao_community.farao.gridcapa.task_manager.app.service;
 
 import com.farao_community.farao.gridcapa.task_manager.api.TaskLogEventUpdate;
+import com.farao_community.farao.gridcapa.task_manager.app.entities.ProcessEvent;
+import com.farao_community.farao.gridcapa.task_manager.app.repository.ProcessEventRepository;
 import com.farao_community.farao.gridcapa.task_manager.app.repository.TaskRepository;
 import com.farao_community.farao.gridcapa.task_manager.app.TaskUpdateNotifier;
 import com.farao_community.farao.gridcapa.task_manager.app.entities.Task;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.integration.amqp.inbound.AmqpInboundChannelAdapter;
+import org.springframework.messaging.Message;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
 import reactor.core.publisher.Flux;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.function.Consumer;
-
-import static com.farao_community.farao.gridcapa.task_manager.app.configuration.TaskManagerConfigurationProperties.TASK_MANAGER_LOCK;
+import java.util.stream.Collectors;
 
 /**
  * @author Theo Pascoli {@literal <theo.pascoli at rte-france.com>}
@@ -37,27 +53,94 @@ import static com.farao_community.farao.gridcapa.task_manager.app.configuration.
 public class EventHandler {
     private static final Logger LOGGER = LoggerFactory.getLogger(EventHandler.class);
     private final TaskRepository taskRepository;
+    private final ProcessEventRepository processEventRepository;
     private final TaskService taskService;
     private final TaskUpdateNotifier taskUpdateNotifier;
+    private final ConsumerPipeline consumerPipeline;
+    private final TaskIndexCache taskIndexCache;
+    private final DistributionSummary eventsPerBatch;
+
+    @Value("${process-event-buffer.flush-interval-ms}")
+    private long flushIntervalMs;
+    @Value("${process-event-buffer.max-deliveries}")
+    private int maxDeliveries;
 
-    public EventHandler(TaskRepository taskRepository, TaskService taskService, TaskUpdateNotifier taskUpdateNotifier) {
+    public EventHandler(TaskRepository taskRepository, ProcessEventRepository processEventRepository, TaskService taskService, TaskUpdateNotifier taskUpdateNotifier, ConsumerPipeline consumerPipeline, TaskIndexCache taskIndexCache, MeterRegistry meterRegistry) {
         this.taskRepository = taskRepository;
+        this.processEventRepository = processEventRepository;
         this.taskService = taskService;
         this.taskUpdateNotifier = taskUpdateNotifier;
+        this.consumerPipeline = consumerPipeline;
+        this.taskIndexCache = taskIndexCache;
+        this.eventsPerBatch = DistributionSummary.builder("task.manager.log.events.batch.size")
+            .description("Number of log events received in a single broker batch")
+            .register(meterRegistry);
     }
 
     @Bean
-    public Consumer<Flux<List<byte[]>>> consumeTaskEventUpdate() {
-        return f -> f.subscribe(messages -> {
-            try {
-                handleTaskEventBatchUpdate(mapMessagesToListEvents(messages));
-            } catch (Exception e) {
-                final List<String> stringMessages = messages.stream()
-                    .map(String::new)
-                    .toList();
-                LOGGER.error("Unable to handle task events update properly {}", stringMessages, e);
+    public Consumer<Flux<Message<List<byte[]>>>> consumeTaskEventUpdate() {
+        // Deliveries are buffered so that their events are inserted by groups, several groups can be written in parallel
+        return f -> consumerPipeline.consume("task-event-update",
+            toDeliveryGroups(f.doOnNext(delivery -> eventsPerBatch.record(delivery.getPayload().size()))),
+            deliveries -> deliveries.get(0).getHeaders().getId(),
+            this::handleDeliveries,
+            (deliveries, e) -> LOGGER.error("Unable to handle task events update properly, {} deliveries will be redelivered", deliveries.size(), e));
+    }
+
+    /**
+     * Gathers the deliveries received within the flush interval, up to the configured number of deliveries,
+     * so that their events are written in a single transaction.
+     */
+    private Flux<List<Message<List<byte[]>>>> toDeliveryGroups(Flux<Message<List<byte[]>>> deliveries) {
+        if (flushIntervalMs <= 0) {
+            return deliveries.map(List::of);
+        }
+        return deliveries.bufferTimeout(maxDeliveries, Duration.ofMillis(flushIntervalMs), true);
+    }
+
+    /**
+     * Deliveries are acknowledged to the broker only once their events are committed, so that none is lost
+     * if the task manager stops in between. When the database is unavailable, deliveries are requeued.
+     * When the events of the group cannot be written for another reason, deliveries are handled one by one,
+     * for the one that cannot be written not to be redelivered forever along with the others: it is rejected.
+     */
+    void handleDeliveries(List<Message<List<byte[]>>> deliveries) {
+        try {
+            handleTaskEventBatchUpdate(getEvents(deliveries));
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                deliveries.forEach(delivery -> acknowledge(delivery, Acknowledgement.REQUEUE));
+                throw e;
+            }
+            if (deliveries.size() > 1) {
+                LOGGER.warn("Unable to write log events of {} deliveries at once, they are written one delivery at a time", deliveries.size(), e);
+                deliveries.forEach(delivery -> handleDeliveries(List.of(delivery)));
+            } else {
+                LOGGER.error("Unable to write log events {}, they are rejected", deliveries.get(0).getPayload().stream().map(String::new).toList(), e);
+                acknowledge(deliveries.get(0), Acknowledgement.REJECT);
             }
-        });
+            return;
+        }
+        deliveries.forEach(delivery -> acknowledge(delivery, Acknowledgement.ACK));
+    }
+
+    private List<TaskLogEventUpdate> getEvents(List<Message<List<byte[]>>> deliveries) {
+        return deliveries.stream()
+            .flatMap(delivery -> mapMessagesToListEvents(delivery.getPayload()).stream())
+            .toList();
+    }
+
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+            || e instanceof RecoverableDataAccessException
+            || e instanceof DataAccessResourceFailureException
+            || e instanceof CannotCreateTransactionException;
+    }
+
+    Collection<List<TaskLogEventUpdate>> splitEventsByTask(List<TaskLogEventUpdate> events) {
+        return events.stream()
+            .collect(Collectors.groupingBy(TaskLogEventUpdate::getId, LinkedHashMap::new, Collectors.toList()))
+            .values();
     }
 
     List<TaskLogEventUpdate> mapMessagesToListEvents(List<byte[]> messages) {
@@ -78,30 +161,83 @@ public class EventHandler {
     }
 
     void handleTaskEventBatchUpdate(List<TaskLogEventUpdate> events) {
-        synchronized (TASK_MANAGER_LOCK) {
-            Map<UUID, Task> storedTasks = new HashMap<>();
-            for (TaskLogEventUpdate event : events) {
-                UUID taskUUID = UUID.fromString(event.getId());
-                Task task = storedTasks.get(taskUUID);
-                if (task == null) {
-                    Optional<Task> optionalTask = taskRepository.findByIdAndFetchProcessFiles(UUID.fromString(event.getId()));
-                    if (optionalTask.isPresent()) {
-                        task = optionalTask.get();
-                        storedTasks.put(taskUUID, task);
-                        taskService.addProcessEventToTask(event, task);
-                    } else {
-                        LOGGER.warn("Task {} does not exist. Impossible to update task with log event", event.getId());
-                    }
-                } else {
-                    taskService.addProcessEventToTask(event, task);
-                }
+        final Collection<List<TaskLogEventUpdate>> eventsByTask = splitEventsByTask(events);
+        final Set<UUID> taskIds = eventsByTask.stream()
+            .map(taskEvents -> parseTaskId(taskEvents.get(0).getId()))
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        if (taskIds.isEmpty()) {
+            return;
+        }
+        // Only the identity of tasks is needed to attach events to them, tasks themselves are left untouched
+        final Map<UUID, TaskIndexCache.TaskIndexEntry> taskIndexes = taskIndexCache.getAll(taskIds);
+        final List<ProcessEvent> processEvents = new ArrayList<>();
+        final List<OffsetDateTime> updatedTimestamps = new ArrayList<>();
+        for (List<TaskLogEventUpdate> taskEvents : eventsByTask) {
+            final String taskId = taskEvents.get(0).getId();
+            final UUID taskUUID = parseTaskId(taskId);
+            if (taskUUID == null || !taskIndexes.containsKey(taskUUID)) {
+                LOGGER.warn("Task {} does not exist. Impossible to update task with log event", taskId);
+                continue;
             }
-            Collection<Task> tasksToSave = storedTasks.values();
-            taskRepository.saveAll(tasksToSave);
-            for (Task task : tasksToSave) {
-                taskUpdateNotifier.notify(task, false, true);
-                LOGGER.debug("Task events have been added on {}", task.getTimestamp());
+            final Task task = taskRepository.getReferenceById(taskUUID);
+            taskEvents.forEach(event -> processEvents.add(taskService.createProcessEvent(event, task)));
+            updatedTimestamps.add(taskIndexes.get(taskUUID).timestamp());
+        }
+        if (processEvents.isEmpty()) {
+            return;
+        }
+        processEventRepository.saveAll(processEvents);
+        for (OffsetDateTime timestamp : updatedTimestamps) {
+            taskUpdateNotifier.notifyEventsUpdate(timestamp);
+            LOGGER.debug("Task events have been added on {}", timestamp);
+        }
+    }
+
+    private static UUID parseTaskId(String taskId) {
+        try {
+            return UUID.fromString(taskId);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private enum Acknowledgement {
+        ACK,
+        REQUEUE,
+        REJECT
+    }
+
+    private static void acknowledge(Message<?> delivery, Acknowledgement acknowledgement) {
+        final Channel channel = delivery.getHeaders().get(AmqpHeaders.CHANNEL, Channel.class);
+        if (channel == null) {
+            // Deliveries not coming from a manually acknowledged RabbitMQ binding have nothing to acknowledge
+            return;
+        }
+        for (Long deliveryTag : getDeliveryTags(delivery)) {
+            try {
+                switch (acknowledgement) {
+                    case ACK -> channel.basicAck(deliveryTag, false);
+                    case REQUEUE -> channel.basicNack(deliveryTag, false, true);
+                    case REJECT -> channel.basicReject(deliveryTag, false);
+                }
+            } catch (IOException e) {
+                LOGGER.error("Unable to acknowledge log event delivery {}", deliveryTag, e);
             }
         }
     }
+
+    @SuppressWarnings("unchecked")
+    private static List<Long> getDeliveryTags(Message<?> delivery) {
+        // Batched deliveries carry the headers of each of the RabbitMQ messages they gather
+        final List<Map<String, Object>> batchHeaders = delivery.getHeaders().get(AmqpInboundChannelAdapter.CONSOLIDATED_HEADERS, List.class);
+        if (batchHeaders != null) {
+            return batchHeaders.stream()
+                .map(headers -> (Long) headers.get(AmqpHeaders.DELIVERY_TAG))
+                .filter(Objects::nonNull)
+                .toList();
+        }
+        final Long deliveryTag = delivery.getHeaders().get(AmqpHeaders.DELIVERY_TAG, Long.class);
+        return deliveryTag != null ? List.of(deliveryTag) : List.of();
+    }
 }
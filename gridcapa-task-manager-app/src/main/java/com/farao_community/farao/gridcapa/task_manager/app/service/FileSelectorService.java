@@ -7,11 +7,11 @@
 package com.farao_community.farao.gridcapa.task_manager.app.service;
 
 import com.farao_community.farao.gridcapa.task_manager.app.TaskUpdateNotifier;
-import com.farao_community.farao.gridcapa.task_manager.app.configuration.TaskManagerConfigurationProperties;
 import com.farao_community.farao.gridcapa.task_manager.app.entities.Task;
 import com.farao_community.farao.gridcapa.task_manager.app.entities.TaskWithStatusUpdate;
 import com.farao_community.farao.gridcapa.task_manager.app.repository.TaskRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.OffsetDateTime;
 
@@ -25,20 +25,28 @@ public class FileSelectorService {
     private final TaskRepository taskRepository;
     private final TaskService taskService;
     private final TaskUpdateNotifier taskUpdateNotifier;
+    private final TaskUpdateRetrier taskUpdateRetrier;
+    private final TransactionTemplate transactionTemplate;
 
     public FileSelectorService(TaskRepository taskRepository,
                                TaskService taskService,
-                               TaskUpdateNotifier taskUpdateNotifier) {
+                               TaskUpdateNotifier taskUpdateNotifier,
+                               TaskUpdateRetrier taskUpdateRetrier,
+                               TransactionTemplate transactionTemplate) {
         this.taskRepository = taskRepository;
         this.taskService = taskService;
         this.taskUpdateNotifier = taskUpdateNotifier;
+        this.taskUpdateRetrier = taskUpdateRetrier;
+        this.transactionTemplate = transactionTemplate;
     }
 
     public void selectFile(final OffsetDateTime timestamp, final String filetype, final String filename) {
-        synchronized (TaskManagerConfigurationProperties.TASK_MANAGER_LOCK) {
+        taskUpdateRetrier.runWithRetry("file-selection", () -> {
             TaskWithStatusUpdate taskWithStatusUpdate = taskService.selectFile(timestamp, filetype, filename);
-            Task task = taskRepository.save(taskWithStatusUpdate.getTask());
-            taskUpdateNotifier.notify(task, taskWithStatusUpdate.isStatusUpdated(), false);
-        }
+            transactionTemplate.executeWithoutResult(status -> {
+                Task task = taskRepository.save(taskWithStatusUpdate.getTask());
+                taskUpdateNotifier.notify(task, taskWithStatusUpdate.isStatusUpdated(), false);
+            });
+        });
     }
 }
@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import com.farao_community.farao.gridcapa.task_manager.app.entities.FileEventType;
+import com.farao_community.farao.gridcapa.task_manager.app.repository.ProcessFileRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.minio.messages.Event;
+import io.minio.messages.NotificationRecords;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static com.farao_community.farao.gridcapa.task_manager.app.service.MinioHandler.FILE_VALIDITY_INTERVAL_METADATA_KEY;
+
+/**
+ * Routes the MinIO events received by any instance of the task manager to the instance owning the partition
+ * of the timestamps they concern, so that the files of a same business date are always handled one after the
+ * other. Each partition has its own queue, consumed by a single consumer of the cluster at a time: this instance
+ * only consumes the queues of the partitions it holds the lease of. Events waiting in the queue of a partition
+ * being handed over are consumed by its next owner.
+ * Events of files valid over several partitions are handled by the owners of these partitions one after the
+ * other, each one for the tasks of its partition only, before forwarding the events to the next partition.
+ */
+@Component
+@ConditionalOnProperty(name = "task-manager-cluster.enabled", havingValue = "true")
+public class MinioEventRouter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MinioEventRouter.class);
+    private static final String CONSUMER_NAME = "minio-partition";
+    private static final String PARTITIONS_HEADER = "x-task-partitions";
+    private static final String FILE_EVENT_TYPES_HEADER = "x-file-event-types";
+    private static final TypeReference<Map<String, FileEventType>> FILE_EVENT_TYPES_TYPE = new TypeReference<>() { };
+
+    private final RabbitTemplate rabbitTemplate;
+    private final ConnectionFactory connectionFactory;
+    private final TaskPartitionLeaseService taskPartitionLeaseService;
+    private final ProcessFileRepository processFileRepository;
+    private final MinioHandler minioHandler;
+    private final ObjectMapper objectMapper;
+    private final String exchange;
+    private final boolean virtualThreads;
+    private final Map<Integer, SimpleMessageListenerContainer> partitionContainers = new ConcurrentHashMap<>();
+
+    public MinioEventRouter(final RabbitTemplate rabbitTemplate,
+                            final ConnectionFactory connectionFactory,
+                            final TaskPartitionLeaseService taskPartitionLeaseService,
+                            final ProcessFileRepository processFileRepository,
+                            final MinioHandler minioHandler,
+                            final ObjectMapper objectMapper,
+                            @Value("${task-manager-cluster.minio-partition-exchange}") final String exchange,
+                            @Value("${spring.threads.virtual.enabled:false}") final boolean virtualThreads) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.connectionFactory = connectionFactory;
+        this.taskPartitionLeaseService = taskPartitionLeaseService;
+        this.processFileRepository = processFileRepository;
+        this.minioHandler = minioHandler;
+        this.objectMapper = objectMapper;
+        this.exchange = exchange;
+        this.virtualThreads = virtualThreads;
+    }
+
+    public static String getQueueName(final String exchange, final int partition) {
+        return exchange + ".partition-" + partition;
+    }
+
+    /**
+     * Events are grouped by partitions in their order of arrival, each group being sent as one notification
+     * to the first of its partitions.
+     */
+    public void route(final List<Event> events) {
+        final Map<List<Integer>, List<Event>> eventsByPartitions = new LinkedHashMap<>();
+        events.forEach(event -> eventsByPartitions.computeIfAbsent(getPartitions(event), partitions -> new ArrayList<>()).add(event));
+        eventsByPartitions.forEach((partitions, partitionEvents) -> send(partitionEvents, partitions, 0, Map.of()));
+    }
+
+    private void send(final List<Event> events, final List<Integer> partitions, final int partitionIndex, final Map<String, FileEventType> fileEventTypes) {
+        final int partition = partitions.get(partitionIndex);
+        LOGGER.debug("Routing {} MinIO events to partition {}", events.size(), partition);
+        rabbitTemplate.send(exchange, String.valueOf(partition), toMessage(events, partitions, fileEventTypes));
+    }
+
+    /**
+     * Creation events give the validity of the file in their metadata, while the validity of removed files is
+     * read from the database. Events concerning unknown files are spread over the partitions by object name.
+     */
+    List<Integer> getPartitions(final Event event) {
+        final String validityInterval = event.userMetadata() != null ? event.userMetadata().get(FILE_VALIDITY_INTERVAL_METADATA_KEY) : null;
+        if (validityInterval != null && !validityInterval.isEmpty()) {
+            final String[] interval = validityInterval.split("/");
+            return taskPartitionLeaseService.getPartitions(OffsetDateTime.parse(interval[0]), OffsetDateTime.parse(interval[1]));
+        }
+        final String objectKey = URLDecoder.decode(event.objectName(), StandardCharsets.UTF_8);
+        return processFileRepository.findByFileObjectKey(objectKey)
+            .map(processFile -> taskPartitionLeaseService.getPartitions(processFile.getStartingAvailabilityDate(), processFile.getEndingAvailabilityDate()))
+            .orElseGet(() -> List.of(Math.floorMod(objectKey.hashCode(), taskPartitionLeaseService.getPartitionCount())));
+    }
+
+    /**
+     * Events are forwarded in the format of MinIO notifications, so that they are read back the same way.
+     * The partitions handling them and the types of events recorded by the first one are sent as headers.
+     */
+    private Message toMessage(final List<Event> events, final List<Integer> partitions, final Map<String, FileEventType> fileEventTypes) {
+        final List<Map<String, Object>> records = events.stream()
+            .map(event -> Map.<String, Object>of(
+                "eventName", event.eventType().toString(),
+                "s3", Map.of("object", Map.of(
+                    "key", event.objectName(),
+                    "userMetadata", event.userMetadata() != null ? event.userMetadata() : Map.of()))))
+            .toList();
+        try {
+            final MessageProperties messageProperties = new MessageProperties();
+            messageProperties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+            messageProperties.setHeader(PARTITIONS_HEADER, partitions.stream().map(String::valueOf).collect(Collectors.joining(",")));
+            messageProperties.setHeader(FILE_EVENT_TYPES_HEADER, objectMapper.writeValueAsString(fileEventTypes));
+            return new Message(objectMapper.writeValueAsBytes(Map.of("Records", records)), messageProperties);
+        } catch (final JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize MinIO events", e);
+        }
+    }
+
+    @EventListener
+    public void onPartitionsAssigned(final TaskPartitionsAssigned partitionsAssigned) {
+        partitionContainers.keySet().stream()
+            .filter(partition -> !partitionsAssigned.partitions().contains(partition))
+            .toList()
+            .forEach(partition -> {
+                partitionContainers.remove(partition).stop();
+                LOGGER.info("MinIO events of partition {} are no longer consumed", partition);
+            });
+        partitionsAssigned.partitions().forEach(partition -> partitionContainers.computeIfAbsent(partition, this::startPartitionContainer));
+    }
+
+    private SimpleMessageListenerContainer startPartitionContainer(final int partition) {
+        final SimpleMessageListenerContainer container = new SimpleMessageListenerContainer(connectionFactory);
+        container.setQueueNames(getQueueName(exchange, partition));
+        container.setConcurrentConsumers(1);
+        // Failing events are logged and dropped, as with the events consumed from MinIO directly
+        container.setDefaultRequeueRejected(false);
+        if (virtualThreads) {
+            container.setTaskExecutor(new VirtualThreadTaskExecutor("minio-partition-" + partition + "-"));
+        }
+        container.setMessageListener(message -> handlePartitionMessage(partition, message));
+        container.afterPropertiesSet();
+        container.start();
+        LOGGER.info("MinIO events of partition {} are now consumed", partition);
+        return container;
+    }
+
+    private void handlePartitionMessage(final int partition, final Message message) {
+        SqlStatisticsContext.set(SqlStatisticsContext.ofConsumer(CONSUMER_NAME));
+        try {
+            final NotificationRecords notificationRecords = objectMapper.readValue(message.getBody(), NotificationRecords.class);
+            final List<Integer> partitions = getPartitions(message, partition);
+            final int partitionIndex = Math.max(0, partitions.indexOf(partition));
+            final MinioEventScope scope = new MinioEventScope(timestamp -> taskPartitionLeaseService.getPartition(timestamp) == partition,
+                partitionIndex == 0,
+                partitionIndex == partitions.size() - 1,
+                getFileEventTypes(message));
+            minioHandler.handleMinioEvents(notificationRecords.events(), scope);
+            if (!scope.lastHandling()) {
+                send(notificationRecords.events(), partitions, partitionIndex + 1, scope.fileEventTypes());
+            }
+        } catch (final IOException | RuntimeException e) {
+            LOGGER.error("Unable to handle MinIO events of partition {} properly", partition, e);
+        } finally {
+            SqlStatisticsContext.clear();
+        }
+    }
+
+    private static List<Integer> getPartitions(final Message message, final int partition) {
+        final String partitions = message.getMessageProperties().getHeader(PARTITIONS_HEADER);
+        if (partitions == null || partitions.isEmpty()) {
+            return List.of(partition);
+        }
+        return Arrays.stream(partitions.split(",")).map(Integer::valueOf).toList();
+    }
+
+    private Map<String, FileEventType> getFileEventTypes(final Message message) throws JsonProcessingException {
+        final String fileEventTypes = message.getMessageProperties().getHeader(FILE_EVENT_TYPES_HEADER);
+        return fileEventTypes == null ? new HashMap<>() : new HashMap<>(objectMapper.readValue(fileEventTypes, FILE_EVENT_TYPES_TYPE));
+    }
+
+    @PreDestroy
+    public void stopPartitionContainers() {
+        partitionContainers.values().forEach(SimpleMessageListenerContainer::stop);
+        partitionContainers.clear();
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import com.farao_community.farao.gridcapa.task_manager.app.entities.FileEventType;
+
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Tasks the MinIO events are handled for. When the task manager runs alone, events are handled for all the tasks
+ * at once. In a cluster, the events of a file valid over several partitions are handled by the owners of these
+ * partitions one after the other, each one for the tasks of its own partition: the first one saves the file,
+ * recording whether it was a new one, and the last one deletes it.
+ *
+ * @param timestampFilter the timestamps of the tasks to handle
+ * @param firstHandling true if the events are handled for the first time, the files being saved
+ * @param lastHandling true if the events are handled for the last time, the removed files being deleted
+ * @param fileEventTypes the types of the file events, by object key, set on the first handling of the events
+ */
+record MinioEventScope(Predicate<OffsetDateTime> timestampFilter,
+                       boolean firstHandling,
+                       boolean lastHandling,
+                       Map<String, FileEventType> fileEventTypes) {
+
+    static MinioEventScope allTasks() {
+        return new MinioEventScope(timestamp -> true, true, true, new HashMap<>());
+    }
+}
@@ -14,31 +14,44 @@ import com.farao_community.farao.gridcapa.task_manager.app.entities.ProcessFile;
 import com.farao_community.farao.gridcapa.task_manager.app.entities.ProcessFileMinio;
 import com.farao_community.farao.gridcapa.task_manager.app.entities.Task;
 import com.farao_community.farao.gridcapa.task_manager.app.entities.TaskWithStatusUpdate;
+import com.farao_community.farao.gridcapa.task_manager.app.entities.WaitingProcessFile;
 import com.farao_community.farao.gridcapa.task_manager.app.repository.ProcessFileRepository;
 import com.farao_community.farao.gridcapa.task_manager.app.repository.TaskRepository;
+import com.farao_community.farao.gridcapa.task_manager.app.repository.WaitingProcessFileRepository;
 import com.farao_community.farao.minio_adapter.starter.MinioAdapterConstants;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
 import io.minio.messages.Event;
 import io.minio.messages.NotificationRecords;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import reactor.core.publisher.Flux;
 
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
-import static com.farao_community.farao.gridcapa.task_manager.app.configuration.TaskManagerConfigurationProperties.TASK_MANAGER_LOCK;
-
 /**
  * @author Theo Pascoli {@literal <theo.pascoli at rte-france.com>}
  * @author Ameni Walha {@literal <ameni.walha at rte-france.com>}
@@ -53,36 +66,114 @@ public class MinioHandler {
     public static final String DOCUMENT_ID_METADATA_KEY = MinioAdapterConstants.DEFAULT_GRIDCAPA_DOCUMENT_ID_METADATA_KEY;
     public static final String FILE_VALIDITY_INTERVAL_METADATA_KEY = MinioAdapterConstants.DEFAULT_GRIDCAPA_FILE_VALIDITY_INTERVAL_METADATA_KEY;
     private static final String PROCESS_FILE_REMOVED_MESSAGE = "process file {} was removed from waiting list";
+    private static final String MINIO_EVENT_HANDLING_METRIC = "task.manager.minio.event.handling";
+    private static final String EVENT_TYPE_TAG = "event.type";
+    private static final String FILE_ADDITION_OPERATION = "minio-file-addition";
+    private static final String FILE_REMOVAL_OPERATION = "minio-file-removal";
+    private static final String WAITING_FILE_OPERATION = "minio-waiting-file";
+    private static final String WAITING_LIST_OPERATION = "minio-waiting-list";
 
     private final ProcessFileRepository processFileRepository;
+    private final WaitingProcessFileRepository waitingProcessFileRepository;
     private final TaskManagerConfigurationProperties taskManagerConfigurationProperties;
     private final TaskRepository taskRepository;
     private final TaskService taskService;
     private final TaskUpdateNotifier taskUpdateNotifier;
-    private final List<ProcessFileMinio> waitingFilesList = new ArrayList<>();
+    private final ConsumerPipeline consumerPipeline;
+    private final TaskManagerLock taskManagerLock;
+    private final TaskUpdateRetrier taskUpdateRetrier;
+    private final ObjectProvider<MinioEventRouter> minioEventRouterProvider;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Timer creationEventsTimer;
+    private final Timer removalEventsTimer;
+
+    @Value("${minio-event.coalescing-window-ms}")
+    private long coalescingWindowMs;
+    @Value("${minio-event.coalescing-max-events}")
+    private int coalescingMaxEvents;
+    @Value("${minio-event.task-window-hours}")
+    private int taskWindowHours;
 
-    public MinioHandler(ProcessFileRepository processFileRepository, TaskManagerConfigurationProperties taskManagerConfigurationProperties, TaskRepository taskRepository, TaskService taskService, TaskUpdateNotifier taskUpdateNotifier) {
+    public MinioHandler(ProcessFileRepository processFileRepository, WaitingProcessFileRepository waitingProcessFileRepository, TaskManagerConfigurationProperties taskManagerConfigurationProperties, TaskRepository taskRepository, TaskService taskService, TaskUpdateNotifier taskUpdateNotifier, ConsumerPipeline consumerPipeline, TaskManagerLock taskManagerLock, TaskUpdateRetrier taskUpdateRetrier, ObjectProvider<MinioEventRouter> minioEventRouterProvider, TransactionTemplate transactionTemplate, MeterRegistry meterRegistry) {
         this.processFileRepository = processFileRepository;
+        this.waitingProcessFileRepository = waitingProcessFileRepository;
         this.taskManagerConfigurationProperties = taskManagerConfigurationProperties;
         this.taskRepository = taskRepository;
         this.taskService = taskService;
         this.taskUpdateNotifier = taskUpdateNotifier;
+        this.consumerPipeline = consumerPipeline;
+        this.taskManagerLock = taskManagerLock;
+        this.taskUpdateRetrier = taskUpdateRetrier;
+        this.minioEventRouterProvider = minioEventRouterProvider;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.creationEventsTimer = meterRegistry.timer(MINIO_EVENT_HANDLING_METRIC, EVENT_TYPE_TAG, "created");
+        this.removalEventsTimer = meterRegistry.timer(MINIO_EVENT_HANDLING_METRIC, EVENT_TYPE_TAG, "removed");
+        meterRegistry.gauge("task.manager.minio.waiting.files", Tags.empty(), waitingProcessFileRepository, WaitingProcessFileRepository::count);
     }
 
     @Bean
     @Transactional
     public Consumer<Flux<NotificationRecords>> consumeMinioEvent() {
-        return f -> f.subscribe(nr -> {
-            try {
-                handleMinioEvent(nr);
-            } catch (Exception e) {
-                LOGGER.error("Unable to handle MinIO event properly", e);
-            }
+        // Batches are split by object: the events of an object are handled in order of arrival on the same rail,
+        // while the events of other objects may be handled in parallel.
+        // When several instances share the timestamps, events are forwarded to the instance owning their business date.
+        final MinioEventRouter minioEventRouter = minioEventRouterProvider.getIfAvailable();
+        final Consumer<List<Event>> eventsHandler = minioEventRouter != null ? minioEventRouter::route : this::handleMinioEvents;
+        return f -> consumerPipeline.consume("minio-event",
+            toEventBatches(f).flatMapIterable(events -> consumerPipeline.splitByRail(events, MinioHandler::getObjectKey)),
+            events -> getObjectKey(events.get(0)),
+            eventsHandler,
+            (events, e) -> LOGGER.error("Unable to handle MinIO events properly", e));
+    }
+
+    private Flux<List<Event>> toEventBatches(Flux<NotificationRecords> notificationRecords) {
+        if (coalescingWindowMs <= 0) {
+            return notificationRecords.map(NotificationRecords::events);
+        }
+        return notificationRecords
+            .flatMapIterable(NotificationRecords::events)
+            .bufferTimeout(coalescingMaxEvents, Duration.ofMillis(coalescingWindowMs), true)
+            .map(MinioHandler::coalesceEventsByObjectKey);
+    }
+
+    /**
+     * Bulk uploads and re-uploads generate several events for the same object within a few seconds.
+     * Only the last event received for each object is kept, as it reflects the final state of the object.
+     * Kept events are returned in the order in which their last occurrence was received.
+     */
+    static List<Event> coalesceEventsByObjectKey(List<Event> events) {
+        final Map<String, Event> lastEventByObjectKey = new LinkedHashMap<>();
+        events.forEach(event -> {
+            lastEventByObjectKey.remove(event.objectName());
+            lastEventByObjectKey.put(event.objectName(), event);
         });
+        if (lastEventByObjectKey.size() < events.size()) {
+            LOGGER.debug("{} redundant MinIO events have been dropped", events.size() - lastEventByObjectKey.size());
+        }
+        return List.copyOf(lastEventByObjectKey.values());
+    }
+
+    private static String getObjectKey(Event event) {
+        return URLDecoder.decode(event.objectName(), StandardCharsets.UTF_8);
     }
 
     public void handleMinioEvent(NotificationRecords notificationRecords) {
-        notificationRecords.events().forEach(event -> {
+        handleMinioEvents(notificationRecords.events());
+    }
+
+    void handleMinioEvents(List<Event> events) {
+        handleMinioEvents(events, MinioEventScope.allTasks());
+    }
+
+    /**
+     * Consecutive creation events are added to the tasks as a single batch,
+     * removal events are handled on their own to keep the order of the events.
+     */
+    void handleMinioEvents(List<Event> events, MinioEventScope scope) {
+        final List<Event> creationEvents = new ArrayList<>();
+        for (Event event : events) {
             LOGGER.debug("s3 event received");
             switch (event.eventType()) {
                 case OBJECT_CREATED_ANY,
@@ -90,52 +181,212 @@ public class MinioHandler {
                      OBJECT_CREATED_POST,
                      OBJECT_CREATED_COPY,
                      OBJECT_CREATED_COMPLETE_MULTIPART_UPLOAD ->
-                        updateTasks(event);
+                        creationEvents.add(event);
                 case OBJECT_REMOVED_ANY,
                      OBJECT_REMOVED_DELETE,
-                     OBJECT_REMOVED_DELETED_MARKER_CREATED ->
-                        removeProcessFile(event);
+                     OBJECT_REMOVED_DELETED_MARKER_CREATED -> {
+                    handleCreationEvents(creationEvents, scope);
+                    creationEvents.clear();
+                    removalEventsTimer.record(() -> removeProcessFile(event, scope));
+                }
                 default -> LOGGER.info("S3 event type {} not handled by task manager", event.eventType());
             }
-        });
+        }
+        handleCreationEvents(creationEvents, scope);
+    }
+
+    private void handleCreationEvents(List<Event> creationEvents, MinioEventScope scope) {
+        if (!creationEvents.isEmpty()) {
+            creationEventsTimer.record(() -> updateTasks(creationEvents, scope));
+        }
     }
 
     public void updateTasks(Event event) {
-        synchronized (TASK_MANAGER_LOCK) {
-            if (!event.userMetadata().isEmpty() && taskManagerConfigurationProperties.getProcess().getTag().equals(event.userMetadata().get(FILE_TARGET_PROCESS_METADATA_KEY))) {
-                ProcessFileMinio processFileMinio = buildProcessFileMinioFromEvent(event);
-                if (processFileMinio != null) {
-                    ProcessFile processFile = processFileMinio.getProcessFile();
-                    if (!processFile.isInputFile()) {
-                        processFile = processFileRepository.save(processFile);
-                        Set<TaskWithStatusUpdate> taskWithStatusUpdates = taskService.addProcessFileToTasks(processFile, processFileMinio.getFileEventType(), false, false);
-                        saveAndNotifyTasks(taskWithStatusUpdates, false);
-                        LOGGER.info("Process file {} has been added properly", processFile.getFilename());
-                    } else {
+        updateTasks(List.of(event));
+    }
+
+    /**
+     * Files of all the given events are added to the tasks at once: the concerned tasks are loaded, saved
+     * and notified only once, whatever the number of files concerning them.
+     */
+    public void updateTasks(List<Event> events) {
+        updateTasks(events, MinioEventScope.allTasks());
+    }
+
+    void updateTasks(List<Event> events, MinioEventScope scope) {
+        if (events.isEmpty()) {
+            return;
+        }
+        taskManagerLock.runLocked(FILE_ADDITION_OPERATION, () -> {
+            final List<ProcessFileMinio> processFilesToAdd = new ArrayList<>();
+            for (Event event : events) {
+                if (!event.userMetadata().isEmpty() && taskManagerConfigurationProperties.getProcess().getTag().equals(event.userMetadata().get(FILE_TARGET_PROCESS_METADATA_KEY))) {
+                    if (!scope.firstHandling()) {
+                        getSavedProcessFileMinio(event, scope).ifPresent(processFilesToAdd::add);
+                        continue;
+                    }
+                    ProcessFileMinio processFileMinio = buildProcessFileMinioFromEvent(event);
+                    if (processFileMinio != null) {
+                        ProcessFile processFile = processFileMinio.getProcessFile();
                         // If the file coming is an input while one of the concerned timestamp is running, the file put in a waiting list until the process ends
-                        final Set<Task> runningOrPendingTasks = taskRepository.findAllByTimestampBetweenAndStatusIn(processFile.getStartingAvailabilityDate(),
-                                processFile.getEndingAvailabilityDate(),
-                                Set.of(TaskStatus.RUNNING, TaskStatus.PENDING));
+                        final Set<Task> runningOrPendingTasks = processFile.isInputFile()
+                                ? taskRepository.findAllByTimestampBetweenAndStatusIn(processFile.getStartingAvailabilityDate(),
+                                        processFile.getEndingAvailabilityDate(),
+                                        Set.of(TaskStatus.RUNNING, TaskStatus.PENDING))
+                                : Collections.emptySet();
                         if (!runningOrPendingTasks.isEmpty()) {
                             addWaitingFileAndNotifyTasks(processFileMinio, runningOrPendingTasks);
                         } else {
-                            processFile = processFileRepository.save(processFile);
-                            Set<TaskWithStatusUpdate> taskWithStatusUpdates = taskService.addProcessFileToTasks(processFile, processFileMinio.getFileEventType(), true, true);
-                            saveAndNotifyTasks(taskWithStatusUpdates, true);
-                            LOGGER.info("Process file {} has been added properly", processFile.getFilename());
+                            processFilesToAdd.add(new ProcessFileMinio(processFileRepository.save(processFile), processFileMinio.getFileEventType()));
+                            scope.fileEventTypes().put(processFile.getFileObjectKey(), processFileMinio.getFileEventType());
                         }
+                    } else {
+                        String objectKey = getObjectKey(event);
+                        LOGGER.warn("Minio object {} has not been added ", objectKey);
                     }
-                } else {
-                    String objectKey = URLDecoder.decode(event.objectName(), StandardCharsets.UTF_8);
-                    LOGGER.warn("Minio object {} has not been added ", objectKey);
                 }
             }
+            addProcessFilesAndNotifyTasks(processFilesToAdd, scope);
+        });
+    }
+
+    /**
+     * Once saved by the first handling of its event, a file is added to the tasks of the other partitions with
+     * the type of event recorded then. Files put in the waiting list have not been saved and are left out.
+     */
+    private Optional<ProcessFileMinio> getSavedProcessFileMinio(Event event, MinioEventScope scope) {
+        final String objectKey = getObjectKey(event);
+        return processFileRepository.findByFileObjectKey(objectKey)
+                .map(processFile -> new ProcessFileMinio(processFile, scope.fileEventTypes().getOrDefault(objectKey, FileEventType.AVAILABLE)));
+    }
+
+    /**
+     * An input file concerning a task which is running or pending in a window is neither added to the tasks of
+     * this window nor to the ones of the next windows: it is put in the waiting list, to be added to all its tasks
+     * once the tasks it waits for are over. The status of the tasks being changed without the lock of the file
+     * additions, the running tasks are read again on each attempt of a window, before and after its tasks are loaded.
+     * When a window fails, the windows already committed are kept: their tasks have the files, which are added to
+     * them again if the files are emptied from the waiting list later on, while the files are missing from the
+     * tasks of the next windows until another event brings them.
+     */
+    private void addProcessFilesAndNotifyTasks(List<ProcessFileMinio> processFilesToAdd, MinioEventScope scope) {
+        if (processFilesToAdd.isEmpty()) {
+            return;
+        }
+        final List<ProcessFile> processFiles = processFilesToAdd.stream()
+                .map(ProcessFileMinio::getProcessFile)
+                .toList();
+        final long[] tasksPerFile = new long[processFiles.size()];
+        final Map<Integer, Set<Task>> waitedTasksByFile = new TreeMap<>();
+        try {
+            forEachTaskWindow(FILE_ADDITION_OPERATION, processFiles, scope, (windowStart, windowEnd) -> {
+                final Set<Task> runningOrPendingTasks = findRunningOrPendingTasks(windowStart, windowEnd);
+                final Map<Integer, Set<Task>> windowWaitedTasksByFile = new TreeMap<>();
+                final List<Integer> windowFiles = new ArrayList<>();
+                for (int i = 0; i < processFiles.size(); i++) {
+                    final ProcessFile processFile = processFiles.get(i);
+                    final Set<Task> waitedTasks = processFile.isInputFile()
+                            ? runningOrPendingTasks.stream().filter(task -> isFileValidForTimestamp(task.getTimestamp(), processFile)).collect(Collectors.toSet())
+                            : Collections.emptySet();
+                    if (!waitedTasks.isEmpty()) {
+                        windowWaitedTasksByFile.put(i, waitedTasks);
+                    } else if (!waitedTasksByFile.containsKey(i)) {
+                        windowFiles.add(i);
+                    }
+                }
+                final Set<TaskWithStatusUpdate> taskWithStatusUpdates = taskService.addProcessFilesToTasks(windowFiles.stream().map(processFilesToAdd::get).toList(), windowStart, windowEnd);
+                if (!getTimestamps(findRunningOrPendingTasks(windowStart, windowEnd)).equals(getTimestamps(runningOrPendingTasks))) {
+                    // A task loaded after its status changed would be saved with its former status
+                    throw new OptimisticLockingFailureException(String.format("Tasks between %s and %s have been started or ended concurrently", windowStart, windowEnd));
+                }
+                final Map<Boolean, Set<TaskWithStatusUpdate>> taskWithStatusUpdatesByNewInput = taskWithStatusUpdates.stream()
+                        .collect(Collectors.partitioningBy(
+                                taskWithStatusUpdate -> windowFiles.stream().map(processFiles::get).filter(ProcessFile::isInputFile)
+                                        .anyMatch(inputFile -> isFileValidForTimestamp(taskWithStatusUpdate.getTask().getTimestamp(), inputFile)),
+                                Collectors.toSet()));
+                // Tasks and their notifications to the broker are committed together
+                transactionTemplate.executeWithoutResult(status -> {
+                    LOGGER.debug("Saving related tasks in DB");
+                    taskRepository.saveAllAndFlush(taskWithStatusUpdates.stream().map(TaskWithStatusUpdate::getTask).toList());
+                    LOGGER.debug("Notifying on web-sockets");
+                    taskUpdateNotifier.notifyNewInput(taskWithStatusUpdatesByNewInput.get(true));
+                    taskUpdateNotifier.notify(taskWithStatusUpdatesByNewInput.get(false));
+                });
+                for (final int i : windowFiles) {
+                    tasksPerFile[i] += taskWithStatusUpdates.stream()
+                            .filter(taskWithStatusUpdate -> isFileValidForTimestamp(taskWithStatusUpdate.getTask().getTimestamp(), processFiles.get(i)))
+                            .count();
+                }
+                windowWaitedTasksByFile.forEach((i, waitedTasks) -> waitedTasksByFile.computeIfAbsent(i, file -> new HashSet<>()).addAll(waitedTasks));
+            });
+        } finally {
+            processFiles.forEach(taskService::virtualTasksChanged);
+            for (int i = 0; i < processFiles.size(); i++) {
+                recordTasksPerFile(processFiles.get(i), tasksPerFile[i]);
+            }
+            waitedTasksByFile.forEach((i, waitedTasks) -> addWaitingFileAndNotifyTasks(processFilesToAdd.get(i), waitedTasks));
+        }
+        for (int i = 0; i < processFiles.size(); i++) {
+            if (!waitedTasksByFile.containsKey(i)) {
+                LOGGER.info("Process file {} has been added properly", processFiles.get(i).getFilename());
+            }
+        }
+    }
+
+    private Set<Task> findRunningOrPendingTasks(OffsetDateTime start, OffsetDateTime end) {
+        return taskRepository.findAllByTimestampBetweenAndStatusIn(start, end, Set.of(TaskStatus.RUNNING, TaskStatus.PENDING));
+    }
+
+    private static Set<OffsetDateTime> getTimestamps(Set<Task> tasks) {
+        return tasks.stream().map(Task::getTimestamp).collect(Collectors.toSet());
+    }
+
+    /**
+     * Files valid for a long period (up to a year) concern thousands of tasks, which are not loaded all at once:
+     * the validity period is split in windows of fixed length, the tasks of each window being loaded, saved and
+     * notified before the next window is handled. Each repository call runs in its own persistence context, which
+     * is flushed and released when the call returns, so that only the tasks of the current window are kept in memory.
+     * Windows are narrowed down to the hours of the tasks in the scope of the events.
+     * A window conflicting with concurrent task updates is handled again on its own, the windows already
+     * committed being neither saved nor notified twice.
+     */
+    private void forEachTaskWindow(String operation, List<ProcessFile> processFiles, MinioEventScope scope, BiConsumer<OffsetDateTime, OffsetDateTime> windowHandler) {
+        final OffsetDateTime start = processFiles.stream()
+                .map(ProcessFile::getStartingAvailabilityDate)
+                .min(OffsetDateTime.timeLineOrder())
+                .orElseThrow();
+        final OffsetDateTime end = processFiles.stream()
+                .map(ProcessFile::getEndingAvailabilityDate)
+                .max(OffsetDateTime.timeLineOrder())
+                .orElseThrow();
+        final Duration windowLength = Duration.ofHours(Math.max(1, taskWindowHours));
+        final BiConsumer<OffsetDateTime, OffsetDateTime> retriedWindowHandler = (periodStart, periodEnd) ->
+                taskUpdateRetrier.runWithRetry(operation, () -> windowHandler.accept(periodStart, periodEnd));
+        for (OffsetDateTime windowStart = start; windowStart.isBefore(end); windowStart = windowStart.plus(windowLength)) {
+            final OffsetDateTime windowEnd = windowStart.plus(windowLength);
+            forEachPeriodInScope(windowStart, windowEnd.isBefore(end) ? windowEnd : end, scope, retriedWindowHandler);
+        }
+    }
+
+    private static void forEachPeriodInScope(OffsetDateTime windowStart, OffsetDateTime windowEnd, MinioEventScope scope, BiConsumer<OffsetDateTime, OffsetDateTime> periodHandler) {
+        OffsetDateTime periodStart = null;
+        for (OffsetDateTime hour = windowStart; hour.isBefore(windowEnd); hour = hour.plusHours(1)) {
+            final boolean inScope = scope.timestampFilter().test(hour);
+            if (inScope && periodStart == null) {
+                periodStart = hour;
+            } else if (!inScope && periodStart != null) {
+                periodHandler.accept(periodStart, hour);
+                periodStart = null;
+            }
+        }
+        if (periodStart != null) {
+            periodHandler.accept(periodStart, windowEnd);
         }
     }
 
     private ProcessFileMinio buildProcessFileMinioFromEvent(Event event) {
         String validityInterval = event.userMetadata().get(FILE_VALIDITY_INTERVAL_METADATA_KEY);
-        String objectKey = URLDecoder.decode(event.objectName(), StandardCharsets.UTF_8);
+        String objectKey = getObjectKey(event);
         if (validityInterval != null && !validityInterval.isEmpty()) {
             String fileGroup = event.userMetadata().get(FILE_GROUP_METADATA_KEY);
             String fileType = event.userMetadata().get(FILE_TYPE_METADATA_KEY);
@@ -185,57 +436,81 @@ public class MinioHandler {
     }
 
     private void addWaitingFileAndNotifyTasks(ProcessFileMinio processFileMinio, Set<Task> runningOrPendingTasks) {
+        final ProcessFile processFile = processFileMinio.getProcessFile();
+        final int replacedFilesCount = waitingProcessFileRepository.deleteAllWithSameTypeAndValidity(processFile.getFileType(),
+                processFile.getStartingAvailabilityDate(),
+                processFile.getEndingAvailabilityDate());
+        if (replacedFilesCount > 0) {
+            LOGGER.info("{} waiting files of type {} replaced by process file {}", replacedFilesCount, processFile.getFileType(), processFile.getFilename());
+        }
+        waitingProcessFileRepository.save(new WaitingProcessFile(processFile));
+        LOGGER.info("process file {} is added to waiting files list", processFile.getFilename());
         for (Task task : runningOrPendingTasks) {
-            removeWaitingFileWithSameTypeAndValidity(processFileMinio);
-            waitingFilesList.add(processFileMinio);
-            LOGGER.info("process file {} is added to waiting files list", processFileMinio.getProcessFile().getFilename());
-            taskService.addFileEventToTask(task, FileEventType.WAITING, processFileMinio.getProcessFile(), "WARN");
-            saveAndNotifyTasks(Collections.singleton(new TaskWithStatusUpdate(task, false)), false); //No need to update status when the file is waiting
+            taskService.addFileEventToTask(task, FileEventType.WAITING, processFile, "WARN");
+            // The task is read again on each attempt, its status being changed concurrently by the process it is running
+            taskUpdateRetrier.runWithRetry(WAITING_FILE_OPERATION, () -> taskRepository.findByTimestamp(task.getTimestamp())
+                    .ifPresent(runningOrPendingTask -> saveAndNotifyTasks(Collections.singleton(new TaskWithStatusUpdate(runningOrPendingTask, false)), false))); //No need to update status when the file is waiting
         }
     }
 
-    private void removeWaitingFileWithSameTypeAndValidity(ProcessFileMinio newProcessFileMinio) {
-        Set<ProcessFileMinio> processFileMiniosWaiting = waitingFilesList.stream().filter(processFileMinio -> processFileMinio.hasSameTypeAndValidity(newProcessFileMinio)).collect(Collectors.toSet());
-        for (ProcessFileMinio processFileMinio : processFileMiniosWaiting) {
-            waitingFilesList.remove(processFileMinio);
-            LOGGER.info(PROCESS_FILE_REMOVED_MESSAGE, processFileMinio.getProcessFile().getFilename());
-        }
+    public void emptyWaitingList(OffsetDateTime timestamp) {
+        taskManagerLock.runLocked(WAITING_LIST_OPERATION, () -> addWaitingProcessFiles(timestamp));
     }
 
-    public void emptyWaitingList(OffsetDateTime timestamp) {
+    private void addWaitingProcessFiles(OffsetDateTime timestamp) {
         LOGGER.info("Handle Emptying of waiting list..");
-        LOGGER.info("Waiting list contains {} files", waitingFilesList.size());
-        List<ProcessFileMinio> waitingProcessFilesToAdd = getWaitingProcessFilesForTimestamp(timestamp);
+        List<WaitingProcessFile> waitingProcessFilesToAdd = getWaitingProcessFilesForTimestamp(timestamp);
         int processFilesSize = waitingProcessFilesToAdd.size();
 
-        if (processFilesSize >= 1) {
-            // each process file is added to the task, but the status is updated only for the last file waiting (withStatusUpdate = true parameter)
-            for (int i = 0; i < processFilesSize - 1; i++) {
-                ProcessFileMinio processFileMinio = waitingProcessFilesToAdd.get(i);
-                ProcessFile processFile = processFileRepository.save(processFileMinio.getProcessFile());
-                Set<TaskWithStatusUpdate> tasksWithStatusUpdate = taskService.addProcessFileToTasks(processFile, processFileMinio.getFileEventType(), true, false);
+        // each process file is added to the task, but the status is updated only for the last file waiting (withStatusUpdate = true parameter)
+        for (int i = 0; i < processFilesSize; i++) {
+            addWaitingProcessFile(waitingProcessFilesToAdd.get(i), i == processFilesSize - 1);
+        }
+    }
+
+    private void addWaitingProcessFile(WaitingProcessFile waitingProcessFile, boolean withStatusUpdate) {
+        // Another instance emptying the waiting list at the same time may already have added the file
+        if (waitingProcessFileRepository.removeFromWaitingList(waitingProcessFile.getId()) == 0) {
+            return;
+        }
+        try {
+            ProcessFileMinio processFileMinio = getProcessFileMinio(waitingProcessFile.getStartingAvailabilityDate(),
+                    waitingProcessFile.getEndingAvailabilityDate(),
+                    waitingProcessFile.getFileObjectKey(),
+                    waitingProcessFile.getFileType(),
+                    waitingProcessFile.getFileGroup(),
+                    waitingProcessFile.getDocumentId());
+            processFileMinio.getProcessFile().setLastModificationDate(waitingProcessFile.getLastModificationDate());
+            ProcessFile processFile = processFileRepository.save(processFileMinio.getProcessFile());
+            final long[] tasksCount = new long[1];
+            // Waiting files are added to all their tasks by the instance ending the tasks they were waiting for
+            forEachTaskWindow(WAITING_LIST_OPERATION, List.of(processFile), MinioEventScope.allTasks(), (windowStart, windowEnd) -> {
+                Set<TaskWithStatusUpdate> tasksWithStatusUpdate = taskService.addProcessFileToTasks(processFile, processFileMinio.getFileEventType(), true, withStatusUpdate, windowStart, windowEnd);
                 saveAndNotifyTasks(tasksWithStatusUpdate, processFile.isInputFile());
-                waitingFilesList.remove(processFileMinio);
-                LOGGER.info(PROCESS_FILE_REMOVED_MESSAGE, processFile.getFilename());
-            }
-            ProcessFileMinio lastProcessFileMinio = waitingProcessFilesToAdd.get(processFilesSize - 1);
-            final ProcessFile lastProcessFile = processFileRepository.save(lastProcessFileMinio.getProcessFile());
-            Set<TaskWithStatusUpdate> tasksWithStatusUpdate = taskService.addProcessFileToTasks(lastProcessFile, lastProcessFileMinio.getFileEventType(), true, true);
-            saveAndNotifyTasks(tasksWithStatusUpdate, lastProcessFile.isInputFile());
-            waitingFilesList.remove(lastProcessFileMinio);
-            LOGGER.info(PROCESS_FILE_REMOVED_MESSAGE, lastProcessFile.getFilename());
+                tasksCount[0] += tasksWithStatusUpdate.size();
+            });
+            taskService.virtualTasksChanged(processFile);
+            recordTasksPerFile(processFile, tasksCount[0]);
+            LOGGER.info(PROCESS_FILE_REMOVED_MESSAGE, processFile.getFilename());
+        } catch (RuntimeException e) {
+            // The file is put back in the waiting list, so that it is not lost when the operation is run again
+            waitingProcessFileRepository.save(waitingProcessFile);
+            throw e;
         }
     }
 
-    List<ProcessFileMinio> getWaitingProcessFilesForTimestamp(OffsetDateTime timestamp) {
-        List<ProcessFileMinio> processFilesWithFinishedTasks = new ArrayList<>();
-        for (ProcessFileMinio processFileMinio : waitingFilesList) {
-            ProcessFile processFile = processFileMinio.getProcessFile();
-            if (isFileValidForTimestamp(timestamp, processFile) && taskRepository.findAllByTimestampBetweenAndStatusIn(processFile.getStartingAvailabilityDate(),
-                    processFile.getEndingAvailabilityDate(),
+    private void recordTasksPerFile(ProcessFile processFile, long tasksCount) {
+        meterRegistry.summary("task.manager.minio.tasks.per.file", "file.group", processFile.getFileGroup()).record(tasksCount);
+    }
+
+    List<WaitingProcessFile> getWaitingProcessFilesForTimestamp(OffsetDateTime timestamp) {
+        List<WaitingProcessFile> processFilesWithFinishedTasks = new ArrayList<>();
+        for (WaitingProcessFile waitingProcessFile : waitingProcessFileRepository.findAllValidForTimestamp(timestamp)) {
+            if (taskRepository.findAllByTimestampBetweenAndStatusIn(waitingProcessFile.getStartingAvailabilityDate(),
+                    waitingProcessFile.getEndingAvailabilityDate(),
                     Set.of(TaskStatus.RUNNING, TaskStatus.PENDING)).isEmpty()) {
-                processFilesWithFinishedTasks.add(processFileMinio);
-                LOGGER.info("process file to add {} for timestamp {}", processFileMinio.getProcessFile().getFilename(), timestamp);
+                processFilesWithFinishedTasks.add(waitingProcessFile);
+                LOGGER.info("process file to add {} for timestamp {}", waitingProcessFile.getFilename(), timestamp);
             }
         }
         return processFilesWithFinishedTasks;
@@ -248,30 +523,44 @@ public class MinioHandler {
     }
 
     public void removeProcessFile(Event event) {
-        synchronized (TASK_MANAGER_LOCK) {
-            String objectKey = URLDecoder.decode(event.objectName(), StandardCharsets.UTF_8);
+        removeProcessFile(event, MinioEventScope.allTasks());
+    }
+
+    void removeProcessFile(Event event, MinioEventScope scope) {
+        taskManagerLock.runLocked(FILE_REMOVAL_OPERATION, () -> {
+            String objectKey = getObjectKey(event);
             LOGGER.info("Removing MinIO object {}", objectKey);
             Optional<ProcessFile> optionalProcessFile = processFileRepository.findByFileObjectKey(objectKey);
             if (optionalProcessFile.isPresent()) {
                 ProcessFile processFile = optionalProcessFile.get();
                 LOGGER.debug("Finding tasks related to {}", processFile.getFilename());
-                saveAndNotifyTasks(taskService.removeProcessFileFromTasks(processFile), false);
-                processFileRepository.delete(processFile);
-                LOGGER.info("Process file {} has been removed properly", processFile.getFilename());
+                forEachTaskWindow(FILE_REMOVAL_OPERATION, List.of(processFile), scope, (windowStart, windowEnd) ->
+                        saveAndNotifyTasks(taskService.removeProcessFileFromTasks(processFile, windowStart, windowEnd), false));
+                if (scope.lastHandling()) {
+                    processFileRepository.delete(processFile);
+                    taskService.virtualTasksChanged(processFile);
+                    LOGGER.info("Process file {} has been removed properly", processFile.getFilename());
+                } else {
+                    // The file is still referenced by the tasks of the partitions handling the event next
+                    LOGGER.info("Process file {} has been removed from the tasks of this partition", processFile.getFilename());
+                }
             } else {
                 LOGGER.info("File not referenced in the database. Nothing to do.");
             }
-        }
+        });
     }
 
     private void saveAndNotifyTasks(Set<TaskWithStatusUpdate> taskWithStatusUpdateSet, boolean withNewInput) {
-        LOGGER.debug("Saving related tasks in DB");
-        taskRepository.saveAllAndFlush(taskWithStatusUpdateSet.stream().map(TaskWithStatusUpdate::getTask).toList());
-        LOGGER.debug("Notifying on web-sockets");
-        if (withNewInput) {
-            taskUpdateNotifier.notifyNewInput(taskWithStatusUpdateSet);
-        } else {
-            taskUpdateNotifier.notify(taskWithStatusUpdateSet);
-        }
+        // Tasks and their notifications to the broker are committed together
+        transactionTemplate.executeWithoutResult(status -> {
+            LOGGER.debug("Saving related tasks in DB");
+            taskRepository.saveAllAndFlush(taskWithStatusUpdateSet.stream().map(TaskWithStatusUpdate::getTask).toList());
+            LOGGER.debug("Notifying on web-sockets");
+            if (withNewInput) {
+                taskUpdateNotifier.notifyNewInput(taskWithStatusUpdateSet);
+            } else {
+                taskUpdateNotifier.notify(taskWithStatusUpdateSet);
+            }
+        });
     }
 }
@@ -32,9 +32,12 @@ public class ParameterService {
 
     private final RunnerParameters runnerParameters;
 
-    public ParameterService(ParameterRepository parameterRepository, RunnerParameters runnerParameters) {
+    private final TaskChangeTracker taskChangeTracker;
+
+    public ParameterService(ParameterRepository parameterRepository, RunnerParameters runnerParameters, TaskChangeTracker taskChangeTracker) {
         this.parameterRepository = parameterRepository;
         this.runnerParameters = runnerParameters;
+        this.taskChangeTracker = taskChangeTracker;
     }
 
     public List<ParameterDto> getParameters() {
@@ -68,7 +71,10 @@ public class ParameterService {
             throw new TaskManagerException(message);
         }
 
-        return parameterRepository.saveAll(parametersToSave).stream()
+        List<Parameter> savedParameters = parameterRepository.saveAll(parametersToSave);
+        // Parameters are part of every task
+        taskChangeTracker.allTasksChanged();
+        return savedParameters.stream()
             .map(this::convertToDtoAndFillDefaultValue)
             .toList();
     }
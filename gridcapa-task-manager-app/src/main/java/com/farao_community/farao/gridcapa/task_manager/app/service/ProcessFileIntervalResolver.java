@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import com.farao_community.farao.gridcapa.task_manager.app.entities.ProcessFile;
+import com.farao_community.farao.gridcapa.task_manager.app.entities.Task;
+import com.farao_community.farao.gridcapa.task_manager.app.entities.TaskFileSelection;
+import com.farao_community.farao.gridcapa.task_manager.app.repository.ProcessFileRepository;
+import com.farao_community.farao.gridcapa.task_manager.app.repository.TaskFileSelectionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Associates process files to tasks by their validity interval rather than through the join tables, when enabled.
+ * A file is then stored once whatever the length of its validity: the files of a task are the ones valid for its
+ * timestamp, resolved when the task is read. The selected input of each type is the last modified one, unless
+ * another one has been selected manually for the task, which is the only association stored per task.
+ */
+@Service
+public class ProcessFileIntervalResolver {
+    private final boolean enabled;
+    private final ProcessFileRepository processFileRepository;
+    private final TaskFileSelectionRepository taskFileSelectionRepository;
+
+    public ProcessFileIntervalResolver(@Value("${interval-file-association.enabled}") final boolean enabled,
+                                       final ProcessFileRepository processFileRepository,
+                                       final TaskFileSelectionRepository taskFileSelectionRepository) {
+        this.enabled = enabled;
+        this.processFileRepository = processFileRepository;
+        this.taskFileSelectionRepository = taskFileSelectionRepository;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void resolve(final Task task) {
+        resolve(List.of(task));
+    }
+
+    /**
+     * Resolves the files of all the given tasks at once, with a single query for the files and another one
+     * for the manual selections.
+     */
+    public void resolve(final Collection<Task> tasks) {
+        if (!enabled || tasks.isEmpty()) {
+            return;
+        }
+        final OffsetDateTime firstTimestamp = tasks.stream().map(Task::getTimestamp).min(OffsetDateTime.timeLineOrder()).orElseThrow();
+        final OffsetDateTime lastTimestamp = tasks.stream().map(Task::getTimestamp).max(OffsetDateTime.timeLineOrder()).orElseThrow();
+        final List<ProcessFile> validFiles = processFileRepository.findAllValidBetween(firstTimestamp, lastTimestamp);
+        final Map<UUID, Map<String, UUID>> selectionsByTask = taskFileSelectionRepository.findAllByTaskIdIn(tasks.stream().map(Task::getId).toList())
+                .stream()
+                .collect(Collectors.groupingBy(TaskFileSelection::getTaskId,
+                        Collectors.toMap(TaskFileSelection::getFileType, TaskFileSelection::getProcessFileId)));
+        tasks.forEach(task -> resolve(task, validFiles, selectionsByTask.getOrDefault(task.getId(), Map.of())));
+    }
+
+    private static void resolve(final Task task, final List<ProcessFile> validFiles, final Map<String, UUID> selections) {
+        final SortedSet<ProcessFile> selectedFiles = new TreeSet<>();
+        final SortedSet<ProcessFile> availableInputs = new TreeSet<>();
+        validFiles.stream()
+                .filter(processFile -> isValidForTimestamp(processFile, task.getTimestamp()))
+                .forEach(processFile -> {
+                    if (processFile.isInputFile()) {
+                        availableInputs.add(processFile);
+                    } else {
+                        selectedFiles.add(processFile);
+                    }
+                });
+        availableInputs.stream()
+                .collect(Collectors.groupingBy(ProcessFile::getFileType))
+                .forEach((fileType, inputs) -> getSelectedInput(inputs, selections.get(fileType)).ifPresent(selectedFiles::add));
+        task.setResolvedProcessFiles(selectedFiles, availableInputs);
+    }
+
+    private static Optional<ProcessFile> getSelectedInput(final List<ProcessFile> inputs, final UUID selectedFileId) {
+        return inputs.stream()
+                .filter(input -> input.getId().equals(selectedFileId))
+                .findAny()
+                .or(() -> inputs.stream().max(Comparator.comparing(ProcessFile::getLastModificationDate)));
+    }
+
+    private static boolean isValidForTimestamp(final ProcessFile processFile, final OffsetDateTime timestamp) {
+        return !processFile.getStartingAvailabilityDate().isAfter(timestamp) && processFile.getEndingAvailabilityDate().isAfter(timestamp);
+    }
+
+    @Transactional
+    public void recordManualSelection(final Task task, final ProcessFile processFile) {
+        if (!enabled) {
+            return;
+        }
+        taskFileSelectionRepository.deleteByTaskIdAndFileType(task.getId(), processFile.getFileType());
+        taskFileSelectionRepository.save(new TaskFileSelection(task.getId(), processFile));
+    }
+
+    /**
+     * A new input replaces the manual selections of its type made for the tasks it is valid for, as it becomes
+     * the last modified input of its type.
+     */
+    public void clearManualSelections(final ProcessFile processFile, final OffsetDateTime startingTimestamp, final OffsetDateTime endingTimestamp) {
+        if (enabled && processFile.isInputFile()) {
+            taskFileSelectionRepository.deleteAllForFileTypeBetween(processFile.getFileType(), startingTimestamp, endingTimestamp);
+        }
+    }
+}
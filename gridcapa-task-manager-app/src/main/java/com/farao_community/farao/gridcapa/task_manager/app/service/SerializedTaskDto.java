@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import com.farao_community.farao.gridcapa.task_manager.api.TaskDto;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+
+/**
+ * Task DTO along with its JSON form, computed once. Jackson writes the JSON as is wherever the DTO is
+ * serialized, whether in a REST response, a STOMP message or a message sent to the broker.
+ */
+public final class SerializedTaskDto extends TaskDto implements JsonSerializable {
+    private final Long taskVersion;
+    private final SerializedString json;
+
+    SerializedTaskDto(final TaskDto taskDto, final Long taskVersion, final String json) {
+        super(taskDto.getId(),
+            taskDto.getTimestamp(),
+            taskDto.getStatus(),
+            taskDto.getInputs(),
+            taskDto.getAvailableInputs(),
+            taskDto.getOutputs(),
+            taskDto.getProcessEvents(),
+            taskDto.getRunHistory(),
+            taskDto.getParameters());
+        this.taskVersion = taskVersion;
+        this.json = new SerializedString(json);
+    }
+
+    /**
+     * @return the version of the task the DTO has been built from, or null when it is not known
+     */
+    public Long getTaskVersion() {
+        return taskVersion;
+    }
+
+    public byte[] getJson() {
+        return json.asUnquotedUTF8();
+    }
+
+    @Override
+    public void serialize(final JsonGenerator generator, final SerializerProvider serializers) throws IOException {
+        generator.writeRawValue(json);
+    }
+
+    @Override
+    public void serializeWithType(final JsonGenerator generator, final SerializerProvider serializers, final TypeSerializer typeSerializer) throws IOException {
+        serialize(generator, serializers);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import com.farao_community.farao.gridcapa.task_manager.api.TaskManagerException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical concurrent reads: a read requested while the same one is in flight waits for its result
+ * instead of being computed again, as happens when all the clients of a view refresh it on the same notification.
+ * The key of a read must identify the state of the data it is computed from, such as the ETag of the view:
+ * a read started before a change must not be shared with requests made after it.
+ */
+@Component
+public class SingleFlight {
+    private static final String HITS_METRIC = "task.manager.single.flight.hits";
+    private static final String WAIT_METRIC = "task.manager.single.flight.wait";
+    private static final String VIEW_TAG = "view";
+
+    private final Map<List<Object>, CompletableFuture<Object>> flights = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public SingleFlight(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @return the result of the read in flight for the given view and key, or of the given computation when
+     * there is none, the exception thrown by the computation being thrown to all the waiting requests
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(final String view, final Object key, final Supplier<T> computation) {
+        final List<Object> flightKey = List.of(view, key);
+        final CompletableFuture<Object> flight = new CompletableFuture<>();
+        final CompletableFuture<Object> flightInProgress = flights.putIfAbsent(flightKey, flight);
+        if (flightInProgress != null) {
+            meterRegistry.counter(HITS_METRIC, VIEW_TAG, view).increment();
+            return (T) waitFor(view, flightInProgress);
+        }
+        try {
+            final T result = computation.get();
+            flight.complete(result);
+            return result;
+        } catch (final RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(flightKey, flight);
+            // No effect once completed, only releases the waiting requests when the computation failed with an error
+            flight.completeExceptionally(new TaskManagerException("Read of " + view + " has not completed"));
+        }
+    }
+
+    private Object waitFor(final String view, final CompletableFuture<Object> flightInProgress) {
+        final long start = System.nanoTime();
+        try {
+            return flightInProgress.join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        } finally {
+            meterRegistry.timer(WAIT_METRIC, VIEW_TAG, view).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
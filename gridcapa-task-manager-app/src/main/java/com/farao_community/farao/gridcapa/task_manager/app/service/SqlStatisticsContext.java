@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+/**
+ * Name of the HTTP endpoint or message consumer on behalf of which the current thread accesses the
+ * database, so that SQL statistics can be attributed to it. Work done outside of any of them is
+ * attributed to {@link #OTHER_CONTEXT}.
+ */
+public final class SqlStatisticsContext {
+    public static final String OTHER_CONTEXT = "other";
+
+    private static final ThreadLocal<String> CURRENT_CONTEXT = new ThreadLocal<>();
+
+    private SqlStatisticsContext() {
+        throw new AssertionError("Utility class should not be constructed");
+    }
+
+    public static String get() {
+        final String context = CURRENT_CONTEXT.get();
+        return context != null ? context : OTHER_CONTEXT;
+    }
+
+    public static void set(final String context) {
+        CURRENT_CONTEXT.set(context);
+    }
+
+    public static void clear() {
+        CURRENT_CONTEXT.remove();
+    }
+
+    public static String ofConsumer(final String consumerName) {
+        return "consumer " + consumerName;
+    }
+
+    public static String ofHttpEndpoint(final String method, final String pathPattern) {
+        return "http " + method + " " + pathPattern;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exposes the database activity of the task manager on /actuator/sqlstatistics: Hibernate operations
+ * by HTTP endpoint and message consumer, slow statements lately captured and the cost of every query.
+ */
+@Component
+@Endpoint(id = "sqlstatistics")
+@ConditionalOnProperty(name = "sql-statistics.enabled", havingValue = "true")
+public class SqlStatisticsEndpoint {
+    private final SqlStatisticsRecorder sqlStatisticsRecorder;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public SqlStatisticsEndpoint(final SqlStatisticsRecorder sqlStatisticsRecorder, final EntityManagerFactory entityManagerFactory) {
+        this.sqlStatisticsRecorder = sqlStatisticsRecorder;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @ReadOperation
+    public SqlStatisticsReport sqlStatistics() {
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        final List<QueryReport> queries = Arrays.stream(statistics.getQueries())
+            .map(query -> toQueryReport(query, statistics.getQueryStatistics(query)))
+            .sorted(Comparator.comparingLong(QueryReport::totalTimeMs).reversed())
+            .toList();
+        return new SqlStatisticsReport(sqlStatisticsRecorder.getOperationCounts(),
+            sqlStatisticsRecorder.getSlowStatements(),
+            queries);
+    }
+
+    private static QueryReport toQueryReport(final String query, final QueryStatistics queryStatistics) {
+        return new QueryReport(query,
+            queryStatistics.getExecutionCount(),
+            queryStatistics.getExecutionTotalTime(),
+            queryStatistics.getExecutionAvgTime(),
+            queryStatistics.getExecutionMaxTime(),
+            queryStatistics.getExecutionRowCount());
+    }
+
+    public record SqlStatisticsReport(Map<String, Map<String, Long>> operations,
+                                      List<SqlStatisticsRecorder.SlowStatement> slowStatements,
+                                      List<QueryReport> queries) {
+    }
+
+    public record QueryReport(String query,
+                              long executionCount,
+                              long totalTimeMs,
+                              long averageTimeMs,
+                              long maxTimeMs,
+                              long rowCount) {
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the database activity of the task manager by context (HTTP endpoint or message consumer):
+ * Hibernate operations are counted, and SQL statements slower than the configured threshold are kept
+ * in a bounded buffer with the types of their bind parameters, values being left out.
+ */
+@Component
+@ConditionalOnProperty(name = "sql-statistics.enabled", havingValue = "true")
+public class SqlStatisticsRecorder {
+    private final MeterRegistry meterRegistry;
+    private final long slowStatementThresholdNanos;
+    private final int slowStatementsBufferSize;
+    private final Map<String, Map<String, Counter>> operationCounters = new ConcurrentHashMap<>();
+    private final Deque<SlowStatement> slowStatements = new ArrayDeque<>();
+
+    public SqlStatisticsRecorder(final MeterRegistry meterRegistry,
+                                 @Value("${sql-statistics.slow-statement-threshold-ms}") final long slowStatementThresholdMs,
+                                 @Value("${sql-statistics.slow-statements-buffer-size}") final int slowStatementsBufferSize) {
+        this.meterRegistry = meterRegistry;
+        this.slowStatementThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowStatementThresholdMs);
+        this.slowStatementsBufferSize = slowStatementsBufferSize;
+    }
+
+    public void recordOperation(final String operationType) {
+        final String context = SqlStatisticsContext.get();
+        operationCounters.computeIfAbsent(context, newContext -> new ConcurrentHashMap<>())
+            .computeIfAbsent(operationType, type -> meterRegistry.counter("task.manager.hibernate.operations", "context", context, "type", type))
+            .increment();
+    }
+
+    public void recordStatement(final String sql, final List<String> parameterTypes, final int batchSize, final long durationNanos) {
+        recordOperation("statement");
+        if (durationNanos < slowStatementThresholdNanos) {
+            return;
+        }
+        final SlowStatement slowStatement = new SlowStatement(Instant.now(),
+            SqlStatisticsContext.get(),
+            sql,
+            parameterTypes,
+            batchSize,
+            TimeUnit.NANOSECONDS.toMillis(durationNanos));
+        synchronized (slowStatements) {
+            if (slowStatements.size() >= slowStatementsBufferSize) {
+                slowStatements.pollFirst();
+            }
+            slowStatements.addLast(slowStatement);
+        }
+    }
+
+    public Map<String, Map<String, Long>> getOperationCounts() {
+        final Map<String, Map<String, Long>> operationCounts = new TreeMap<>();
+        operationCounters.forEach((context, counters) -> {
+            final Map<String, Long> contextCounts = new TreeMap<>();
+            counters.forEach((type, counter) -> contextCounts.put(type, (long) counter.count()));
+            operationCounts.put(context, contextCounts);
+        });
+        return operationCounts;
+    }
+
+    /**
+     * Slow statements captured lately, most recent first.
+     */
+    public List<SlowStatement> getSlowStatements() {
+        synchronized (slowStatements) {
+            return List.copyOf(slowStatements.reversed());
+        }
+    }
+
+    public record SlowStatement(Instant executedAt,
+                                String context,
+                                String sql,
+                                List<String> parameterTypes,
+                                int batchSize,
+                                long durationMs) {
+    }
+}
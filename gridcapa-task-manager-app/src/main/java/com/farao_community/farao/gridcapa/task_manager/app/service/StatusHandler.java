@@ -11,93 +11,179 @@ import com.farao_community.farao.gridcapa.task_manager.api.TaskStatusUpdate;
 import com.farao_community.farao.gridcapa.task_manager.app.TaskUpdateNotifier;
 import com.farao_community.farao.gridcapa.task_manager.app.entities.Task;
 import com.farao_community.farao.gridcapa.task_manager.app.repository.TaskRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import org.springframework.context.annotation.Bean;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import reactor.core.publisher.Flux;
 
 import java.time.OffsetDateTime;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.function.Consumer;
 
-import static com.farao_community.farao.gridcapa.task_manager.app.configuration.TaskManagerConfigurationProperties.TASK_MANAGER_LOCK;
-
 /**
  * @author Theo Pascoli {@literal <theo.pascoli at rte-france.com>}
  */
 @Service
 public class StatusHandler {
     private static final Logger LOGGER = LoggerFactory.getLogger(StatusHandler.class);
+    private static final String STATUS_UPDATE_OPERATION = "status-update";
 
     private final MinioHandler minioHandler;
     private final TaskRepository taskRepository;
+    private final TaskService taskService;
     private final TaskUpdateNotifier taskUpdateNotifier;
+    private final BusinessDateCompletionService businessDateCompletionService;
+    private final ClusterNotificationRelay clusterNotificationRelay;
+    private final ConsumerPipeline consumerPipeline;
+    private final TaskUpdateRetrier taskUpdateRetrier;
+    private final TaskIndexCache taskIndexCache;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
     private final Logger businessLogger;
 
     public StatusHandler(final MinioHandler minioHandler,
                          final TaskRepository taskRepository,
+                         final TaskService taskService,
                          final TaskUpdateNotifier taskUpdateNotifier,
+                         final BusinessDateCompletionService businessDateCompletionService,
+                         final ClusterNotificationRelay clusterNotificationRelay,
+                         final ConsumerPipeline consumerPipeline,
+                         final TaskUpdateRetrier taskUpdateRetrier,
+                         final TaskIndexCache taskIndexCache,
+                         final TransactionTemplate transactionTemplate,
+                         final MeterRegistry meterRegistry,
                          final Logger businessLogger) {
         this.minioHandler = minioHandler;
         this.taskRepository = taskRepository;
+        this.taskService = taskService;
         this.taskUpdateNotifier = taskUpdateNotifier;
+        this.businessDateCompletionService = businessDateCompletionService;
+        this.clusterNotificationRelay = clusterNotificationRelay;
+        this.consumerPipeline = consumerPipeline;
+        this.taskUpdateRetrier = taskUpdateRetrier;
+        this.taskIndexCache = taskIndexCache;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
         this.businessLogger = businessLogger;
     }
 
     @Bean
     public Consumer<Flux<TaskStatusUpdate>> consumeTaskStatusUpdate() {
-        return f -> f.subscribe(taskStatusUpdate -> {
-            try {
-                handleTaskStatusUpdate(taskStatusUpdate);
-            } catch (Exception e) {
-                LOGGER.error(String.format("Unable to handle task status update properly %s", taskStatusUpdate), e);
+        return f -> consumerPipeline.consume("task-status-update",
+            f,
+            TaskStatusUpdate::getId,
+            this::handleTaskStatusUpdate,
+            (taskStatusUpdate, e) -> LOGGER.error(String.format("Unable to handle task status update properly %s", taskStatusUpdate), e));
+    }
+
+    public void handleTaskStatusUpdate(TaskStatusUpdate taskStatusUpdate) {
+        final TaskStatus taskStatus = taskStatusUpdate.getTaskStatus();
+        final Optional<TaskIndexCache.TaskIndexEntry> optionalTaskIndex = taskIndexCache.get(taskStatusUpdate.getId());
+        if (optionalTaskIndex.isEmpty()) {
+            // A virtual task has no row yet, it is materialized from the timestamp held by its id
+            taskService.getVirtualTaskTimestamp(taskStatusUpdate.getId()).ifPresentOrElse(
+                timestamp -> handleTaskStatusUpdate(timestamp, taskStatus),
+                () -> LOGGER.warn("Task {} does not exist. Impossible to update status", taskStatusUpdate.getId()));
+            return;
+        }
+        getStatusUpdateTimer(taskStatus).record(() -> {
+            final TaskIndexCache.TaskIndexEntry taskIndex = optionalTaskIndex.get();
+            LOGGER.info("Receiving task status update for task id {} with status {}", taskIndex.id(), taskStatus);
+            // The status and its notification to the broker are committed together
+            if (!Boolean.TRUE.equals(transactionTemplate.execute(status -> updateAndNotifyStatus(taskIndex, taskStatus)))) {
+                return;
+            }
+            afterTaskStatusUpdated(taskIndex.id(), taskIndex.timestamp(), taskStatus);
+            if (taskStatus.isOver()) {
+                minioHandler.emptyWaitingList(taskIndex.timestamp());
             }
         });
     }
 
-    public void handleTaskStatusUpdate(TaskStatusUpdate taskStatusUpdate) {
-        synchronized (TASK_MANAGER_LOCK) { // use same lock to avoid parallel handling between status update and minioHandler
-            Optional<Task> optionalTask = taskRepository.findByIdAndFetchProcessFiles(taskStatusUpdate.getId());
-            if (optionalTask.isPresent()) {
-                updateTaskStatus(optionalTask.get(), taskStatusUpdate.getTaskStatus());
-                LOGGER.info("Receiving task status update for task id {} with status {}", taskStatusUpdate.getId(), taskStatusUpdate.getTaskStatus());
-                if (taskStatusUpdate.getTaskStatus().isOver()) {
-                    minioHandler.emptyWaitingList(optionalTask.get().getTimestamp());
+    /**
+     * The status is written by compare-and-set, the other updates of the task are detected by its version.
+     *
+     * @return true if the status has been updated and notified
+     */
+    private boolean updateAndNotifyStatus(final TaskIndexCache.TaskIndexEntry taskIndex, final TaskStatus taskStatus) {
+        if (!compareAndSetStatus(taskIndex, taskStatus)) {
+            return false;
+        }
+        // The row is locked by the update until commit, the version read is the one the update has set
+        final Optional<Long> taskVersion = taskRepository.findVersionById(taskIndex.id());
+        if (taskVersion.isPresent() && taskUpdateNotifier.notifyStatusUpdate(taskIndex.id(), taskStatus, taskVersion.get()).isPresent()) {
+            return true;
+        }
+        // No DTO of the task before this update has been published, it has to be read to be notified
+        return taskRepository.findByIdAndFetchProcessFiles(taskIndex.id())
+            .map(task -> {
+                taskUpdateNotifier.notify(task, true, false);
+                return true;
+            })
+            .orElse(false);
+    }
 
-                }
-            } else {
-                LOGGER.warn("Task {} does not exist. Impossible to update status", taskStatusUpdate.getId());
-            }
+    /**
+     * Only writes the status if it is still the one last known for the task. Otherwise, the task has been
+     * modified concurrently and the update is dropped: it is not replayed on a status it was not sent for.
+     */
+    private boolean compareAndSetStatus(final TaskIndexCache.TaskIndexEntry taskIndex, final TaskStatus taskStatus) {
+        if (taskRepository.compareAndSetStatus(taskIndex.id(), taskIndex.status(), taskStatus) == 0) {
+            taskIndexCache.evict(taskIndex.id());
+            LOGGER.warn("Task {} is no longer {}, it has been modified concurrently. Status update to {} is dropped", taskIndex.id(), taskIndex.status(), taskStatus);
+            return false;
         }
+        taskIndexCache.updateStatus(taskIndex.id(), taskStatus);
+        return true;
     }
 
     public Optional<Task> handleTaskStatusUpdate(OffsetDateTime timestamp, TaskStatus taskStatus) {
-        synchronized (TASK_MANAGER_LOCK) {
-            Optional<Task> optionalTask = taskRepository.findByTimestamp(timestamp);
+        return getStatusUpdateTimer(taskStatus).record(() -> {
+            Optional<Task> optionalTask = taskUpdateRetrier.callWithRetry(STATUS_UPDATE_OPERATION, () -> {
+                // Read again on each attempt, for the status to be applied on the last version of the task
+                // A virtual task is materialized as its status is about to change
+                Optional<Task> currentTask = taskService.findOrMaterializeTask(timestamp);
+                currentTask.ifPresent(task -> task.setStatus(taskStatus));
+                return currentTask.map(this::saveAndNotifyStatus);
+            });
             if (optionalTask.isPresent()) {
-                updateTaskStatus(optionalTask.get(), taskStatus);
+                final Task savedTask = optionalTask.get();
+                afterTaskStatusUpdated(savedTask.getId(), savedTask.getTimestamp(), savedTask.getStatus());
                 if (taskStatus.isOver()) {
                     minioHandler.emptyWaitingList(timestamp);
                 }
-                return optionalTask;
             } else {
                 LOGGER.warn("Task at {} does not exist. Impossible to update status", timestamp);
-                return Optional.empty();
             }
-        }
+            return optionalTask;
+        });
+    }
+
+    private Timer getStatusUpdateTimer(final TaskStatus taskStatus) {
+        return meterRegistry.timer("task.manager.status.update.handling", "status", String.valueOf(taskStatus));
+    }
+
+    private Task saveAndNotifyStatus(final Task task) {
+        return transactionTemplate.execute(status -> {
+            final Task savedTask = taskRepository.saveAndFlush(task);
+            taskUpdateNotifier.notify(savedTask, true, false);
+            return savedTask;
+        });
     }
 
-    private void updateTaskStatus(final Task task,
-                                  final TaskStatus taskStatus) {
-        task.setStatus(taskStatus);
-        final Task savedTask = taskRepository.saveAndFlush(task);
-        taskUpdateNotifier.notify(savedTask, true, false);
-        LOGGER.info("Task status has been updated on {} to {}", task.getTimestamp(), savedTask.getStatus());
-        if (taskStatus.isOver() || TaskStatus.RUNNING.equals(task.getStatus())) {
-            MDC.put("gridcapa-task-id", task.getId().toString());
-            businessLogger.info("Task status has been updated to {}.", task.getStatus());
+    private void afterTaskStatusUpdated(final UUID taskId, final OffsetDateTime timestamp, final TaskStatus taskStatus) {
+        LOGGER.info("Task status has been updated on {} to {}", timestamp, taskStatus);
+        businessDateCompletionService.onTaskStatusUpdated(timestamp, taskStatus);
+        clusterNotificationRelay.notifyTaskStatusUpdated(timestamp, taskStatus);
+        if (taskStatus.isOver() || TaskStatus.RUNNING.equals(taskStatus)) {
+            MDC.put("gridcapa-task-id", taskId.toString());
+            businessLogger.info("Task status has been updated to {}.", taskStatus);
         }
     }
 }
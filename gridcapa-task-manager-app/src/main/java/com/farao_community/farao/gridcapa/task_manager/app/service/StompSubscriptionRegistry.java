@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Destinations the websocket clients of this instance are subscribed to, so that nothing is built nor sent
+ * for the destinations nobody listens to, such as the ones of tasks far in the future. Subscriptions to
+ * destination patterns are matched the same way as by the simple broker.
+ */
+@Component
+public class StompSubscriptionRegistry {
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, Map<String, String>> destinationsBySubscriptionBySession = new HashMap<>();
+    private final Map<String, Integer> subscriptionsCountByDestination = new HashMap<>();
+    private final Set<String> subscribedPatterns = new HashSet<>();
+
+    public StompSubscriptionRegistry(final MeterRegistry meterRegistry) {
+        meterRegistry.gauge("task.manager.stomp.subscribed.destinations", this, StompSubscriptionRegistry::getSubscribedDestinationsCount);
+    }
+
+    @EventListener
+    public void onSubscribe(final SessionSubscribeEvent event) {
+        final SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        subscribe(headers.getSessionId(), headers.getSubscriptionId(), headers.getDestination());
+    }
+
+    @EventListener
+    public void onUnsubscribe(final SessionUnsubscribeEvent event) {
+        final SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        unsubscribe(headers.getSessionId(), headers.getSubscriptionId());
+    }
+
+    @EventListener
+    public void onDisconnect(final SessionDisconnectEvent event) {
+        disconnect(event.getSessionId());
+    }
+
+    public synchronized boolean hasSubscribers(final String destination) {
+        if (subscriptionsCountByDestination.containsKey(destination)) {
+            return true;
+        }
+        return subscribedPatterns.stream().anyMatch(pattern -> pathMatcher.match(pattern, destination));
+    }
+
+    synchronized void subscribe(final String sessionId, final String subscriptionId, final String destination) {
+        if (sessionId == null || subscriptionId == null || destination == null) {
+            return;
+        }
+        final String previousDestination = destinationsBySubscriptionBySession
+            .computeIfAbsent(sessionId, id -> new HashMap<>())
+            .put(subscriptionId, destination);
+        if (previousDestination != null) {
+            decrementSubscriptions(previousDestination);
+        }
+        subscriptionsCountByDestination.merge(destination, 1, Integer::sum);
+        if (pathMatcher.isPattern(destination)) {
+            subscribedPatterns.add(destination);
+        }
+    }
+
+    synchronized void unsubscribe(final String sessionId, final String subscriptionId) {
+        final Map<String, String> destinationsBySubscription = destinationsBySubscriptionBySession.get(sessionId);
+        if (destinationsBySubscription == null) {
+            return;
+        }
+        final String destination = destinationsBySubscription.remove(subscriptionId);
+        if (destination != null) {
+            decrementSubscriptions(destination);
+        }
+        if (destinationsBySubscription.isEmpty()) {
+            destinationsBySubscriptionBySession.remove(sessionId);
+        }
+    }
+
+    synchronized void disconnect(final String sessionId) {
+        final Map<String, String> destinationsBySubscription = destinationsBySubscriptionBySession.remove(sessionId);
+        if (destinationsBySubscription != null) {
+            destinationsBySubscription.values().forEach(this::decrementSubscriptions);
+        }
+    }
+
+    private synchronized int getSubscribedDestinationsCount() {
+        return subscriptionsCountByDestination.size();
+    }
+
+    private void decrementSubscriptions(final String destination) {
+        if (subscriptionsCountByDestination.computeIfPresent(destination, (subscribedDestination, count) -> count > 1 ? count - 1 : null) == null) {
+            subscribedPatterns.remove(destination);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import com.farao_community.farao.gridcapa.task_manager.app.configuration.TaskManagerConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory change counters the ETags of the task views are derived from, so that a client polling a view it
+ * already has is answered without reading the database. Each business date has its own counter, the timestamp
+ * view sharing the one of its business date, and any task change bumps the counter of the running tasks view.
+ * <p>
+ * Counters must be bumped once the change is committed: a counter bumped earlier could be read along with the
+ * data before the change, which would then be confirmed to the client as up to date. Bumping a counter without
+ * any actual change only costs a full response to the clients. ETags are prefixed with the start time of the
+ * instance, counters being lost on restart, and each instance of a cluster has its own ETags.
+ */
+@Component
+public class TaskChangeTracker {
+    private final ZoneId processZone;
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final AtomicLong allTasksVersion = new AtomicLong();
+    private final AtomicLong anyTaskVersion = new AtomicLong();
+    private final Map<LocalDate, AtomicLong> businessDateVersions = new ConcurrentHashMap<>();
+
+    public TaskChangeTracker(final TaskManagerConfigurationProperties taskManagerConfigurationProperties) {
+        this.processZone = taskManagerConfigurationProperties.getProcessTimezone();
+    }
+
+    public void taskChanged(final OffsetDateTime timestamp) {
+        businessDateVersions.computeIfAbsent(getBusinessDate(timestamp), businessDate -> new AtomicLong()).incrementAndGet();
+        anyTaskVersion.incrementAndGet();
+    }
+
+    /**
+     * Bumps the counters of all the business dates overlapped by the given period, end excluded.
+     */
+    public void tasksChanged(final OffsetDateTime start, final OffsetDateTime end) {
+        if (!start.isBefore(end)) {
+            return;
+        }
+        final LocalDate lastBusinessDate = getBusinessDate(end.minusNanos(1));
+        for (LocalDate businessDate = getBusinessDate(start); !businessDate.isAfter(lastBusinessDate); businessDate = businessDate.plusDays(1)) {
+            businessDateVersions.computeIfAbsent(businessDate, date -> new AtomicLong()).incrementAndGet();
+        }
+        anyTaskVersion.incrementAndGet();
+    }
+
+    /**
+     * To be used when data shared by all the tasks changes, all ETags being invalidated at once.
+     */
+    public void allTasksChanged() {
+        allTasksVersion.incrementAndGet();
+    }
+
+    public String getBusinessDateETag(final LocalDate businessDate) {
+        final AtomicLong businessDateVersion = businessDateVersions.get(businessDate);
+        return eTag("d" + (businessDateVersion != null ? businessDateVersion.get() : 0L));
+    }
+
+    public String getTimestampETag(final OffsetDateTime timestamp) {
+        return getBusinessDateETag(getBusinessDate(timestamp));
+    }
+
+    public String getAnyTaskETag() {
+        return eTag("r" + anyTaskVersion.get());
+    }
+
+    /**
+     * @return true when one of the entity tags of the given If-None-Match header matches the given ETag
+     */
+    public static boolean matches(final String ifNoneMatch, final String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            final String trimmedCandidate = candidate.trim();
+            final String opaqueTag = trimmedCandidate.startsWith("W/") ? trimmedCandidate.substring(2) : trimmedCandidate;
+            if ("*".equals(opaqueTag) || eTag.equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String eTag(final String viewVersion) {
+        return "\"" + epoch + "-" + allTasksVersion.get() + "-" + viewVersion + "\"";
+    }
+
+    private LocalDate getBusinessDate(final OffsetDateTime timestamp) {
+        return timestamp.atZoneSameInstant(processZone).toLocalDate();
+    }
+}
@@ -19,6 +19,8 @@ import com.farao_community.farao.gridcapa.task_manager.app.configuration.TaskMan
 import com.farao_community.farao.gridcapa.task_manager.app.entities.ProcessEvent;
 import com.farao_community.farao.gridcapa.task_manager.app.entities.ProcessFile;
 import com.farao_community.farao.gridcapa.task_manager.app.entities.Task;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
@@ -30,6 +32,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -40,16 +43,28 @@ import java.util.stream.Collectors;
 public class TaskDtoBuilderService {
 
     private static final ZoneId UTC_ZONE = ZoneId.of("Z");
+    private static final String DTO_BUILD_METRIC = "task.manager.dto.build";
+    private static final String WITH_EVENTS_TAG = "with.events";
     private final TaskManagerConfigurationProperties properties;
     private final TaskRepository taskRepository;
     private final ZoneId localZone;
     private final ParameterService parameterService;
+    private final ProcessFileIntervalResolver processFileIntervalResolver;
+    private final TaskService taskService;
+    private final TaskSnapshotCache taskSnapshotCache;
+    private final Timer dtoWithEventsBuildTimer;
+    private final Timer dtoWithoutEventsBuildTimer;
 
-    public TaskDtoBuilderService(TaskManagerConfigurationProperties properties, TaskRepository taskRepository, ParameterService parameterService) {
+    public TaskDtoBuilderService(TaskManagerConfigurationProperties properties, TaskRepository taskRepository, ParameterService parameterService, ProcessFileIntervalResolver processFileIntervalResolver, TaskService taskService, TaskSnapshotCache taskSnapshotCache, MeterRegistry meterRegistry) {
         this.properties = properties;
         this.taskRepository = taskRepository;
         this.parameterService = parameterService;
+        this.processFileIntervalResolver = processFileIntervalResolver;
+        this.taskService = taskService;
+        this.taskSnapshotCache = taskSnapshotCache;
         this.localZone = ZoneId.of(this.properties.getProcess().getTimezone());
+        this.dtoWithEventsBuildTimer = meterRegistry.timer(DTO_BUILD_METRIC, WITH_EVENTS_TAG, "true");
+        this.dtoWithoutEventsBuildTimer = meterRegistry.timer(DTO_BUILD_METRIC, WITH_EVENTS_TAG, "false");
     }
 
     /**
@@ -60,7 +75,7 @@ public class TaskDtoBuilderService {
     public TaskDto getTaskDtoWithProcessEvents(OffsetDateTime timestamp) {
         return taskRepository.findByTimestampAndFetchProcessEvents(timestamp)
                 .map(this::createDtoFromEntity)
-                .orElse(getEmptyTask(timestamp));
+                .orElseGet(() -> getVirtualOrEmptyTask(timestamp));
     }
 
     /**
@@ -71,7 +86,14 @@ public class TaskDtoBuilderService {
     public TaskDto getTaskDtoWithoutProcessEvents(OffsetDateTime timestamp) {
         return taskRepository.findByTimestamp(timestamp)
                 .map(this::createDtoFromEntityWithoutProcessEvents)
-                .orElse(getEmptyTask(timestamp));
+                .orElseGet(() -> getVirtualOrEmptyTask(timestamp));
+    }
+
+    private TaskDto getVirtualOrEmptyTask(final OffsetDateTime timestamp) {
+        return taskService.getVirtualTasks(List.of(timestamp)).stream()
+                .findAny()
+                .map(this::createDtoFromEntityWithoutProcessEvents)
+                .orElseGet(() -> getEmptyTask(timestamp));
     }
 
     public List<TaskDto> getListTasksDto(final LocalDate businessDate) {
@@ -80,6 +102,7 @@ public class TaskDtoBuilderService {
                 : getDateAtOffset(businessDate.atTime(0, 30));
         final OffsetDateTime endTimestamp = getDateAtOffset(businessDate.atTime(23, 59));
         Set<Task> tasks = taskRepository.findAllByTimestampBetweenForBusinessDayView(startTimestamp, endTimestamp);
+        processFileIntervalResolver.resolve(tasks);
         Map<OffsetDateTime, TaskDto> taskMap = new HashMap<>();
         for (OffsetDateTime loopTimestamp = startTimestamp;
              !loopTimestamp.isAfter(endTimestamp);
@@ -88,7 +111,18 @@ public class TaskDtoBuilderService {
             OffsetDateTime taskTimeStamp = loopTimestamp.atZoneSameInstant(UTC_ZONE).toOffsetDateTime();
             taskMap.put(taskTimeStamp, getEmptyTask(taskTimeStamp));
         }
+        // When files are associated by interval, tasks are read without any association row: the ones left
+        // without any file are shown as empty ones
         tasks.stream()
+                .filter(task -> !processFileIntervalResolver.isEnabled() || !task.getProcessFiles().isEmpty())
+                .map(this::createDtoFromEntityWithoutProcessEvents)
+                .forEach(dto -> taskMap.put(dto.getTimestamp(), dto));
+        // Timestamps without task in database may have a virtual one, beyond the materialization horizon
+        final Set<OffsetDateTime> savedTimestamps = tasks.stream()
+                .map(task -> task.getTimestamp().atZoneSameInstant(UTC_ZONE).toOffsetDateTime())
+                .collect(Collectors.toSet());
+        taskService.getVirtualTasks(taskMap.keySet().stream().filter(timestamp -> !savedTimestamps.contains(timestamp)).toList())
+                .stream()
                 .map(this::createDtoFromEntityWithoutProcessEvents)
                 .forEach(dto -> taskMap.put(dto.getTimestamp(), dto));
         return taskMap.values().stream().toList();
@@ -102,7 +136,9 @@ public class TaskDtoBuilderService {
     }
 
     public List<TaskDto> getListRunningTasksDto() {
-        return taskRepository.findAllRunningAndPending().stream()
+        final Set<Task> tasks = taskRepository.findAllRunningAndPending();
+        processFileIntervalResolver.resolve(tasks);
+        return tasks.stream()
                 .map(this::createDtoFromEntityWithoutProcessEvents)
                 .toList();
     }
@@ -115,11 +151,21 @@ public class TaskDtoBuilderService {
     }
 
     public TaskDto createDtoFromEntity(Task task) {
-        return createDtoFromEntityWithOrWithoutEvents(task, true);
+        return dtoWithEventsBuildTimer.record(() -> createDtoFromEntityWithOrWithoutEvents(task, true));
     }
 
+    /**
+     * A task already rendered with the same version is rendered from its snapshot, DTO and JSON being reused.
+     * Tasks not saved yet are never kept as snapshots.
+     */
     public TaskDto createDtoFromEntityWithoutProcessEvents(Task task) {
-        return createDtoFromEntityWithOrWithoutEvents(task, false);
+        final Long taskVersion = task.isPersisted() ? task.getVersion() : null;
+        final Optional<SerializedTaskDto> snapshot = taskSnapshotCache.get(task.getId(), taskVersion);
+        if (snapshot.isPresent()) {
+            return snapshot.get();
+        }
+        final TaskDto taskDto = dtoWithoutEventsBuildTimer.record(() -> createDtoFromEntityWithOrWithoutEvents(task, false));
+        return taskVersion == null ? taskDto : taskSnapshotCache.put(taskDto, taskVersion);
     }
 
     private OffsetDateTime getDateAtOffset(final LocalDateTime localDateTime) {
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import com.farao_community.farao.gridcapa.task_manager.api.TaskStatus;
+import com.farao_community.farao.gridcapa.task_manager.app.entities.Task;
+import com.farao_community.farao.gridcapa.task_manager.app.repository.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Bounded index of the most recently used tasks, from their UUID to their timestamp and status.
+ * It spares loading whole task aggregates when only their identity is needed, e.g. to attach log
+ * events to a task or to update its status. Entries are kept up to date by {@code TaskIndexListener}
+ * for every task loaded or saved through JPA, and by the callers of targeted updates.
+ */
+@Component
+public class TaskIndexCache {
+    private static final String CACHE_METRIC = "task.manager.task.index.cache";
+
+    private final TaskRepository taskRepository;
+    private final Map<UUID, TaskIndexEntry> entries;
+    private final Counter hits;
+    private final Counter misses;
+
+    public TaskIndexCache(final TaskRepository taskRepository,
+                          final MeterRegistry meterRegistry,
+                          @Value("${task-index-cache.max-size}") final int maxSize) {
+        this.taskRepository = taskRepository;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<UUID, TaskIndexEntry> eldest) {
+                return size() > maxSize;
+            }
+        };
+        this.hits = meterRegistry.counter(CACHE_METRIC, "result", "hit");
+        this.misses = meterRegistry.counter(CACHE_METRIC, "result", "miss");
+    }
+
+    public Optional<TaskIndexEntry> get(final UUID id) {
+        return Optional.ofNullable(getAll(Set.of(id)).get(id));
+    }
+
+    /**
+     * Entries of the given tasks, those missing from the cache being read from the database by a single
+     * query. Tasks which do not exist are absent from the result.
+     */
+    public Map<UUID, TaskIndexEntry> getAll(final Collection<UUID> ids) {
+        final Map<UUID, TaskIndexEntry> result = new HashMap<>();
+        final Set<UUID> missingIds = new HashSet<>();
+        synchronized (entries) {
+            for (UUID id : ids) {
+                final TaskIndexEntry entry = entries.get(id);
+                if (entry != null) {
+                    result.put(id, entry);
+                } else {
+                    missingIds.add(id);
+                }
+            }
+        }
+        hits.increment(result.size());
+        if (!missingIds.isEmpty()) {
+            misses.increment(missingIds.size());
+            taskRepository.findIndexesByIdIn(missingIds).forEach(taskIndex -> {
+                final TaskIndexEntry entry = new TaskIndexEntry(taskIndex.getId(), taskIndex.getTimestamp(), taskIndex.getStatus());
+                put(entry);
+                result.put(entry.id(), entry);
+            });
+        }
+        return result;
+    }
+
+    public void put(final Task task) {
+        put(new TaskIndexEntry(task.getId(), task.getTimestamp(), task.getStatus()));
+    }
+
+    public void updateStatus(final UUID id, final TaskStatus status) {
+        synchronized (entries) {
+            entries.computeIfPresent(id, (taskId, entry) -> new TaskIndexEntry(taskId, entry.timestamp(), status));
+        }
+    }
+
+    public void evict(final UUID id) {
+        synchronized (entries) {
+            entries.remove(id);
+        }
+    }
+
+    private void put(final TaskIndexEntry entry) {
+        synchronized (entries) {
+            entries.put(entry.id(), entry);
+        }
+    }
+
+    public record TaskIndexEntry(UUID id, OffsetDateTime timestamp, TaskStatus status) {
+    }
+}
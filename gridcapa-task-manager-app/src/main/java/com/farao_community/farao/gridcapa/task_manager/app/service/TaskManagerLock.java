@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Runs the handling of MinIO events under the task manager lock, so that files concerning several tasks
+ * and the waiting list are never handled in parallel. Other updates of tasks do not take the lock, concurrent
+ * modifications being detected by the version of the tasks instead. The time spent waiting for the lock and
+ * holding it is recorded for each operation, along with the number of threads waiting for it.
+ * Holds longer than the configured threshold are logged with the stack trace of the holder.
+ * The lock is a {@link ReentrantLock} rather than a monitor, so that virtual threads waiting for it or
+ * doing database work while holding it release their carrier thread.
+ */
+@Component
+public class TaskManagerLock {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskManagerLock.class);
+    private static final String OPERATION_TAG = "operation";
+
+    private final MeterRegistry meterRegistry;
+    private final long slowHoldThresholdNanos;
+    private final Map<String, Timer> waitTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> holdTimers = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile LockHolder holder;
+
+    public TaskManagerLock(final MeterRegistry meterRegistry,
+                           @Value("${task-manager-lock.slow-hold-threshold-ms}") final long slowHoldThresholdMs) {
+        this.meterRegistry = meterRegistry;
+        this.slowHoldThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowHoldThresholdMs);
+        Gauge.builder("task.manager.lock.queue.length", lock, ReentrantLock::getQueueLength)
+            .description("Number of threads waiting for the task manager lock")
+            .register(meterRegistry);
+    }
+
+    public void runLocked(final String operation, final Runnable action) {
+        callLocked(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public <T> T callLocked(final String operation, final Supplier<T> action) {
+        final long waitStart = System.nanoTime();
+        lock.lock();
+        try {
+            final long holdStart = System.nanoTime();
+            getTimer(waitTimers, "task.manager.lock.wait", operation).record(holdStart - waitStart, TimeUnit.NANOSECONDS);
+            // The lock is reentrant, the outer holder is restored when a nested operation is over
+            final LockHolder previousHolder = holder;
+            holder = new LockHolder(operation, Thread.currentThread(), Instant.now());
+            try {
+                return action.get();
+            } finally {
+                holder = previousHolder;
+                final long holdDuration = System.nanoTime() - holdStart;
+                getTimer(holdTimers, "task.manager.lock.hold", operation).record(holdDuration, TimeUnit.NANOSECONDS);
+                if (holdDuration > slowHoldThresholdNanos) {
+                    LOGGER.warn("Task manager lock held for {} ms by operation {}", TimeUnit.NANOSECONDS.toMillis(holdDuration), operation,
+                        new Throwable("Slow task manager lock hold"));
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Snapshot of the lock usage: current holder with its live stack trace, waiting threads count
+     * and statistics of every operation since startup.
+     */
+    public TaskManagerLockStatus getStatus() {
+        final LockHolder currentHolder = holder;
+        final TaskManagerLockStatus.Holder holderStatus = currentHolder == null ? null : new TaskManagerLockStatus.Holder(
+            currentHolder.operation(),
+            currentHolder.thread().getName(),
+            currentHolder.since(),
+            Duration.between(currentHolder.since(), Instant.now()).toMillis(),
+            Arrays.stream(currentHolder.thread().getStackTrace()).map(StackTraceElement::toString).toList());
+        final Map<String, TaskManagerLockStatus.OperationStatistics> operations = new TreeMap<>();
+        holdTimers.forEach((operation, holdTimer) -> {
+            final Timer waitTimer = waitTimers.get(operation);
+            operations.put(operation, new TaskManagerLockStatus.OperationStatistics(
+                holdTimer.count(),
+                waitTimer.mean(TimeUnit.MILLISECONDS),
+                waitTimer.max(TimeUnit.MILLISECONDS),
+                holdTimer.mean(TimeUnit.MILLISECONDS),
+                holdTimer.max(TimeUnit.MILLISECONDS)));
+        });
+        return new TaskManagerLockStatus(lock.getQueueLength(), holderStatus, operations);
+    }
+
+    private Timer getTimer(final Map<String, Timer> timers, final String name, final String operation) {
+        return timers.computeIfAbsent(operation, op -> Timer.builder(name)
+            .tag(OPERATION_TAG, op)
+            .publishPercentileHistogram()
+            .register(meterRegistry));
+    }
+
+    private record LockHolder(String operation, Thread thread, Instant since) {
+    }
+}
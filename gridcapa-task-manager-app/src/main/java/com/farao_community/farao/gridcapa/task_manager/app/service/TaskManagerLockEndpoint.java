@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the live state of the task manager lock on /actuator/taskmanagerlock.
+ */
+@Component
+@Endpoint(id = "taskmanagerlock")
+public class TaskManagerLockEndpoint {
+    private final TaskManagerLock taskManagerLock;
+
+    public TaskManagerLockEndpoint(final TaskManagerLock taskManagerLock) {
+        this.taskManagerLock = taskManagerLock;
+    }
+
+    @ReadOperation
+    public TaskManagerLockStatus lockStatus() {
+        return taskManagerLock.getStatus();
+    }
+}
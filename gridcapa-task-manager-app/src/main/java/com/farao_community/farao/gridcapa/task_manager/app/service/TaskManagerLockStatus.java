@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Live view of the task manager lock, as exposed by the actuator endpoint.
+ * Durations are in milliseconds, holder is null when the lock is free.
+ */
+public record TaskManagerLockStatus(int waitingThreads,
+                                    Holder holder,
+                                    Map<String, OperationStatistics> operations) {
+
+    public record Holder(String operation,
+                         String thread,
+                         Instant since,
+                         long heldForMs,
+                         List<String> stackTrace) {
+    }
+
+    public record OperationStatistics(long count,
+                                      double meanWaitMs,
+                                      double maxWaitMs,
+                                      double meanHoldMs,
+                                      double maxHoldMs) {
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Limit in the future beyond which tasks are not saved in database when files arrive. Tasks beyond the horizon
+ * stay virtual: they are computed from the process files valid at their timestamp until they are needed.
+ */
+@Component
+public class TaskMaterializationHorizon {
+
+    private final boolean enabled;
+    private final long horizonDays;
+
+    public TaskMaterializationHorizon(@Value("${task-materialization.enabled}") final boolean enabled,
+                                      @Value("${task-materialization.horizon-days}") final long horizonDays) {
+        this.enabled = enabled;
+        this.horizonDays = horizonDays;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public OffsetDateTime get() {
+        return OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.HOURS).plusDays(horizonDays);
+    }
+
+    /**
+     * @return the given end of period, brought back to the horizon when it is beyond it
+     */
+    public OffsetDateTime limit(final OffsetDateTime end) {
+        if (!enabled) {
+            return end;
+        }
+        final OffsetDateTime horizon = get();
+        return end.isAfter(horizon) ? horizon : end;
+    }
+}
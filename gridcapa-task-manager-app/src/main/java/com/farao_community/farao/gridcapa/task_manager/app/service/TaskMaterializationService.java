@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Advances the materialization horizon: virtual tasks the horizon reaches are saved in database. Each run saves
+ * the tasks up to one day beyond the horizon, so that with a daily run the horizon never overtakes a virtual task.
+ * In a cluster, each instance handles the timestamps of the partitions it owns.
+ */
+@Service
+public class TaskMaterializationService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskMaterializationService.class);
+
+    private final TaskService taskService;
+    private final TaskMaterializationHorizon taskMaterializationHorizon;
+    private final TaskPartitionLeaseService taskPartitionLeaseService;
+
+    public TaskMaterializationService(final TaskService taskService,
+                                      final TaskMaterializationHorizon taskMaterializationHorizon,
+                                      final TaskPartitionLeaseService taskPartitionLeaseService) {
+        this.taskService = taskService;
+        this.taskMaterializationHorizon = taskMaterializationHorizon;
+        this.taskPartitionLeaseService = taskPartitionLeaseService;
+    }
+
+    @Scheduled(cron = "${task-materialization.cron}")
+    public void scheduledTaskMaterialization() {
+        if (!taskMaterializationHorizon.isEnabled()) {
+            return;
+        }
+        final OffsetDateTime start = OffsetDateTime.now();
+        final OffsetDateTime end = taskMaterializationHorizon.get().plusDays(1);
+        final int materializedTasks = taskService.materializeTasksBetween(start, end, taskPartitionLeaseService::ownsTimestamp);
+        LOGGER.info("{} tasks materialized up to {}", materializedTasks, end);
+    }
+}
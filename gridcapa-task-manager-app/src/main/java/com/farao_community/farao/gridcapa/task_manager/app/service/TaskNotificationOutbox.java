@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import com.farao_community.farao.gridcapa.task_manager.api.TaskDto;
+import com.farao_community.farao.gridcapa.task_manager.api.TaskManagerException;
+import com.farao_community.farao.gridcapa.task_manager.app.entities.OutboxMessage;
+import com.farao_community.farao.gridcapa.task_manager.app.repository.OutboxMessageRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.data.domain.Limit;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Task notifications to the broker are saved as outbox messages in the transaction of the task change, and
+ * sent afterwards by batches: broker latency is not part of the task updates anymore, and a notification is
+ * not lost when the broker is unavailable or the instance stops right after the change. Messages are deleted
+ * once the broker has confirmed them, so a message may be sent again after a failure, never lost.
+ * Instances sharing the database claim the batches they send in short transactions: no row is locked while
+ * waiting for the broker, and a batch claimed by an instance stopped before deleting it is sent again by
+ * another one once its claim has expired.
+ */
+@Component
+public class TaskNotificationOutbox {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskNotificationOutbox.class);
+    private static final String OUTBOX_METRIC = "task.manager.outbox.messages";
+    private static final String RESULT_TAG = "result";
+    private static final Duration PENDING_MESSAGES_COUNT_INTERVAL = Duration.ofSeconds(10);
+
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final StreamBridge streamBridge;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final boolean publisherConfirms;
+    private final long confirmTimeoutMs;
+    private final Duration claimTimeout;
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final AtomicLong pendingMessages = new AtomicLong();
+    private final ReentrantLock publishLock = new ReentrantLock();
+    private long nextPendingMessagesCount;
+
+    public TaskNotificationOutbox(final OutboxMessageRepository outboxMessageRepository,
+                                  final StreamBridge streamBridge,
+                                  final ObjectMapper objectMapper,
+                                  final TransactionTemplate transactionTemplate,
+                                  final MeterRegistry meterRegistry,
+                                  @Value("${task-notification-outbox.batch-size}") final int batchSize,
+                                  @Value("${task-notification-outbox.publisher-confirms}") final boolean publisherConfirms,
+                                  @Value("${task-notification-outbox.confirm-timeout-ms}") final long confirmTimeoutMs,
+                                  @Value("${task-notification-outbox.claim-timeout-ms}") final long claimTimeoutMs) {
+        this.outboxMessageRepository = outboxMessageRepository;
+        this.streamBridge = streamBridge;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = Math.max(1, batchSize);
+        this.publisherConfirms = publisherConfirms;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+        this.claimTimeout = Duration.ofMillis(claimTimeoutMs);
+        this.nextPendingMessagesCount = System.nanoTime();
+        this.sentCounter = meterRegistry.counter(OUTBOX_METRIC, RESULT_TAG, "sent");
+        this.failedCounter = meterRegistry.counter(OUTBOX_METRIC, RESULT_TAG, "failed");
+        // Updated by the poller, the outbox is not counted on each scrape
+        meterRegistry.gauge("task.manager.outbox.pending.messages", Tags.empty(), pendingMessages);
+    }
+
+    /**
+     * Saves the notification of the task to the given binding, within the current transaction if any.
+     */
+    public void enqueue(final String binding, final TaskDto taskDto) {
+        final String payload;
+        try {
+            // The JSON of a SerializedTaskDto is written as is
+            payload = objectMapper.writeValueAsString(taskDto);
+        } catch (final JsonProcessingException e) {
+            throw new TaskManagerException("Unable to serialize task " + taskDto.getId(), e);
+        }
+        outboxMessageRepository.save(new OutboxMessage(binding, payload));
+    }
+
+    @Scheduled(fixedDelayString = "${task-notification-outbox.poll-interval-ms}")
+    public void scheduledPublish() {
+        try {
+            publishPendingMessages();
+        } catch (final RuntimeException e) {
+            LOGGER.warn("Unable to publish pending task notifications, they will be published by the next attempt", e);
+        }
+    }
+
+    /**
+     * Sends the pending messages by batches, in order, until none is left or a batch is not fully confirmed.
+     *
+     * @return the number of messages sent and confirmed
+     */
+    public int publishPendingMessages() {
+        publishLock.lock();
+        try {
+            int publishedMessages = 0;
+            BatchResult batchResult = null;
+            while (!Thread.currentThread().isInterrupted()) {
+                batchResult = publishBatch();
+                publishedMessages += batchResult.confirmed();
+                if (!batchResult.complete() || batchResult.size() < batchSize) {
+                    break;
+                }
+            }
+            if (batchResult != null) {
+                updatePendingMessages(batchResult);
+            }
+            return publishedMessages;
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    /**
+     * The batch is claimed, sent and deleted in three steps, only the claim and the deletion running in
+     * transactions. All the messages are sent before waiting for the confirms of the broker, which have to
+     * arrive before a single deadline. Messages which are not confirmed are released to be sent first next time.
+     */
+    private BatchResult publishBatch() {
+        final List<OutboxMessage> messages = claimBatch();
+        final List<CorrelationData> correlations = new ArrayList<>(messages.size());
+        final List<Long> confirmedIds = new ArrayList<>(messages.size());
+        final List<Long> unconfirmedIds = new ArrayList<>();
+        for (final OutboxMessage message : messages) {
+            final CorrelationData correlationData = new CorrelationData(String.valueOf(message.getId()));
+            correlations.add(streamBridge.send(message.getBinding(), toMessage(message, correlationData)) ? correlationData : null);
+        }
+        final long confirmDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(confirmTimeoutMs);
+        for (int i = 0; i < messages.size(); i++) {
+            if (isConfirmed(correlations.get(i), confirmDeadline)) {
+                confirmedIds.add(messages.get(i).getId());
+            } else {
+                unconfirmedIds.add(messages.get(i).getId());
+            }
+        }
+        if (!confirmedIds.isEmpty()) {
+            outboxMessageRepository.deleteByIdIn(confirmedIds);
+        }
+        if (!unconfirmedIds.isEmpty()) {
+            outboxMessageRepository.releaseByIdIn(unconfirmedIds);
+            LOGGER.warn("{} task notifications out of {} have not been confirmed by the broker, they will be sent again", unconfirmedIds.size(), messages.size());
+        }
+        sentCounter.increment(confirmedIds.size());
+        failedCounter.increment(unconfirmedIds.size());
+        return new BatchResult(messages.size(), confirmedIds.size(), unconfirmedIds.isEmpty());
+    }
+
+    private List<OutboxMessage> claimBatch() {
+        final List<OutboxMessage> messages = transactionTemplate.execute(status -> {
+            final OffsetDateTime now = OffsetDateTime.now();
+            final List<OutboxMessage> unclaimedMessages = outboxMessageRepository.findOldestUnclaimedForUpdate(now, Limit.of(batchSize));
+            if (!unclaimedMessages.isEmpty()) {
+                outboxMessageRepository.claimByIdIn(unclaimedMessages.stream().map(OutboxMessage::getId).toList(), now.plus(claimTimeout));
+            }
+            return unclaimedMessages;
+        });
+        return messages != null ? messages : List.of();
+    }
+
+    /**
+     * A batch smaller than the batch size holds all the messages left, apart from the ones claimed by other
+     * instances. Otherwise, the outbox is counted, at most once per interval.
+     */
+    private void updatePendingMessages(final BatchResult lastBatchResult) {
+        if (lastBatchResult.size() < batchSize) {
+            pendingMessages.set((long) lastBatchResult.size() - lastBatchResult.confirmed());
+        } else if (System.nanoTime() - nextPendingMessagesCount >= 0) {
+            pendingMessages.set(outboxMessageRepository.count());
+            nextPendingMessagesCount = System.nanoTime() + PENDING_MESSAGES_COUNT_INTERVAL.toNanos();
+        }
+    }
+
+    private Message<byte[]> toMessage(final OutboxMessage message, final CorrelationData correlationData) {
+        final MessageBuilder<byte[]> messageBuilder = MessageBuilder.withPayload(message.getPayload().getBytes(StandardCharsets.UTF_8))
+            .setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON_VALUE);
+        if (publisherConfirms) {
+            messageBuilder.setHeader(AmqpHeaders.PUBLISH_CONFIRM_CORRELATION, correlationData);
+        }
+        return messageBuilder.build();
+    }
+
+    private boolean isConfirmed(final CorrelationData correlationData, final long confirmDeadline) {
+        if (correlationData == null) {
+            return false;
+        }
+        if (!publisherConfirms) {
+            return true;
+        }
+        try {
+            final long remainingNanos = Math.max(0, confirmDeadline - System.nanoTime());
+            final CorrelationData.Confirm confirm = correlationData.getFuture().get(remainingNanos, TimeUnit.NANOSECONDS);
+            return confirm.isAck() && correlationData.getReturned() == null;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (final ExecutionException | TimeoutException e) {
+            return false;
+        }
+    }
+
+    private record BatchResult(int size, int confirmed, boolean complete) {
+    }
+}
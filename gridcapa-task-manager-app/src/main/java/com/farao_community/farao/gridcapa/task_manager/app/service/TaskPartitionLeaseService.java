@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import com.farao_community.farao.gridcapa.task_manager.app.configuration.TaskManagerConfigurationProperties;
+import com.farao_community.farao.gridcapa.task_manager.app.entities.TaskManagerMember;
+import com.farao_community.farao.gridcapa.task_manager.app.entities.TaskPartitionLease;
+import com.farao_community.farao.gridcapa.task_manager.app.repository.TaskManagerMemberRepository;
+import com.farao_community.farao.gridcapa.task_manager.app.repository.TaskPartitionLeaseRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Shares the timestamps between the instances of the task manager. Timestamps are split into partitions by
+ * business date, each partition being owned by one instance at a time through a lease in the database.
+ * Every instance renews its membership and its leases periodically, handing over the partitions above its
+ * fair share to the instances joining, and taking over the partitions of the instances which stopped renewing.
+ * When the task manager runs alone, it owns all the partitions and no lease is taken.
+ */
+@Service
+public class TaskPartitionLeaseService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskPartitionLeaseService.class);
+
+    private final TaskPartitionLeaseRepository taskPartitionLeaseRepository;
+    private final TaskManagerMemberRepository taskManagerMemberRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ZoneId processZone;
+    private final boolean clusterEnabled;
+    private final String instanceId;
+    private final int partitionCount;
+    private final Duration leaseDuration;
+    private volatile Set<Integer> ownedPartitions = Set.of();
+
+    public TaskPartitionLeaseService(final TaskPartitionLeaseRepository taskPartitionLeaseRepository,
+                                     final TaskManagerMemberRepository taskManagerMemberRepository,
+                                     final ApplicationEventPublisher eventPublisher,
+                                     final TaskManagerConfigurationProperties taskManagerConfigurationProperties,
+                                     @Value("${task-manager-cluster.enabled}") final boolean clusterEnabled,
+                                     @Value("${task-manager-cluster.instance-id}") final String instanceId,
+                                     @Value("${task-manager-cluster.partition-count}") final int partitionCount,
+                                     @Value("${task-manager-cluster.lease-duration-ms}") final long leaseDurationMs) {
+        this.taskPartitionLeaseRepository = taskPartitionLeaseRepository;
+        this.taskManagerMemberRepository = taskManagerMemberRepository;
+        this.eventPublisher = eventPublisher;
+        this.processZone = taskManagerConfigurationProperties.getProcessTimezone();
+        this.clusterEnabled = clusterEnabled;
+        this.instanceId = instanceId == null || instanceId.isBlank() ? UUID.randomUUID().toString() : instanceId;
+        this.partitionCount = partitionCount;
+        this.leaseDuration = Duration.ofMillis(leaseDurationMs);
+    }
+
+    public boolean isClusterEnabled() {
+        return clusterEnabled;
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    public int getPartitionCount() {
+        return partitionCount;
+    }
+
+    /**
+     * All the timestamps of a business date belong to the same partition, as most files concern a whole day.
+     */
+    public int getPartition(final OffsetDateTime timestamp) {
+        return getPartition(timestamp.atZoneSameInstant(processZone).toLocalDate());
+    }
+
+    /**
+     * @return the partitions of the business dates between the given timestamps, the start being included and the
+     * end excluded, in the order of the first business date of each partition
+     */
+    public List<Integer> getPartitions(final OffsetDateTime start, final OffsetDateTime end) {
+        final Set<Integer> partitions = new LinkedHashSet<>();
+        final LocalDate lastBusinessDate = (end.isAfter(start) ? end.minusNanos(1) : start).atZoneSameInstant(processZone).toLocalDate();
+        for (LocalDate businessDate = start.atZoneSameInstant(processZone).toLocalDate();
+             !businessDate.isAfter(lastBusinessDate) && partitions.size() < partitionCount;
+             businessDate = businessDate.plusDays(1)) {
+            partitions.add(getPartition(businessDate));
+        }
+        return List.copyOf(partitions);
+    }
+
+    private int getPartition(final LocalDate businessDate) {
+        return (int) Math.floorMod(businessDate.toEpochDay(), partitionCount);
+    }
+
+    public Set<Integer> getOwnedPartitions() {
+        return ownedPartitions;
+    }
+
+    public boolean ownsTimestamp(final OffsetDateTime timestamp) {
+        return !clusterEnabled || ownedPartitions.contains(getPartition(timestamp));
+    }
+
+    @Scheduled(fixedDelayString = "${task-manager-cluster.lease-renewal-interval-ms}")
+    public void renewLeases() {
+        if (!clusterEnabled) {
+            return;
+        }
+        try {
+            updateLeases(OffsetDateTime.now());
+        } catch (final RuntimeException e) {
+            // Leases which could not be renewed expire, their partitions are then taken over by other instances
+            LOGGER.error("Unable to renew the leases of instance {}", instanceId, e);
+        }
+    }
+
+    void updateLeases(final OffsetDateTime now) {
+        final OffsetDateTime expiresAt = now.plus(leaseDuration);
+        taskManagerMemberRepository.save(new TaskManagerMember(instanceId, expiresAt));
+        taskManagerMemberRepository.deleteExpired(now);
+        createMissingPartitions();
+        taskPartitionLeaseRepository.renew(instanceId, now, expiresAt);
+
+        final List<Integer> owned = new ArrayList<>(taskPartitionLeaseRepository.findPartitionsOwnedBy(instanceId, now));
+        owned.removeIf(partition -> partition >= partitionCount);
+        final long aliveMembers = Math.max(1, taskManagerMemberRepository.countAlive(now));
+        final int fairShare = (int) ((partitionCount + aliveMembers - 1) / aliveMembers);
+        while (owned.size() > fairShare) {
+            taskPartitionLeaseRepository.release(owned.removeLast(), instanceId);
+        }
+        for (final int partition : taskPartitionLeaseRepository.findFreePartitions(now)) {
+            if (owned.size() >= fairShare) {
+                break;
+            }
+            if (partition < partitionCount && taskPartitionLeaseRepository.acquire(partition, instanceId, now, expiresAt) == 1) {
+                owned.add(partition);
+            }
+        }
+        setOwnedPartitions(Set.copyOf(owned));
+    }
+
+    private void createMissingPartitions() {
+        if (taskPartitionLeaseRepository.count() >= partitionCount) {
+            return;
+        }
+        for (int partition = 0; partition < partitionCount; partition++) {
+            if (!taskPartitionLeaseRepository.existsById(partition)) {
+                try {
+                    taskPartitionLeaseRepository.saveAndFlush(new TaskPartitionLease(partition));
+                } catch (final DataIntegrityViolationException e) {
+                    LOGGER.debug("Partition {} has been created by another instance", partition);
+                }
+            }
+        }
+    }
+
+    private void setOwnedPartitions(final Set<Integer> partitions) {
+        if (!partitions.equals(ownedPartitions)) {
+            LOGGER.info("Instance {} now owns partitions {} out of {}", instanceId, partitions, partitionCount);
+            ownedPartitions = partitions;
+            eventPublisher.publishEvent(new TaskPartitionsAssigned(partitions));
+        }
+    }
+
+    /**
+     * Leases are released on shutdown, for the other instances not to wait for their expiry to take over.
+     */
+    @PreDestroy
+    public void releaseLeases() {
+        if (!clusterEnabled) {
+            return;
+        }
+        try {
+            ownedPartitions.forEach(partition -> taskPartitionLeaseRepository.release(partition, instanceId));
+            taskManagerMemberRepository.deleteById(instanceId);
+            ownedPartitions = Set.of();
+        } catch (final RuntimeException e) {
+            LOGGER.warn("Unable to release the leases of instance {}, they will expire", instanceId, e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import java.util.Set;
+
+/**
+ * Published when the partitions of the timestamps owned by this instance of the task manager change.
+ */
+public record TaskPartitionsAssigned(Set<Integer> partitions) {
+}
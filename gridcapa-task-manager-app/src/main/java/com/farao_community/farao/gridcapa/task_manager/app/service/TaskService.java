@@ -18,23 +18,37 @@ import com.farao_community.farao.gridcapa.task_manager.app.entities.FileEventTyp
 import com.farao_community.farao.gridcapa.task_manager.app.entities.FileRemovalStatus;
 import com.farao_community.farao.gridcapa.task_manager.app.entities.ProcessEvent;
 import com.farao_community.farao.gridcapa.task_manager.app.entities.ProcessFile;
+import com.farao_community.farao.gridcapa.task_manager.app.entities.ProcessFileMinio;
 import com.farao_community.farao.gridcapa.task_manager.app.entities.ProcessRun;
 import com.farao_community.farao.gridcapa.task_manager.app.entities.Task;
 import com.farao_community.farao.gridcapa.task_manager.app.entities.TaskWithStatusUpdate;
 import com.farao_community.farao.gridcapa.task_manager.app.repository.ProcessEventRepository;
+import com.farao_community.farao.gridcapa.task_manager.app.repository.ProcessFileRepository;
 import com.farao_community.farao.gridcapa.task_manager.app.repository.TaskRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -47,20 +61,188 @@ import java.util.stream.Stream;
 public class TaskService {
     private static final Logger LOGGER = LoggerFactory.getLogger(TaskService.class);
     private static final String FILE_EVENT_DEFAULT_LEVEL = "INFO";
+    // Version 8 UUID with a fixed prefix, followed by the IETF variant and the epoch second of the task
+    private static final long VIRTUAL_TASK_ID_MOST_SIGNIFICANT_BITS = 0x7669727475618000L;
+    private static final long VIRTUAL_TASK_ID_VARIANT = Long.MIN_VALUE;
 
     private final TaskManagerConfigurationProperties taskManagerConfigurationProperties;
     private final TaskRepository taskRepository;
     private final ProcessEventRepository processEventRepository;
+    private final ProcessFileRepository processFileRepository;
+    private final ProcessFileIntervalResolver processFileIntervalResolver;
+    private final TaskMaterializationHorizon taskMaterializationHorizon;
+    private final TaskSnapshotCache taskSnapshotCache;
+    private final TaskChangeTracker taskChangeTracker;
 
     @Value("${spring.application.name}")
     private String serviceName;
 
     public TaskService(TaskManagerConfigurationProperties taskManagerConfigurationProperties,
                        TaskRepository taskRepository,
-                       ProcessEventRepository processEventRepository) {
+                       ProcessEventRepository processEventRepository,
+                       ProcessFileRepository processFileRepository,
+                       ProcessFileIntervalResolver processFileIntervalResolver,
+                       TaskMaterializationHorizon taskMaterializationHorizon,
+                       TaskSnapshotCache taskSnapshotCache,
+                       TaskChangeTracker taskChangeTracker) {
         this.taskManagerConfigurationProperties = taskManagerConfigurationProperties;
         this.taskRepository = taskRepository;
         this.processEventRepository = processEventRepository;
+        this.processFileRepository = processFileRepository;
+        this.processFileIntervalResolver = processFileIntervalResolver;
+        this.taskMaterializationHorizon = taskMaterializationHorizon;
+        this.taskSnapshotCache = taskSnapshotCache;
+        this.taskChangeTracker = taskChangeTracker;
+    }
+
+    // //////////////////// //
+    // TASK MATERIALIZATION //
+    // //////////////////// //
+
+    /**
+     * Finds the task of the given timestamp, saving it in database first when it is still virtual, i.e. when
+     * process files are valid at its timestamp but it lies beyond the materialization horizon.
+     */
+    public Optional<Task> findOrMaterializeTask(final OffsetDateTime timestamp) {
+        final Optional<Task> task = taskRepository.findByTimestamp(timestamp);
+        if (task.isPresent() || !taskMaterializationHorizon.isEnabled()) {
+            return task;
+        }
+        final List<ProcessFile> validProcessFiles = getValidProcessFilesByTimestamp(List.of(timestamp)).get(timestamp);
+        if (validProcessFiles == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(materializeTask(timestamp, validProcessFiles));
+        } catch (DataIntegrityViolationException e) {
+            // Materialized concurrently, the task saved first is the one to use
+            return taskRepository.findByTimestamp(timestamp);
+        }
+    }
+
+    /**
+     * Saves in database the tasks which are still virtual between the given timestamps, so that the tasks
+     * are saved before the horizon reaches them. Only the timestamps accepted by the given filter are handled.
+     *
+     * @return the number of tasks saved
+     */
+    public int materializeTasksBetween(final OffsetDateTime start, final OffsetDateTime end, final Predicate<OffsetDateTime> timestampFilter) {
+        final Set<OffsetDateTime> timestamps = new TreeSet<>(OffsetDateTime.timeLineOrder());
+        processFileRepository.findAllValidBetween(start, end).forEach(processFile -> {
+            final OffsetDateTime fileEnd = earliest(processFile.getEndingAvailabilityDate(), end);
+            Stream.iterate(getFirstTimestampFrom(processFile, start), timestamp -> timestamp.isBefore(fileEnd), timestamp -> timestamp.plusHours(1))
+                    .filter(timestampFilter)
+                    .forEach(timestamps::add);
+        });
+        taskRepository.findTimestampsBetween(start, end).forEach(timestamps::remove);
+        if (timestamps.isEmpty()) {
+            return 0;
+        }
+        int materializedTasks = 0;
+        for (Map.Entry<OffsetDateTime, List<ProcessFile>> validProcessFiles : getValidProcessFilesByTimestamp(timestamps).entrySet()) {
+            try {
+                materializeTask(validProcessFiles.getKey(), validProcessFiles.getValue());
+                materializedTasks++;
+            } catch (DataIntegrityViolationException e) {
+                LOGGER.debug("Task with timestamp {} has already been materialized", validProcessFiles.getKey());
+            }
+        }
+        return materializedTasks;
+    }
+
+    /**
+     * Builds, without saving them, the virtual tasks of the given timestamps, with the process files valid at
+     * their timestamp. The timestamps must have no task in database: beyond the horizon, but also between the
+     * horizon at the arrival of their files and the current one, until the daily job saves them. Timestamps
+     * without any valid process file have no task.
+     */
+    public List<Task> getVirtualTasks(final Collection<OffsetDateTime> timestamps) {
+        if (!taskMaterializationHorizon.isEnabled() || timestamps.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return getValidProcessFilesByTimestamp(timestamps).entrySet().stream()
+                .map(validProcessFiles -> {
+                    final Task task = createTask(validProcessFiles.getKey());
+                    validProcessFiles.getValue().forEach(task::addProcessFile);
+                    checkAndUpdateTaskStatus(task, true);
+                    return task;
+                })
+                .toList();
+    }
+
+    private static OffsetDateTime getFirstTimestampFrom(final ProcessFile processFile, final OffsetDateTime start) {
+        final OffsetDateTime fileStart = processFile.getStartingAvailabilityDate();
+        if (!fileStart.isBefore(start)) {
+            return fileStart;
+        }
+        final OffsetDateTime timestamp = fileStart.plusHours(ChronoUnit.HOURS.between(fileStart, start));
+        return timestamp.isBefore(start) ? timestamp.plusHours(1) : timestamp;
+    }
+
+    private Task materializeTask(final OffsetDateTime timestamp, final List<ProcessFile> validProcessFiles) {
+        //Task must be saved before adding file/processEvent to it to ensure foreign key constraint is respected
+        final Task task = taskRepository.save(createTask(timestamp));
+        validProcessFiles.forEach(processFile -> applyProcessFileToTask(processFile, FileEventType.AVAILABLE, processFile.isInputFile(), task));
+        checkAndUpdateTaskStatus(task, true);
+        LOGGER.info("Task with timestamp {} materialized with status {}", timestamp, task.getStatus());
+        final Task materializedTask = taskRepository.save(task);
+        taskChangeTracker.taskChanged(timestamp);
+        return materializedTask;
+    }
+
+    /**
+     * Virtual tasks are neither saved nor notified when a process file they depend on is added or removed: the
+     * ETags of their business dates are changed once the process file itself has been saved or deleted. The
+     * whole validity of the file is concerned, as tasks not saved yet may lie before the current horizon.
+     */
+    public void virtualTasksChanged(final ProcessFile processFile) {
+        if (taskMaterializationHorizon.isEnabled()) {
+            taskChangeTracker.tasksChanged(processFile.getStartingAvailabilityDate(), processFile.getEndingAvailabilityDate());
+        }
+    }
+
+    /**
+     * @return the timestamp of the virtual task the given id has been built for, if it is the id of a virtual task
+     * or of a task since materialized
+     */
+    public Optional<OffsetDateTime> getVirtualTaskTimestamp(final UUID taskId) {
+        if (!taskMaterializationHorizon.isEnabled() || taskId.getMostSignificantBits() != VIRTUAL_TASK_ID_MOST_SIGNIFICANT_BITS) {
+            return Optional.empty();
+        }
+        return Optional.of(OffsetDateTime.ofInstant(Instant.ofEpochSecond(taskId.getLeastSignificantBits() & ~VIRTUAL_TASK_ID_VARIANT), ZoneOffset.UTC));
+    }
+
+    /**
+     * A virtual task is given the id it keeps once materialized, so that clients can refer to it either way. The
+     * id is a custom (version 8) UUID holding the timestamp of the task, for the task to be found from its id only.
+     */
+    private static Task createTask(final OffsetDateTime timestamp) {
+        final Task task = new Task(timestamp);
+        task.setId(new UUID(VIRTUAL_TASK_ID_MOST_SIGNIFICANT_BITS, VIRTUAL_TASK_ID_VARIANT | timestamp.toEpochSecond()));
+        return task;
+    }
+
+    /**
+     * @return the process files valid at each of the given timestamps, ordered by modification date so that the
+     * last modified version of each input is selected, timestamps without any valid process file being left out
+     */
+    private Map<OffsetDateTime, List<ProcessFile>> getValidProcessFilesByTimestamp(final Collection<OffsetDateTime> timestamps) {
+        final OffsetDateTime first = timestamps.stream().min(OffsetDateTime.timeLineOrder()).orElseThrow();
+        final OffsetDateTime last = timestamps.stream().max(OffsetDateTime.timeLineOrder()).orElseThrow();
+        final List<ProcessFile> processFiles = processFileRepository.findAllValidBetween(first, last).stream()
+                .sorted(Comparator.comparing(ProcessFile::getLastModificationDate, OffsetDateTime.timeLineOrder()))
+                .toList();
+        final Map<OffsetDateTime, List<ProcessFile>> processFilesByTimestamp = new TreeMap<>(OffsetDateTime.timeLineOrder());
+        timestamps.forEach(timestamp -> {
+            final List<ProcessFile> validProcessFiles = processFiles.stream()
+                    .filter(processFile -> !processFile.getStartingAvailabilityDate().isAfter(timestamp)
+                            && processFile.getEndingAvailabilityDate().isAfter(timestamp))
+                    .toList();
+            if (!validProcessFiles.isEmpty()) {
+                processFilesByTimestamp.put(timestamp, validProcessFiles);
+            }
+        });
+        return processFilesByTimestamp;
     }
 
     // ////////////////////// //
@@ -97,13 +279,17 @@ public class TaskService {
     // //////////////////////// //
 
     public void addProcessEventToTask(TaskLogEventUpdate loggerEvent, Task task) {
+        processEventRepository.save(createProcessEvent(loggerEvent, task));
+    }
+
+    public ProcessEvent createProcessEvent(TaskLogEventUpdate loggerEvent, Task task) {
         OffsetDateTime offsetDateTime = OffsetDateTime.parse(loggerEvent.getTimestamp());
         String message = loggerEvent.getMessage();
         Optional<String> optionalEventPrefix = loggerEvent.getEventPrefix();
         if (optionalEventPrefix.isPresent()) {
             message = "[" + optionalEventPrefix.get() + "] : " + loggerEvent.getMessage();
         }
-        addProcessEvent(task, offsetDateTime, loggerEvent.getLevel(), message, loggerEvent.getServiceName());
+        return new ProcessEvent(task, offsetDateTime, loggerEvent.getLevel(), message, loggerEvent.getServiceName());
     }
 
     void addFileEventToTask(Task task, FileEventType fileEventType, ProcessFile processFile) {
@@ -151,14 +337,33 @@ public class TaskService {
                                                            final FileEventType fileEventType,
                                                            final boolean isInput,
                                                            final boolean withStatusUpdate) {
-        final OffsetDateTime start = savedProcessFile.getStartingAvailabilityDate();
-        final OffsetDateTime end = savedProcessFile.getEndingAvailabilityDate();
+        return addProcessFileToTasks(savedProcessFile, fileEventType, isInput, withStatusUpdate,
+                savedProcessFile.getStartingAvailabilityDate(), savedProcessFile.getEndingAvailabilityDate());
+    }
+
+    /**
+     * Adds the process file to the tasks it is valid for within the given window only, so that files valid for
+     * a long period can be handled window after window without loading all their tasks at once.
+     */
+    public Set<TaskWithStatusUpdate> addProcessFileToTasks(final ProcessFile savedProcessFile,
+                                                           final FileEventType fileEventType,
+                                                           final boolean isInput,
+                                                           final boolean withStatusUpdate,
+                                                           final OffsetDateTime windowStart,
+                                                           final OffsetDateTime windowEnd) {
+        final OffsetDateTime start = latest(savedProcessFile.getStartingAvailabilityDate(), windowStart);
+        final OffsetDateTime end = earliest(savedProcessFile.getEndingAvailabilityDate(), windowEnd);
         final Set<TaskWithStatusUpdate> allTasks = new HashSet<>();
+        if (!start.isBefore(end)) {
+            return allTasks;
+        }
+        processFileIntervalResolver.clearManualSelections(savedProcessFile, start, end);
 
         //Deal with existing tasks in database
         final Map<OffsetDateTime, TaskWithStatusUpdate> existingTasksInDatabase = taskRepository.findAllByTimestampBetween(start, end)
                 .stream()
                 .collect(Collectors.toMap(Task::getTimestamp, task -> new TaskWithStatusUpdate(task, false)));
+        processFileIntervalResolver.resolve(existingTasksInDatabase.values().stream().map(TaskWithStatusUpdate::getTask).toList());
 
         addProcessFileToExistingTasks(savedProcessFile, fileEventType, isInput, withStatusUpdate, allTasks, existingTasksInDatabase);
 
@@ -167,6 +372,141 @@ public class TaskService {
         return allTasks;
     }
 
+    /**
+     * Adds several process files to the tasks they are valid for, the concerned tasks being loaded only once.
+     * Files are applied in the given order, and the status of each task receiving an input file is evaluated
+     * once, after all the files have been applied.
+     */
+    public Set<TaskWithStatusUpdate> addProcessFilesToTasks(final List<ProcessFileMinio> savedProcessFiles) {
+        if (savedProcessFiles.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return addProcessFilesToTasks(savedProcessFiles, getStartingAvailabilityDate(savedProcessFiles), getEndingAvailabilityDate(savedProcessFiles));
+    }
+
+    /**
+     * Adds several process files to the tasks they are valid for within the given window only. As all the files
+     * concerning a task are applied in the same window, the status of the task is still evaluated once.
+     */
+    public Set<TaskWithStatusUpdate> addProcessFilesToTasks(final List<ProcessFileMinio> savedProcessFiles,
+                                                            final OffsetDateTime windowStart,
+                                                            final OffsetDateTime windowEnd) {
+        final List<ProcessFileMinio> processFilesInWindow = savedProcessFiles.stream()
+                .filter(processFileMinio -> processFileMinio.getProcessFile().getStartingAvailabilityDate().isBefore(windowEnd)
+                        && processFileMinio.getProcessFile().getEndingAvailabilityDate().isAfter(windowStart))
+                .toList();
+        if (processFilesInWindow.isEmpty()) {
+            return Collections.emptySet();
+        }
+        final OffsetDateTime start = latest(getStartingAvailabilityDate(processFilesInWindow), windowStart);
+        final OffsetDateTime end = earliest(getEndingAvailabilityDate(processFilesInWindow), windowEnd);
+        processFilesInWindow.forEach(processFileMinio -> processFileIntervalResolver.clearManualSelections(processFileMinio.getProcessFile(),
+                latest(processFileMinio.getProcessFile().getStartingAvailabilityDate(), start),
+                earliest(processFileMinio.getProcessFile().getEndingAvailabilityDate(), end)));
+
+        final NavigableMap<OffsetDateTime, TaskWithStatusUpdate> tasksByTimestamp = new TreeMap<>(OffsetDateTime.timeLineOrder());
+        // Tasks between files whose validity periods do not overlap are not loaded
+        getValidityPeriods(processFilesInWindow, start, end).forEach((periodStart, periodEnd) ->
+                taskRepository.findAllByTimestampBetween(periodStart, periodEnd)
+                        .forEach(task -> tasksByTimestamp.put(task.getTimestamp(), new TaskWithStatusUpdate(task, false))));
+        addMissingTasks(processFilesInWindow, start, end, tasksByTimestamp);
+        processFileIntervalResolver.resolve(tasksByTimestamp.values().stream().map(TaskWithStatusUpdate::getTask).toList());
+
+        final Set<TaskWithStatusUpdate> allTasks = new HashSet<>();
+        final Set<TaskWithStatusUpdate> tasksWithNewInput = new HashSet<>();
+        processFilesInWindow.forEach(processFileMinio -> {
+            final ProcessFile processFile = processFileMinio.getProcessFile();
+            tasksByTimestamp.subMap(latest(processFile.getStartingAvailabilityDate(), start), true, earliest(processFile.getEndingAvailabilityDate(), end), false)
+                    .values()
+                    .forEach(taskWithStatusUpdate -> {
+                        applyProcessFileToTask(processFile, processFileMinio.getFileEventType(), processFile.isInputFile(), taskWithStatusUpdate.getTask());
+                        allTasks.add(taskWithStatusUpdate);
+                        if (processFile.isInputFile()) {
+                            tasksWithNewInput.add(taskWithStatusUpdate);
+                        }
+                    });
+        });
+
+        tasksWithNewInput.forEach(taskWithStatusUpdate -> {
+            final Task task = taskWithStatusUpdate.getTask();
+            if (checkAndUpdateTaskStatus(task, true)) {
+                taskWithStatusUpdate.setStatusUpdated(true);
+                LOGGER.info("Update status of task with timestamp {} when new input files arrived to status {}", task.getTimestamp(), task.getStatus());
+            }
+        });
+        return allTasks;
+    }
+
+    private static OffsetDateTime getStartingAvailabilityDate(final List<ProcessFileMinio> processFiles) {
+        return processFiles.stream()
+                .map(processFileMinio -> processFileMinio.getProcessFile().getStartingAvailabilityDate())
+                .min(OffsetDateTime.timeLineOrder())
+                .orElseThrow();
+    }
+
+    private static OffsetDateTime getEndingAvailabilityDate(final List<ProcessFileMinio> processFiles) {
+        return processFiles.stream()
+                .map(processFileMinio -> processFileMinio.getProcessFile().getEndingAvailabilityDate())
+                .max(OffsetDateTime.timeLineOrder())
+                .orElseThrow();
+    }
+
+    /**
+     * @return the validity periods of the files within the given window, overlapping periods being merged,
+     * as ending dates by starting dates
+     */
+    private static NavigableMap<OffsetDateTime, OffsetDateTime> getValidityPeriods(final List<ProcessFileMinio> processFiles,
+                                                                                 final OffsetDateTime windowStart,
+                                                                                 final OffsetDateTime windowEnd) {
+        final List<ProcessFile> sortedProcessFiles = processFiles.stream()
+                .map(ProcessFileMinio::getProcessFile)
+                .sorted(Comparator.comparing(ProcessFile::getStartingAvailabilityDate, OffsetDateTime.timeLineOrder()))
+                .toList();
+        final NavigableMap<OffsetDateTime, OffsetDateTime> periods = new TreeMap<>(OffsetDateTime.timeLineOrder());
+        for (ProcessFile processFile : sortedProcessFiles) {
+            final OffsetDateTime start = latest(processFile.getStartingAvailabilityDate(), windowStart);
+            final OffsetDateTime end = earliest(processFile.getEndingAvailabilityDate(), windowEnd);
+            final Map.Entry<OffsetDateTime, OffsetDateTime> lastPeriod = periods.lastEntry();
+            if (lastPeriod != null && !start.isAfter(lastPeriod.getValue())) {
+                periods.put(lastPeriod.getKey(), latest(lastPeriod.getValue(), end));
+            } else {
+                periods.put(start, end);
+            }
+        }
+        return periods;
+    }
+
+    private static OffsetDateTime latest(final OffsetDateTime first, final OffsetDateTime second) {
+        return first.isAfter(second) ? first : second;
+    }
+
+    private static OffsetDateTime earliest(final OffsetDateTime first, final OffsetDateTime second) {
+        return first.isBefore(second) ? first : second;
+    }
+
+    private void addMissingTasks(final List<ProcessFileMinio> savedProcessFiles,
+                                 final OffsetDateTime windowStart,
+                                 final OffsetDateTime windowEnd,
+                                 final NavigableMap<OffsetDateTime, TaskWithStatusUpdate> tasksByTimestamp) {
+        final List<Task> tasksToSave = new ArrayList<>();
+        // Tasks beyond the materialization horizon stay virtual
+        final OffsetDateTime materializationEnd = taskMaterializationHorizon.limit(windowEnd);
+        savedProcessFiles.forEach(processFileMinio -> {
+            final OffsetDateTime start = latest(processFileMinio.getProcessFile().getStartingAvailabilityDate(), windowStart);
+            final OffsetDateTime end = earliest(processFileMinio.getProcessFile().getEndingAvailabilityDate(), materializationEnd);
+            Stream.iterate(start, time -> time.plusHours(1))
+                    .limit(Math.max(0, ChronoUnit.HOURS.between(start, end)))
+                    .filter(timestamp -> !tasksByTimestamp.containsKey(timestamp))
+                    .forEach(timestamp -> {
+                        final Task newTask = new Task(timestamp);
+                        tasksToSave.add(newTask);
+                        tasksByTimestamp.put(timestamp, new TaskWithStatusUpdate(newTask, true));
+                    });
+        });
+        //Tasks must be saved before adding file/processEvent to it to ensure foreign key constraint is respected
+        taskRepository.saveAll(tasksToSave);
+    }
+
     private void addProcessFileToExistingTasks(final ProcessFile savedProcessFile,
                                                final FileEventType fileEventType,
                                                final boolean isInput,
@@ -195,13 +535,16 @@ public class TaskService {
                                           final OffsetDateTime end,
                                           final Set<TaskWithStatusUpdate> allTasks,
                                           final Map<OffsetDateTime, TaskWithStatusUpdate> existingTasksInDatabase) {
+        // Tasks beyond the materialization horizon stay virtual
+        final OffsetDateTime materializationEnd = taskMaterializationHorizon.limit(end);
         final List<Task> tasksToSave = Stream.iterate(start, time -> time.plusHours(1))
-                .limit(ChronoUnit.HOURS.between(start, end))
+                .limit(Math.max(0, ChronoUnit.HOURS.between(start, materializationEnd)))
                 .filter(timestamp -> !existingTasksInDatabase.containsKey(timestamp))
                 .map(Task::new)
                 .toList();
         //Tasks must be saved before adding file/processEvent to it to ensure foreign key constraint is respected
         taskRepository.saveAll(tasksToSave);
+        processFileIntervalResolver.resolve(tasksToSave);
 
         tasksToSave.forEach(newTask -> {
             applyProcessFileToTask(savedProcessFile, fileEventType, isInput, newTask);
@@ -213,6 +556,8 @@ public class TaskService {
                                         final FileEventType fileEventType,
                                         final boolean isInput,
                                         final Task task) {
+        // Files of a task may change without its version changing, when they are resolved by validity interval
+        taskSnapshotCache.evict(task.getId());
         addFileEventToTask(task, fileEventType, savedProcessFile);
         if (isInput) {
             removeUnavailableProcessFileFromTaskRunHistory(savedProcessFile, task, fileEventType);
@@ -221,9 +566,23 @@ public class TaskService {
     }
 
     public Set<TaskWithStatusUpdate> removeProcessFileFromTasks(ProcessFile processFile) {
-        return taskRepository.findAllByTimestampWithAtLeastOneProcessFileBetween(processFile.getStartingAvailabilityDate(), processFile.getEndingAvailabilityDate())
-                .parallelStream()
+        return removeProcessFileFromTasks(processFile, processFile.getStartingAvailabilityDate(), processFile.getEndingAvailabilityDate());
+    }
+
+    public Set<TaskWithStatusUpdate> removeProcessFileFromTasks(ProcessFile processFile, OffsetDateTime windowStart, OffsetDateTime windowEnd) {
+        final OffsetDateTime start = latest(processFile.getStartingAvailabilityDate(), windowStart);
+        final OffsetDateTime end = earliest(processFile.getEndingAvailabilityDate(), windowEnd);
+        if (!start.isBefore(end)) {
+            return Collections.emptySet();
+        }
+        // Without join tables, every task of the period is concerned by the file
+        final Set<Task> tasks = processFileIntervalResolver.isEnabled()
+                ? taskRepository.findAllByTimestampBetween(start, end)
+                : taskRepository.findAllByTimestampWithAtLeastOneProcessFileBetween(start, end);
+        processFileIntervalResolver.resolve(tasks);
+        return tasks.parallelStream()
                 .map(task -> {
+                    taskSnapshotCache.evict(task.getId());
                     removeUnavailableProcessFileFromTaskRunHistory(processFile, task, FileEventType.DELETED);
                     final FileRemovalStatus fileRemovalStatus = task.removeProcessFile(processFile);
                     boolean statusUpdated = false;
@@ -243,7 +602,7 @@ public class TaskService {
     public TaskWithStatusUpdate selectFile(final OffsetDateTime timestamp,
                                            final String filetype,
                                            final String filename) {
-        Task task = taskRepository.findByTimestamp(timestamp).orElseThrow(TaskNotFoundException::new);
+        Task task = findOrMaterializeTask(timestamp).orElseThrow(TaskNotFoundException::new);
         if (doesStatusBlockFileSelection(task.getStatus())) {
             throw new TaskManagerException("Status of task does not allow to change selected file");
         }
@@ -254,6 +613,8 @@ public class TaskService {
                 .findAny()
                 .orElseThrow(ProcessFileNotFoundException::new);
         task.selectProcessFile(processFile);
+        processFileIntervalResolver.recordManualSelection(task, processFile);
+        taskSnapshotCache.evict(task.getId());
 
         String message = String.format("Manual selection of another version of %s : %s", filetype, filename);
         OffsetDateTime now = OffsetDateTime.now(taskManagerConfigurationProperties.getProcessTimezone());
@@ -280,14 +641,17 @@ public class TaskService {
     // ////////////////////// //
 
     public Task addNewRunAndSaveTask(OffsetDateTime timestamp, List<ProcessFileDto> inputFileDtos) {
-        final Task task = taskRepository.findByTimestamp(timestamp).orElseThrow(TaskNotFoundException::new);
+        final Task task = findOrMaterializeTask(timestamp).orElseThrow(TaskNotFoundException::new);
         final List<ProcessFile> inputFiles = inputFileDtos.stream()
                 .filter(dto -> ProcessFileStatus.VALIDATED.equals(dto.getProcessFileStatus()))
                 .map(dto -> getProcessFileFromTaskMatchingDto(task, dto))
                 .toList();
         final ProcessRun processRun = new ProcessRun(inputFiles);
         task.addProcessRun(processRun);
-        return taskRepository.save(task);
+        final Task savedTask = taskRepository.save(task);
+        // New runs are not notified, the run history is only refreshed on the next request
+        taskChangeTracker.taskChanged(timestamp);
+        return savedTask;
     }
 
     private static ProcessFile getProcessFileFromTaskMatchingDto(Task task, ProcessFileDto processFileDto) {
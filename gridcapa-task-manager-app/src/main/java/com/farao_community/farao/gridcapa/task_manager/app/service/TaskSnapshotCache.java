@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import com.farao_community.farao.gridcapa.task_manager.api.TaskDto;
+import com.farao_community.farao.gridcapa.task_manager.api.TaskManagerException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Last task DTOs (without process events) built for the most recently read or updated tasks, along with
+ * their JSON form and the version of the task they were built from. A task read again with the same version
+ * is rendered from its snapshot, and a status change can be notified from the last snapshot of its task
+ * without reading the task again. Entries are dropped by {@code TaskSnapshotListener} as soon as the data
+ * they were built from changes, and by {@link TaskService} when the files of a task change.
+ */
+@Component
+public class TaskSnapshotCache {
+    private final ObjectMapper objectMapper;
+    private final Map<UUID, SerializedTaskDto> snapshots;
+
+    public TaskSnapshotCache(final ObjectMapper objectMapper,
+                             @Value("${task-snapshot-cache.max-size}") final int maxSize) {
+        this.objectMapper = objectMapper;
+        this.snapshots = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<UUID, SerializedTaskDto> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * @return the last snapshot of the task, whatever the version it was built from
+     */
+    public Optional<SerializedTaskDto> get(final UUID taskId) {
+        synchronized (snapshots) {
+            return Optional.ofNullable(snapshots.get(taskId));
+        }
+    }
+
+    /**
+     * @return the snapshot of the task if it has been built from the given version of the task
+     */
+    public Optional<SerializedTaskDto> get(final UUID taskId, final Long taskVersion) {
+        if (taskVersion == null) {
+            return Optional.empty();
+        }
+        return get(taskId).filter(snapshot -> Objects.equals(snapshot.getTaskVersion(), taskVersion));
+    }
+
+    /**
+     * Serializes the DTO and keeps it as the last snapshot of its task.
+     *
+     * @param taskVersion version of the task the DTO has been built from, null when it is not known
+     */
+    public SerializedTaskDto put(final TaskDto taskDto, final Long taskVersion) {
+        final SerializedTaskDto snapshot;
+        try {
+            snapshot = new SerializedTaskDto(taskDto, taskVersion, objectMapper.writeValueAsString(taskDto));
+        } catch (final JsonProcessingException e) {
+            throw new TaskManagerException("Unable to serialize task " + taskDto.getId(), e);
+        }
+        synchronized (snapshots) {
+            snapshots.put(taskDto.getId(), snapshot);
+        }
+        return snapshot;
+    }
+
+    public void evict(final UUID taskId) {
+        synchronized (snapshots) {
+            snapshots.remove(taskId);
+        }
+    }
+
+    public void clear() {
+        synchronized (snapshots) {
+            snapshots.clear();
+        }
+    }
+}
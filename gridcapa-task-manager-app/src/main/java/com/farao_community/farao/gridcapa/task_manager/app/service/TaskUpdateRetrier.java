@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs the operations modifying tasks again when they fail because a task has been modified concurrently,
+ * which is detected thanks to the version of the tasks. Each attempt must read the tasks it modifies again.
+ * Attempts are spaced by an exponential backoff with jitter, so that conflicting operations do not collide
+ * once more. Conflicts and operations failing after the last attempt are counted by operation.
+ */
+@Component
+public class TaskUpdateRetrier {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskUpdateRetrier.class);
+    private static final String OPERATION_TAG = "operation";
+
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+
+    public TaskUpdateRetrier(final MeterRegistry meterRegistry,
+                             @Value("${task-update-retry.max-attempts}") final int maxAttempts,
+                             @Value("${task-update-retry.initial-backoff-ms}") final long initialBackoffMs,
+                             @Value("${task-update-retry.max-backoff-ms}") final long maxBackoffMs) {
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    public void runWithRetry(final String operation, final Runnable action) {
+        callWithRetry(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public <T> T callWithRetry(final String operation, final Supplier<T> action) {
+        int attempt = 1;
+        while (true) {
+            try {
+                return action.get();
+            } catch (final OptimisticLockingFailureException e) {
+                meterRegistry.counter("task.manager.task.update.conflicts", OPERATION_TAG, operation).increment();
+                if (attempt >= maxAttempts) {
+                    meterRegistry.counter("task.manager.task.update.retries.exhausted", OPERATION_TAG, operation).increment();
+                    LOGGER.error("Operation {} still conflicting with concurrent task updates after {} attempts", operation, attempt);
+                    throw e;
+                }
+                LOGGER.info("Operation {} conflicted with a concurrent task update, attempt {} of {}", operation, attempt, maxAttempts);
+                backOff(attempt, e);
+                attempt++;
+            }
+        }
+    }
+
+    private void backOff(final int attempt, final OptimisticLockingFailureException conflict) {
+        final long backoffMs = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+        if (backoffMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(backoffMs / 2 + ThreadLocalRandom.current().nextLong(backoffMs / 2 + 1));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+    }
+}
@@ -6,6 +6,7 @@
  */
 package com.farao_community.farao.gridcapa.task_manager.app;
 
+import com.farao_community.farao.gridcapa.task_manager.api.FileUploadResultDto;
 import com.farao_community.farao.gridcapa.task_manager.api.TaskManagerException;
 import com.farao_community.farao.gridcapa.task_manager.api.TaskNotFoundException;
 import com.farao_community.farao.gridcapa.task_manager.app.entities.Task;
@@ -17,22 +18,32 @@ import org.mockito.Mockito;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -43,6 +54,8 @@ import static org.mockito.Mockito.when;
 @SpringBootTest
 class FileManagerTest {
 
+    private static final String MULTIPART_BOUNDARY = "upload-boundary";
+
     @MockitoBean
     private TaskRepository taskRepository;
 
@@ -55,6 +68,15 @@ class FileManagerTest {
     @Autowired
     private FileManager fileManager;
 
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Test
+    void uploadPoolIsNotExposedAsBean() {
+        assertTrue(applicationContext.getBeansOfType(ThreadPoolTaskExecutor.class).values().stream()
+            .noneMatch(executor -> "file-upload-thread-".equals(executor.getThreadNamePrefix())));
+    }
+
     @Test
     void checkBytesForFileGroupGeneratedProperly() throws Exception {
         OffsetDateTime taskTimestamp = OffsetDateTime.parse("2021-09-30T23:00Z");
@@ -161,4 +183,67 @@ class FileManagerTest {
         // Then
         verify(minioAdapter).uploadInputForTimestamp(expectedPath, inputStream, processTag, fileType, timestamp);
     }
+
+    @Test
+    void testUploadFilesToMinioReturnsOneResultPerFile() {
+        final OffsetDateTime timestamp = OffsetDateTime.parse("2024-09-16T14:30Z");
+        final MockHttpServletRequest request = buildMultipartRequest(
+            formField("fileNames", "cgm.uct"), formField("fileNames", "crac.json"),
+            formField("fileTypes", "CGM"), formField("fileTypes", "CRAC"),
+            filePart("cgm.uct", "cgm content"), filePart("crac.json", "crac content"));
+        Mockito.doThrow(new TaskManagerException("Upload failed")).when(minioAdapter)
+            .uploadInputForTimestamp(eq("cse/d2cc/MANUAL_UPLOAD/2024-09-16_1430/crac.json"), any(), any(), any(), any());
+
+        final List<FileUploadResultDto> results = fileManager.uploadFilesToMinio(timestamp, request).join();
+
+        assertEquals(2, results.size());
+        assertEquals("cgm.uct", results.get(0).getFileName());
+        assertTrue(results.get(0).isSuccess());
+        assertEquals("crac.json", results.get(1).getFileName());
+        assertFalse(results.get(1).isSuccess());
+        verify(minioAdapter).uploadInputForTimestamp(eq("cse/d2cc/MANUAL_UPLOAD/2024-09-16_1430/cgm.uct"), any(), eq("CSE_D2CC"), eq("CGM"), eq(timestamp));
+    }
+
+    @Test
+    void testUploadFilesToMinioWithCommaSeparatedNamesAndTypes() {
+        final OffsetDateTime timestamp = OffsetDateTime.parse("2024-09-16T14:30Z");
+        final MockHttpServletRequest request = buildMultipartRequest(
+            formField("fileNames", "cgm.uct,crac.json"), formField("fileTypes", "CGM,CRAC"),
+            filePart("cgm.uct", "cgm content"), filePart("crac.json", "crac content"));
+
+        final List<FileUploadResultDto> results = fileManager.uploadFilesToMinio(timestamp, request).join();
+
+        assertEquals(2, results.size());
+        assertTrue(results.stream().allMatch(FileUploadResultDto::isSuccess));
+        verify(minioAdapter).uploadInputForTimestamp(eq("cse/d2cc/MANUAL_UPLOAD/2024-09-16_1430/crac.json"), any(), eq("CSE_D2CC"), eq("CRAC"), eq(timestamp));
+    }
+
+    @Test
+    void testUploadFilesToMinioFailsWhenFilesDoNotMatchNames() {
+        final OffsetDateTime timestamp = OffsetDateTime.parse("2024-09-16T14:30Z");
+        final MockHttpServletRequest request = buildMultipartRequest(
+            formField("fileNames", "cgm.uct"), formField("fileTypes", "CGM"),
+            filePart("cgm.uct", "cgm content"), filePart("crac.json", "crac content"));
+
+        final CompletableFuture<List<FileUploadResultDto>> upload = fileManager.uploadFilesToMinio(timestamp, request);
+
+        final CompletionException exception = assertThrows(CompletionException.class, upload::join);
+        assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+    }
+
+    private static String formField(String name, String value) {
+        return "--" + MULTIPART_BOUNDARY + "\r\nContent-Disposition: form-data; name=\"" + name + "\"\r\n\r\n" + value + "\r\n";
+    }
+
+    private static String filePart(String fileName, String content) {
+        return "--" + MULTIPART_BOUNDARY + "\r\nContent-Disposition: form-data; name=\"files\"; filename=\"" + fileName + "\"\r\n"
+            + "Content-Type: application/octet-stream\r\n\r\n" + content + "\r\n";
+    }
+
+    private static MockHttpServletRequest buildMultipartRequest(String... parts) {
+        final MockHttpServletRequest request = new MockHttpServletRequest("POST", "/tasks/2024-09-16T14:30Z/uploadfiles");
+        request.setContentType("multipart/form-data; boundary=" + MULTIPART_BOUNDARY);
+        request.setContent((String.join("", parts) + "--" + MULTIPART_BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
 }
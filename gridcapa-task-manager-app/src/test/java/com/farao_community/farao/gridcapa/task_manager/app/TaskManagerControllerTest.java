@@ -6,6 +6,7 @@
  */
 package com.farao_community.farao.gridcapa.task_manager.app;
 
+import com.farao_community.farao.gridcapa.task_manager.api.FileUploadResultDto;
 import com.farao_community.farao.gridcapa.task_manager.api.ParameterDto;
 import com.farao_community.farao.gridcapa.task_manager.api.ProcessFileNotFoundException;
 import com.farao_community.farao.gridcapa.task_manager.api.TaskDto;
@@ -19,6 +20,7 @@ import com.farao_community.farao.gridcapa.task_manager.app.repository.TaskReposi
 import com.farao_community.farao.gridcapa.task_manager.app.service.FileSelectorService;
 import com.farao_community.farao.gridcapa.task_manager.app.service.ParameterService;
 import com.farao_community.farao.gridcapa.task_manager.app.service.StatusHandler;
+import com.farao_community.farao.gridcapa.task_manager.app.service.TaskChangeTracker;
 import com.farao_community.farao.gridcapa.task_manager.app.service.TaskService;
 import com.farao_community.farao.minio_adapter.starter.MinioAdapter;
 import com.farao_community.farao.minio_adapter.starter.MinioAdapterConstants;
@@ -29,7 +31,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.ByteArrayOutputStream;
@@ -45,12 +49,16 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -94,12 +102,15 @@ class TaskManagerControllerTest {
     @MockitoBean
     private TaskService taskService;
 
+    @Autowired
+    private TaskChangeTracker taskChangeTracker;
+
     @Test
     void testGetTaskOk() {
         OffsetDateTime taskTimestamp = OffsetDateTime.parse("2021-09-30T23:00Z");
         Task task = new Task(taskTimestamp);
         Mockito.when(taskRepository.findByTimestamp(taskTimestamp)).thenReturn(Optional.of(task));
-        ResponseEntity<TaskDto> taskResponse = taskManagerController.getTaskFromTimestamp(taskTimestamp.toString());
+        ResponseEntity<TaskDto> taskResponse = taskManagerController.getTaskFromTimestamp(taskTimestamp.toString(), null);
 
         assertEquals(HttpStatus.OK, taskResponse.getStatusCode());
     }
@@ -107,11 +118,38 @@ class TaskManagerControllerTest {
     @Test
     void testGetListTasksOk() {
         LocalDate businessDate = LocalDate.parse("2021-01-30");
-        ResponseEntity<List<TaskDto>> taskResponse = taskManagerController.getListTasksFromBusinessDate(businessDate.toString());
+        ResponseEntity<List<TaskDto>> taskResponse = taskManagerController.getListTasksFromBusinessDate(businessDate.toString(), null);
         assertEquals(HttpStatus.OK, taskResponse.getStatusCode());
         assertEquals(24, taskResponse.getBody().size());
     }
 
+    @Test
+    void testGetListTasksNotModifiedUntilBusinessDateChanges() {
+        LocalDate businessDate = LocalDate.parse("2021-01-30");
+        ResponseEntity<List<TaskDto>> firstResponse = taskManagerController.getListTasksFromBusinessDate(businessDate.toString(), null);
+        String eTag = firstResponse.getHeaders().getETag();
+        assertNotNull(eTag);
+
+        ResponseEntity<List<TaskDto>> notModifiedResponse = taskManagerController.getListTasksFromBusinessDate(businessDate.toString(), eTag);
+        assertEquals(HttpStatus.NOT_MODIFIED, notModifiedResponse.getStatusCode());
+        assertNull(notModifiedResponse.getBody());
+        Mockito.verify(taskRepository, Mockito.times(1)).findAllByTimestampBetweenForBusinessDayView(any(), any());
+
+        taskChangeTracker.taskChanged(OffsetDateTime.parse("2021-01-30T10:00Z"));
+        ResponseEntity<List<TaskDto>> modifiedResponse = taskManagerController.getListTasksFromBusinessDate(businessDate.toString(), eTag);
+        assertEquals(HttpStatus.OK, modifiedResponse.getStatusCode());
+        assertNotEquals(eTag, modifiedResponse.getHeaders().getETag());
+    }
+
+    @Test
+    void testGetListRunningTasksNotModifiedUntilTaskChanges() {
+        String eTag = taskManagerController.getListRunningTasks(null).getHeaders().getETag();
+
+        assertEquals(HttpStatus.NOT_MODIFIED, taskManagerController.getListRunningTasks("W/" + eTag).getStatusCode());
+        taskChangeTracker.taskChanged(OffsetDateTime.parse("2021-01-30T10:00Z"));
+        assertEquals(HttpStatus.OK, taskManagerController.getListRunningTasks(eTag).getStatusCode());
+    }
+
     @Test
     void testUpdateWithInvalidTaskStatus() {
         ResponseEntity<TaskDto> taskResponse = taskManagerController.updateStatus("2021-09-30T23:00Z", "WRONG_STATUS");
@@ -338,6 +376,75 @@ class TaskManagerControllerTest {
         assertEquals(true, response.getBody());
     }
 
+    @Test
+    void testWaitForAllTasksFromBusinessDateOverShouldReturnTrueImmediately() {
+        Mockito.when(taskRepository.findTaskStatusesByTimestampBetween(Mockito.any(), Mockito.any())).thenReturn(Set.of(TaskStatus.SUCCESS, TaskStatus.ERROR));
+        DeferredResult<ResponseEntity<Boolean>> response = taskManagerController.waitForAllTasksFromBusinessDateOver("2021-01-01");
+        assertEquals(ResponseEntity.ok(true), response.getResult());
+    }
+
+    @Test
+    void testWaitForAllTasksFromBusinessDateOverShouldWait() {
+        Mockito.when(taskRepository.findTaskStatusesByTimestampBetween(Mockito.any(), Mockito.any())).thenReturn(Set.of(TaskStatus.SUCCESS, TaskStatus.RUNNING));
+        DeferredResult<ResponseEntity<Boolean>> response = taskManagerController.waitForAllTasksFromBusinessDateOver("2021-01-02");
+        assertFalse(response.hasResult());
+    }
+
+    @Test
+    void testUploadFilesOk() {
+        String timestamp = "2021-09-02T22:30Z";
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        List<FileUploadResultDto> results = List.of(FileUploadResultDto.success("cgm.uct", "CGM"));
+        Mockito.when(fileManager.uploadFilesToMinio(OffsetDateTime.parse(timestamp), request))
+            .thenReturn(CompletableFuture.completedFuture(results));
+
+        ResponseEntity<List<FileUploadResultDto>> response = taskManagerController.uploadFiles(timestamp, request).join();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(results, response.getBody());
+    }
+
+    @Test
+    void testUploadFilesWithPartialFailure() {
+        String timestamp = "2021-09-02T22:30Z";
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        List<FileUploadResultDto> results = List.of(FileUploadResultDto.failure("cgm.uct", "CGM", "error"));
+        Mockito.when(fileManager.uploadFilesToMinio(OffsetDateTime.parse(timestamp), request))
+            .thenReturn(CompletableFuture.completedFuture(results));
+
+        ResponseEntity<List<FileUploadResultDto>> response = taskManagerController.uploadFiles(timestamp, request).join();
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertEquals(results, response.getBody());
+    }
+
+    @Test
+    void testUploadFilesWithInconsistentParameters() {
+        String timestamp = "2021-09-02T22:30Z";
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        Mockito.when(fileManager.uploadFilesToMinio(OffsetDateTime.parse(timestamp), request))
+            .thenReturn(CompletableFuture.supplyAsync(() -> {
+                throw new IllegalArgumentException("More files than file names or file types");
+            }));
+
+        ResponseEntity<List<FileUploadResultDto>> response = taskManagerController.uploadFiles(timestamp, request).join();
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void testUploadFilesWithUnreadableRequest() {
+        String timestamp = "2021-09-02T22:30Z";
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        Mockito.when(fileManager.uploadFilesToMinio(OffsetDateTime.parse(timestamp), request))
+            .thenReturn(CompletableFuture.failedFuture(new TaskManagerException("Exception occurred while reading uploaded files")));
+
+        CompletableFuture<ResponseEntity<List<FileUploadResultDto>>> response = taskManagerController.uploadFiles(timestamp, request);
+
+        CompletionException exception = assertThrows(CompletionException.class, response::join);
+        assertInstanceOf(TaskManagerException.class, exception.getCause());
+    }
+
     @Test
     void testGetLogOk() throws Exception {
         String timestamp = "2021-09-02T22:30Z";
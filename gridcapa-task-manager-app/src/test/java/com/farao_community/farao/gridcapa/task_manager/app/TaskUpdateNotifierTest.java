@@ -9,23 +9,30 @@ package com.farao_community.farao.gridcapa.task_manager.app;
 import com.farao_community.farao.gridcapa.task_manager.api.TaskDto;
 import com.farao_community.farao.gridcapa.task_manager.app.configuration.WebsocketConfig;
 import com.farao_community.farao.gridcapa.task_manager.app.entities.Task;
+import com.farao_community.farao.gridcapa.task_manager.app.service.ClusterNotificationRelay;
+import com.farao_community.farao.gridcapa.task_manager.app.service.TaskChangeTracker;
 import com.farao_community.farao.gridcapa.task_manager.app.service.TaskDtoBuilderService;
+import com.farao_community.farao.gridcapa.task_manager.app.service.TaskNotificationOutbox;
+import com.farao_community.farao.gridcapa.task_manager.app.service.TaskSnapshotCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.cloud.stream.function.StreamBridge;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 
 import java.time.OffsetDateTime;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.anyBoolean;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.contains;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -36,29 +43,40 @@ import static org.mockito.Mockito.when;
 class TaskUpdateNotifierTest {
 
     @Mock
-    private StreamBridge streamBridge;
+    private TaskNotificationOutbox taskNotificationOutbox;
 
     @Mock
     private TaskDtoBuilderService taskDtoBuilderService;
 
     @Mock
-    private SimpMessagingTemplate stompBridge;
+    private TaskSnapshotCache taskSnapshotCache;
+
+    @Mock
+    private TaskChangeTracker taskChangeTracker;
+
+    @Mock
+    private ClusterNotificationRelay clusterNotificationRelay;
 
     @Mock
     private WebsocketConfig websocketConfig;
 
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private TaskUpdateNotifier taskUpdateNotifier;
 
     private Task task;
     private TaskDto taskDto;
+    private OffsetDateTime timestamp;
 
     @BeforeEach
     void setUp() {
         task = mock(Task.class);
         taskDto = mock(TaskDto.class);
-        when(taskDtoBuilderService.createDtoFromEntityWithoutProcessEvents(any(Task.class))).thenReturn(taskDto);
-        when(task.getTimestamp()).thenReturn(OffsetDateTime.now());
+        timestamp = OffsetDateTime.now();
+        lenient().when(taskDtoBuilderService.createDtoFromEntityWithoutProcessEvents(any(Task.class))).thenReturn(taskDto);
+        lenient().when(taskDto.getTimestamp()).thenReturn(timestamp);
         when(websocketConfig.getNotify()).thenReturn("/topic");
     }
 
@@ -73,9 +91,9 @@ class TaskUpdateNotifierTest {
         taskUpdateNotifier.notify(task, withStatusUpdate, withEventsUpdate, withNewInput);
 
         // Then
-        verify(streamBridge, times(1)).send("task-status-updated", taskDto);
-        verify(stompBridge, times(2)).convertAndSend(anyString(), eq(taskDto));
-        verify(stompBridge, never()).convertAndSend(contains("/events"), anyBoolean());
+        verify(taskNotificationOutbox, times(1)).enqueue("task-status-updated", taskDto);
+        verify(clusterNotificationRelay, times(2)).sendToWebsocket(anyString(), eq(taskDto));
+        verify(clusterNotificationRelay, never()).sendToWebsocket(contains("/events"), anyBoolean());
     }
 
     @Test
@@ -89,14 +107,16 @@ class TaskUpdateNotifierTest {
         taskUpdateNotifier.notify(task, withStatusUpdate, withEventsUpdate, withNewInput);
 
         // Then
-        verify(streamBridge, times(1)).send("task-input-updated", taskDto);
-        verify(stompBridge, times(2)).convertAndSend(anyString(), eq(taskDto));
-        verify(stompBridge, never()).convertAndSend(contains("/events"), anyBoolean());
+        verify(taskNotificationOutbox, times(1)).enqueue("task-input-updated", taskDto);
+        verify(clusterNotificationRelay, times(2)).sendToWebsocket(anyString(), eq(taskDto));
+        verify(clusterNotificationRelay, never()).sendToWebsocket(contains("/events"), anyBoolean());
     }
 
     @Test
     void testNotifyWithEventsUpdate() {
         // Given
+        when(task.getTimestamp()).thenReturn(timestamp);
+        when(clusterNotificationRelay.isListened(anyString())).thenReturn(true);
         final boolean withStatusUpdate = false;
         final boolean withEventsUpdate = true;
         final boolean withNewInput = false;
@@ -105,14 +125,15 @@ class TaskUpdateNotifierTest {
         taskUpdateNotifier.notify(task, withStatusUpdate, withEventsUpdate, withNewInput);
 
         // Then
-        verify(streamBridge, never()).send(anyString(), any());
-        verify(stompBridge, times(2)).convertAndSend(anyString(), eq(taskDto));
-        verify(stompBridge, times(1)).convertAndSend(contains("/events"), eq(true));
+        verify(taskNotificationOutbox, never()).enqueue(anyString(), any());
+        verify(clusterNotificationRelay, times(2)).sendToWebsocket(anyString(), eq(taskDto));
+        verify(clusterNotificationRelay, times(1)).sendToWebsocket(contains("/events"), eq(true));
     }
 
     @Test
     void testNotifyWithUpdates() {
         // Given
+        when(task.getTimestamp()).thenReturn(timestamp);
         final boolean withStatusUpdate = true;
         final boolean withEventsUpdate = true;
         final boolean withNewInput = true;
@@ -121,15 +142,20 @@ class TaskUpdateNotifierTest {
         taskUpdateNotifier.notify(task, withStatusUpdate, withEventsUpdate, withNewInput);
 
         // Then
-        verify(streamBridge, times(1)).send("task-input-updated", taskDto);
-        verify(streamBridge, times(1)).send("task-status-updated", taskDto);
-        verify(stompBridge, times(2)).convertAndSend(anyString(), eq(taskDto));
-        verify(stompBridge, times(1)).convertAndSend(contains("/events"), eq(true));
+        verify(taskNotificationOutbox, times(1)).enqueue("task-input-updated", taskDto);
+        verify(taskNotificationOutbox, times(1)).enqueue("task-status-updated", taskDto);
+        verify(clusterNotificationRelay, times(2)).sendToWebsocket(anyString(), eq(taskDto));
+        verify(clusterNotificationRelay, times(1)).sendToWebsocket(contains("/events"), eq(true));
+        assertEquals(1, getStompSendCount("timestamp"));
+        assertEquals(1, getStompSendCount("business-date"));
+        assertEquals(1, getStompSendCount("events"));
     }
 
     @Test
     void testNotifyWithoutUpdates() {
         // Given
+        when(task.getTimestamp()).thenReturn(timestamp);
+        when(clusterNotificationRelay.isListened(anyString())).thenReturn(true);
         final boolean withStatusUpdate = false;
         final boolean withEventsUpdate = false;
         final boolean withNewInput = false;
@@ -138,9 +164,33 @@ class TaskUpdateNotifierTest {
         taskUpdateNotifier.notify(task, withStatusUpdate, withEventsUpdate, withNewInput);
 
         // Then
-        verify(streamBridge, never()).send(anyString(), any());
-        verify(stompBridge, times(2)).convertAndSend(anyString(), eq(taskDto));
-        verify(stompBridge, never()).convertAndSend(contains("/events"), anyBoolean());
+        verify(taskNotificationOutbox, never()).enqueue(anyString(), any());
+        verify(clusterNotificationRelay, times(2)).sendToWebsocket(anyString(), eq(taskDto));
+        verify(clusterNotificationRelay, never()).sendToWebsocket(contains("/events"), anyBoolean());
+    }
+
+    @Test
+    void testNotifyWithoutListener() {
+        // Given
+        when(task.getTimestamp()).thenReturn(timestamp);
+        final boolean withStatusUpdate = false;
+        final boolean withEventsUpdate = true;
+        final boolean withNewInput = false;
+
+        // When
+        taskUpdateNotifier.notify(task, withStatusUpdate, withEventsUpdate, withNewInput);
+
+        // Then
+        verify(taskDtoBuilderService, never()).createDtoFromEntityWithoutProcessEvents(any(Task.class));
+        verify(clusterNotificationRelay, never()).sendToWebsocket(anyString(), eq(taskDto));
+        verify(clusterNotificationRelay, times(1)).sendToWebsocket(contains("/events"), eq(true));
+        verify(taskChangeTracker, times(2)).taskChanged(timestamp);
+        assertEquals(0, getStompSendCount("timestamp"));
+        assertEquals(0, getStompSendCount("business-date"));
+        assertEquals(1, getStompSendCount("events"));
     }
 
+    private long getStompSendCount(final String destination) {
+        return meterRegistry.get("task.manager.stomp.send").tag("destination", destination).timer().count();
+    }
 }
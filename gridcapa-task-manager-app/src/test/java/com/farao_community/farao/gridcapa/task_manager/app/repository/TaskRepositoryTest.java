@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
 
 import java.time.OffsetDateTime;
 import java.util.Optional;
@@ -58,4 +59,19 @@ class TaskRepositoryTest {
                 .hasSize(2);
 
     }
+
+    @Test
+    void outdatedTaskIsNotSaved() {
+        final OffsetDateTime offsetDateTime = OffsetDateTime.parse("2024-03-31T00:30Z");
+        final Task task = taskRepository.save(new Task(offsetDateTime));
+        final Task outdatedTask = taskRepository.findByTimestamp(offsetDateTime).orElseThrow();
+        Assertions.assertEquals(1, taskRepository.compareAndSetStatus(task.getId(), TaskStatus.CREATED, TaskStatus.RUNNING));
+
+        outdatedTask.setStatus(TaskStatus.READY);
+        Assertions.assertThrows(OptimisticLockingFailureException.class, () -> taskRepository.saveAndFlush(outdatedTask));
+
+        final Task persistedTask = taskRepository.findByTimestamp(offsetDateTime).orElseThrow();
+        Assertions.assertEquals(TaskStatus.RUNNING, persistedTask.getStatus());
+        Assertions.assertEquals(outdatedTask.getVersion() + 1, persistedTask.getVersion());
+    }
 }
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import com.farao_community.farao.gridcapa.task_manager.api.TaskStatus;
+import com.farao_community.farao.gridcapa.task_manager.app.entities.Task;
+import com.farao_community.farao.gridcapa.task_manager.app.repository.TaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class BusinessDateCompletionServiceTest {
+
+    private static final LocalDate BUSINESS_DATE = LocalDate.parse("2021-10-02");
+
+    @MockitoBean
+    private StreamBridge streamBridge; // Useful to avoid AMQP connection that would fail
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private StatusHandler statusHandler;
+
+    @Autowired
+    private BusinessDateCompletionService businessDateCompletionService;
+
+    @AfterEach
+    void cleanDatabase() {
+        taskRepository.deleteAll();
+    }
+
+    @Test
+    void waitIsCompletedImmediatelyWhenAllTasksAreAlreadyOver() {
+        Task task = new Task(OffsetDateTime.parse("2021-10-02T10:30Z"));
+        task.setStatus(TaskStatus.SUCCESS);
+        taskRepository.save(task);
+
+        DeferredResult<ResponseEntity<Boolean>> result = businessDateCompletionService.waitForAllTasksOver(BUSINESS_DATE);
+
+        assertTrue(result.hasResult());
+        assertEquals(ResponseEntity.ok(true), result.getResult());
+    }
+
+    @Test
+    void waitIsCompletedWhenLastTaskOfBusinessDateIsOver() {
+        OffsetDateTime timestamp = OffsetDateTime.parse("2021-10-02T10:30Z");
+        Task task = new Task(timestamp);
+        task.setStatus(TaskStatus.RUNNING);
+        taskRepository.save(task);
+
+        DeferredResult<ResponseEntity<Boolean>> result = businessDateCompletionService.waitForAllTasksOver(BUSINESS_DATE);
+        assertFalse(result.hasResult());
+        assertEquals(1, businessDateCompletionService.getWaitingClientsCount(BUSINESS_DATE));
+
+        statusHandler.handleTaskStatusUpdate(timestamp, TaskStatus.SUCCESS);
+
+        assertEquals(ResponseEntity.ok(true), result.getResult());
+        assertEquals(0, businessDateCompletionService.getWaitingClientsCount(BUSINESS_DATE));
+    }
+
+    @Test
+    void waitIsNotCompletedWhileAnotherTaskOfBusinessDateIsRunning() {
+        OffsetDateTime timestamp = OffsetDateTime.parse("2021-10-02T10:30Z");
+        Task task = new Task(timestamp);
+        task.setStatus(TaskStatus.RUNNING);
+        taskRepository.save(task);
+        OffsetDateTime otherTimestamp = OffsetDateTime.parse("2021-10-02T11:30Z");
+        Task otherTask = new Task(otherTimestamp);
+        otherTask.setStatus(TaskStatus.RUNNING);
+        taskRepository.save(otherTask);
+
+        DeferredResult<ResponseEntity<Boolean>> result = businessDateCompletionService.waitForAllTasksOver(BUSINESS_DATE);
+        statusHandler.handleTaskStatusUpdate(timestamp, TaskStatus.SUCCESS);
+
+        assertFalse(result.hasResult());
+        assertEquals(1, businessDateCompletionService.getWaitingClientsCount(BUSINESS_DATE));
+
+        statusHandler.handleTaskStatusUpdate(otherTimestamp, TaskStatus.ERROR);
+
+        assertEquals(ResponseEntity.ok(true), result.getResult());
+    }
+}
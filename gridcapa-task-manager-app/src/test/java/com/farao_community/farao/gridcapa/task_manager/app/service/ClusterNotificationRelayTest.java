@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import com.farao_community.farao.gridcapa.task_manager.api.TaskStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ClusterNotificationRelayTest {
+
+    private static final OffsetDateTime TIMESTAMP = OffsetDateTime.parse("2021-10-02T10:30Z");
+
+    @Mock
+    private StreamBridge streamBridge;
+
+    @Mock
+    private SimpMessagingTemplate stompBridge;
+
+    @Mock
+    private BusinessDateCompletionService businessDateCompletionService;
+
+    @Mock
+    private TaskPartitionLeaseService taskPartitionLeaseService;
+
+    @Mock
+    private TaskChangeTracker taskChangeTracker;
+
+    @Mock
+    private StompSubscriptionRegistry stompSubscriptionRegistry;
+
+    @InjectMocks
+    private ClusterNotificationRelay clusterNotificationRelay;
+
+    @Test
+    void nothingIsBroadcastWhenRunningAlone() {
+        when(stompSubscriptionRegistry.hasSubscribers("/topic/update/2021-10-02")).thenReturn(true);
+        when(taskPartitionLeaseService.isClusterEnabled()).thenReturn(false);
+
+        clusterNotificationRelay.sendToWebsocket("/topic/update/2021-10-02", "payload");
+        clusterNotificationRelay.notifyTaskStatusUpdated(TIMESTAMP, TaskStatus.SUCCESS);
+
+        verify(stompBridge).convertAndSend("/topic/update/2021-10-02", (Object) "payload");
+        verifyNoInteractions(streamBridge);
+    }
+
+    @Test
+    void notificationsAreBroadcastInCluster() {
+        when(stompSubscriptionRegistry.hasSubscribers("/topic/update/2021-10-02")).thenReturn(true);
+        when(taskPartitionLeaseService.isClusterEnabled()).thenReturn(true);
+        when(taskPartitionLeaseService.getInstanceId()).thenReturn("instance-a");
+
+        clusterNotificationRelay.sendToWebsocket("/topic/update/2021-10-02", "payload");
+        clusterNotificationRelay.notifyTaskStatusUpdated(TIMESTAMP, TaskStatus.RUNNING);
+        clusterNotificationRelay.notifyTaskStatusUpdated(TIMESTAMP, TaskStatus.SUCCESS);
+
+        verify(stompBridge).convertAndSend("/topic/update/2021-10-02", (Object) "payload");
+        verify(streamBridge, times(2)).send(eq(ClusterNotificationRelay.NOTIFICATION_FANOUT_BINDING), any(Message.class));
+    }
+
+    @Test
+    void destinationsWithoutSubscriberAreOnlyBroadcast() {
+        when(taskPartitionLeaseService.isClusterEnabled()).thenReturn(true);
+        when(taskPartitionLeaseService.getInstanceId()).thenReturn("instance-a");
+
+        clusterNotificationRelay.sendToWebsocket("/topic/update/2021-10-02", "payload");
+
+        verify(stompBridge, never()).convertAndSend(anyString(), any(Object.class));
+        verify(streamBridge).send(eq(ClusterNotificationRelay.NOTIFICATION_FANOUT_BINDING), any(Message.class));
+    }
+
+    @Test
+    void notificationsOfSameInstanceAreNotRelayed() {
+        when(taskPartitionLeaseService.getInstanceId()).thenReturn("instance-a");
+
+        clusterNotificationRelay.relayClusterNotification(MessageBuilder.withPayload("{}".getBytes(StandardCharsets.UTF_8))
+            .setHeader(ClusterNotificationRelay.ORIGIN_INSTANCE_HEADER, "instance-a")
+            .setHeader(ClusterNotificationRelay.STOMP_DESTINATION_HEADER, "/topic/update/2021-10-02")
+            .build());
+
+        verifyNoInteractions(stompBridge, businessDateCompletionService);
+    }
+
+    @Test
+    void notificationsOfOtherInstancesAreRelayed() {
+        when(stompSubscriptionRegistry.hasSubscribers("/topic/update/2021-10-02")).thenReturn(true);
+        when(taskPartitionLeaseService.getInstanceId()).thenReturn("instance-a");
+        byte[] payload = "{}".getBytes(StandardCharsets.UTF_8);
+
+        clusterNotificationRelay.relayClusterNotification(MessageBuilder.withPayload(payload)
+            .setHeader(ClusterNotificationRelay.ORIGIN_INSTANCE_HEADER, "instance-b")
+            .setHeader(ClusterNotificationRelay.STOMP_DESTINATION_HEADER, "/topic/update/2021-10-02")
+            .build());
+        clusterNotificationRelay.relayClusterNotification(MessageBuilder.withPayload(TaskStatus.SUCCESS.name().getBytes(StandardCharsets.UTF_8))
+            .setHeader(ClusterNotificationRelay.ORIGIN_INSTANCE_HEADER, "instance-b")
+            .setHeader(ClusterNotificationRelay.TASK_TIMESTAMP_HEADER, TIMESTAMP.toString())
+            .setHeader(ClusterNotificationRelay.TASK_STATUS_HEADER, TaskStatus.SUCCESS.name())
+            .build());
+
+        verify(stompBridge).convertAndSend(eq("/topic/update/2021-10-02"), eq((Object) payload), anyMap());
+        verify(stompBridge, never()).convertAndSend(anyString(), any(Object.class));
+        verify(businessDateCompletionService).onTaskStatusUpdated(TIMESTAMP, TaskStatus.SUCCESS);
+        verifyNoInteractions(taskChangeTracker);
+    }
+
+    @Test
+    void taskUpdatesOfOtherInstancesAreTracked() {
+        when(taskPartitionLeaseService.getInstanceId()).thenReturn("instance-a");
+
+        clusterNotificationRelay.relayClusterNotification(MessageBuilder.withPayload("true".getBytes(StandardCharsets.UTF_8))
+            .setHeader(ClusterNotificationRelay.ORIGIN_INSTANCE_HEADER, "instance-b")
+            .setHeader(ClusterNotificationRelay.STOMP_DESTINATION_HEADER, "/topic/update/2021-10-02T10:30:00.000Z/events")
+            .build());
+
+        verify(taskChangeTracker).taskChanged(TIMESTAMP);
+    }
+}
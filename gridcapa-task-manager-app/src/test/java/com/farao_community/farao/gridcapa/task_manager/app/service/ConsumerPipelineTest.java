@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ConsumerPipelineTest {
+
+    private Scheduler scheduler;
+    private MeterRegistry meterRegistry;
+    private ConsumerPipeline consumerPipeline;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = Schedulers.newBoundedElastic(4, 100, "consumer-pipeline-test");
+        meterRegistry = new SimpleMeterRegistry();
+        consumerPipeline = new ConsumerPipeline(scheduler, meterRegistry, 8, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.dispose();
+    }
+
+    @Test
+    void messagesWithSameKeyAreHandledInOrder() {
+        Map<Integer, List<Integer>> handledMessages = new ConcurrentHashMap<>();
+        List<Integer> messages = IntStream.range(0, 100).boxed().toList();
+
+        consumerPipeline.consume("test",
+            Flux.fromIterable(messages),
+            message -> message % 3,
+            message -> handledMessages.computeIfAbsent(message % 3, key -> new CopyOnWriteArrayList<>()).add(message),
+            (message, e) -> { });
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> handledMessages.values().stream().mapToInt(List::size).sum() == messages.size());
+        handledMessages.forEach((key, values) -> assertEquals(messages.stream().filter(message -> message % 3 == key).toList(), values));
+    }
+
+    @Test
+    void failingMessagesAreReportedAndDoNotStopConsumer() {
+        List<Integer> failedMessages = new CopyOnWriteArrayList<>();
+        List<Integer> handledMessages = new CopyOnWriteArrayList<>();
+
+        consumerPipeline.consume("test",
+            Flux.just(1, 2, 3, 4),
+            message -> message,
+            message -> {
+                if (message % 2 == 0) {
+                    throw new IllegalStateException("Even message");
+                }
+                handledMessages.add(message);
+            },
+            (message, e) -> failedMessages.add(message));
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> meterRegistry.get("task.manager.consumer.handling").timer().count() == 4
+            && meterRegistry.get("task.manager.consumer.lag").gauge().value() == 0);
+        assertEquals(2, handledMessages.size());
+        assertEquals(2, failedMessages.size());
+        assertEquals(4, meterRegistry.get("task.manager.consumer.messages.received").counter().count());
+        assertEquals(2, meterRegistry.get("task.manager.consumer.messages.processed").counter().count());
+        assertEquals(2, meterRegistry.get("task.manager.consumer.messages.failed").counter().count());
+        assertEquals(0, meterRegistry.get("task.manager.consumer.lag").gauge().value());
+    }
+
+    @Test
+    void itemsWithSameKeyAreSplitIntoTheSameBatchInOrder() {
+        List<List<Integer>> batches = consumerPipeline.splitByRail(IntStream.range(0, 10).boxed().toList(), item -> item % 2);
+
+        assertEquals(List.of(List.of(0, 2, 4, 6, 8), List.of(1, 3, 5, 7, 9)), batches);
+    }
+}
@@ -6,24 +6,38 @@
  */
 package com.farao_community.farao.gridcapa.task_manager.app.service;
 
+import com.farao_community.farao.gridcapa.task_manager.app.configuration.TaskSchedulerConfig;
 import com.farao_community.farao.gridcapa.task_manager.app.entities.ProcessEvent;
 import com.farao_community.farao.gridcapa.task_manager.app.entities.Task;
 import com.farao_community.farao.gridcapa.task_manager.app.repository.ProcessEventRepository;
 import com.farao_community.farao.gridcapa.task_manager.app.repository.TaskRepository;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import reactor.core.publisher.Flux;
 
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
+import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 /**
  * @author Jean-Pierre Arnould {@literal <jean-pierre.arnould at rte-france.com>}
@@ -43,9 +57,19 @@ class DatabasePurgeServiceTest {
     @Autowired
     private DatabasePurgeService databasePurgeService;
 
+    @Autowired
+    private TaskChangeTracker taskChangeTracker;
+
     @Autowired
     private EventHandler eventHandler;
 
+    @Autowired
+    private ThreadPoolTaskScheduler taskScheduler;
+
+    @Autowired
+    @Qualifier(TaskSchedulerConfig.WEBSOCKET_HEARTBEAT_SCHEDULER)
+    private ThreadPoolTaskScheduler websocketHeartbeatScheduler;
+
     @Test
     void scheduledDatabaseTaskEventsPurgeTest() {
         OffsetDateTime offsetDateTimeNow = OffsetDateTime.now(ZoneId.of("UTC"));
@@ -93,8 +117,9 @@ class DatabasePurgeServiceTest {
                 "  \"serviceName\": \"GRIDCAPA\" \n" +
                 "}";
         List<byte[]> logEventBytes = List.of(logEvent11.getBytes(), logEvent12.getBytes(), logEvent21.getBytes(), logEvent22.getBytes());
-        Flux<List<byte[]>> logEventBytesFlux = Flux.fromStream(Stream.of(logEventBytes));
+        Flux<Message<List<byte[]>>> logEventBytesFlux = Flux.fromStream(Stream.of(MessageBuilder.withPayload(logEventBytes).build()));
         eventHandler.consumeTaskEventUpdate().accept(logEventBytesFlux);
+        await().atMost(Duration.ofSeconds(5)).until(() -> processEventRepository.count() == 4);
 
         final List<ProcessEvent> processEventsListBeforePurge = processEventRepository.findAll();
         final List<ProcessEvent> task1ProcessEventBeforePurge = processEventsListBeforePurge.stream().filter(pe -> pe.getTask().getId().equals(task1.getId())).toList();
@@ -110,4 +135,30 @@ class DatabasePurgeServiceTest {
         assertEquals(1, task2ProcessEventAfterPurge.size());
         assertEquals(1, processEventsListAfterPurge.size());
     }
+
+    @Test
+    void purgeIsSplitIntoChunks() {
+        OffsetDateTime now = OffsetDateTime.now(ZoneId.of("UTC"));
+        Task task = taskRepository.save(new Task(now.minusDays(20)));
+        IntStream.range(0, 5).forEach(i -> processEventRepository.save(new ProcessEvent(task, now.minusDays(10).plusMinutes(i), "INFO", "Old event " + i, "GRIDCAPA")));
+        processEventRepository.save(new ProcessEvent(task, now.minusDays(1), "INFO", "Recent event", "GRIDCAPA"));
+        ProcessEventRepository processEventRepositorySpy = mock(ProcessEventRepository.class, delegatesTo(processEventRepository));
+        DatabasePurgeService chunkedPurgeService = new DatabasePurgeService(processEventRepositorySpy, taskChangeTracker, 7, 2, 1000, 0);
+
+        assertEquals(5, chunkedPurgeService.purgeEventsOlderThan(now.minusDays(7)));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<UUID>> chunkCaptor = ArgumentCaptor.forClass(List.class);
+        verify(processEventRepositorySpy, times(3)).deleteByIdIn(chunkCaptor.capture());
+        assertEquals(List.of(2, 2, 1), chunkCaptor.getAllValues().stream().map(List::size).toList());
+        List<ProcessEvent> remainingEvents = processEventRepository.findAll().stream().filter(pe -> pe.getTask().getId().equals(task.getId())).toList();
+        assertEquals(1, remainingEvents.size());
+        assertEquals("Recent event", remainingEvents.get(0).getMessage());
+    }
+
+    @Test
+    void purgeDoesNotRunOnWebsocketHeartbeatScheduler() {
+        assertNotSame(websocketHeartbeatScheduler, taskScheduler);
+        assertEquals("maintenance-thread-", taskScheduler.getThreadNamePrefix());
+        assertEquals("ws-heartbeat-thread-", websocketHeartbeatScheduler.getThreadNamePrefix());
+    }
 }
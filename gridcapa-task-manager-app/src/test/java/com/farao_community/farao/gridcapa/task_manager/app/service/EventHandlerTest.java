@@ -12,15 +12,21 @@ import com.farao_community.farao.gridcapa.task_manager.app.repository.TaskReposi
 import com.farao_community.farao.gridcapa.task_manager.app.TaskUpdateNotifier;
 import com.farao_community.farao.gridcapa.task_manager.app.entities.ProcessEvent;
 import com.farao_community.farao.gridcapa.task_manager.app.entities.Task;
+import com.rabbitmq.client.Channel;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.amqp.support.AmqpHeaders;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import reactor.core.publisher.Flux;
 
+import java.io.IOException;
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
@@ -66,8 +72,8 @@ class EventHandlerTest {
               "message": "Hello World!",
               "serviceName": "GRIDCAPA"
             }""";
-        Flux<List<byte[]>> logEventBytesFlux = Flux.fromStream(Stream.of(List.of(logEvent.getBytes())));
-        Consumer<Flux<List<byte[]>>> fluxConsumer = eventHandler.consumeTaskEventUpdate();
+        Flux<Message<List<byte[]>>> logEventBytesFlux = Flux.fromStream(Stream.of(MessageBuilder.withPayload(List.of(logEvent.getBytes())).build()));
+        Consumer<Flux<Message<List<byte[]>>>> fluxConsumer = eventHandler.consumeTaskEventUpdate();
         Assertions.assertDoesNotThrow(() -> fluxConsumer.accept(logEventBytesFlux));
     }
 
@@ -159,8 +165,101 @@ class EventHandlerTest {
         assertEquals("Hello from backend2", event1.getMessage());
     }
 
+    @Test
+    void deliveriesAreAcknowledgedOnceEventsAreWritten() throws IOException {
+        OffsetDateTime taskTimestamp = OffsetDateTime.parse("2021-10-01T21:00Z");
+        Task task = new Task(taskTimestamp);
+        task.setId(UUID.fromString("1fdda469-53e9-4d63-a533-b935cffdd2f6"));
+        taskRepository.save(task);
+        String logEvent = """
+            {
+              "gridcapa-task-id": "1fdda469-53e9-4d63-a533-b935cffdd2f6",
+              "timestamp": "2021-12-30T17:31:33.030+01:00",
+              "level": "INFO",
+              "message": "Hello from backend",
+              "serviceName": "GRIDCAPA"
+            }""";
+        String unknownTaskLogEvent = """
+            {
+              "gridcapa-task-id": "1fdda469-53e9-4d63-a533-b935cffdd2f7",
+              "timestamp": "2021-12-30T17:31:34.030+01:00",
+              "level": "INFO",
+              "message": "Hello from nowhere",
+              "serviceName": "GRIDCAPA"
+            }""";
+        Channel channel = Mockito.mock(Channel.class);
+        Message<List<byte[]>> delivery1 = MessageBuilder.withPayload(List.of(logEvent.getBytes()))
+            .setHeader(AmqpHeaders.CHANNEL, channel)
+            .setHeader(AmqpHeaders.DELIVERY_TAG, 1L)
+            .build();
+        Message<List<byte[]>> delivery2 = MessageBuilder.withPayload(List.of(unknownTaskLogEvent.getBytes()))
+            .setHeader(AmqpHeaders.CHANNEL, channel)
+            .setHeader(AmqpHeaders.DELIVERY_TAG, 2L)
+            .build();
+
+        eventHandler.handleDeliveries(List.of(delivery1, delivery2));
+
+        assertEquals(1, processEventRepository.count());
+        Mockito.verify(channel).basicAck(1L, false);
+        Mockito.verify(channel).basicAck(2L, false);
+        Mockito.verify(taskUpdateNotifier).notifyEventsUpdate(taskTimestamp);
+    }
+
+    @Test
+    void deliveryThatCannotBeWrittenIsRejectedAlone() throws IOException {
+        OffsetDateTime taskTimestamp = OffsetDateTime.parse("2021-10-01T21:00Z");
+        Task task = new Task(taskTimestamp);
+        task.setId(UUID.fromString("1fdda469-53e9-4d63-a533-b935cffdd2f6"));
+        taskRepository.save(task);
+        String logEvent = """
+            {
+              "gridcapa-task-id": "1fdda469-53e9-4d63-a533-b935cffdd2f6",
+              "timestamp": "2021-12-30T17:31:33.030+01:00",
+              "level": "INFO",
+              "message": "Hello from backend",
+              "serviceName": "GRIDCAPA"
+            }""";
+        String invalidTimestampLogEvent = """
+            {
+              "gridcapa-task-id": "1fdda469-53e9-4d63-a533-b935cffdd2f6",
+              "timestamp": "yesterday",
+              "level": "INFO",
+              "message": "Hello from the past",
+              "serviceName": "GRIDCAPA"
+            }""";
+        Channel channel = Mockito.mock(Channel.class);
+        Message<List<byte[]>> delivery1 = MessageBuilder.withPayload(List.of(logEvent.getBytes()))
+            .setHeader(AmqpHeaders.CHANNEL, channel)
+            .setHeader(AmqpHeaders.DELIVERY_TAG, 1L)
+            .build();
+        Message<List<byte[]>> delivery2 = MessageBuilder.withPayload(List.of(invalidTimestampLogEvent.getBytes()))
+            .setHeader(AmqpHeaders.CHANNEL, channel)
+            .setHeader(AmqpHeaders.DELIVERY_TAG, 2L)
+            .build();
+
+        eventHandler.handleDeliveries(List.of(delivery1, delivery2));
+
+        assertEquals(1, processEventRepository.count());
+        Mockito.verify(channel).basicAck(1L, false);
+        Mockito.verify(channel).basicReject(2L, false);
+        Mockito.verify(channel, Mockito.never()).basicNack(Mockito.anyLong(), Mockito.anyBoolean(), Mockito.anyBoolean());
+    }
+
     @Test
     void mapMessageToEventErrorTest() {
         Assertions.assertNull(eventHandler.mapMessageToEvent("random"));
     }
+
+    @Test
+    void splitEventsByTaskTest() {
+        TaskLogEventUpdate event11 = new TaskLogEventUpdate("task1", "2021-12-30T17:31:33.030+01:00", "INFO", "message11", "GRIDCAPA");
+        TaskLogEventUpdate event21 = new TaskLogEventUpdate("task2", "2021-12-30T17:31:34.030+01:00", "INFO", "message21", "GRIDCAPA");
+        TaskLogEventUpdate event12 = new TaskLogEventUpdate("task1", "2021-12-30T17:31:35.030+01:00", "INFO", "message12", "GRIDCAPA");
+
+        List<List<TaskLogEventUpdate>> eventsByTask = List.copyOf(eventHandler.splitEventsByTask(List.of(event11, event21, event12)));
+
+        assertEquals(2, eventsByTask.size());
+        assertEquals(List.of(event11, event12), eventsByTask.get(0));
+        assertEquals(List.of(event21), eventsByTask.get(1));
+    }
 }
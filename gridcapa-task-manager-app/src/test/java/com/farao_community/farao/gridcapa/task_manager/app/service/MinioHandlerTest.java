@@ -14,33 +14,45 @@ import com.farao_community.farao.gridcapa.task_manager.app.entities.ProcessEvent
 import com.farao_community.farao.gridcapa.task_manager.app.entities.ProcessFile;
 import com.farao_community.farao.gridcapa.task_manager.app.entities.ProcessFileMinio;
 import com.farao_community.farao.gridcapa.task_manager.app.entities.Task;
+import com.farao_community.farao.gridcapa.task_manager.app.entities.WaitingProcessFile;
 import com.farao_community.farao.gridcapa.task_manager.app.repository.ProcessEventRepository;
 import com.farao_community.farao.gridcapa.task_manager.app.repository.ProcessFileRepository;
 import com.farao_community.farao.gridcapa.task_manager.app.repository.TaskRepository;
+import com.farao_community.farao.gridcapa.task_manager.app.repository.WaitingProcessFileRepository;
 import com.farao_community.farao.minio_adapter.starter.MinioAdapter;
 import com.farao_community.farao.minio_adapter.starter.MinioAdapterConstants;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.minio.messages.Event;
+import io.minio.messages.EventType;
+import io.minio.messages.NotificationRecords;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
-import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import reactor.core.publisher.Flux;
 
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static com.farao_community.farao.gridcapa.task_manager.api.TaskStatus.CREATED;
 import static com.farao_community.farao.gridcapa.task_manager.api.TaskStatus.NOT_CREATED;
 import static com.farao_community.farao.gridcapa.task_manager.api.TaskStatus.READY;
+import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -71,8 +83,16 @@ class MinioHandlerTest {
     @Autowired
     private ProcessEventRepository processEventRepository;
 
+    @Autowired
+    private WaitingProcessFileRepository waitingProcessFileRepository;
+
     @Autowired
     private MinioHandler minioHandler;
+
+    @MockitoSpyBean
+    private TaskService taskService;
+    @Autowired
+    private MeterRegistry meterRegistry;
     @Autowired
     private CompositeMeterRegistryAutoConfiguration compositeMeterRegistryAutoConfiguration;
 
@@ -80,6 +100,7 @@ class MinioHandlerTest {
     void cleanDatabase() {
         taskRepository.deleteAll();
         processFileRepository.deleteAll();
+        waitingProcessFileRepository.deleteAll();
     }
 
     @Test
@@ -137,6 +158,21 @@ class MinioHandlerTest {
         assertEquals("documentIdCrac", processFileCrac.getDocumentId());
     }
 
+    @Test
+    void testUpdateWithTwoFileTypesInTheSameBatch() {
+        OffsetDateTime taskTimestamp = OffsetDateTime.parse("2021-09-30T21:00Z");
+        Event eventCgm = TaskManagerTestUtil.createEvent("CSE_D2CC", INPUT_FILE_GROUP_VALUE, "CGM", "CSE/D2CC/CGMs/cgm-test", "documentIdCgm", "2021-09-30T21:00Z/2021-09-30T22:00Z");
+        Event eventCrac = TaskManagerTestUtil.createEvent("CSE_D2CC", INPUT_FILE_GROUP_VALUE, "CRAC", "CSE/D2CC/CRACs/crac-test", "documentIdCrac", "2021-09-30T21:00Z/2021-09-30T22:00Z");
+
+        minioHandler.updateTasks(List.of(eventCgm, eventCrac));
+
+        assertEquals(1, taskRepository.findAll().size());
+        Task task = taskRepository.findByTimestamp(taskTimestamp).orElseThrow();
+        assertEquals(READY, task.getStatus());
+        assertEquals("CSE/D2CC/CGMs/cgm-test", task.getInput("CGM").orElseThrow().getFileObjectKey());
+        assertEquals("CSE/D2CC/CRACs/crac-test", task.getInput("CRAC").orElseThrow().getFileObjectKey());
+    }
+
     @ParameterizedTest
     @CsvSource({",0", "2021-09-30T22:00Z/2021-10-01T22:00Z,24"})
         // First test with empty interval ; Second test with daily file
@@ -148,6 +184,126 @@ class MinioHandlerTest {
         assertEquals(expectedFileNumber, taskRepository.findAll().size());
     }
 
+    @Test
+    void filesValidForSeveralWindowsAreAddedToAllTheirTasks() {
+        // Windows last 24 hours in tests, the files are valid for three and a half days
+        Event eventCgm = TaskManagerTestUtil.createEvent("CSE_D2CC", INPUT_FILE_GROUP_VALUE, "CGM", "CSE/D2CC/CGMs/cgm-test", "documentIdCgm", "2021-09-30T22:00Z/2021-10-04T10:00Z");
+        Event eventCrac = TaskManagerTestUtil.createEvent("CSE_D2CC", INPUT_FILE_GROUP_VALUE, "CRAC", "CSE/D2CC/CRACs/crac-test", "documentIdCrac", "2021-10-01T10:00Z/2021-10-04T10:00Z");
+
+        minioHandler.updateTasks(List.of(eventCgm, eventCrac));
+
+        assertEquals(84, taskRepository.findAll().size());
+        assertEquals(CREATED, taskRepository.findByTimestamp(OffsetDateTime.parse("2021-10-01T09:00Z")).orElseThrow().getStatus());
+        Task lastTask = taskRepository.findByTimestamp(OffsetDateTime.parse("2021-10-04T09:00Z")).orElseThrow();
+        assertEquals(READY, lastTask.getStatus());
+        assertEquals(2, lastTask.getProcessFiles().size());
+        assertTrue(taskRepository.findAll().stream().allMatch(task -> task.getStatus() == CREATED || task.getStatus() == READY));
+
+        minioHandler.removeProcessFile(eventCgm);
+
+        assertTrue(taskRepository.findAllByTimestampBetween(OffsetDateTime.parse("2021-09-30T22:00Z"), OffsetDateTime.parse("2021-10-04T10:00Z"))
+                .stream()
+                .allMatch(task -> task.getInput("CGM").isEmpty()));
+    }
+
+    @Test
+    void onlyTheWindowConflictingWithConcurrentTaskUpdatesIsHandledAgain() {
+        // Windows last 24 hours in tests, the file is valid for two days
+        Event eventCgm = TaskManagerTestUtil.createEvent("CSE_D2CC", INPUT_FILE_GROUP_VALUE, "CGM", "CSE/D2CC/CGMs/cgm-test", "documentIdCgm", "2021-09-30T22:00Z/2021-10-02T22:00Z");
+        OffsetDateTime firstWindowStart = OffsetDateTime.parse("2021-09-30T22:00Z");
+        OffsetDateTime secondWindowStart = OffsetDateTime.parse("2021-10-01T22:00Z");
+        Mockito.doThrow(new OptimisticLockingFailureException("Task modified concurrently"))
+                .doCallRealMethod()
+                .when(taskService).addProcessFilesToTasks(Mockito.anyList(), Mockito.eq(secondWindowStart), Mockito.any());
+
+        minioHandler.updateTasks(eventCgm);
+
+        Mockito.verify(taskService, Mockito.times(1)).addProcessFilesToTasks(Mockito.anyList(), Mockito.eq(firstWindowStart), Mockito.any());
+        Mockito.verify(taskService, Mockito.times(2)).addProcessFilesToTasks(Mockito.anyList(), Mockito.eq(secondWindowStart), Mockito.any());
+        assertEquals(48, taskRepository.findAll().size());
+        assertTrue(taskRepository.findAllByTimestampBetween(firstWindowStart, OffsetDateTime.parse("2021-10-02T22:00Z"))
+                .stream()
+                .allMatch(task -> task.getInput("CGM").isPresent()));
+    }
+
+    @Test
+    void inputFileWaitsFromTheWindowOfATaskStartedRunningDuringItsAddition() {
+        // Windows last 24 hours in tests, the file is valid for two days
+        Event eventCgm = TaskManagerTestUtil.createEvent("CSE_D2CC", INPUT_FILE_GROUP_VALUE, "CGM", "CSE/D2CC/CGMs/cgm-test", "documentIdCgm", "2021-09-30T22:00Z/2021-10-02T22:00Z");
+        OffsetDateTime firstWindowStart = OffsetDateTime.parse("2021-09-30T22:00Z");
+        OffsetDateTime secondWindowStart = OffsetDateTime.parse("2021-10-01T22:00Z");
+        Task runningTask = taskRepository.save(new Task(secondWindowStart.plusHours(5)));
+        Mockito.doAnswer(invocation -> {
+            Object tasks = invocation.callRealMethod();
+            // The task is started while the files are added to the first window
+            taskRepository.compareAndSetStatus(runningTask.getId(), runningTask.getStatus(), TaskStatus.RUNNING);
+            return tasks;
+        }).when(taskService).addProcessFilesToTasks(Mockito.anyList(), Mockito.eq(firstWindowStart), Mockito.any());
+
+        minioHandler.updateTasks(eventCgm);
+
+        assertTrue(taskRepository.findAllByTimestampBetween(firstWindowStart, secondWindowStart)
+                .stream()
+                .allMatch(task -> task.getInput("CGM").isPresent()));
+        assertTrue(taskRepository.findAllByTimestampBetween(secondWindowStart, OffsetDateTime.parse("2021-10-02T22:00Z"))
+                .stream()
+                .noneMatch(task -> task.getInput("CGM").isPresent()));
+        assertEquals(TaskStatus.RUNNING, taskRepository.findByTimestamp(runningTask.getTimestamp()).orElseThrow().getStatus());
+        assertEquals(1, waitingProcessFileRepository.count());
+    }
+
+    @Test
+    void windowOfATaskStartedRunningOnceLoadedIsHandledAgain() {
+        Event eventCgm = TaskManagerTestUtil.createEvent("CSE_D2CC", INPUT_FILE_GROUP_VALUE, "CGM", "CSE/D2CC/CGMs/cgm-test", "documentIdCgm", "2021-09-30T22:00Z/2021-10-01T22:00Z");
+        OffsetDateTime windowStart = OffsetDateTime.parse("2021-09-30T22:00Z");
+        Task runningTask = taskRepository.save(new Task(windowStart.plusHours(5)));
+        Mockito.doAnswer(invocation -> {
+            Object tasks = invocation.callRealMethod();
+            taskRepository.compareAndSetStatus(runningTask.getId(), runningTask.getStatus(), TaskStatus.RUNNING);
+            return tasks;
+        }).doCallRealMethod().when(taskService).addProcessFilesToTasks(Mockito.anyList(), Mockito.eq(windowStart), Mockito.any());
+
+        minioHandler.updateTasks(eventCgm);
+
+        Mockito.verify(taskService, Mockito.times(2)).addProcessFilesToTasks(Mockito.anyList(), Mockito.eq(windowStart), Mockito.any());
+        Task task = taskRepository.findByTimestamp(runningTask.getTimestamp()).orElseThrow();
+        assertEquals(TaskStatus.RUNNING, task.getStatus());
+        assertTrue(task.getInput("CGM").isEmpty());
+        assertEquals(1, waitingProcessFileRepository.count());
+    }
+
+    @Test
+    void filesValidForSeveralPartitionsAreHandledForTheTasksOfEachPartitionInTurn() {
+        Event eventCgm = TaskManagerTestUtil.createEvent("CSE_D2CC", INPUT_FILE_GROUP_VALUE, "CGM", "CSE/D2CC/CGMs/cgm-test", "documentIdCgm", "2021-09-30T22:00Z/2021-10-02T22:00Z");
+        Mockito.when(eventCgm.eventType()).thenReturn(EventType.OBJECT_CREATED_PUT);
+        OffsetDateTime secondDay = OffsetDateTime.parse("2021-10-01T22:00Z");
+        MinioEventScope firstPartition = new MinioEventScope(timestamp -> timestamp.isBefore(secondDay), true, false, new HashMap<>());
+
+        minioHandler.handleMinioEvents(List.of(eventCgm), firstPartition);
+
+        assertEquals(24, taskRepository.findAll().size());
+        assertEquals(Map.of("CSE/D2CC/CGMs/cgm-test", FileEventType.AVAILABLE), firstPartition.fileEventTypes());
+
+        minioHandler.handleMinioEvents(List.of(eventCgm), new MinioEventScope(timestamp -> !timestamp.isBefore(secondDay), false, true, firstPartition.fileEventTypes()));
+
+        assertEquals(48, taskRepository.findAll().size());
+        assertEquals(1, processFileRepository.count());
+        assertTrue(taskRepository.findAllByTimestampBetween(OffsetDateTime.parse("2021-09-30T22:00Z"), OffsetDateTime.parse("2021-10-02T22:00Z"))
+                .stream()
+                .allMatch(task -> task.getInput("CGM").isPresent()));
+
+        Event eventCgmDeletion = TaskManagerTestUtil.createEvent("CSE_D2CC", INPUT_FILE_GROUP_VALUE, "CGM", "CSE/D2CC/CGMs/cgm-test", "2021-09-30T22:00Z/2021-10-02T22:00Z");
+        Mockito.when(eventCgmDeletion.eventType()).thenReturn(EventType.OBJECT_REMOVED_DELETE);
+        minioHandler.handleMinioEvents(List.of(eventCgmDeletion), new MinioEventScope(timestamp -> timestamp.isBefore(secondDay), true, false, new HashMap<>()));
+
+        assertEquals(1, processFileRepository.count());
+        assertTrue(taskRepository.findByTimestamp(secondDay).orElseThrow().getInput("CGM").isPresent());
+
+        minioHandler.handleMinioEvents(List.of(eventCgmDeletion), new MinioEventScope(timestamp -> !timestamp.isBefore(secondDay), false, true, new HashMap<>()));
+
+        assertEquals(0, processFileRepository.count());
+    }
+
     @Test
     void checkStatusUpdateToReady() {
         OffsetDateTime taskTimestamp = OffsetDateTime.parse("2021-09-30T21:00Z");
@@ -285,16 +441,12 @@ class MinioHandlerTest {
                 OffsetDateTime.parse("2021-10-11T00:00Z"),
                 OffsetDateTime.parse("2021-10-12T00:00Z"),
                 OffsetDateTime.parse("2021-10-11T10:30Z"));
-        List<ProcessFileMinio> fileMinioList = new ArrayList<>();
-        ProcessFileMinio file1 = new ProcessFileMinio(processFile1, null);
-        ProcessFileMinio file2 = new ProcessFileMinio(processFile2, null);
         OffsetDateTime searchTimestamp = OffsetDateTime.parse("2021-10-13T10:18Z");
 
-        fileMinioList.add(file1);
-        fileMinioList.add(file2);
+        waitingProcessFileRepository.save(new WaitingProcessFile(processFile1));
+        waitingProcessFileRepository.save(new WaitingProcessFile(processFile2));
 
-        ReflectionTestUtils.setField(minioHandler, "waitingFilesList", fileMinioList);
-        List<ProcessFileMinio> result = minioHandler.getWaitingProcessFilesForTimestamp(searchTimestamp);
+        List<WaitingProcessFile> result = minioHandler.getWaitingProcessFilesForTimestamp(searchTimestamp);
 
         assertTrue(result.isEmpty());
     }
@@ -325,19 +477,14 @@ class MinioHandlerTest {
                 OffsetDateTime.parse("2021-10-12T00:00Z"),
                 OffsetDateTime.parse("2021-10-13T00:00Z"),
                 OffsetDateTime.parse("2021-10-13T10:30Z"));
-        ProcessFileMinio file1 = new ProcessFileMinio(processFile1, null);
-        ProcessFileMinio file2 = new ProcessFileMinio(processFile2, null);
-        ProcessFileMinio file3 = new ProcessFileMinio(processFile3, null);
+        WaitingProcessFile file1 = waitingProcessFileRepository.save(new WaitingProcessFile(processFile1));
+        WaitingProcessFile file2 = waitingProcessFileRepository.save(new WaitingProcessFile(processFile2));
+        waitingProcessFileRepository.save(new WaitingProcessFile(processFile3));
 
-        List<ProcessFileMinio> fileMinioList = Arrays.asList(file1, file2, file3);
-
-        ReflectionTestUtils.setField(minioHandler, "waitingFilesList", fileMinioList);
         OffsetDateTime timestamp = OffsetDateTime.parse("2021-10-11T10:00Z");
-        List<ProcessFileMinio> result = minioHandler.getWaitingProcessFilesForTimestamp(timestamp);
+        List<WaitingProcessFile> result = minioHandler.getWaitingProcessFilesForTimestamp(timestamp);
 
-        assertEquals(2, result.size());
-        assertTrue(result.contains(file1));
-        assertTrue(result.contains(file2));
+        assertEquals(List.of(file1.getId(), file2.getId()), result.stream().map(WaitingProcessFile::getId).toList());
     }
 
     @Test
@@ -359,40 +506,45 @@ class MinioHandlerTest {
                 OffsetDateTime.parse("2021-10-13T00:00Z"),
                 OffsetDateTime.parse("2021-10-14T00:00Z"),
                 OffsetDateTime.parse("2021-10-11T10:30Z"));
-        List<ProcessFileMinio> fileMinioList = new ArrayList<>();
-        ProcessFileMinio file1 = new ProcessFileMinio(processFile1, FileEventType.WAITING);
-        ProcessFileMinio file2 = new ProcessFileMinio(processFile2, FileEventType.WAITING);
         OffsetDateTime searchTimestamp = OffsetDateTime.parse("2021-10-13T10:18Z");
 
-        fileMinioList.add(file1);
-        fileMinioList.add(file2);
-
-        ReflectionTestUtils.setField(minioHandler, "waitingFilesList", fileMinioList);
+        WaitingProcessFile file1 = waitingProcessFileRepository.save(new WaitingProcessFile(processFile1));
+        waitingProcessFileRepository.save(new WaitingProcessFile(processFile2));
 
-        List before = (List) ReflectionTestUtils.getField(minioHandler, "waitingFilesList");
-        assertEquals(2, before.size());
+        assertEquals(2, waitingProcessFileRepository.count());
         minioHandler.emptyWaitingList(searchTimestamp);
 
-        List after = (List) ReflectionTestUtils.getField(minioHandler, "waitingFilesList");
+        List<WaitingProcessFile> after = waitingProcessFileRepository.findAll();
         assertEquals(1, after.size());
         //file 2 is removed
-        assertEquals(file1, after.get(0));
+        assertEquals(file1.getId(), after.get(0).getId());
+        assertTrue(processFileRepository.findByFileObjectKey("cgm-name2").isPresent());
     }
 
     @Test
     void emptyWaitingListTestEmpty() {
-
-        List<ProcessFileMinio> fileMinioList = new ArrayList<>();
         OffsetDateTime searchTimestamp = OffsetDateTime.parse("2021-10-13T10:18Z");
 
-        ReflectionTestUtils.setField(minioHandler, "waitingFilesList", fileMinioList);
-
-        List before = (List) ReflectionTestUtils.getField(minioHandler, "waitingFilesList");
-        assertTrue(before.isEmpty());
+        assertEquals(0, waitingProcessFileRepository.count());
         minioHandler.emptyWaitingList(searchTimestamp);
 
-        List after = (List) ReflectionTestUtils.getField(minioHandler, "waitingFilesList");
-        assertTrue(after.isEmpty());
+        assertEquals(0, waitingProcessFileRepository.count());
+    }
+
+    @Test
+    void waitingFileReplacesPreviousWaitingFileWithSameTypeAndValidity() {
+        final OffsetDateTime taskTimestamp = OffsetDateTime.parse("2021-09-30T21:00Z");
+        final Task runningTask = new Task(taskTimestamp);
+        runningTask.setStatus(TaskStatus.RUNNING);
+        taskRepository.save(runningTask);
+
+        minioHandler.updateTasks(TaskManagerTestUtil.createEvent("CSE_D2CC", INPUT_FILE_GROUP_VALUE, "CGM", "CSE/D2CC/CGMs/cgm-test", "documentIdCgm", "2021-09-30T21:00Z/2021-09-30T22:00Z"));
+        minioHandler.updateTasks(TaskManagerTestUtil.createEvent("CSE_D2CC", INPUT_FILE_GROUP_VALUE, "CGM", "CSE/D2CC/CGMs/cgm-test-2", "documentIdCgm2", "2021-09-30T21:00Z/2021-09-30T22:00Z"));
+
+        List<WaitingProcessFile> waitingFiles = waitingProcessFileRepository.findAll();
+        assertEquals(1, waitingFiles.size());
+        assertEquals("CSE/D2CC/CGMs/cgm-test-2", waitingFiles.get(0).getFileObjectKey());
+        assertTrue(processFileRepository.findByFileObjectKey("CSE/D2CC/CGMs/cgm-test-2").isEmpty());
     }
 
     @Test
@@ -472,4 +624,49 @@ class MinioHandlerTest {
         assertEquals(fileGroup, processFileMinio.getProcessFile().getFileGroup());
         assertEquals(FileEventType.AVAILABLE, processFileMinio.getFileEventType());
     }
+
+    @Test
+    void coalesceEventsByObjectKeyKeepsLastEventOfEachObject() {
+        Event cgmEvent = TaskManagerTestUtil.createEvent("CSE_D2CC", INPUT_FILE_GROUP_VALUE, "CGM", "CSE/D2CC/CGMs/cgm-test", "2021-09-30T21:00Z/2021-09-30T22:00Z");
+        Event cracEvent = TaskManagerTestUtil.createEvent("CSE_D2CC", INPUT_FILE_GROUP_VALUE, "CRAC", "CSE/D2CC/CRACs/crac-test", "2021-09-30T21:00Z/2021-09-30T22:00Z");
+        Event cgmReuploadEvent = TaskManagerTestUtil.createEvent("CSE_D2CC", INPUT_FILE_GROUP_VALUE, "CGM", "CSE/D2CC/CGMs/cgm-test", "2021-09-30T21:00Z/2021-09-30T22:00Z");
+
+        List<Event> coalescedEvents = MinioHandler.coalesceEventsByObjectKey(List.of(cgmEvent, cracEvent, cgmReuploadEvent));
+
+        assertEquals(List.of(cracEvent, cgmReuploadEvent), coalescedEvents);
+    }
+
+    @Test
+    void creationAndRemovalOfTheSameObjectInTheSameBurstAreHandledInOrder() {
+        Event cgmCreationEvent = TaskManagerTestUtil.createEvent("CSE_D2CC", INPUT_FILE_GROUP_VALUE, "CGM", "CSE/D2CC/CGMs/cgm-test", "documentIdCgm", "2021-09-30T21:00Z/2021-09-30T22:00Z");
+        Mockito.when(cgmCreationEvent.eventType()).thenReturn(EventType.OBJECT_CREATED_PUT);
+        Event cracCreationEvent = TaskManagerTestUtil.createEvent("CSE_D2CC", INPUT_FILE_GROUP_VALUE, "CRAC", "CSE/D2CC/CRACs/crac-test", "documentIdCrac", "2021-09-30T21:00Z/2021-09-30T22:00Z");
+        Mockito.when(cracCreationEvent.eventType()).thenReturn(EventType.OBJECT_CREATED_PUT);
+        Event cgmRemovalEvent = Mockito.mock(Event.class);
+        Mockito.when(cgmRemovalEvent.objectName()).thenReturn("CSE/D2CC/CGMs/cgm-test");
+        Mockito.when(cgmRemovalEvent.eventType()).thenReturn(EventType.OBJECT_REMOVED_DELETE);
+        NotificationRecords notificationRecords = Mockito.mock(NotificationRecords.class);
+        Mockito.when(notificationRecords.events()).thenReturn(List.of(cgmCreationEvent, cracCreationEvent, cgmRemovalEvent));
+
+        minioHandler.consumeMinioEvent().accept(Flux.just(notificationRecords));
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> processFileRepository.findByFileObjectKey("CSE/D2CC/CRACs/crac-test").isPresent());
+        assertTrue(processFileRepository.findByFileObjectKey("CSE/D2CC/CGMs/cgm-test").isEmpty());
+        assertTrue(taskRepository.findByTimestamp(OffsetDateTime.parse("2021-09-30T21:00Z")).orElseThrow().getInput("CGM").isEmpty());
+    }
+
+    @Test
+    void handledCreationEventsAreMeasured() {
+        Event event = TaskManagerTestUtil.createEvent("CSE_D2CC", INPUT_FILE_GROUP_VALUE, "CGM", "CSE/D2CC/CGMs/cgm-test", "documentIdCgm", "2021-09-30T21:00Z/2021-09-30T23:00Z");
+        Mockito.when(event.eventType()).thenReturn(EventType.OBJECT_CREATED_PUT);
+        Timer creationTimer = meterRegistry.get("task.manager.minio.event.handling").tag("event.type", "created").timer();
+        long handledBatches = creationTimer.count();
+        DistributionSummary tasksPerFile = meterRegistry.summary("task.manager.minio.tasks.per.file", "file.group", INPUT_FILE_GROUP_VALUE);
+        double touchedTasks = tasksPerFile.totalAmount();
+
+        minioHandler.handleMinioEvents(List.of(event));
+
+        assertEquals(handledBatches + 1, creationTimer.count());
+        assertEquals(touchedTasks + 2, tasksPerFile.totalAmount());
+    }
 }
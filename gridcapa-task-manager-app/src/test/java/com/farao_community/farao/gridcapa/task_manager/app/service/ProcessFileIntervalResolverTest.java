@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import com.farao_community.farao.gridcapa.task_manager.api.TaskDto;
+import com.farao_community.farao.gridcapa.task_manager.app.TaskManagerTestUtil;
+import com.farao_community.farao.gridcapa.task_manager.app.entities.Task;
+import com.farao_community.farao.gridcapa.task_manager.app.repository.ProcessFileRepository;
+import com.farao_community.farao.gridcapa.task_manager.app.repository.TaskFileSelectionRepository;
+import com.farao_community.farao.gridcapa.task_manager.app.repository.TaskRepository;
+import com.farao_community.farao.minio_adapter.starter.MinioAdapter;
+import com.farao_community.farao.minio_adapter.starter.MinioAdapterConstants;
+import io.minio.messages.Event;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static com.farao_community.farao.gridcapa.task_manager.api.TaskStatus.READY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "interval-file-association.enabled=true")
+class ProcessFileIntervalResolverTest {
+    private static final String INPUT_FILE_GROUP_VALUE = MinioAdapterConstants.DEFAULT_GRIDCAPA_INPUT_GROUP_METADATA_VALUE;
+    private static final String WEEK_INTERVAL = "2021-09-30T22:00Z/2021-10-07T22:00Z";
+    private static final OffsetDateTime TIMESTAMP = OffsetDateTime.parse("2021-10-03T10:00Z");
+
+    @MockitoBean
+    private StreamBridge streamBridge; // Useful to avoid AMQP connection that would fail
+
+    @MockitoBean
+    private MinioAdapter minioAdapter;
+
+    @Autowired
+    private MinioHandler minioHandler;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskDtoBuilderService taskDtoBuilderService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProcessFileRepository processFileRepository;
+
+    @Autowired
+    private TaskFileSelectionRepository taskFileSelectionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanDatabase() {
+        taskFileSelectionRepository.deleteAll();
+        taskRepository.deleteAll();
+        processFileRepository.deleteAll();
+    }
+
+    @Test
+    void filesAreResolvedByIntervalWithoutAssociationRows() {
+        minioHandler.updateTasks(List.of(createInputEvent("CGM", "cgm-week"), createInputEvent("CRAC", "crac-week")));
+
+        assertEquals(168, taskRepository.findAll().size());
+        assertTrue(taskRepository.findAll().stream().allMatch(task -> task.getStatus() == READY));
+        assertEquals(0, countRows("task_process_file"));
+        assertEquals(0, countRows("task_available_process_file"));
+        final TaskDto taskDto = taskDtoBuilderService.getTaskDtoWithoutProcessEvents(TIMESTAMP);
+        assertEquals(READY, taskDto.getStatus());
+        assertTrue(taskDto.getInputs().stream().anyMatch(input -> "cgm-week".equals(input.getFilename())));
+        // The process is not an on-the-hour one: its business day view starts at 00:30 and misses the task at midnight
+        final LocalDate businessDate = TIMESTAMP.atZoneSameInstant(ZoneId.of("CET")).toLocalDate();
+        assertEquals(23, taskDtoBuilderService.getListTasksDto(businessDate).stream()
+                .filter(dto -> dto.getStatus() == READY)
+                .count());
+    }
+
+    @Test
+    void manualSelectionIsKeptUntilANewInputArrives() {
+        minioHandler.updateTasks(createInputEvent("CGM", "cgm-first"));
+        minioHandler.updateTasks(createInputEvent("CGM", "cgm-second"));
+        assertEquals("cgm-second", getSelectedCgmFilename());
+
+        taskService.selectFile(TIMESTAMP, "CGM", "cgm-first");
+        assertEquals("cgm-first", getSelectedCgmFilename());
+        assertEquals("cgm-second", taskRepository.findByTimestamp(TIMESTAMP.plusHours(1)).orElseThrow().getInput("CGM").orElseThrow().getFilename());
+        assertEquals(2, taskRepository.findByTimestamp(TIMESTAMP).orElseThrow().getAvailableInputs("CGM").size());
+
+        minioHandler.updateTasks(createInputEvent("CGM", "cgm-third"));
+        assertEquals("cgm-third", getSelectedCgmFilename());
+        assertEquals(0, taskFileSelectionRepository.count());
+    }
+
+    @Test
+    void removedSelectedInputIsReplacedByTheLastModifiedOne() {
+        final Event firstCgm = createInputEvent("CGM", "cgm-first");
+        final Event secondCgm = createInputEvent("CGM", "cgm-second");
+        minioHandler.updateTasks(firstCgm);
+        minioHandler.updateTasks(secondCgm);
+
+        minioHandler.removeProcessFile(secondCgm);
+
+        assertEquals("cgm-first", getSelectedCgmFilename());
+        assertEquals(1, taskRepository.findByTimestamp(TIMESTAMP).orElseThrow().getAvailableInputs("CGM").size());
+    }
+
+    private Event createInputEvent(String fileType, String filename) {
+        return TaskManagerTestUtil.createEvent("CSE_D2CC", INPUT_FILE_GROUP_VALUE, fileType, "CSE/D2CC/" + fileType + "s/" + filename, WEEK_INTERVAL);
+    }
+
+    private String getSelectedCgmFilename() {
+        final Task task = taskRepository.findByTimestamp(TIMESTAMP).orElseThrow();
+        return task.getInput("CGM").orElseThrow().getFilename();
+    }
+
+    private int countRows(String tableName) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + tableName, Integer.class);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import com.farao_community.farao.gridcapa.task_manager.api.TaskManagerException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight singleFlight = new SingleFlight(meterRegistry);
+
+    @Test
+    void concurrentIdenticalReadsShareOneComputation() throws Exception {
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> leader = executor.submit(() -> singleFlight.execute("business-date", "2021-10-02", () -> {
+                computations.incrementAndGet();
+                awaitRelease(release);
+                return "tasks";
+            }));
+            await().until(() -> computations.get() == 1);
+            Future<String> follower = executor.submit(() -> singleFlight.execute("business-date", "2021-10-02", () -> {
+                computations.incrementAndGet();
+                return "other tasks";
+            }));
+            await().until(() -> meterRegistry.counter("task.manager.single.flight.hits", "view", "business-date").count() == 1);
+            release.countDown();
+
+            assertEquals("tasks", leader.get(5, TimeUnit.SECONDS));
+            assertEquals("tasks", follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, computations.get());
+        assertEquals(1, meterRegistry.timer("task.manager.single.flight.wait", "view", "business-date").count());
+    }
+
+    @Test
+    void readsWithDifferentKeysOrNotConcurrentAreComputedAgain() {
+        AtomicInteger computations = new AtomicInteger();
+
+        singleFlight.execute("business-date", "2021-10-02", computations::incrementAndGet);
+        singleFlight.execute("business-date", "2021-10-02", computations::incrementAndGet);
+        singleFlight.execute("business-date", "2021-10-03", computations::incrementAndGet);
+
+        assertEquals(3, computations.get());
+    }
+
+    @Test
+    void failureIsThrownToAllWaitingRequests() {
+        CompletableFuture<Void> release = new CompletableFuture<>();
+        AtomicInteger computations = new AtomicInteger();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> leader = executor.submit(() -> singleFlight.execute("running-tasks", "etag", () -> {
+                computations.incrementAndGet();
+                return failOnRelease(release);
+            }));
+            await().until(() -> computations.get() == 1);
+            Future<String> follower = executor.submit(() -> singleFlight.execute("running-tasks", "etag", () -> "tasks"));
+            await().until(() -> meterRegistry.counter("task.manager.single.flight.hits", "view", "running-tasks").count() == 1);
+            release.complete(null);
+
+            assertTrue(assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS)).getCause() instanceof TaskManagerException);
+            assertTrue(assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS)).getCause() instanceof TaskManagerException);
+        }
+    }
+
+    private static String failOnRelease(CompletableFuture<Void> release) {
+        release.join();
+        throw new TaskManagerException("Database unavailable");
+    }
+
+    private static void awaitRelease(CountDownLatch release) {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
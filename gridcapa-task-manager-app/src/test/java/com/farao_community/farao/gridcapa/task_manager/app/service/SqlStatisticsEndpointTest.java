@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import com.farao_community.farao.gridcapa.task_manager.app.entities.Task;
+import com.farao_community.farao.gridcapa.task_manager.app.repository.TaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.OffsetDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "sql-statistics.enabled=true")
+class SqlStatisticsEndpointTest {
+
+    @MockitoBean
+    private StreamBridge streamBridge; // Useful to avoid AMQP connection that would fail
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private SqlStatisticsEndpoint sqlStatisticsEndpoint;
+
+    @AfterEach
+    void cleanDatabase() {
+        SqlStatisticsContext.clear();
+        taskRepository.deleteAll();
+    }
+
+    @Test
+    void databaseActivityIsAttributedToCurrentContext() {
+        String context = SqlStatisticsContext.ofConsumer("test-consumer");
+        SqlStatisticsContext.set(context);
+        taskRepository.save(new Task(OffsetDateTime.parse("2021-10-02T10:30Z")));
+        taskRepository.findByTimestamp(OffsetDateTime.parse("2021-10-02T10:30Z"));
+        SqlStatisticsContext.clear();
+
+        SqlStatisticsEndpoint.SqlStatisticsReport report = sqlStatisticsEndpoint.sqlStatistics();
+        assertTrue(report.operations().containsKey(context));
+        assertTrue(report.operations().get(context).getOrDefault("statement", 0L) > 0);
+        assertFalse(report.queries().isEmpty());
+    }
+}
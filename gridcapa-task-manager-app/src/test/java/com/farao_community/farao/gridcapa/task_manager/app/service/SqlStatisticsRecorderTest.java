@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SqlStatisticsRecorderTest {
+
+    private MeterRegistry meterRegistry;
+    private SqlStatisticsRecorder sqlStatisticsRecorder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        sqlStatisticsRecorder = new SqlStatisticsRecorder(meterRegistry, 100, 2);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SqlStatisticsContext.clear();
+    }
+
+    @Test
+    void operationsAreCountedByContext() {
+        SqlStatisticsContext.set(SqlStatisticsContext.ofConsumer("task-status-update"));
+        sqlStatisticsRecorder.recordOperation("entity-load");
+        sqlStatisticsRecorder.recordOperation("entity-load");
+        sqlStatisticsRecorder.recordOperation("collection-fetch");
+        SqlStatisticsContext.clear();
+        sqlStatisticsRecorder.recordOperation("entity-load");
+
+        Map<String, Map<String, Long>> operationCounts = sqlStatisticsRecorder.getOperationCounts();
+        assertEquals(Map.of("entity-load", 2L, "collection-fetch", 1L), operationCounts.get("consumer task-status-update"));
+        assertEquals(Map.of("entity-load", 1L), operationCounts.get(SqlStatisticsContext.OTHER_CONTEXT));
+        assertEquals(2, meterRegistry.get("task.manager.hibernate.operations")
+            .tag("context", "consumer task-status-update")
+            .tag("type", "entity-load")
+            .counter().count());
+    }
+
+    @Test
+    void onlySlowStatementsAreCaptured() {
+        SqlStatisticsContext.set(SqlStatisticsContext.ofHttpEndpoint("GET", "/tasks/{timestamp}"));
+        sqlStatisticsRecorder.recordStatement("select fast", List.of("OffsetDateTime"), 0, TimeUnit.MILLISECONDS.toNanos(10));
+        sqlStatisticsRecorder.recordStatement("select slow", List.of("OffsetDateTime", "null"), 0, TimeUnit.MILLISECONDS.toNanos(150));
+
+        List<SqlStatisticsRecorder.SlowStatement> slowStatements = sqlStatisticsRecorder.getSlowStatements();
+        assertEquals(1, slowStatements.size());
+        assertEquals("select slow", slowStatements.get(0).sql());
+        assertEquals("http GET /tasks/{timestamp}", slowStatements.get(0).context());
+        assertEquals(List.of("OffsetDateTime", "null"), slowStatements.get(0).parameterTypes());
+        assertEquals(150, slowStatements.get(0).durationMs());
+    }
+
+    @Test
+    void oldestSlowStatementsAreEvictedWhenBufferIsFull() {
+        sqlStatisticsRecorder.recordStatement("insert first", List.of(), 10, TimeUnit.MILLISECONDS.toNanos(200));
+        sqlStatisticsRecorder.recordStatement("insert second", List.of(), 20, TimeUnit.MILLISECONDS.toNanos(200));
+        sqlStatisticsRecorder.recordStatement("insert third", List.of(), 30, TimeUnit.MILLISECONDS.toNanos(200));
+
+        List<SqlStatisticsRecorder.SlowStatement> slowStatements = sqlStatisticsRecorder.getSlowStatements();
+        assertEquals(List.of("insert third", "insert second"), slowStatements.stream().map(SqlStatisticsRecorder.SlowStatement::sql).toList());
+        assertTrue(slowStatements.stream().allMatch(statement -> SqlStatisticsContext.OTHER_CONTEXT.equals(statement.context())));
+    }
+}
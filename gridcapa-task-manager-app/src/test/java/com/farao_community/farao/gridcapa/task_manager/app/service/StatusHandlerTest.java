@@ -6,7 +6,10 @@
  */
 package com.farao_community.farao.gridcapa.task_manager.app.service;
 
+import com.farao_community.farao.gridcapa.task_manager.api.TaskStatus;
 import com.farao_community.farao.gridcapa.task_manager.api.TaskStatusUpdate;
+import com.farao_community.farao.gridcapa.task_manager.app.entities.OutboxMessage;
+import com.farao_community.farao.gridcapa.task_manager.app.repository.OutboxMessageRepository;
 import com.farao_community.farao.gridcapa.task_manager.app.repository.TaskRepository;
 import com.farao_community.farao.gridcapa.task_manager.app.TaskUpdateNotifier;
 import com.farao_community.farao.gridcapa.task_manager.app.entities.Task;
@@ -20,9 +23,11 @@ import org.springframework.cloud.stream.function.StreamBridge;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 
 import java.time.OffsetDateTime;
+import java.util.UUID;
 
 import static com.farao_community.farao.gridcapa.task_manager.api.TaskStatus.RUNNING;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.times;
 
 /**
@@ -43,12 +48,19 @@ class StatusHandlerTest {
     @Autowired
     private StatusHandler statusHandler;
 
+    @Autowired
+    private TaskIndexCache taskIndexCache;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
     @MockitoBean
     private Logger businessLogger;
 
     @AfterEach
     void cleanDatabase() {
         taskRepository.deleteAll();
+        outboxMessageRepository.deleteAll();
     }
 
     @Test
@@ -61,6 +73,53 @@ class StatusHandlerTest {
 
         Task updatedTask = taskRepository.findByTimestamp(taskTimestamp).orElseThrow();
         assertEquals(RUNNING, updatedTask.getStatus());
+        assertEquals(RUNNING, taskIndexCache.get(task.getId()).orElseThrow().status());
+        Mockito.verify(businessLogger, times(1)).info("Task status has been updated to {}.", RUNNING);
+    }
+
+    @Test
+    void statusUpdateIsNotifiedFromLastPublishedDtoTest() {
+        OffsetDateTime taskTimestamp = OffsetDateTime.parse("2021-10-01T21:00Z");
+        Task task = new Task(taskTimestamp);
+        taskRepository.save(task);
+        taskUpdateNotifier.notify(task, false, false);
+
+        statusHandler.handleTaskStatusUpdate(new TaskStatusUpdate(task.getId(), RUNNING));
+
+        // The notification is saved in the outbox along with the status
+        assertTrue(outboxMessageRepository.findAll().stream()
+            .filter(message -> "task-status-updated".equals(message.getBinding()))
+            .map(OutboxMessage::getPayload)
+            .anyMatch(payload -> payload.contains(task.getId().toString()) && payload.contains("\"status\":\"RUNNING\"")));
+        assertEquals(RUNNING, taskRepository.findByTimestamp(taskTimestamp).orElseThrow().getStatus());
+    }
+
+    @Test
+    void statusUpdateConflictingWithConcurrentChangeIsDroppedTest() {
+        OffsetDateTime taskTimestamp = OffsetDateTime.parse("2021-10-01T21:00Z");
+        Task task = new Task(taskTimestamp);
+        taskRepository.save(task);
+        taskIndexCache.get(task.getId());
+        // Status changed behind the back of the task index cache
+        taskRepository.compareAndSetStatus(task.getId(), TaskStatus.CREATED, TaskStatus.READY);
+
+        statusHandler.handleTaskStatusUpdate(new TaskStatusUpdate(task.getId(), RUNNING));
+
+        assertEquals(TaskStatus.READY, taskRepository.findByTimestamp(taskTimestamp).orElseThrow().getStatus());
+        Mockito.verify(businessLogger, times(0)).info("Task status has been updated to {}.", RUNNING);
+
+        // The current status is read again for the next update
+        statusHandler.handleTaskStatusUpdate(new TaskStatusUpdate(task.getId(), RUNNING));
+
+        assertEquals(RUNNING, taskRepository.findByTimestamp(taskTimestamp).orElseThrow().getStatus());
+        assertEquals(RUNNING, taskIndexCache.get(task.getId()).orElseThrow().status());
+    }
+
+    @Test
+    void handleTaskStatusUpdateForUnknownTaskTest() {
+        statusHandler.handleTaskStatusUpdate(new TaskStatusUpdate(UUID.randomUUID(), RUNNING));
+
+        Mockito.verify(businessLogger, times(0)).info("Task status has been updated to {}.", RUNNING);
     }
 
     @Test
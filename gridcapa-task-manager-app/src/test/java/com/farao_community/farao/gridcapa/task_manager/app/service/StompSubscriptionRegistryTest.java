@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StompSubscriptionRegistryTest {
+
+    private static final String TIMESTAMP_DESTINATION = "/task/update/2021-10-02T10:30:00.000Z";
+    private static final String BUSINESS_DATE_DESTINATION = "/task/update/2021-10-02";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StompSubscriptionRegistry stompSubscriptionRegistry = new StompSubscriptionRegistry(meterRegistry);
+
+    @Test
+    void destinationHasSubscribersUntilLastOneUnsubscribes() {
+        stompSubscriptionRegistry.subscribe("session-1", "sub-0", TIMESTAMP_DESTINATION);
+        stompSubscriptionRegistry.subscribe("session-2", "sub-0", TIMESTAMP_DESTINATION);
+
+        assertTrue(stompSubscriptionRegistry.hasSubscribers(TIMESTAMP_DESTINATION));
+        assertFalse(stompSubscriptionRegistry.hasSubscribers(BUSINESS_DATE_DESTINATION));
+        assertEquals(1, meterRegistry.get("task.manager.stomp.subscribed.destinations").gauge().value());
+
+        stompSubscriptionRegistry.unsubscribe("session-1", "sub-0");
+        assertTrue(stompSubscriptionRegistry.hasSubscribers(TIMESTAMP_DESTINATION));
+
+        stompSubscriptionRegistry.unsubscribe("session-2", "sub-0");
+        assertFalse(stompSubscriptionRegistry.hasSubscribers(TIMESTAMP_DESTINATION));
+    }
+
+    @Test
+    void disconnectionRemovesAllSubscriptionsOfSession() {
+        stompSubscriptionRegistry.subscribe("session-1", "sub-0", TIMESTAMP_DESTINATION);
+        stompSubscriptionRegistry.subscribe("session-1", "sub-1", BUSINESS_DATE_DESTINATION);
+
+        stompSubscriptionRegistry.disconnect("session-1");
+
+        assertFalse(stompSubscriptionRegistry.hasSubscribers(TIMESTAMP_DESTINATION));
+        assertFalse(stompSubscriptionRegistry.hasSubscribers(BUSINESS_DATE_DESTINATION));
+        assertEquals(0, meterRegistry.get("task.manager.stomp.subscribed.destinations").gauge().value());
+    }
+
+    @Test
+    void destinationsAreMatchedAgainstSubscribedPatterns() {
+        stompSubscriptionRegistry.subscribe("session-1", "sub-0", "/task/update/*");
+
+        assertTrue(stompSubscriptionRegistry.hasSubscribers(BUSINESS_DATE_DESTINATION));
+        assertFalse(stompSubscriptionRegistry.hasSubscribers(TIMESTAMP_DESTINATION + "/events"));
+
+        stompSubscriptionRegistry.unsubscribe("session-1", "sub-0");
+        assertFalse(stompSubscriptionRegistry.hasSubscribers(BUSINESS_DATE_DESTINATION));
+    }
+}
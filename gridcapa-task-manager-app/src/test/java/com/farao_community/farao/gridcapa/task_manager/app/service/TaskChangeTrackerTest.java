@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import com.farao_community.farao.gridcapa.task_manager.app.configuration.TaskManagerConfigurationProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaskChangeTrackerTest {
+
+    private final TaskChangeTracker taskChangeTracker = new TaskChangeTracker(new TaskManagerConfigurationProperties(
+        new TaskManagerConfigurationProperties.ProcessProperties("CSE_D2CC", "Europe/Paris", List.of(), List.of(), List.of(), List.of(), true, true, "cse/d2cc"),
+        List.of()));
+
+    @Test
+    void taskChangeOnlyChangesETagsOfItsBusinessDate() {
+        LocalDate businessDate = LocalDate.parse("2021-10-02");
+        String businessDateETag = taskChangeTracker.getBusinessDateETag(businessDate);
+        String nextBusinessDateETag = taskChangeTracker.getBusinessDateETag(businessDate.plusDays(1));
+        String anyTaskETag = taskChangeTracker.getAnyTaskETag();
+
+        // 23:30 UTC is already the next day in the process timezone
+        taskChangeTracker.taskChanged(OffsetDateTime.parse("2021-10-01T23:30Z"));
+
+        assertNotEquals(businessDateETag, taskChangeTracker.getBusinessDateETag(businessDate));
+        assertEquals(taskChangeTracker.getBusinessDateETag(businessDate), taskChangeTracker.getTimestampETag(OffsetDateTime.parse("2021-10-02T10:30Z")));
+        assertEquals(nextBusinessDateETag, taskChangeTracker.getBusinessDateETag(businessDate.plusDays(1)));
+        assertNotEquals(anyTaskETag, taskChangeTracker.getAnyTaskETag());
+    }
+
+    @Test
+    void periodChangeChangesETagsOfAllOverlappedBusinessDates() {
+        LocalDate firstBusinessDate = LocalDate.parse("2021-10-02");
+        String firstETag = taskChangeTracker.getBusinessDateETag(firstBusinessDate);
+        String secondETag = taskChangeTracker.getBusinessDateETag(firstBusinessDate.plusDays(1));
+        String thirdETag = taskChangeTracker.getBusinessDateETag(firstBusinessDate.plusDays(2));
+
+        taskChangeTracker.tasksChanged(OffsetDateTime.parse("2021-10-01T22:00Z"), OffsetDateTime.parse("2021-10-03T22:00Z"));
+
+        assertNotEquals(firstETag, taskChangeTracker.getBusinessDateETag(firstBusinessDate));
+        assertNotEquals(secondETag, taskChangeTracker.getBusinessDateETag(firstBusinessDate.plusDays(1)));
+        assertEquals(thirdETag, taskChangeTracker.getBusinessDateETag(firstBusinessDate.plusDays(2)));
+    }
+
+    @Test
+    void changeOfAllTasksChangesAllETags() {
+        String businessDateETag = taskChangeTracker.getBusinessDateETag(LocalDate.parse("2021-10-02"));
+        String anyTaskETag = taskChangeTracker.getAnyTaskETag();
+
+        taskChangeTracker.allTasksChanged();
+
+        assertNotEquals(businessDateETag, taskChangeTracker.getBusinessDateETag(LocalDate.parse("2021-10-02")));
+        assertNotEquals(anyTaskETag, taskChangeTracker.getAnyTaskETag());
+    }
+
+    @Test
+    void ifNoneMatchHeaderIsMatchedAgainstETag() {
+        String eTag = taskChangeTracker.getAnyTaskETag();
+
+        assertTrue(TaskChangeTracker.matches(eTag, eTag));
+        assertTrue(TaskChangeTracker.matches("\"other\", W/" + eTag, eTag));
+        assertTrue(TaskChangeTracker.matches("*", eTag));
+        assertFalse(TaskChangeTracker.matches("\"other\"", eTag));
+        assertFalse(TaskChangeTracker.matches(null, eTag));
+    }
+}
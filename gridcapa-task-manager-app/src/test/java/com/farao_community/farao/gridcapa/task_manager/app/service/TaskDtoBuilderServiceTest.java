@@ -18,7 +18,9 @@ import com.farao_community.farao.gridcapa.task_manager.app.entities.ProcessEvent
 import com.farao_community.farao.gridcapa.task_manager.app.entities.ProcessFile;
 import com.farao_community.farao.gridcapa.task_manager.app.entities.ProcessRun;
 import com.farao_community.farao.gridcapa.task_manager.app.entities.Task;
+import com.farao_community.farao.gridcapa.task_manager.app.repository.TaskIndex;
 import com.farao_community.farao.gridcapa.task_manager.app.repository.TaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -272,7 +274,7 @@ class TaskDtoBuilderServiceTest {
         ParameterService parameterService = Mockito.mock(ParameterService.class);
         ParameterDto param = new ParameterDto(null, null, 1, null, null, 2, null, null);
         Mockito.when(parameterService.getParameters()).thenReturn(List.of(param, param, param));
-        TaskDtoBuilderService customTaskDtoBuilderService = new TaskDtoBuilderService(properties, customTaskRepository, parameterService);
+        TaskDtoBuilderService customTaskDtoBuilderService = new TaskDtoBuilderService(properties, customTaskRepository, parameterService, Mockito.mock(ProcessFileIntervalResolver.class), Mockito.mock(TaskService.class), Mockito.mock(TaskSnapshotCache.class), new SimpleMeterRegistry());
         LocalDate localDate = LocalDate.of(2023, 11, 9);
         List<TaskDto> listTasksDto = customTaskDtoBuilderService.getListTasksDto(localDate);
         assertEquals(24, listTasksDto.size());
@@ -286,7 +288,7 @@ class TaskDtoBuilderServiceTest {
         TaskManagerConfigurationProperties properties = new TaskManagerConfigurationProperties(processProperties, new ArrayList<>());
         TaskRepository customTaskRepository = new TaskRepositoryMock();
         ParameterService parameterService = Mockito.mock(ParameterService.class);
-        TaskDtoBuilderService customTaskDtoBuilderService = new TaskDtoBuilderService(properties, customTaskRepository, parameterService);
+        TaskDtoBuilderService customTaskDtoBuilderService = new TaskDtoBuilderService(properties, customTaskRepository, parameterService, Mockito.mock(ProcessFileIntervalResolver.class), Mockito.mock(TaskService.class), Mockito.mock(TaskSnapshotCache.class), new SimpleMeterRegistry());
         LocalDate localDate = LocalDate.of(2023, 3, 26);
         assertEquals(23, customTaskDtoBuilderService.getListTasksDto(localDate).size());
     }
@@ -298,7 +300,7 @@ class TaskDtoBuilderServiceTest {
         TaskManagerConfigurationProperties properties = new TaskManagerConfigurationProperties(processProperties, new ArrayList<>());
         TaskRepository customTaskRepository = new TaskRepositoryMock();
         ParameterService parameterService = Mockito.mock(ParameterService.class);
-        TaskDtoBuilderService customTaskDtoBuilderService = new TaskDtoBuilderService(properties, customTaskRepository, parameterService);
+        TaskDtoBuilderService customTaskDtoBuilderService = new TaskDtoBuilderService(properties, customTaskRepository, parameterService, Mockito.mock(ProcessFileIntervalResolver.class), Mockito.mock(TaskService.class), Mockito.mock(TaskSnapshotCache.class), new SimpleMeterRegistry());
         LocalDate localDate = LocalDate.of(2023, 10, 29);
         assertEquals(25, customTaskDtoBuilderService.getListTasksDto(localDate).size());
     }
@@ -311,7 +313,7 @@ class TaskDtoBuilderServiceTest {
         final TaskManagerConfigurationProperties properties = new TaskManagerConfigurationProperties(processProperties, new ArrayList<>());
         final TaskRepository customTaskRepository = new TaskRepositoryMock();
         final ParameterService parameterService = Mockito.mock(ParameterService.class);
-        final TaskDtoBuilderService customTaskDtoBuilderService = new TaskDtoBuilderService(properties, customTaskRepository, parameterService);
+        final TaskDtoBuilderService customTaskDtoBuilderService = new TaskDtoBuilderService(properties, customTaskRepository, parameterService, Mockito.mock(ProcessFileIntervalResolver.class), Mockito.mock(TaskService.class), Mockito.mock(TaskSnapshotCache.class), new SimpleMeterRegistry());
         final LocalDate localDate = LocalDate.of(2025, 11, 26);
         final List<TaskDto> listTasksDto = customTaskDtoBuilderService.getListTasksDto(localDate);
         final List<TaskDto> sortedTasksDto = listTasksDto.stream().sorted(Comparator.comparing(TaskDto::getTimestamp)).toList();
@@ -330,7 +332,7 @@ class TaskDtoBuilderServiceTest {
         final TaskManagerConfigurationProperties properties = new TaskManagerConfigurationProperties(processProperties, new ArrayList<>());
         final TaskRepository customTaskRepository = new TaskRepositoryMock();
         final ParameterService parameterService = Mockito.mock(ParameterService.class);
-        final TaskDtoBuilderService customTaskDtoBuilderService = new TaskDtoBuilderService(properties, customTaskRepository, parameterService);
+        final TaskDtoBuilderService customTaskDtoBuilderService = new TaskDtoBuilderService(properties, customTaskRepository, parameterService, Mockito.mock(ProcessFileIntervalResolver.class), Mockito.mock(TaskService.class), Mockito.mock(TaskSnapshotCache.class), new SimpleMeterRegistry());
         final LocalDate localDate = LocalDate.of(2025, 11, 26);
         final List<TaskDto> listTasksDto = customTaskDtoBuilderService.getListTasksDto(localDate);
         final List<TaskDto> sortedTasksDto = listTasksDto.stream().sorted(Comparator.comparing(TaskDto::getTimestamp)).toList();
@@ -377,6 +379,11 @@ class TaskDtoBuilderServiceTest {
             return Set.of();
         }
 
+        @Override
+        public List<OffsetDateTime> findTimestampsBetween(final OffsetDateTime startingTimestamp, final OffsetDateTime endingTimestamp) {
+            return List.of();
+        }
+
         @Override
         public Optional<Task> findByTimestampAndFetchProcessEvents(final OffsetDateTime timestamp) {
             return findByTimestamp(timestamp);
@@ -410,6 +417,21 @@ class TaskDtoBuilderServiceTest {
             return Set.of();
         }
 
+        @Override
+        public List<TaskIndex> findIndexesByIdIn(final Collection<UUID> ids) {
+            return List.of();
+        }
+
+        @Override
+        public int compareAndSetStatus(final UUID id, final TaskStatus expectedStatus, final TaskStatus status) {
+            return 0;
+        }
+
+        @Override
+        public Optional<Long> findVersionById(final UUID id) {
+            return Optional.empty();
+        }
+
         @Override
         public List<Task> findAll() {
             return null;
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import com.farao_community.farao.gridcapa.task_manager.api.TaskStatus;
+import com.farao_community.farao.gridcapa.task_manager.app.entities.Task;
+import com.farao_community.farao.gridcapa.task_manager.app.repository.TaskIndex;
+import com.farao_community.farao.gridcapa.task_manager.app.repository.TaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+class TaskIndexCacheTest {
+
+    private TaskRepository taskRepository;
+    private TaskIndexCache taskIndexCache;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository = Mockito.mock(TaskRepository.class);
+        taskIndexCache = new TaskIndexCache(taskRepository, new SimpleMeterRegistry(), 2);
+    }
+
+    @Test
+    void missingEntriesAreLoadedOnceFromDatabase() {
+        UUID id = UUID.randomUUID();
+        OffsetDateTime timestamp = OffsetDateTime.parse("2021-10-01T21:00Z");
+        TaskIndex taskIndex = Mockito.mock(TaskIndex.class);
+        Mockito.when(taskIndex.getId()).thenReturn(id);
+        Mockito.when(taskIndex.getTimestamp()).thenReturn(timestamp);
+        Mockito.when(taskIndex.getStatus()).thenReturn(TaskStatus.READY);
+        Mockito.when(taskRepository.findIndexesByIdIn(Set.of(id))).thenReturn(List.of(taskIndex));
+
+        assertEquals(new TaskIndexCache.TaskIndexEntry(id, timestamp, TaskStatus.READY), taskIndexCache.get(id).orElseThrow());
+        assertEquals(timestamp, taskIndexCache.get(id).orElseThrow().timestamp());
+        Mockito.verify(taskRepository, times(1)).findIndexesByIdIn(any());
+    }
+
+    @Test
+    void unknownTasksAreAbsent() {
+        Mockito.when(taskRepository.findIndexesByIdIn(any())).thenReturn(List.of());
+
+        assertTrue(taskIndexCache.get(UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    void statusUpdatesAreApplied() {
+        Task task = new Task(OffsetDateTime.parse("2021-10-01T21:00Z"));
+        taskIndexCache.put(task);
+
+        taskIndexCache.updateStatus(task.getId(), TaskStatus.RUNNING);
+
+        assertEquals(TaskStatus.RUNNING, taskIndexCache.get(task.getId()).orElseThrow().status());
+        Mockito.verify(taskRepository, never()).findIndexesByIdIn(any());
+    }
+
+    @Test
+    void leastRecentlyUsedEntriesAreEvicted() {
+        Task task1 = new Task(OffsetDateTime.parse("2021-10-01T21:00Z"));
+        Task task2 = new Task(OffsetDateTime.parse("2021-10-01T22:00Z"));
+        Task task3 = new Task(OffsetDateTime.parse("2021-10-01T23:00Z"));
+        Mockito.when(taskRepository.findIndexesByIdIn(any())).thenReturn(List.of());
+        taskIndexCache.put(task1);
+        taskIndexCache.put(task2);
+        taskIndexCache.get(task1.getId());
+        taskIndexCache.put(task3);
+
+        Map<UUID, TaskIndexCache.TaskIndexEntry> entries = taskIndexCache.getAll(List.of(task1.getId(), task2.getId(), task3.getId()));
+
+        assertEquals(Set.of(task1.getId(), task3.getId()), entries.keySet());
+        Mockito.verify(taskRepository, times(1)).findIndexesByIdIn(Set.of(task2.getId()));
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaskManagerLockTest {
+
+    private MeterRegistry meterRegistry;
+    private TaskManagerLock taskManagerLock;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        taskManagerLock = new TaskManagerLock(meterRegistry, 1000);
+    }
+
+    @Test
+    void waitAndHoldTimesAreRecordedByOperation() {
+        String result = taskManagerLock.callLocked("test-operation", () -> "done");
+        taskManagerLock.runLocked("test-operation", () -> { });
+        taskManagerLock.runLocked("other-operation", () -> { });
+
+        assertEquals("done", result);
+        assertEquals(2, meterRegistry.get("task.manager.lock.wait").tag("operation", "test-operation").timer().count());
+        assertEquals(2, meterRegistry.get("task.manager.lock.hold").tag("operation", "test-operation").timer().count());
+        assertEquals(1, meterRegistry.get("task.manager.lock.hold").tag("operation", "other-operation").timer().count());
+    }
+
+    @Test
+    void holdTimeIsRecordedWhenOperationFails() {
+        assertThrows(IllegalStateException.class, () -> taskManagerLock.runLocked("failing-operation", () -> {
+            throw new IllegalStateException("Failure");
+        }));
+
+        assertEquals(1, meterRegistry.get("task.manager.lock.hold").tag("operation", "failing-operation").timer().count());
+    }
+
+    @Test
+    void holdTimeCoversOperationDuration() {
+        taskManagerLock.runLocked("slow-operation", () -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        assertTrue(meterRegistry.get("task.manager.lock.hold").tag("operation", "slow-operation").timer().totalTime(TimeUnit.MILLISECONDS) >= 50);
+    }
+
+    @Test
+    void statusShowsCurrentHolderAndWaitingThreads() throws InterruptedException {
+        CountDownLatch lockTaken = new CountDownLatch(1);
+        CountDownLatch releaseLock = new CountDownLatch(1);
+        Thread holderThread = new Thread(() -> taskManagerLock.runLocked("holding-operation", () -> {
+            lockTaken.countDown();
+            awaitQuietly(releaseLock);
+        }), "lock-holder");
+        holderThread.start();
+        assertTrue(lockTaken.await(5, TimeUnit.SECONDS));
+        Thread waitingThread = new Thread(() -> taskManagerLock.runLocked("waiting-operation", () -> { }), "lock-waiter");
+        waitingThread.start();
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> taskManagerLock.getStatus().waitingThreads() == 1);
+        TaskManagerLockStatus status = taskManagerLock.getStatus();
+        assertEquals("holding-operation", status.holder().operation());
+        assertEquals("lock-holder", status.holder().thread());
+        assertFalse(status.holder().stackTrace().isEmpty());
+        assertEquals(1, meterRegistry.get("task.manager.lock.queue.length").gauge().value());
+
+        releaseLock.countDown();
+        holderThread.join();
+        waitingThread.join();
+        TaskManagerLockStatus finalStatus = taskManagerLock.getStatus();
+        assertNull(finalStatus.holder());
+        assertEquals(0, finalStatus.waitingThreads());
+        assertEquals(Set.of("holding-operation", "waiting-operation"), finalStatus.operations().keySet());
+        assertEquals(1, finalStatus.operations().get("waiting-operation").count());
+    }
+
+    @Test
+    void nestedOperationRestoresOuterHolder() {
+        taskManagerLock.runLocked("outer-operation", () -> {
+            taskManagerLock.runLocked("inner-operation", () -> assertEquals("inner-operation", taskManagerLock.getStatus().holder().operation()));
+            assertEquals("outer-operation", taskManagerLock.getStatus().holder().operation());
+        });
+        assertNull(taskManagerLock.getStatus().holder());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void operationsOfVirtualThreadsAreRunOneAtATime() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 200; i++) {
+                executor.execute(() -> taskManagerLock.runLocked("virtual-operation", () -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        // Blocking while holding the lock, as database operations do
+                        Thread.sleep(1);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    running.decrementAndGet();
+                    completed.incrementAndGet();
+                }));
+            }
+        }
+
+        assertEquals(200, completed.get());
+        assertEquals(1, maxRunning.get());
+        assertEquals(0, taskManagerLock.getStatus().waitingThreads());
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import com.farao_community.farao.gridcapa.task_manager.api.TaskDto;
+import com.farao_community.farao.gridcapa.task_manager.api.TaskStatusUpdate;
+import com.farao_community.farao.gridcapa.task_manager.app.TaskManagerTestUtil;
+import com.farao_community.farao.gridcapa.task_manager.app.entities.ProcessFile;
+import com.farao_community.farao.gridcapa.task_manager.app.entities.Task;
+import com.farao_community.farao.gridcapa.task_manager.app.repository.ProcessFileRepository;
+import com.farao_community.farao.gridcapa.task_manager.app.repository.TaskRepository;
+import com.farao_community.farao.minio_adapter.starter.MinioAdapter;
+import com.farao_community.farao.minio_adapter.starter.MinioAdapterConstants;
+import io.minio.messages.Event;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static com.farao_community.farao.gridcapa.task_manager.api.TaskStatus.PENDING;
+import static com.farao_community.farao.gridcapa.task_manager.api.TaskStatus.READY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "task-materialization.enabled=true")
+class TaskMaterializationServiceTest {
+    private static final String INPUT_FILE_GROUP_VALUE = MinioAdapterConstants.DEFAULT_GRIDCAPA_INPUT_GROUP_METADATA_VALUE;
+    private static final OffsetDateTime DAY_BEYOND_HORIZON = OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.DAYS).plusDays(60);
+    private static final OffsetDateTime TIMESTAMP = DAY_BEYOND_HORIZON.plusHours(10);
+
+    @MockitoBean
+    private StreamBridge streamBridge; // Useful to avoid AMQP connection that would fail
+
+    @MockitoBean
+    private MinioAdapter minioAdapter;
+
+    @Autowired
+    private MinioHandler minioHandler;
+
+    @Autowired
+    private StatusHandler statusHandler;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskDtoBuilderService taskDtoBuilderService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProcessFileRepository processFileRepository;
+
+    @AfterEach
+    void cleanDatabase() {
+        taskRepository.deleteAll();
+        processFileRepository.deleteAll();
+    }
+
+    @Test
+    void tasksBeyondHorizonAreServedAsVirtualTasks() {
+        minioHandler.updateTasks(List.of(createInputEvent("CGM", "cgm-future"), createInputEvent("CRAC", "crac-future")));
+
+        assertTrue(taskRepository.findAll().isEmpty());
+        final TaskDto taskDto = taskDtoBuilderService.getTaskDtoWithoutProcessEvents(TIMESTAMP);
+        assertEquals(READY, taskDto.getStatus());
+        assertTrue(taskDto.getInputs().stream().anyMatch(input -> "cgm-future".equals(input.getFilename())));
+        assertTrue(taskDtoBuilderService.getListTasksDto(TIMESTAMP.toLocalDate()).stream()
+                .anyMatch(dto -> dto.getStatus() == READY));
+    }
+
+    @Test
+    void virtualTaskIsMaterializedWhenItsStatusIsUpdated() {
+        minioHandler.updateTasks(List.of(createInputEvent("CGM", "cgm-future"), createInputEvent("CRAC", "crac-future")));
+        final TaskDto virtualTaskDto = taskDtoBuilderService.getTaskDtoWithoutProcessEvents(TIMESTAMP);
+
+        statusHandler.handleTaskStatusUpdate(TIMESTAMP, PENDING);
+
+        final Task task = taskRepository.findByTimestamp(TIMESTAMP).orElseThrow();
+        assertEquals(PENDING, task.getStatus());
+        assertEquals(virtualTaskDto.getId(), task.getId());
+        assertEquals("cgm-future", task.getInput("CGM").orElseThrow().getFilename());
+        assertEquals(1, taskRepository.findAll().size());
+    }
+
+    @Test
+    void virtualTaskIsMaterializedWhenItsStatusIsUpdatedById() {
+        minioHandler.updateTasks(List.of(createInputEvent("CGM", "cgm-future"), createInputEvent("CRAC", "crac-future")));
+        final TaskDto virtualTaskDto = taskDtoBuilderService.getTaskDtoWithoutProcessEvents(TIMESTAMP);
+
+        statusHandler.handleTaskStatusUpdate(new TaskStatusUpdate(virtualTaskDto.getId(), PENDING));
+
+        final Task task = taskRepository.findByTimestamp(TIMESTAMP).orElseThrow();
+        assertEquals(PENDING, task.getStatus());
+        assertEquals(virtualTaskDto.getId(), task.getId());
+    }
+
+    @Test
+    void tasksReachedByTheHorizonBeforeBeingMaterializedAreServedAsVirtualTasks() {
+        final OffsetDateTime tomorrow = OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.DAYS).plusDays(1);
+        processFileRepository.save(new ProcessFile("CSE/D2CC/CGMs/cgm-tomorrow", INPUT_FILE_GROUP_VALUE, "CGM", "documentIdCgm",
+                tomorrow, tomorrow.plusDays(1), OffsetDateTime.now()));
+
+        final TaskDto taskDto = taskDtoBuilderService.getTaskDtoWithoutProcessEvents(tomorrow.plusHours(10));
+
+        assertTrue(taskRepository.findAll().isEmpty());
+        assertTrue(taskDto.getInputs().stream().anyMatch(input -> "cgm-tomorrow".equals(input.getFilename())));
+    }
+
+    @Test
+    void virtualTasksReachedByTheHorizonAreMaterialized() {
+        minioHandler.updateTasks(List.of(createInputEvent("CGM", "cgm-future"), createInputEvent("CRAC", "crac-future")));
+
+        final int materializedTasks = taskService.materializeTasksBetween(DAY_BEYOND_HORIZON, DAY_BEYOND_HORIZON.plusHours(12), timestamp -> true);
+
+        assertEquals(12, materializedTasks);
+        assertEquals(12, taskRepository.findAll().size());
+        assertTrue(taskRepository.findAll().stream().allMatch(task -> task.getStatus() == READY));
+        assertEquals(0, taskService.materializeTasksBetween(DAY_BEYOND_HORIZON, DAY_BEYOND_HORIZON.plusHours(12), timestamp -> true));
+    }
+
+    private Event createInputEvent(String fileType, String filename) {
+        final String validityInterval = DAY_BEYOND_HORIZON + "/" + DAY_BEYOND_HORIZON.plusDays(1);
+        return TaskManagerTestUtil.createEvent("CSE_D2CC", INPUT_FILE_GROUP_VALUE, fileType, "CSE/D2CC/" + fileType + "s/" + filename, validityInterval);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import com.farao_community.farao.gridcapa.task_manager.api.TaskDto;
+import com.farao_community.farao.gridcapa.task_manager.api.TaskStatus;
+import com.farao_community.farao.gridcapa.task_manager.app.entities.OutboxMessage;
+import com.farao_community.farao.gridcapa.task_manager.app.repository.OutboxMessageRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.messaging.Message;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class TaskNotificationOutboxTest {
+
+    @MockitoBean
+    private StreamBridge streamBridge; // Useful to avoid AMQP connection that would fail
+
+    @Autowired
+    private TaskNotificationOutbox taskNotificationOutbox;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void cleanDatabase() {
+        outboxMessageRepository.deleteAll();
+    }
+
+    @Test
+    void sentMessagesAreDeletedFromOutbox() {
+        when(streamBridge.send(anyString(), any())).thenReturn(true);
+        final TaskDto taskDto = createTaskDto(TaskStatus.RUNNING);
+        taskNotificationOutbox.enqueue("task-status-updated", taskDto);
+        taskNotificationOutbox.enqueue("task-input-updated", taskDto);
+
+        assertEquals(2, taskNotificationOutbox.publishPendingMessages());
+
+        @SuppressWarnings("unchecked")
+        final ArgumentCaptor<Message<byte[]>> messageCaptor = ArgumentCaptor.forClass(Message.class);
+        verify(streamBridge).send(eq("task-status-updated"), messageCaptor.capture());
+        final String payload = new String(messageCaptor.getValue().getPayload(), StandardCharsets.UTF_8);
+        assertTrue(payload.contains(taskDto.getId().toString()));
+        assertTrue(payload.contains("\"status\":\"RUNNING\""));
+        verify(streamBridge, times(1)).send(eq("task-input-updated"), any());
+        assertEquals(0, outboxMessageRepository.count());
+    }
+
+    @Test
+    void messagesNotSentAreKeptForNextAttempt() {
+        when(streamBridge.send(anyString(), any())).thenReturn(false);
+        taskNotificationOutbox.enqueue("task-status-updated", createTaskDto(TaskStatus.SUCCESS));
+
+        assertEquals(0, taskNotificationOutbox.publishPendingMessages());
+        assertEquals(1, outboxMessageRepository.count());
+
+        assertEquals(1, meterRegistry.get("task.manager.outbox.pending.messages").gauge().value());
+
+        when(streamBridge.send(anyString(), any())).thenReturn(true);
+        assertEquals(1, taskNotificationOutbox.publishPendingMessages());
+        assertEquals(0, outboxMessageRepository.count());
+        assertEquals(0, meterRegistry.get("task.manager.outbox.pending.messages").gauge().value());
+    }
+
+    @Test
+    void messagesClaimedByAnotherInstanceAreNotSentUntilTheirClaimExpires() {
+        when(streamBridge.send(anyString(), any())).thenReturn(true);
+        taskNotificationOutbox.enqueue("task-status-updated", createTaskDto(TaskStatus.RUNNING));
+        final List<Long> ids = outboxMessageRepository.findAll().stream().map(OutboxMessage::getId).toList();
+        outboxMessageRepository.claimByIdIn(ids, OffsetDateTime.now().plusMinutes(1));
+
+        assertEquals(0, taskNotificationOutbox.publishPendingMessages());
+        verify(streamBridge, never()).send(anyString(), any());
+
+        outboxMessageRepository.claimByIdIn(ids, OffsetDateTime.now().minusMinutes(1));
+        assertEquals(1, taskNotificationOutbox.publishPendingMessages());
+        assertEquals(0, outboxMessageRepository.count());
+    }
+
+    private static TaskDto createTaskDto(final TaskStatus status) {
+        return new TaskDto(UUID.randomUUID(), OffsetDateTime.parse("2021-10-01T21:00Z"), status, List.of(), List.of(), List.of(), List.of(), List.of(), List.of());
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import com.farao_community.farao.gridcapa.task_manager.app.configuration.TaskManagerConfigurationProperties;
+import com.farao_community.farao.gridcapa.task_manager.app.repository.TaskManagerMemberRepository;
+import com.farao_community.farao.gridcapa.task_manager.app.repository.TaskPartitionLeaseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.OffsetDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class TaskPartitionLeaseServiceTest {
+
+    private static final OffsetDateTime NOW = OffsetDateTime.parse("2021-10-02T10:00Z");
+
+    @MockitoBean
+    private StreamBridge streamBridge; // Useful to avoid AMQP connection that would fail
+
+    @Autowired
+    private TaskPartitionLeaseRepository taskPartitionLeaseRepository;
+
+    @Autowired
+    private TaskManagerMemberRepository taskManagerMemberRepository;
+
+    @Autowired
+    private TaskManagerConfigurationProperties taskManagerConfigurationProperties;
+
+    private ApplicationEventPublisher eventPublisher;
+    private TaskPartitionLeaseService instanceA;
+    private TaskPartitionLeaseService instanceB;
+
+    @BeforeEach
+    void setUp() {
+        eventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+        instanceA = createInstance("instance-a");
+        instanceB = createInstance("instance-b");
+    }
+
+    @AfterEach
+    void cleanDatabase() {
+        taskPartitionLeaseRepository.deleteAll();
+        taskManagerMemberRepository.deleteAll();
+    }
+
+    private TaskPartitionLeaseService createInstance(String instanceId) {
+        return new TaskPartitionLeaseService(taskPartitionLeaseRepository, taskManagerMemberRepository, eventPublisher,
+            taskManagerConfigurationProperties, true, instanceId, 4, 30000);
+    }
+
+    @Test
+    void singleInstanceOwnsAllPartitions() {
+        instanceA.updateLeases(NOW);
+
+        assertEquals(Set.of(0, 1, 2, 3), instanceA.getOwnedPartitions());
+        Mockito.verify(eventPublisher).publishEvent(new TaskPartitionsAssigned(Set.of(0, 1, 2, 3)));
+    }
+
+    @Test
+    void partitionsAreSharedWhenAnotherInstanceJoins() {
+        instanceA.updateLeases(NOW);
+        instanceB.updateLeases(NOW.plusSeconds(1));
+        instanceA.updateLeases(NOW.plusSeconds(2));
+        instanceB.updateLeases(NOW.plusSeconds(3));
+
+        assertEquals(2, instanceA.getOwnedPartitions().size());
+        assertEquals(2, instanceB.getOwnedPartitions().size());
+        Set<Integer> allPartitions = new HashSet<>(instanceA.getOwnedPartitions());
+        allPartitions.addAll(instanceB.getOwnedPartitions());
+        assertEquals(Set.of(0, 1, 2, 3), allPartitions);
+    }
+
+    @Test
+    void partitionsOfStoppedInstanceAreTakenOver() {
+        instanceA.updateLeases(NOW);
+        instanceB.updateLeases(NOW.plusSeconds(1));
+        instanceA.updateLeases(NOW.plusSeconds(2));
+        instanceB.updateLeases(NOW.plusSeconds(3));
+
+        // Instance A does not renew its leases anymore
+        instanceB.updateLeases(NOW.plusSeconds(40));
+
+        assertEquals(Set.of(0, 1, 2, 3), instanceB.getOwnedPartitions());
+    }
+
+    @Test
+    void releasedLeasesAreTakenOverWithoutWaitingForExpiry() {
+        instanceA.updateLeases(NOW);
+        instanceB.updateLeases(NOW.plusSeconds(1));
+
+        instanceA.releaseLeases();
+        instanceB.updateLeases(NOW.plusSeconds(2));
+
+        assertTrue(instanceA.getOwnedPartitions().isEmpty());
+        assertEquals(Set.of(0, 1, 2, 3), instanceB.getOwnedPartitions());
+    }
+
+    @Test
+    void periodsCoverThePartitionsOfTheirBusinessDatesInOrder() {
+        OffsetDateTime start = OffsetDateTime.parse("2021-10-01T22:00Z");
+
+        assertEquals(List.of(instanceA.getPartition(start)), instanceA.getPartitions(start, start.plusDays(1)));
+        assertEquals(List.of(instanceA.getPartition(start), instanceA.getPartition(start.plusDays(1)), instanceA.getPartition(start.plusDays(2))),
+            instanceA.getPartitions(start, start.plusDays(3)));
+        assertEquals(4, instanceA.getPartitions(start, start.plusYears(1)).size());
+    }
+
+    @Test
+    void timestampsOfSameBusinessDateBelongToSamePartition() {
+        int partition = instanceA.getPartition(OffsetDateTime.parse("2021-10-01T22:30Z"));
+
+        assertEquals(partition, instanceA.getPartition(OffsetDateTime.parse("2021-10-02T10:30Z")));
+        assertEquals(partition, instanceA.getPartition(OffsetDateTime.parse("2021-10-02T21:30Z")));
+        assertNotEquals(partition, instanceA.getPartition(OffsetDateTime.parse("2021-10-02T22:30Z")));
+    }
+}
@@ -17,6 +17,7 @@ import com.farao_community.farao.gridcapa.task_manager.app.TaskUpdateNotifier;
 import com.farao_community.farao.gridcapa.task_manager.app.entities.FileEventType;
 import com.farao_community.farao.gridcapa.task_manager.app.entities.ProcessEvent;
 import com.farao_community.farao.gridcapa.task_manager.app.entities.ProcessFile;
+import com.farao_community.farao.gridcapa.task_manager.app.entities.ProcessFileMinio;
 import com.farao_community.farao.gridcapa.task_manager.app.entities.ProcessRun;
 import com.farao_community.farao.gridcapa.task_manager.app.entities.Task;
 import com.farao_community.farao.gridcapa.task_manager.app.entities.TaskWithStatusUpdate;
@@ -343,6 +344,57 @@ class TaskServiceTest {
         Assertions.assertThat(task03.getOutput("CNE")).contains(processFile);
     }
 
+    @Test
+    void addProcessFilesToTasksLoadsTasksOnceAndUpdatesStatusOnce() {
+        OffsetDateTime timestamp01 = OffsetDateTime.parse("2021-10-11T01:00Z");
+        OffsetDateTime timestamp02 = OffsetDateTime.parse("2021-10-11T02:00Z");
+        OffsetDateTime timestamp03 = OffsetDateTime.parse("2021-10-11T03:00Z");
+        ProcessFile processFileCgm = new ProcessFile("path/to/cgm-file.xml", "input", "CGM", "documentIdCgm", timestamp01, timestamp02, OffsetDateTime.parse("2021-10-11T00:18Z"));
+        ProcessFile processFileCrac = new ProcessFile("path/to/crac-file.xml", "input", "CRAC", "documentIdCrac", timestamp01, timestamp03, OffsetDateTime.parse("2021-10-11T00:18Z"));
+        ProcessFile processFileCne = new ProcessFile("path/to/cne-file.xml", "output", "CNE", null, timestamp01, timestamp03, OffsetDateTime.parse("2021-10-11T00:18Z"));
+        Task task01 = new Task(timestamp01);
+        when(taskRepository.findAllByTimestampBetween(timestamp01, timestamp03)).thenReturn(Set.of(task01));
+
+        Set<TaskWithStatusUpdate> result = taskService.addProcessFilesToTasks(List.of(
+                new ProcessFileMinio(processFileCgm, FileEventType.AVAILABLE),
+                new ProcessFileMinio(processFileCrac, FileEventType.AVAILABLE),
+                new ProcessFileMinio(processFileCne, FileEventType.AVAILABLE)));
+
+        verify(taskRepository, times(1)).findAllByTimestampBetween(any(), any());
+        assertEquals(2, result.size());
+        TaskWithStatusUpdate existingTask = result.stream().filter(t -> t.getTask().getTimestamp().equals(timestamp01)).findFirst().orElseThrow();
+        assertEquals(TaskStatus.READY, existingTask.getTask().getStatus());
+        assertTrue(existingTask.isStatusUpdated());
+        Assertions.assertThat(existingTask.getTask().getInput("CGM")).contains(processFileCgm);
+        Assertions.assertThat(existingTask.getTask().getInput("CRAC")).contains(processFileCrac);
+        Assertions.assertThat(existingTask.getTask().getOutput("CNE")).contains(processFileCne);
+        TaskWithStatusUpdate newTask = result.stream().filter(t -> t.getTask().getTimestamp().equals(timestamp02)).findFirst().orElseThrow();
+        assertEquals(TaskStatus.CREATED, newTask.getTask().getStatus());
+        assertTrue(newTask.isStatusUpdated());
+        Assertions.assertThat(newTask.getTask().getInput("CGM")).isEmpty();
+        Assertions.assertThat(newTask.getTask().getInput("CRAC")).contains(processFileCrac);
+    }
+
+    @Test
+    void addProcessFilesToTasksOnlyLoadsTasksOfFilesValidityPeriods() {
+        OffsetDateTime timestamp01 = OffsetDateTime.parse("2021-10-11T01:00Z");
+        OffsetDateTime timestamp03 = OffsetDateTime.parse("2021-10-11T03:00Z");
+        OffsetDateTime timestamp20 = OffsetDateTime.parse("2021-10-11T20:00Z");
+        OffsetDateTime timestamp22 = OffsetDateTime.parse("2021-10-11T22:00Z");
+        ProcessFile processFileCne = new ProcessFile("path/to/cne-file.xml", "output", "CNE", null, timestamp01, timestamp03, OffsetDateTime.parse("2021-10-11T00:18Z"));
+        ProcessFile otherProcessFileCne = new ProcessFile("path/to/other-cne-file.xml", "output", "CNE", null, timestamp20, timestamp22, OffsetDateTime.parse("2021-10-11T00:18Z"));
+        when(taskRepository.findAllByTimestampBetween(any(), any())).thenReturn(Set.of());
+
+        Set<TaskWithStatusUpdate> result = taskService.addProcessFilesToTasks(List.of(
+                new ProcessFileMinio(processFileCne, FileEventType.AVAILABLE),
+                new ProcessFileMinio(otherProcessFileCne, FileEventType.AVAILABLE)));
+
+        verify(taskRepository, times(1)).findAllByTimestampBetween(timestamp01, timestamp03);
+        verify(taskRepository, times(1)).findAllByTimestampBetween(timestamp20, timestamp22);
+        verify(taskRepository, times(2)).findAllByTimestampBetween(any(), any());
+        assertEquals(4, result.size());
+    }
+
     @Test
     void addProcessFileToTasksWithInputFileAndNoStatusUpdate() {
         OffsetDateTime timestamp01 = OffsetDateTime.parse("2021-10-11T01:00Z");
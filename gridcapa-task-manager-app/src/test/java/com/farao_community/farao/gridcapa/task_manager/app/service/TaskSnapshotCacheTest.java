@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import com.farao_community.farao.gridcapa.task_manager.api.TaskDto;
+import com.farao_community.farao.gridcapa.task_manager.api.TaskStatus;
+import com.farao_community.farao.gridcapa.task_manager.app.TaskUpdateNotifier;
+import com.farao_community.farao.gridcapa.task_manager.app.entities.Task;
+import com.farao_community.farao.gridcapa.task_manager.app.repository.TaskRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class TaskSnapshotCacheTest {
+
+    @MockitoBean
+    private StreamBridge streamBridge; // Useful to avoid AMQP connection that would fail
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskUpdateNotifier taskUpdateNotifier;
+
+    @Autowired
+    private TaskDtoBuilderService taskDtoBuilderService;
+
+    @Autowired
+    private TaskSnapshotCache taskSnapshotCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AfterEach
+    void cleanDatabase() {
+        taskRepository.deleteAll();
+        taskSnapshotCache.clear();
+    }
+
+    @Test
+    void notifiedDtoIsKeptUntilTaskChanges() {
+        Task task = taskRepository.save(new Task(OffsetDateTime.parse("2021-10-01T21:00Z")));
+        taskUpdateNotifier.notify(task, true, false);
+        assertEquals(TaskStatus.CREATED, taskSnapshotCache.get(task.getId()).orElseThrow().getStatus());
+
+        task.setStatus(TaskStatus.READY);
+        taskRepository.save(task);
+
+        assertTrue(taskSnapshotCache.get(task.getId()).isEmpty());
+    }
+
+    @Test
+    void statusUpdateIsOnlyNotifiedFromSnapshotOfPreviousVersion() {
+        Task task = taskRepository.save(new Task(OffsetDateTime.parse("2021-10-01T21:00Z")));
+        taskUpdateNotifier.notify(task, true, false);
+
+        assertTrue(taskUpdateNotifier.notifyStatusUpdate(task.getId(), TaskStatus.READY, task.getVersion() + 2).isEmpty());
+        assertEquals(TaskStatus.READY, taskUpdateNotifier.notifyStatusUpdate(task.getId(), TaskStatus.READY, task.getVersion() + 1).orElseThrow().getStatus());
+        assertEquals(TaskStatus.READY, taskSnapshotCache.get(task.getId(), task.getVersion() + 1).orElseThrow().getStatus());
+    }
+
+    @Test
+    void taskNobodyFollowsIsNotRenderedWhenNotifiedWithoutStatusUpdate() {
+        Task task = taskRepository.save(new Task(OffsetDateTime.parse("2021-10-01T21:00Z")));
+        taskUpdateNotifier.notify(task, false, false);
+
+        assertTrue(taskSnapshotCache.get(task.getId()).isEmpty());
+    }
+
+    @Test
+    void taskReadAgainWithSameVersionIsRenderedFromItsSnapshot() {
+        OffsetDateTime timestamp = OffsetDateTime.parse("2021-10-01T21:00Z");
+        taskRepository.save(new Task(timestamp));
+
+        TaskDto firstDto = taskDtoBuilderService.getTaskDtoWithoutProcessEvents(timestamp);
+        TaskDto secondDto = taskDtoBuilderService.getTaskDtoWithoutProcessEvents(timestamp);
+        assertSame(firstDto, secondDto);
+
+        Task task = taskRepository.findByTimestamp(timestamp).orElseThrow();
+        taskRepository.compareAndSetStatus(task.getId(), TaskStatus.CREATED, TaskStatus.READY);
+        assertEquals(TaskStatus.READY, taskDtoBuilderService.getTaskDtoWithoutProcessEvents(timestamp).getStatus());
+    }
+
+    @Test
+    void snapshotIsSerializedAsItsJson() throws Exception {
+        TaskDto taskDto = TaskDto.emptyTask(OffsetDateTime.parse("2021-10-01T21:00Z"), List.of("CGM"), List.of("CNE"));
+
+        SerializedTaskDto snapshot = taskSnapshotCache.put(taskDto, 0L);
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(taskDto), snapshot.getJson());
+        assertEquals(objectMapper.writeValueAsString(List.of(taskDto)), objectMapper.writeValueAsString(List.of(snapshot)));
+        assertEquals(taskDto.getId(), objectMapper.readValue(new String(snapshot.getJson(), StandardCharsets.UTF_8), TaskDto.class).getId());
+    }
+
+    @Test
+    void leastRecentlyUsedSnapshotsAreEvicted() {
+        TaskSnapshotCache boundedCache = new TaskSnapshotCache(objectMapper, 1);
+        TaskDto taskDto1 = TaskDto.emptyTask(OffsetDateTime.parse("2021-10-01T21:00Z"), List.of(), List.of());
+        TaskDto taskDto2 = TaskDto.emptyTask(OffsetDateTime.parse("2021-10-01T22:00Z"), List.of(), List.of());
+
+        boundedCache.put(taskDto1, 0L);
+        SerializedTaskDto snapshot2 = boundedCache.put(taskDto2, 0L);
+
+        assertTrue(boundedCache.get(taskDto1.getId()).isEmpty());
+        assertEquals(snapshot2, boundedCache.get(taskDto2.getId(), 0L).orElseThrow());
+        assertTrue(boundedCache.get(taskDto2.getId(), 1L).isEmpty());
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TaskUpdateRetrierTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TaskUpdateRetrier taskUpdateRetrier;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        taskUpdateRetrier = new TaskUpdateRetrier(meterRegistry, 3, 1, 2);
+    }
+
+    @Test
+    void conflictingOperationIsRunAgain() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = taskUpdateRetrier.callWithRetry("test-operation", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("Task modified concurrently");
+            }
+            return "done";
+        });
+
+        assertEquals("done", result);
+        assertEquals(3, attempts.get());
+        assertEquals(2, meterRegistry.get("task.manager.task.update.conflicts").tag("operation", "test-operation").counter().count());
+        assertEquals(0, meterRegistry.find("task.manager.task.update.retries.exhausted").counters().size());
+    }
+
+    @Test
+    void conflictIsThrownAfterLastAttempt() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(OptimisticLockingFailureException.class, () -> taskUpdateRetrier.runWithRetry("test-operation", () -> {
+            attempts.incrementAndGet();
+            throw new OptimisticLockingFailureException("Task modified concurrently");
+        }));
+
+        assertEquals(3, attempts.get());
+        assertEquals(3, meterRegistry.get("task.manager.task.update.conflicts").tag("operation", "test-operation").counter().count());
+        assertEquals(1, meterRegistry.get("task.manager.task.update.retries.exhausted").tag("operation", "test-operation").counter().count());
+    }
+
+    @Test
+    void otherFailuresAreNotRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> taskUpdateRetrier.runWithRetry("test-operation", () -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("Not a conflict");
+        }));
+
+        assertEquals(1, attempts.get());
+    }
+}
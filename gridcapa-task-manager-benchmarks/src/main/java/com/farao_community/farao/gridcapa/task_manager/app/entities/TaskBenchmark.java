@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.entities;
+
+import com.farao_community.farao.gridcapa.task_manager.benchmarks.SyntheticData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Each invocation adds then removes the same files, so that the task keeps the same content between invocations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskBenchmark {
+
+    @Param({"1", "10", "50"})
+    private int versionsPerInput;
+
+    private Task task;
+    private ProcessFile newInputVersion;
+    private ProcessFile newOutput;
+
+    @Setup
+    public void setUp() {
+        task = SyntheticData.task(SyntheticData.BUSINESS_DAY_START, versionsPerInput, 0);
+        newInputVersion = SyntheticData.inputFile("CGM", SyntheticData.BUSINESS_DAY_START, versionsPerInput);
+        newOutput = SyntheticData.outputFile("EXTRA_OUTPUT", SyntheticData.BUSINESS_DAY_START);
+    }
+
+    @Benchmark
+    public FileRemovalStatus addAndRemoveInputFile() {
+        task.addProcessFile(newInputVersion);
+        return task.removeProcessFile(newInputVersion);
+    }
+
+    @Benchmark
+    public FileRemovalStatus addAndRemoveOutputFile() {
+        task.addProcessFile(newOutput);
+        return task.removeProcessFile(newOutput);
+    }
+}
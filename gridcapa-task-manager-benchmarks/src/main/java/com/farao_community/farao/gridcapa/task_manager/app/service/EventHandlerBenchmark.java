@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import com.farao_community.farao.gridcapa.task_manager.api.TaskLogEventUpdate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventHandlerBenchmark {
+
+    @Param({"10", "500"})
+    private int messagesPerBatch;
+
+    private EventHandler eventHandler;
+    private List<byte[]> messages;
+
+    @Setup
+    public void setUp() {
+        // Only the mapping of messages is measured, collaborators are not needed
+        eventHandler = new EventHandler(null, null, null, null, null, null, new SimpleMeterRegistry());
+        final String taskId = UUID.randomUUID().toString();
+        final OffsetDateTime start = OffsetDateTime.parse("2026-03-11T10:00Z");
+        messages = IntStream.range(0, messagesPerBatch)
+            .mapToObj(i -> String.format("""
+                {
+                  "gridcapa-task-id": "%s",
+                  "timestamp": "%s",
+                  "level": "INFO",
+                  "message": "Synthetic log event number %d emitted while computing the capacity of the timestamp",
+                  "serviceName": "rao-runner-app",
+                  "eventPrefix": "STEP-%d"
+                }""", taskId, start.plusSeconds(i), i, i % 5).getBytes(StandardCharsets.UTF_8))
+            .toList();
+    }
+
+    @Benchmark
+    public List<TaskLogEventUpdate> mapMessagesToListEvents() {
+        return eventHandler.mapMessagesToListEvents(messages);
+    }
+}
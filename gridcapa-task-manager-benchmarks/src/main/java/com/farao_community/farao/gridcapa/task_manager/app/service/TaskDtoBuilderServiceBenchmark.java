@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import com.farao_community.farao.gridcapa.task_manager.api.TaskDto;
+import com.farao_community.farao.gridcapa.task_manager.app.configuration.RunnerParameters;
+import com.farao_community.farao.gridcapa.task_manager.app.entities.Task;
+import com.farao_community.farao.gridcapa.task_manager.app.repository.ParameterRepository;
+import com.farao_community.farao.gridcapa.task_manager.app.repository.ProcessEventRepository;
+import com.farao_community.farao.gridcapa.task_manager.app.repository.ProcessFileRepository;
+import com.farao_community.farao.gridcapa.task_manager.app.repository.TaskFileSelectionRepository;
+import com.farao_community.farao.gridcapa.task_manager.app.repository.TaskRepository;
+import com.farao_community.farao.gridcapa.task_manager.benchmarks.RepositoryStubs;
+import com.farao_community.farao.gridcapa.task_manager.benchmarks.SyntheticData;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskDtoBuilderServiceBenchmark {
+
+    @Param({"100", "5000"})
+    private int eventsPerTask;
+
+    private TaskDtoBuilderService taskDtoBuilderService;
+    private ObjectMapper objectMapper;
+    private Task task;
+    private TaskDto taskDto;
+    private TaskDto taskSnapshot;
+
+    @Setup
+    public void setUp() {
+        final TaskChangeTracker taskChangeTracker = new TaskChangeTracker(SyntheticData.properties());
+        final ParameterService parameterService = new ParameterService(RepositoryStubs.stub(ParameterRepository.class), new RunnerParameters(), taskChangeTracker);
+        final ProcessFileIntervalResolver processFileIntervalResolver = new ProcessFileIntervalResolver(false,
+            RepositoryStubs.stub(ProcessFileRepository.class), RepositoryStubs.stub(TaskFileSelectionRepository.class));
+        objectMapper = JsonMapper.builder().findAndAddModules().build();
+        final TaskSnapshotCache taskSnapshotCache = new TaskSnapshotCache(objectMapper, 1);
+        final TaskService taskService = new TaskService(SyntheticData.properties(), RepositoryStubs.stub(TaskRepository.class), RepositoryStubs.stub(ProcessEventRepository.class),
+            RepositoryStubs.stub(ProcessFileRepository.class), processFileIntervalResolver, new TaskMaterializationHorizon(false, 0), taskSnapshotCache, taskChangeTracker);
+        taskDtoBuilderService = new TaskDtoBuilderService(SyntheticData.properties(), RepositoryStubs.stub(TaskRepository.class), parameterService, processFileIntervalResolver, taskService, taskSnapshotCache, new SimpleMeterRegistry());
+        task = SyntheticData.task(SyntheticData.BUSINESS_DAY_START, 5, eventsPerTask);
+        taskDto = taskDtoBuilderService.createDtoFromEntityWithoutProcessEvents(task);
+        taskSnapshot = taskSnapshotCache.put(taskDto, 0L);
+    }
+
+    @Benchmark
+    public TaskDto createDtoFromEntity() {
+        return taskDtoBuilderService.createDtoFromEntity(task);
+    }
+
+    @Benchmark
+    public TaskDto createDtoFromEntityWithoutProcessEvents() {
+        return taskDtoBuilderService.createDtoFromEntityWithoutProcessEvents(task);
+    }
+
+    @Benchmark
+    public byte[] serializeTaskDto() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(taskDto);
+    }
+
+    @Benchmark
+    public byte[] serializeTaskSnapshot() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(taskSnapshot);
+    }
+}
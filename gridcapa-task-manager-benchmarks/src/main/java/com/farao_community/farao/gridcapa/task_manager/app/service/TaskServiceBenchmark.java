@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.app.service;
+
+import com.farao_community.farao.gridcapa.task_manager.app.entities.FileEventType;
+import com.farao_community.farao.gridcapa.task_manager.app.entities.ProcessFile;
+import com.farao_community.farao.gridcapa.task_manager.app.entities.Task;
+import com.farao_community.farao.gridcapa.task_manager.app.entities.TaskWithStatusUpdate;
+import com.farao_community.farao.gridcapa.task_manager.app.repository.ProcessEventRepository;
+import com.farao_community.farao.gridcapa.task_manager.app.repository.ProcessFileRepository;
+import com.farao_community.farao.gridcapa.task_manager.app.repository.TaskFileSelectionRepository;
+import com.farao_community.farao.gridcapa.task_manager.app.repository.TaskRepository;
+import com.farao_community.farao.gridcapa.task_manager.benchmarks.RepositoryStubs;
+import com.farao_community.farao.gridcapa.task_manager.benchmarks.SyntheticData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskServiceBenchmark {
+
+    @Param({"1", "10"})
+    private int versionsPerInput;
+
+    private TaskService taskService;
+    private List<Task> tasks;
+    private ProcessFile dailyCrac;
+
+    @Setup
+    public void setUp() {
+        tasks = SyntheticData.businessDayTasks(versionsPerInput, 0);
+        final Set<Task> businessDayTasks = new HashSet<>(tasks);
+        final TaskRepository taskRepository = RepositoryStubs.stub(TaskRepository.class,
+            Map.of("findAllByTimestampBetween", args -> businessDayTasks));
+        final ProcessFileIntervalResolver processFileIntervalResolver = new ProcessFileIntervalResolver(false,
+            RepositoryStubs.stub(ProcessFileRepository.class), RepositoryStubs.stub(TaskFileSelectionRepository.class));
+        taskService = new TaskService(SyntheticData.properties(), taskRepository, RepositoryStubs.stub(ProcessEventRepository.class),
+            RepositoryStubs.stub(ProcessFileRepository.class), processFileIntervalResolver, new TaskMaterializationHorizon(false, 0), new TaskSnapshotCache(new ObjectMapper(), 0),
+            new TaskChangeTracker(SyntheticData.properties()));
+        dailyCrac = SyntheticData.dailyInputFile("CRAC", "daily-crac.json");
+    }
+
+    @Benchmark
+    public Set<TaskWithStatusUpdate> addDailyInputFileToTasks() {
+        return taskService.addProcessFileToTasks(dailyCrac, FileEventType.UPDATED, true, true);
+    }
+
+    @Benchmark
+    public boolean checkAndUpdateTaskStatus() {
+        boolean statusUpdated = false;
+        for (Task task : tasks) {
+            statusUpdated |= taskService.checkAndUpdateTaskStatus(task, true);
+        }
+        return statusUpdated;
+    }
+}
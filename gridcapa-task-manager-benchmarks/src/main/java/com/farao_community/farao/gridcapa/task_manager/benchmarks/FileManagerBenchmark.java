@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.benchmarks;
+
+import com.farao_community.farao.gridcapa.task_manager.app.FileManager;
+import com.farao_community.farao.gridcapa.task_manager.app.entities.Task;
+import com.farao_community.farao.gridcapa.task_manager.app.repository.TaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the creation of the log archives, files stored in MinIO being out of scope.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileManagerBenchmark {
+
+    @Param({"1000", "20000"})
+    private int eventsPerTask;
+
+    private FileManager fileManager;
+    private Task task;
+
+    @Setup
+    public void setUp() {
+        task = SyntheticData.task(SyntheticData.BUSINESS_DAY_START, 1, eventsPerTask);
+        final TaskRepository taskRepository = RepositoryStubs.stub(TaskRepository.class,
+            Map.of("findByTimestampAndFetchProcessEvents", args -> Optional.of(task)));
+        fileManager = new FileManager(taskRepository, SyntheticData.properties(), LoggerFactory.getLogger(FileManagerBenchmark.class), null, new SimpleMeterRegistry(), new MultipartProperties(), 1);
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream zipLogs() throws IOException {
+        return fileManager.getLogs(task.getTimestamp());
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream zipRaoRunnerAppLogs() throws IOException {
+        return fileManager.getRaoRunnerAppLogs(task.getTimestamp());
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * In-memory stand-ins for Spring Data repositories, so that benchmarks measure the service code only.
+ * Save methods return their argument, other methods return the configured answer or an empty result.
+ */
+public final class RepositoryStubs {
+
+    private RepositoryStubs() {
+        throw new AssertionError("Utility class should not be constructed");
+    }
+
+    public static <T> T stub(Class<T> repositoryClass) {
+        return stub(repositoryClass, Map.of());
+    }
+
+    public static <T> T stub(Class<T> repositoryClass, Map<String, Function<Object[], Object>> answers) {
+        return repositoryClass.cast(Proxy.newProxyInstance(
+            repositoryClass.getClassLoader(),
+            new Class<?>[]{repositoryClass},
+            (proxy, method, args) -> {
+                final Function<Object[], Object> answer = answers.get(method.getName());
+                if (answer != null) {
+                    return answer.apply(args);
+                }
+                return switch (method.getName()) {
+                    case "save", "saveAndFlush", "saveAll", "saveAllAndFlush" -> args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> repositoryClass.getSimpleName() + "Stub";
+                    default -> emptyResult(method.getReturnType());
+                };
+            }));
+    }
+
+    private static Object emptyResult(Class<?> returnType) {
+        if (Optional.class.equals(returnType)) {
+            return Optional.empty();
+        } else if (Set.class.isAssignableFrom(returnType)) {
+            return Set.of();
+        } else if (List.class.isAssignableFrom(returnType) || Collection.class.equals(returnType)) {
+            return List.of();
+        } else if (long.class.equals(returnType)) {
+            return 0L;
+        } else if (boolean.class.equals(returnType)) {
+            return false;
+        }
+        return null;
+    }
+}
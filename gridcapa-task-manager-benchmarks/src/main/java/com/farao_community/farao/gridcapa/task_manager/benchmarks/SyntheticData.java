@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.benchmarks;
+
+import com.farao_community.farao.gridcapa.task_manager.app.configuration.TaskManagerConfigurationProperties;
+import com.farao_community.farao.gridcapa.task_manager.app.entities.ProcessEvent;
+import com.farao_community.farao.gridcapa.task_manager.app.entities.ProcessFile;
+import com.farao_community.farao.gridcapa.task_manager.app.entities.ProcessRun;
+import com.farao_community.farao.gridcapa.task_manager.app.entities.Task;
+import com.farao_community.farao.minio_adapter.starter.MinioAdapterConstants;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Builds tasks looking like the ones of a production business day: one task per hour, each with
+ * several versions of every input, outputs, a few runs and many log events.
+ */
+public final class SyntheticData {
+    public static final OffsetDateTime BUSINESS_DAY_START = OffsetDateTime.parse("2026-03-10T23:00Z");
+    public static final List<String> INPUTS = List.of("CGM", "CRAC", "GLSK", "NTC", "REFPROG", "VULCANUS");
+    public static final List<String> OUTPUTS = List.of("TTC", "CNE", "FINAL_CGM");
+    private static final String INPUT_GROUP = MinioAdapterConstants.DEFAULT_GRIDCAPA_INPUT_GROUP_METADATA_VALUE;
+    private static final String OUTPUT_GROUP = MinioAdapterConstants.DEFAULT_GRIDCAPA_OUTPUT_GROUP_METADATA_VALUE;
+    private static final String[] LEVELS = {"INFO", "INFO", "INFO", "WARN", "ERROR"};
+    private static final String[] SERVICES = {"rao-runner-app", "gridcapa-cse-d2cc", "task-manager"};
+
+    private SyntheticData() {
+        throw new AssertionError("Utility class should not be constructed");
+    }
+
+    public static TaskManagerConfigurationProperties properties() {
+        return new TaskManagerConfigurationProperties(
+            new TaskManagerConfigurationProperties.ProcessProperties("CSE_D2CC", "CET", INPUTS, List.of(), List.of(), OUTPUTS, true, true, "cse/d2cc"),
+            List.of("http://localhost:9000"));
+    }
+
+    public static List<Task> businessDayTasks(int versionsPerInput, int eventsPerTask) {
+        return IntStream.range(0, 24)
+            .mapToObj(hour -> task(BUSINESS_DAY_START.plusHours(hour), versionsPerInput, eventsPerTask))
+            .toList();
+    }
+
+    public static Task task(OffsetDateTime timestamp, int versionsPerInput, int eventsPerTask) {
+        final Task task = new Task(timestamp);
+        final List<ProcessFile> selectedInputs = new ArrayList<>();
+        for (String input : INPUTS) {
+            for (int version = 0; version < versionsPerInput; version++) {
+                final ProcessFile processFile = inputFile(input, timestamp, version);
+                task.addProcessFile(processFile);
+                if (version == 0) {
+                    selectedInputs.add(processFile);
+                }
+            }
+        }
+        OUTPUTS.forEach(output -> task.addProcessFile(outputFile(output, timestamp)));
+        task.addProcessRun(new ProcessRun(selectedInputs));
+        for (int i = 0; i < eventsPerTask; i++) {
+            task.getProcessEvents().add(new ProcessEvent(task,
+                timestamp.plusSeconds(i),
+                LEVELS[i % LEVELS.length],
+                "Synthetic log event number " + i + " emitted while computing the capacity of the timestamp",
+                SERVICES[i % SERVICES.length]));
+        }
+        return task;
+    }
+
+    public static ProcessFile inputFile(String fileType, OffsetDateTime timestamp, int version) {
+        return new ProcessFile(
+            String.format("CSE/D2CC/%s/%s_%s_v%d.xml", fileType, fileType, timestamp, version),
+            INPUT_GROUP,
+            fileType,
+            "document-" + version,
+            timestamp,
+            timestamp.plusHours(1),
+            timestamp.minusHours(12).plusMinutes(version));
+    }
+
+    public static ProcessFile dailyInputFile(String fileType, String fileName) {
+        return new ProcessFile(
+            "CSE/D2CC/" + fileType + "/" + fileName,
+            INPUT_GROUP,
+            fileType,
+            "daily-document",
+            BUSINESS_DAY_START,
+            BUSINESS_DAY_START.plusDays(1),
+            BUSINESS_DAY_START.minusHours(12));
+    }
+
+    public static ProcessFile outputFile(String fileType, OffsetDateTime timestamp) {
+        return new ProcessFile(
+            String.format("CSE/D2CC/OUTPUTS/%s_%s.xml", fileType, timestamp),
+            OUTPUT_GROUP,
+            fileType,
+            null,
+            timestamp,
+            timestamp.plusHours(1),
+            timestamp.plusHours(2));
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.benchmarks.loadtest;
+
+import com.farao_community.farao.gridcapa.task_manager.api.TaskStatus;
+import com.farao_community.farao.gridcapa.task_manager.api.TaskStatusUpdate;
+import com.farao_community.farao.gridcapa.task_manager.app.entities.Task;
+import com.farao_community.farao.gridcapa.task_manager.app.repository.TaskRepository;
+import com.farao_community.farao.gridcapa.task_manager.app.service.MinioHandler;
+import com.farao_community.farao.gridcapa.task_manager.benchmarks.SyntheticData;
+import com.farao_community.farao.minio_adapter.starter.MinioAdapterConstants;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.minio.messages.NotificationRecords;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.stream.binder.test.OutputDestination;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import reactor.core.publisher.Sinks;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Replays the scenarios against a running task manager. Messages are pushed into the consumer beans
+ * through in-process sinks standing for the broker bindings, and the replay of a scenario is over
+ * once the consumer pipeline has handled every received message.
+ */
+final class LoadTestDriver {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadTestDriver.class);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final String CONSUMER_TAG = "consumer";
+    private static final String INPUT_GROUP = MinioAdapterConstants.DEFAULT_GRIDCAPA_INPUT_GROUP_METADATA_VALUE;
+    private static final OffsetDateTime START = SyntheticData.BUSINESS_DAY_START;
+    private static final TaskStatus[] FLAPPING_STATUSES = {TaskStatus.RUNNING, TaskStatus.SUCCESS, TaskStatus.RUNNING, TaskStatus.ERROR};
+    private static final String[] LEVELS = {"INFO", "INFO", "INFO", "WARN", "ERROR"};
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(200);
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final TaskRepository taskRepository;
+    private final Statistics statistics;
+    private final OutputDestination outputDestination;
+    private final String processTag;
+    private final Duration quietPeriod;
+    private final Duration drainTimeout;
+    private final Sinks.Many<NotificationRecords> minioEvents = Sinks.many().unicast().onBackpressureBuffer();
+    private final Sinks.Many<TaskStatusUpdate> statusUpdates = Sinks.many().unicast().onBackpressureBuffer();
+    private final Sinks.Many<Message<List<byte[]>>> eventUpdates = Sinks.many().unicast().onBackpressureBuffer();
+
+    LoadTestDriver(final ConfigurableApplicationContext context) {
+        this.environment = context.getEnvironment();
+        this.meterRegistry = context.getBean(MeterRegistry.class);
+        this.taskRepository = context.getBean(TaskRepository.class);
+        this.statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        this.outputDestination = context.getBean(OutputDestination.class);
+        this.processTag = environment.getRequiredProperty("task-server.process.tag");
+        // Events may stay in the MinIO coalescing window before reaching the pipeline
+        this.quietPeriod = Duration.ofMillis(Math.max(environment.getRequiredProperty("minio-event.coalescing-window-ms", Long.class), 0) + 500);
+        this.drainTimeout = Duration.ofSeconds(environment.getRequiredProperty("loadtest.drain-timeout-s", Long.class));
+        bind(context, "consumeMinioEvent", minioEvents);
+        bind(context, "consumeTaskStatusUpdate", statusUpdates);
+        bind(context, "consumeTaskEventUpdate", eventUpdates);
+    }
+
+    List<LoadTestScenario> getScenarios() {
+        return Arrays.asList(environment.getRequiredProperty("loadtest.scenarios", LoadTestScenario[].class));
+    }
+
+    ScenarioReport run(final LoadTestScenario scenario) {
+        final List<UUID> businessDayTasks = scenario == LoadTestScenario.YEAR_LONG_FILES ? List.of() : getBusinessDayTasks();
+        LOGGER.info("Replaying scenario {}", scenario);
+        statistics.clear();
+        final long allocatedBytesBefore = THREAD_MX_BEAN.getTotalThreadAllocatedBytes();
+        final long gcCountBefore = getGcCount();
+        final long gcTimeBefore = getGcTimeMs();
+        final long start = System.nanoTime();
+
+        final int events = switch (scenario) {
+            case YEAR_LONG_FILES -> replayYearLongFiles();
+            case LOG_STORM -> replayLogStorm(businessDayTasks);
+            case STATUS_FLAPPING -> replayStatusFlapping(businessDayTasks);
+        };
+        awaitDrained(scenario.getConsumerName());
+
+        final long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        final HistogramSnapshot latencies = meterRegistry.get("task.manager.consumer.handling")
+            .tag(CONSUMER_TAG, scenario.getConsumerName())
+            .timer()
+            .takeSnapshot();
+        final ScenarioReport report = new ScenarioReport(scenario,
+            events,
+            durationMs,
+            getPercentileMs(latencies, 0.5),
+            getPercentileMs(latencies, 0.99),
+            (double) statistics.getPrepareStatementCount() / events,
+            (THREAD_MX_BEAN.getTotalThreadAllocatedBytes() - allocatedBytesBefore) / events,
+            getGcCount() - gcCountBefore,
+            getGcTimeMs() - gcTimeBefore);
+        // Notifications are only kept by the test binder to be inspected, they are not needed here
+        outputDestination.clear();
+        return report;
+    }
+
+    private int replayYearLongFiles() {
+        final int files = environment.getRequiredProperty("loadtest.year-long-files.count", Integer.class);
+        final String validityInterval = START + "/" + START.plusYears(1);
+        for (int i = 0; i < files; i++) {
+            final String fileType = SyntheticData.INPUTS.get(i % SyntheticData.INPUTS.size());
+            emit(minioEvents, fileCreation(fileType, String.format("CSE/D2CC/YEARLY/%s_%d.xml", fileType, i), validityInterval));
+        }
+        return files;
+    }
+
+    private int replayLogStorm(final List<UUID> taskIds) {
+        final int batches = environment.getRequiredProperty("loadtest.log-storm.batches", Integer.class);
+        final int batchSize = environment.getRequiredProperty("loadtest.log-storm.batch-size", Integer.class);
+        for (int batch = 0; batch < batches; batch++) {
+            final byte[][] messages = new byte[batchSize][];
+            for (int i = 0; i < batchSize; i++) {
+                final int eventNumber = batch * batchSize + i;
+                messages[i] = logEvent(taskIds.get(eventNumber % taskIds.size()), LEVELS[eventNumber % LEVELS.length],
+                    "Synthetic log event number " + eventNumber + " emitted while computing the capacity of the timestamp");
+            }
+            emit(eventUpdates, MessageBuilder.withPayload(List.of(messages)).build());
+        }
+        return batches * batchSize;
+    }
+
+    private int replayStatusFlapping(final List<UUID> taskIds) {
+        final int updates = environment.getRequiredProperty("loadtest.status-flapping.updates", Integer.class);
+        for (int i = 0; i < updates; i++) {
+            final TaskStatus status = FLAPPING_STATUSES[(i / taskIds.size()) % FLAPPING_STATUSES.length];
+            emit(statusUpdates, new TaskStatusUpdate(taskIds.get(i % taskIds.size()), status));
+        }
+        return updates;
+    }
+
+    /**
+     * Tasks targeted by log and status scenarios. When the database is empty, a daily input file is
+     * replayed first so that the tasks of the business day exist, outside of any measurement.
+     */
+    private List<UUID> getBusinessDayTasks() {
+        return loadBusinessDayTasks().stream().map(Task::getId).toList();
+    }
+
+    /**
+     * Timestamps of the tasks requested by the REST concurrency benchmark.
+     */
+    List<OffsetDateTime> getBusinessDayTimestamps() {
+        return loadBusinessDayTasks().stream().map(Task::getTimestamp).toList();
+    }
+
+    private List<Task> loadBusinessDayTasks() {
+        final OffsetDateTime end = START.plusDays(1).minusMinutes(1);
+        if (taskRepository.findAllByTimestampBetween(START, end).isEmpty()) {
+            emit(minioEvents, fileCreation(SyntheticData.INPUTS.get(0), "CSE/D2CC/DAILY/daily-input.xml", START + "/" + START.plusDays(1)));
+            awaitDrained(LoadTestScenario.YEAR_LONG_FILES.getConsumerName());
+        }
+        return taskRepository.findAllByTimestampBetween(START, end).stream()
+            .sorted(Comparator.comparing(Task::getTimestamp))
+            .toList();
+    }
+
+    private void awaitDrained(final String consumerName) {
+        final long deadline = System.nanoTime() + drainTimeout.toNanos();
+        double lastReceived = -1;
+        long quietSince = System.nanoTime();
+        while (System.nanoTime() < deadline) {
+            final double received = meterRegistry.get("task.manager.consumer.messages.received").tag(CONSUMER_TAG, consumerName).counter().count();
+            final double lag = meterRegistry.get("task.manager.consumer.lag").tag(CONSUMER_TAG, consumerName).gauge().value();
+            if (received != lastReceived || lag > 0) {
+                lastReceived = received;
+                quietSince = System.nanoTime();
+            } else if (System.nanoTime() - quietSince >= quietPeriod.toNanos()) {
+                return;
+            }
+            LockSupport.parkNanos(POLL_INTERVAL.toNanos());
+        }
+        throw new IllegalStateException(String.format("Consumer %s did not handle all messages within %s", consumerName, drainTimeout));
+    }
+
+    private NotificationRecords fileCreation(final String fileType, final String objectName, final String validityInterval) {
+        final ObjectNode records = OBJECT_MAPPER.createObjectNode();
+        final ObjectNode event = records.putArray("Records").addObject();
+        event.put("eventName", "s3:ObjectCreated:Put");
+        final ObjectNode s3 = event.putObject("s3");
+        s3.putObject("bucket").put("name", environment.getRequiredProperty("minio-adapter.bucket"));
+        final ObjectNode object = s3.putObject("object");
+        object.put("key", objectName);
+        object.putObject("userMetadata")
+            .put(MinioHandler.FILE_GROUP_METADATA_KEY, INPUT_GROUP)
+            .put(MinioHandler.FILE_TARGET_PROCESS_METADATA_KEY, processTag)
+            .put(MinioHandler.FILE_TYPE_METADATA_KEY, fileType)
+            .put(MinioHandler.DOCUMENT_ID_METADATA_KEY, objectName)
+            .put(MinioHandler.FILE_VALIDITY_INTERVAL_METADATA_KEY, validityInterval);
+        try {
+            return OBJECT_MAPPER.treeToValue(records, NotificationRecords.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to build MinIO notification for " + objectName, e);
+        }
+    }
+
+    private static byte[] logEvent(final UUID taskId, final String level, final String message) {
+        try {
+            return OBJECT_MAPPER.writeValueAsBytes(Map.of(
+                "gridcapa-task-id", taskId.toString(),
+                "timestamp", OffsetDateTime.now().toString(),
+                "level", level,
+                "message", message,
+                "serviceName", "load-test"));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to build log event for task " + taskId, e);
+        }
+    }
+
+    private static <T> void emit(final Sinks.Many<T> sink, final T message) {
+        sink.emitNext(message, Sinks.EmitFailureHandler.FAIL_FAST);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void bind(final ConfigurableApplicationContext context, final String consumerName, final Sinks.Many<T> sink) {
+        context.getBean(consumerName, Consumer.class).accept(sink.asFlux());
+    }
+
+    private static double getPercentileMs(final HistogramSnapshot snapshot, final double percentile) {
+        return Arrays.stream(snapshot.percentileValues())
+            .filter(valueAtPercentile -> valueAtPercentile.percentile() == percentile)
+            .mapToDouble(valueAtPercentile -> valueAtPercentile.value(TimeUnit.MILLISECONDS))
+            .findFirst()
+            .orElse(Double.NaN);
+    }
+
+    private static long getGcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    private static long getGcTimeMs() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.benchmarks.loadtest;
+
+import com.farao_community.farao.gridcapa.task_manager.app.TaskManagerApplication;
+import com.farao_community.farao.gridcapa.task_manager.benchmarks.SyntheticData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cloud.stream.binder.test.TestChannelBinderConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Boots the whole task manager against a local PostgreSQL database and replays production-like
+ * event mixes through it. RabbitMQ is replaced by the in-process test binder, MinIO by a stub HTTP
+ * server, so that only the database is needed to run it.
+ * <p>
+ * Every setting can be overridden with a system property or a command line argument, for instance
+ * {@code --loadtest.scenarios=LOG_STORM --loadtest.log-storm.batches=2000}.
+ */
+public final class LoadTestHarness {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadTestHarness.class);
+
+    private LoadTestHarness() {
+        throw new AssertionError("Utility class should not be constructed");
+    }
+
+    public static void main(String[] args) throws IOException {
+        try (StubMinioServer minioServer = StubMinioServer.start()) {
+            // System properties take precedence over the application.yml of the task manager
+            getDefaultProperties(minioServer).forEach((key, value) -> {
+                if (System.getProperty(key) == null) {
+                    System.setProperty(key, value);
+                }
+            });
+            final ConfigurableApplicationContext context = new SpringApplicationBuilder(TestChannelBinderConfiguration.getCompleteConfiguration(TaskManagerApplication.class))
+                .run(args);
+            try {
+                final LoadTestDriver driver = new LoadTestDriver(context);
+                final List<ScenarioReport> reports = driver.getScenarios().stream().map(driver::run).toList();
+                LOGGER.info("Load test results ({} requests served by MinIO stub){}{}", minioServer.getRequestsCount(), System.lineSeparator(), ScenarioReport.format(reports));
+                final RestConcurrencyBenchmark restBenchmark = new RestConcurrencyBenchmark(context, driver.getBusinessDayTimestamps());
+                final List<RestConcurrencyReport> restReports = restBenchmark.getConcurrencyLevels().stream().map(restBenchmark::run).toList();
+                if (!restReports.isEmpty()) {
+                    LOGGER.info("REST concurrency results (virtual threads {}){}{}", context.getEnvironment().getProperty("spring.threads.virtual.enabled"),
+                        System.lineSeparator(), RestConcurrencyReport.format(restReports));
+                }
+            } finally {
+                SpringApplication.exit(context);
+            }
+        }
+    }
+
+    private static Map<String, String> getDefaultProperties(final StubMinioServer minioServer) {
+        final Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("loadtest.scenarios", "YEAR_LONG_FILES,LOG_STORM,STATUS_FLAPPING");
+        properties.put("loadtest.year-long-files.count", "12");
+        properties.put("loadtest.log-storm.batches", "500");
+        properties.put("loadtest.log-storm.batch-size", "100");
+        properties.put("loadtest.status-flapping.updates", "2000");
+        properties.put("loadtest.drain-timeout-s", "1800");
+        properties.put("loadtest.rest.concurrency-levels", "1,16,64,256,1024");
+        properties.put("loadtest.rest.requests-per-client", "50");
+        properties.put("spring.datasource.url", "jdbc:postgresql://localhost:5432/gridcapa_load_test");
+        properties.put("spring.datasource.username", "gridcapa");
+        properties.put("spring.datasource.password", "gridcapa");
+        // Every run starts from an empty schema
+        properties.put("spring.liquibase.drop-first", "true");
+        properties.put("spring.jpa.properties.hibernate.generate_statistics", "true");
+        // Consumers are fed by the harness, the binder only receives the notifications sent by the task manager
+        properties.put("spring.cloud.function.definition", "");
+        properties.put("spring.cloud.stream.function.autodetect", "false");
+        properties.put("spring.cloud.stream.default-binder", TestChannelBinderConfiguration.NAME);
+        properties.put("management.health.rabbit.enabled", "false");
+        properties.put("management.metrics.distribution.percentiles.task.manager.consumer.handling", "0.5,0.99");
+        properties.put("management.metrics.distribution.expiry.task.manager.consumer.handling", "24h");
+        properties.put("server.port", "0");
+        properties.put("task-server.process.tag", "CSE_D2CC");
+        properties.put("task-server.process.inputs", String.join(",", SyntheticData.INPUTS));
+        properties.put("task-server.process.outputs", String.join(",", SyntheticData.OUTPUTS));
+        properties.put("task-server.process.manual-upload-base-path", "cse/d2cc");
+        properties.put("task-server.whitelist", minioServer.getUrl());
+        properties.put("minio-adapter.bucket", "gridcapa");
+        properties.put("minio-adapter.base-path", "");
+        properties.put("minio-adapter.access-key", "gridcapa");
+        properties.put("minio-adapter.secret-key", "gridcapa");
+        properties.put("minio-adapter.url", minioServer.getUrl());
+        properties.put("stomp.allowed-origin", "http://localhost");
+        return properties;
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.benchmarks.loadtest;
+
+/**
+ * Event mixes replayed by the load test harness, with the consumer that handles them.
+ */
+public enum LoadTestScenario {
+    /**
+     * Input files valid for a whole year, each one creating or updating one task per hour of the year.
+     */
+    YEAR_LONG_FILES("minio-event"),
+    /**
+     * Batches of log events spread over the tasks of a business day.
+     */
+    LOG_STORM("task-event-update"),
+    /**
+     * Status updates switching the tasks of a business day back and forth between running and over.
+     */
+    STATUS_FLAPPING("task-status-update");
+
+    private final String consumerName;
+
+    LoadTestScenario(final String consumerName) {
+        this.consumerName = consumerName;
+    }
+
+    public String getConsumerName() {
+        return consumerName;
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.benchmarks.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures how the REST API scales with the number of concurrent clients. Every client requests the tasks
+ * of the business day one after the other, alternating single tasks and the whole business date, so that
+ * each request reads the database. Running it with {@code --spring.threads.virtual.enabled} set to true and
+ * then to false compares virtual threads with the platform thread pool of Tomcat.
+ */
+final class RestConcurrencyBenchmark {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RestConcurrencyBenchmark.class);
+
+    private final Environment environment;
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final List<OffsetDateTime> timestamps;
+    private final LocalDate businessDate;
+
+    RestConcurrencyBenchmark(final ConfigurableApplicationContext context, final List<OffsetDateTime> timestamps) {
+        this.environment = context.getEnvironment();
+        this.baseUrl = "http://localhost:" + environment.getRequiredProperty("local.server.port");
+        this.timestamps = timestamps;
+        this.businessDate = timestamps.get(0).atZoneSameInstant(ZoneId.of(environment.getRequiredProperty("task-server.process.timezone"))).toLocalDate();
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    }
+
+    List<Integer> getConcurrencyLevels() {
+        return Arrays.asList(environment.getRequiredProperty("loadtest.rest.concurrency-levels", Integer[].class));
+    }
+
+    RestConcurrencyReport run(final int clients) {
+        final int requestsPerClient = environment.getRequiredProperty("loadtest.rest.requests-per-client", Integer.class);
+        LOGGER.info("Requesting tasks with {} concurrent clients", clients);
+        final long[] latencies = new long[clients * requestsPerClient];
+        final AtomicInteger errors = new AtomicInteger();
+        final long start = System.nanoTime();
+        // Clients run on virtual threads, so that the client side is never the limiting factor
+        try (ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int client = 0; client < clients; client++) {
+                final int clientIndex = client;
+                clientExecutor.execute(() -> {
+                    for (int i = 0; i < requestsPerClient; i++) {
+                        final int requestIndex = clientIndex * requestsPerClient + i;
+                        final long requestStart = System.nanoTime();
+                        if (!get(getPath(requestIndex))) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[requestIndex] = System.nanoTime() - requestStart;
+                    }
+                });
+            }
+        }
+        final long durationNanos = System.nanoTime() - start;
+        Arrays.sort(latencies);
+        return new RestConcurrencyReport(clients,
+            latencies.length,
+            TimeUnit.NANOSECONDS.toMillis(durationNanos),
+            latencies.length * 1e9 / durationNanos,
+            getPercentileMs(latencies, 0.5),
+            getPercentileMs(latencies, 0.99),
+            errors.get());
+    }
+
+    private String getPath(final int requestIndex) {
+        final OffsetDateTime timestamp = timestamps.get(requestIndex % timestamps.size());
+        if (requestIndex % 2 == 0) {
+            return "/tasks/" + URLEncoder.encode(timestamp.toString(), StandardCharsets.UTF_8);
+        }
+        return "/tasks/businessdate/" + businessDate;
+    }
+
+    private boolean get(final String path) {
+        final HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static double getPercentileMs(final long[] sortedLatencies, final double percentile) {
+        if (sortedLatencies.length == 0) {
+            return Double.NaN;
+        }
+        final int index = (int) Math.min(sortedLatencies.length - 1, Math.ceil(percentile * sortedLatencies.length) - 1);
+        return sortedLatencies[Math.max(0, index)] / 1e6;
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.benchmarks.loadtest;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Measurements of the REST API for one number of concurrent clients. Latencies are measured on the
+ * client side, requests not answered with a 200 status are counted as errors.
+ */
+record RestConcurrencyReport(int clients,
+                             int requests,
+                             long durationMs,
+                             double requestsPerSecond,
+                             double p50LatencyMs,
+                             double p99LatencyMs,
+                             int errors) {
+
+    private static final String ROW_FORMAT = "%8s %10s %12s %14s %12s %12s %8s%n";
+
+    static String format(final List<RestConcurrencyReport> reports) {
+        final StringBuilder table = new StringBuilder(String.format(Locale.ROOT, ROW_FORMAT,
+            "clients", "requests", "duration ms", "requests/s", "p50 ms", "p99 ms", "errors"));
+        reports.forEach(report -> table.append(String.format(Locale.ROOT, ROW_FORMAT,
+            report.clients(),
+            report.requests(),
+            report.durationMs(),
+            String.format(Locale.ROOT, "%.1f", report.requestsPerSecond()),
+            String.format(Locale.ROOT, "%.2f", report.p50LatencyMs()),
+            String.format(Locale.ROOT, "%.2f", report.p99LatencyMs()),
+            report.errors())));
+        return table.toString();
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.benchmarks.loadtest;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Measurements of one scenario replay. Latencies are the handling times of the messages taken from
+ * the consumer pipeline, statements and allocated bytes are divided by the number of replayed events.
+ */
+record ScenarioReport(LoadTestScenario scenario,
+                      int events,
+                      long durationMs,
+                      double p50LatencyMs,
+                      double p99LatencyMs,
+                      double statementsPerEvent,
+                      long allocatedBytesPerEvent,
+                      long gcCount,
+                      long gcTimeMs) {
+
+    private static final String ROW_FORMAT = "%-16s %10s %12s %12s %12s %16s %18s %10s %12s%n";
+
+    static String format(final List<ScenarioReport> reports) {
+        final StringBuilder table = new StringBuilder(String.format(Locale.ROOT, ROW_FORMAT,
+            "scenario", "events", "duration ms", "p50 ms", "p99 ms", "statements/event", "alloc bytes/event", "gc count", "gc time ms"));
+        reports.forEach(report -> table.append(String.format(Locale.ROOT, ROW_FORMAT,
+            report.scenario(),
+            report.events(),
+            report.durationMs(),
+            String.format(Locale.ROOT, "%.2f", report.p50LatencyMs()),
+            String.format(Locale.ROOT, "%.2f", report.p99LatencyMs()),
+            String.format(Locale.ROOT, "%.2f", report.statementsPerEvent()),
+            report.allocatedBytesPerEvent(),
+            report.gcCount(),
+            report.gcTimeMs())));
+        return table.toString();
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa.task_manager.benchmarks.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Minimal S3 endpoint answering the few calls the task manager makes while handling messages:
+ * bucket location lookups done before generating pre-signed URLs, and empty successful answers
+ * for everything else.
+ */
+final class StubMinioServer implements AutoCloseable {
+    private static final byte[] BUCKET_LOCATION = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+        + "<LocationConstraint xmlns=\"http://s3.amazonaws.com/doc/2006-03-01/\">us-east-1</LocationConstraint>")
+        .getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+    private final AtomicLong requestsCount = new AtomicLong();
+
+    private StubMinioServer(final HttpServer server) {
+        this.server = server;
+    }
+
+    static StubMinioServer start() throws IOException {
+        final HttpServer httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        final StubMinioServer stubMinioServer = new StubMinioServer(httpServer);
+        httpServer.createContext("/", stubMinioServer::handle);
+        httpServer.start();
+        return stubMinioServer;
+    }
+
+    String getUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    long getRequestsCount() {
+        return requestsCount.get();
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        requestsCount.incrementAndGet();
+        final String query = exchange.getRequestURI().getQuery();
+        final byte[] body = query != null && query.contains("location") ? BUCKET_LOCATION : new byte[0];
+        exchange.getResponseHeaders().add("Content-Type", "application/xml");
+        exchange.sendResponseHeaders(200, body.length == 0 ? -1 : body.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(body);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}